@@ -0,0 +1,119 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.service.MigrationServiceImpl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *     Embedded database seeded for the DAO benchmarks with a lot of
+ * <code>spots</code> parking spots, the lower half of them taken, and
+ * <code>tickets</code> closed tickets of the past. Every plate
+ * <code>H0</code>, <code>H1</code>, ... has ten tickets, the most recent
+ * one being for plate <code>H0</code>.
+ * <p>
+ *     Each instance is a new in-memory database, dropped by
+ * <code>close</code>.
+ */
+class BenchmarkDataBase implements AutoCloseable {
+
+    static final int TICKETS_PER_PLATE = 10;
+
+    private static final AtomicInteger databaseCount = new AtomicInteger();
+
+    private static final String SEED_PARKING = "insert into parking(PARKING_NUMBER, AVAILABLE, TYPE)" +
+            " select X, X > ? / 2, case when mod(X, 3) = 0 then 'BIKE' else 'CAR' end from system_range(1, ?)";
+    private static final String SEED_TICKET = "insert into ticket(PARKING_NUMBER, VEHICLE_REG_NUMBER, PRICE," +
+            " IN_TIME, OUT_TIME) select mod(X, ?) + 1, concat('H', mod(X, ?)), 1.5," +
+            " dateadd('MINUTE', -X, now()), dateadd('MINUTE', 30 - X, now()) from system_range(1, ?)";
+
+    private final EmbeddedDataBaseConfigImpl embedded;
+    private final DataBaseConfig dataBaseConfig;
+    private final int plates;
+
+    /**
+     * Creates and seeds a new embedded database.
+     *
+     * @param spots  count of parking spots
+     * @param tickets  count of closed tickets
+     * @param indexed  whether the schema <code>Migration</code> adding the
+     *                 indexes are applied
+     * @param connectionMode  how the DAO get their connections
+     */
+    BenchmarkDataBase(int spots, int tickets, boolean indexed, ConnectionMode connectionMode)
+            throws SQLException, ClassNotFoundException {
+
+        this.embedded = new EmbeddedDataBaseConfigImpl("benchmark" + databaseCount.incrementAndGet(), "prod");
+        this.plates = Math.max(1, tickets / TICKETS_PER_PLATE);
+
+        try (Connection con = embedded.getConnection()) {
+
+            try (Statement statement = con.createStatement()) {
+                statement.execute("delete from ticket");
+                statement.execute("delete from parking");
+            }
+            try (PreparedStatement ps = con.prepareStatement(SEED_PARKING)) {
+                ps.setInt(1, spots);
+                ps.setInt(2, spots);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = con.prepareStatement(SEED_TICKET)) {
+                ps.setInt(1, spots);
+                ps.setInt(2, plates);
+                ps.setInt(3, tickets);
+                ps.executeUpdate();
+            }
+        }
+
+        if (indexed) {
+            new MigrationServiceImpl(embedded).migrate();
+        }
+
+        try (Connection con = embedded.getConnection(); Statement statement = con.createStatement()) {
+            statement.execute("analyze");
+        }
+
+        this.dataBaseConfig = connectionMode.open(embedded);
+    }
+
+    /**
+     * Returns the <code>DataBaseConfig</code> the DAO are given.
+     *
+     * @return instance of <code>DataBaseConfig</code>
+     */
+    DataBaseConfig getDataBaseConfig() {
+        return dataBaseConfig;
+    }
+
+    /**
+     * Returns the registration number of a plate with past tickets.
+     *
+     * @param i  any non negative number
+     * @return registration number, the same for <code>i</code> modulo the
+     * count of plates
+     */
+    String plate(int i) {
+        return "H" + (i % plates);
+    }
+
+    @Override
+    public void close() throws SQLException, ClassNotFoundException {
+
+        if (dataBaseConfig instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) dataBaseConfig).close();
+            } catch (Exception e) {
+                throw new SQLException("Unable to close " + dataBaseConfig, e);
+            }
+        }
+
+        try (Connection con = embedded.getConnection(); Statement statement = con.createStatement()) {
+            statement.execute("shutdown");
+        }
+    }
+}
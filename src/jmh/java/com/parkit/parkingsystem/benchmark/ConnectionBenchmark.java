@@ -0,0 +1,58 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.constants.DBConstants;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *     Measures the part of a DAO call spent getting a connection, so it can
+ * be told apart from the cost of the query in the DAO benchmarks.
+ * <p>
+ *     <code>getConnection</code> takes a connection and gives it back.
+ * <code>prepareStatement</code> also prepares the statement of
+ * <code>getTicket</code>, which the pool keeps in its statement cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnectionBenchmark {
+
+    @Param({"PER_CALL", "POOLED"})
+    private ConnectionMode connectionMode;
+
+    private BenchmarkDataBase dataBase;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, ClassNotFoundException {
+        dataBase = new BenchmarkDataBase(10, 10, true, connectionMode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, ClassNotFoundException {
+        dataBase.close();
+    }
+
+    @Benchmark
+    public boolean getConnection() throws SQLException, ClassNotFoundException {
+
+        try (Connection con = dataBase.getDataBaseConfig().getConnection()) {
+            return con.getAutoCommit();
+        }
+    }
+
+    @Benchmark
+    public int prepareStatement() throws SQLException, ClassNotFoundException {
+
+        try (Connection con = dataBase.getDataBaseConfig().getConnection();
+             PreparedStatement ps = con.prepareStatement(DBConstants.GET_TICKET)) {
+            return ps.getParameterMetaData().getParameterCount();
+        }
+    }
+}
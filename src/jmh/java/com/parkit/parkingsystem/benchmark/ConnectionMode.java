@@ -0,0 +1,33 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.config.PooledDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+
+/**
+ * The way the DAO get their connections in the benchmarks.
+ */
+public enum ConnectionMode {
+
+    /**
+     * A new connection for every call, as with <code>DataBaseConfigImpl</code>.
+     */
+    PER_CALL {
+        @Override
+        DataBaseConfig open(DataBaseConfig embedded) {
+            return embedded;
+        }
+    },
+
+    /**
+     * Connections and prepared statements reused through
+     * <code>PooledDataBaseConfigImpl</code>.
+     */
+    POOLED {
+        @Override
+        DataBaseConfig open(DataBaseConfig embedded) {
+            return new PooledDataBaseConfigImpl.Builder(embedded).build();
+        }
+    };
+
+    abstract DataBaseConfig open(DataBaseConfig embedded);
+}
@@ -0,0 +1,30 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.constants.DiscountType;
+import com.parkit.parkingsystem.service.FareCalculatorServiceImpl;
+
+/**
+ * Discount chains built through <code>FareCalculatorServiceImpl.Builder</code>
+ * by the benchmarks.
+ */
+public enum DiscountChain {
+    NO_DISCOUNT {
+        @Override
+        FareCalculatorServiceImpl.Builder builder() {
+            return new FareCalculatorServiceImpl.Builder(DiscountType.P_NO_DISCOUNT);
+        }
+    }, FREE_30_MIN {
+        @Override
+        FareCalculatorServiceImpl.Builder builder() {
+            return new FareCalculatorServiceImpl.Builder(DiscountType.P_FREE_30_MIN);
+        }
+    }, FREE_30_MIN_RECURRING_USERS {
+        @Override
+        FareCalculatorServiceImpl.Builder builder() {
+            return new FareCalculatorServiceImpl.Builder(DiscountType.P_FREE_30_MIN)
+                    .withDiscountType(DiscountType.S_RECURRING_USERS_5PERCENT);
+        }
+    };
+
+    abstract FareCalculatorServiceImpl.Builder builder();
+}
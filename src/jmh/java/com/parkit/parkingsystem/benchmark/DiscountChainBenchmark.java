@@ -0,0 +1,29 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.service.FareCalculatorServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *     Measures building a <code>FareCalculatorServiceImpl</code> through the
+ * Builder, which compiles the discount chain into a
+ * <code>FarePipeline</code>.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DiscountChainBenchmark {
+
+    @Param({"NO_DISCOUNT", "FREE_30_MIN", "FREE_30_MIN_RECURRING_USERS"})
+    private DiscountChain chain;
+
+    @Benchmark
+    public FareCalculatorServiceImpl buildChain() {
+
+        return chain.builder().build();
+    }
+}
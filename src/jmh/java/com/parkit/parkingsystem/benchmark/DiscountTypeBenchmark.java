@@ -0,0 +1,44 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.constants.DiscountType;
+import com.parkit.parkingsystem.constants.ParkingType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>calculatePrice</code> of each <code>DiscountType</code> on
+ * its own, for a stay longer than the free period.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DiscountTypeBenchmark {
+
+    @Param({"P_NO_DISCOUNT", "P_FREE_30_MIN", "S_RECURRING_USERS_5PERCENT"})
+    private DiscountType discountType;
+
+    @Param({"false", "true"})
+    private boolean recurringUser;
+
+    private double price;
+    private long durationMinutes;
+    private double vehicleRatePerHour;
+
+    @Setup
+    public void setUp() {
+
+        price = 1.5;
+        durationMinutes = 95;
+        vehicleRatePerHour = ParkingType.CAR.getFare();
+    }
+
+    @Benchmark
+    public double calculatePrice() {
+
+        return discountType.calculatePrice(price, durationMinutes, vehicleRatePerHour, recurringUser);
+    }
+}
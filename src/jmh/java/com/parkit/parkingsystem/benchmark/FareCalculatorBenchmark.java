@@ -0,0 +1,71 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import com.parkit.parkingsystem.service.FareCalculatorServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *     Measures <code>calculateFare</code> of the exit path for the discount
+ * chains the Builder can build.
+ * <p>
+ *     Stays are spread over a day so both sides of the free period are
+ * priced. The recurring users hold the plate of the ticket or not, and not
+ * growing, so every invocation prices the same kind of visit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FareCalculatorBenchmark {
+
+    private static final int STAYS = 1024;
+
+    @Param({"NO_DISCOUNT", "FREE_30_MIN", "FREE_30_MIN_RECURRING_USERS"})
+    private DiscountChain chain;
+
+    @Param({"CAR", "BIKE"})
+    private ParkingType parkingType;
+
+    @Param({"false", "true"})
+    private boolean recurringUser;
+
+    private FareCalculatorServiceImpl fareCalculatorService;
+    private RecurringUsers recurringUsers;
+    private Ticket[] tickets;
+    private int next;
+
+    @Setup
+    public void setUp() {
+
+        fareCalculatorService = chain.builder().build();
+        recurringUsers = new FixedRecurringUsers(recurringUser ? "ABCDEF" : "GHIJKL");
+
+        tickets = new Ticket[STAYS];
+
+        for (int i = 0; i < STAYS; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setParkingSpot(new ParkingSpot(1, parkingType, false));
+            ticket.setVehicleRegNumber("ABCDEF");
+            ticket.setInTime(1_600_000_000L);
+            ticket.setOutTime(1_600_000_000L + (i * 24L * 60 / STAYS) * 60 + 59);
+            tickets[i] = ticket;
+        }
+    }
+
+    @Benchmark
+    public double calculateFare() {
+
+        Ticket ticket = tickets[next++ & (STAYS - 1)];
+
+        fareCalculatorService.calculateFare(ticket, fareCalculatorService.getDiscounts(), recurringUsers);
+
+        return ticket.getPrice();
+    }
+}
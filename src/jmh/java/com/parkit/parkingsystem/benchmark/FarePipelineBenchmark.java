@@ -0,0 +1,74 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.constants.DiscountType;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import com.parkit.parkingsystem.service.FareCalculatorServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *     Compares the fare of one exit calculated through the
+ * <code>FarePipeline</code> compiled by the Builder with the same fare
+ * calculated by applying the <code>DiscountType</code> chain one after
+ * another, which <code>FareCalculatorServiceImpl</code> does for lists other
+ * than its own.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FarePipelineBenchmark {
+
+    @Param({"CAR", "BIKE"})
+    private ParkingType parkingType;
+
+    @Param({"false", "true"})
+    private boolean recurringUser;
+
+    private FareCalculatorServiceImpl fareCalculatorService;
+    private List<DiscountType> compiledDiscounts;
+    private List<DiscountType> loopedDiscounts;
+    private RecurringUsers recurringUsers;
+    private Ticket ticket;
+
+    @Setup
+    public void setUp() {
+
+        fareCalculatorService = new FareCalculatorServiceImpl.Builder(DiscountType.P_FREE_30_MIN)
+                .withDiscountType(DiscountType.S_RECURRING_USERS_5PERCENT)
+                .build();
+        compiledDiscounts = fareCalculatorService.getDiscounts();
+        loopedDiscounts = new ArrayList<>(compiledDiscounts);
+        recurringUsers = new FixedRecurringUsers(recurringUser ? "ABCDEF" : "GHIJKL");
+
+        ticket = new Ticket();
+        ticket.setParkingSpot(new ParkingSpot(1, parkingType, false));
+        ticket.setVehicleRegNumber("ABCDEF");
+        ticket.setInTime(1_600_000_000L);
+        ticket.setOutTime(1_600_000_000L + 95 * 60);
+    }
+
+    @Benchmark
+    public double compiledPipeline() {
+
+        fareCalculatorService.calculateFare(ticket, compiledDiscounts, recurringUsers);
+
+        return ticket.getPrice();
+    }
+
+    @Benchmark
+    public double discountLoop() {
+
+        fareCalculatorService.calculateFare(ticket, loopedDiscounts, recurringUsers);
+
+        return ticket.getPrice();
+    }
+}
@@ -0,0 +1,26 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
+
+/**
+ *     Recurring users not changing when a first time visitor is added, so
+ * every invocation of a benchmark prices the same kind of visit.
+ */
+class FixedRecurringUsers implements RecurringUsers {
+
+    private final String vehicleRegNumber;
+
+    FixedRecurringUsers(String vehicleRegNumber) {
+        this.vehicleRegNumber = vehicleRegNumber;
+    }
+
+    @Override
+    public boolean contains(String vehicleRegNumber) {
+        return this.vehicleRegNumber.equals(vehicleRegNumber);
+    }
+
+    @Override
+    public boolean add(String vehicleRegNumber) {
+        return false;
+    }
+}
@@ -0,0 +1,726 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.config.PooledDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.contracts.TransactionManager;
+import com.parkit.parkingsystem.constants.DiscountType;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.ParkingDAOFactory;
+import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
+import com.parkit.parkingsystem.dao.contracts.TicketDAO;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import com.parkit.parkingsystem.service.FareCalculatorServiceImpl;
+import com.parkit.parkingsystem.service.GateServerImpl;
+import com.parkit.parkingsystem.service.ParkingServiceImpl;
+import com.parkit.parkingsystem.util.contracts.InputReaderUtil;
+import com.parkit.parkingsystem.util.contracts.TimeUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ *     Drives the entry and exit flows of <code>ParkingServiceImpl</code> from
+ * concurrent simulated gates against an embedded database, and reports the
+ * throughput, the latency percentiles and the errors seen, including spots
+ * handed out twice and tickets not found on exit.
+ * <p>
+ *     Each gate is a thread with its own <code>ParkingServiceImpl</code>,
+ * whose <code>InputReaderUtil</code> and <code>TimeUtil</code> are the gate
+ * itself answering with the vehicle it is simulating. DAO, connection pool
+ * and <code>FareCalculatorServiceImpl</code> are shared by all gates, as
+ * they would be by gate controllers of one application, and the DAO stack
+ * is the one of the app, built by <code>ParkingDAOFactory</code>, with
+ * write-behind updates, the availability index, the open ticket and
+ * recurring user registries and their unit of work.
+ * <p>
+ *     Options, passed as <code>--name value</code>:
+ * <ul>
+ *     <li><code>gates</code> count of concurrent gates, 4</li>
+ *     <li><code>seconds</code> duration of the run, 10</li>
+ *     <li><code>spots</code> size of the lot, a third of it for bikes, 300</li>
+ *     <li><code>rate</code> arrivals per second and gate, Poisson
+ *     distributed, 0 to run each gate as fast as it can</li>
+ *     <li><code>exit-share</code> share of operations being exits while
+ *     vehicles are parked, 0.5</li>
+ *     <li><code>stay-minutes</code> mean of the exponentially distributed
+ *     stay priced on exit, 90</li>
+ *     <li><code>bike-share</code> share of arrivals being bikes, 0.3</li>
+ *     <li><code>plate-reuse</code> share of arrivals being vehicles which
+ *     left before, 0.3</li>
+ *     <li><code>flow</code> <code>console</code> to go through
+ *     <code>processIncomingVehicle</code> and
+ *     <code>processExitingVehicle</code>, <code>api</code> to call
+ *     <code>enter</code> and <code>exit</code> directly, <code>http</code>
+ *     to send them to a <code>GateServerImpl</code> started in the same
+ *     process</li>
+ *     <li><code>max-in-flight</code> requests the server of the
+ *     <code>http</code> flow serves at once, answering the others with 503,
+ *     10000</li>
+ *     <li><code>lock-free-spots</code> <code>true</code> to take spots from
+ *     the lock-free allocators instead of the availability index, as
+ *     <code>-Dparkit.spots.lockFree</code> does for the app, false</li>
+ * </ul>
+ * <p>
+ *     The <code>http</code> flow shares one <code>ParkingServiceImpl</code>
+ * behind the server, so stays are priced by the clock of the run rather
+ * than by the simulated stay, and the pool is capped at 32 connections
+ * whatever the count of gates. It shows how many gates one server holds:
+ * run it with thousands of gates, on Java 21 for virtual threads, and with
+ * <code>-Dsun.net.httpserver.nodelay=true</code> as the app serves, and the
+ * report adds the counters of the server and the heap used.
+ * <p>
+ *     With a rate, latency is measured from the time the arrival was due,
+ * so a gate falling behind reports the wait of the vehicles queued at it.
+ * The console output of the service is discarded during the run.
+ */
+public class GateLoadGenerator {
+
+    private static final PrintStream DISCARD = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    });
+
+    private final Options options;
+    private final RecordingTicketDAO ticketDAO;
+    private final RecordingParkingSpotDAO parkingSpotDAO;
+    private final ParkingDAOFactory daoFactory;
+    private final TransactionManager transactionManager;
+    private final FareCalculatorServiceImpl fareCalculatorService;
+
+    private final AtomicLong clock = new AtomicLong(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC));
+    private final AtomicLong plateCount = new AtomicLong();
+    private final Queue<Parked> parked = new ConcurrentLinkedQueue<>();
+    private final Queue<String> departed = new ConcurrentLinkedQueue<>();
+    private final LongAdder lotFull = new LongAdder();
+    private final LongAdder failedEntries = new LongAdder();
+    private final LongAdder failedExits = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    private GateServerImpl gateServer;
+    private HttpClient httpClient;
+    private String serverAddress;
+
+    private volatile long deadline;
+
+    /**
+     *     Stores <code>Options</code> and the <code>DataBaseConfig</code> of
+     * the seeded database passed as parameters and creates instance of
+     * <code>GateLoadGenerator</code>.
+     *
+     * @param options  options of the run
+     * @param pooled  pool of connections to the seeded database
+     */
+    GateLoadGenerator(Options options, PooledDataBaseConfigImpl pooled) {
+        this.options = options;
+        this.daoFactory = new ParkingDAOFactory(pooled, options.lockFreeSpots);
+        this.transactionManager = daoFactory.getTransactionManager();
+        this.ticketDAO = new RecordingTicketDAO(daoFactory.getTicketDAO());
+        this.parkingSpotDAO = new RecordingParkingSpotDAO(daoFactory.getParkingSpotDAO());
+        this.fareCalculatorService = new FareCalculatorServiceImpl.Builder(DiscountType.P_FREE_30_MIN)
+                .withDiscountType(DiscountType.S_RECURRING_USERS_5PERCENT)
+                .withRecurringUsers(daoFactory.getRecurringUserRegistry())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options options = Options.parse(args);
+
+        try (BenchmarkDataBase dataBase = new BenchmarkDataBase(options.spots, 0, true, ConnectionMode.PER_CALL);
+             PooledDataBaseConfigImpl pooled = new PooledDataBaseConfigImpl.Builder(dataBase.getDataBaseConfig())
+                     .withMaxSize((options.flow.equals("http") ? Math.min(options.gates, 32) : options.gates) + 2)
+                     .build()) {
+
+            Report report = new GateLoadGenerator(options, pooled).run();
+            System.out.println(report);
+        }
+    }
+
+    /**
+     * Runs all gates for the duration of the options and waits for them.
+     *
+     * @return the results of the run
+     */
+    Report run() throws InterruptedException {
+
+        Gate[] gates = new Gate[options.gates];
+        Thread[] threads = new Thread[options.gates];
+        PrintStream console = System.out;
+
+        daoFactory.getRecurringUserRegistry().reload();
+        System.setOut(DISCARD);
+
+        if (options.flow.equals("http")) {
+            startServer();
+        }
+
+        long start = System.nanoTime();
+        deadline = start + TimeUnit.SECONDS.toNanos(options.seconds);
+
+        try {
+            for (int i = 0; i < gates.length; i++) {
+                gates[i] = new Gate(start);
+                threads[i] = new Thread(gates[i], "gate-" + i);
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            System.setOut(console);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+
+        if (gateServer != null) {
+            gateServer.stop(0);
+        }
+        daoFactory.getWriteBehindQueue().close();
+
+        return new Report(options, elapsedNanos, gates, this);
+    }
+
+    private void startServer() {
+
+        ParkingServiceImpl parkingService = new ParkingServiceImpl(null, parkingSpotDAO, ticketDAO, new TimeUtil() {
+            @Override
+            public LocalDateTime getTime() {
+                return LocalDateTime.ofEpochSecond(clock.get(), 0, ZoneOffset.UTC);
+            }
+
+            @Override
+            public long getTimeInSeconds() {
+                return clock.incrementAndGet();
+            }
+        }, fareCalculatorService, transactionManager);
+
+        gateServer = new GateServerImpl.Builder(parkingService)
+                .withHost("127.0.0.1")
+                .withPort(0)
+                .withBacklog(options.gates)
+                .withMaxInFlightRequests(options.maxInFlight)
+                .build();
+        gateServer.start();
+
+        serverAddress = "http://127.0.0.1:" + gateServer.getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    /**
+     * Options of a run, see <code>GateLoadGenerator</code>.
+     */
+    static class Options {
+
+        int gates = 4;
+        int seconds = 10;
+        int spots = 300;
+        double rate = 0;
+        double exitShare = 0.5;
+        double stayMinutes = 90;
+        double bikeShare = 0.3;
+        double plateReuse = 0.3;
+        String flow = "console";
+        int maxInFlight = 10_000;
+        boolean lockFreeSpots;
+
+        static Options parse(String[] args) {
+
+            Map<String, String> values = new HashMap<>();
+
+            for (int i = 0; i + 1 < args.length; i += 2) {
+
+                if (!args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("Expected --name value, got " + args[i]);
+                }
+                values.put(args[i].substring(2), args[i + 1]);
+            }
+
+            Options options = new Options();
+            options.gates = Integer.parseInt(values.getOrDefault("gates", String.valueOf(options.gates)));
+            options.seconds = Integer.parseInt(values.getOrDefault("seconds", String.valueOf(options.seconds)));
+            options.spots = Integer.parseInt(values.getOrDefault("spots", String.valueOf(options.spots)));
+            options.rate = Double.parseDouble(values.getOrDefault("rate", String.valueOf(options.rate)));
+            options.exitShare = Double.parseDouble(values.getOrDefault("exit-share",
+                    String.valueOf(options.exitShare)));
+            options.stayMinutes = Double.parseDouble(values.getOrDefault("stay-minutes",
+                    String.valueOf(options.stayMinutes)));
+            options.bikeShare = Double.parseDouble(values.getOrDefault("bike-share",
+                    String.valueOf(options.bikeShare)));
+            options.plateReuse = Double.parseDouble(values.getOrDefault("plate-reuse",
+                    String.valueOf(options.plateReuse)));
+            options.flow = values.getOrDefault("flow", options.flow);
+            options.maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight",
+                    String.valueOf(options.maxInFlight)));
+            options.lockFreeSpots = Boolean.parseBoolean(values.getOrDefault("lock-free-spots",
+                    String.valueOf(options.lockFreeSpots)));
+            return options;
+        }
+
+        @Override
+        public String toString() {
+            return "gates=" + gates + ", seconds=" + seconds + ", spots=" + spots + ", rate=" + rate +
+                    ", exit-share=" + exitShare + ", stay-minutes=" + stayMinutes + ", bike-share=" + bikeShare +
+                    ", plate-reuse=" + plateReuse + ", flow=" + flow + ", lock-free-spots=" + lockFreeSpots +
+                    (flow.equals("http") ? ", max-in-flight=" + maxInFlight : "");
+        }
+    }
+
+    /**
+     * Vehicle parked by a gate.
+     */
+    private static class Parked {
+
+        private final String vehicleRegNumber;
+        private final long inTime;
+
+        Parked(String vehicleRegNumber, long inTime) {
+            this.vehicleRegNumber = vehicleRegNumber;
+            this.inTime = inTime;
+        }
+    }
+
+    /**
+     *     Simulated gate, answering the questions of its
+     * <code>ParkingServiceImpl</code> for the vehicle it is processing.
+     */
+    class Gate implements Runnable, InputReaderUtil, TimeUtil {
+
+        private final ParkingServiceImpl parkingService;
+        private final Latencies entries = new Latencies();
+        private final Latencies exits = new Latencies();
+        private final long start;
+
+        private int selection;
+        private String vehicleRegNumber;
+        private long time;
+
+        Gate(long start) {
+            this.start = start;
+            this.parkingService = new ParkingServiceImpl(this, parkingSpotDAO, ticketDAO, this,
+                    fareCalculatorService, transactionManager);
+        }
+
+        @Override
+        public void run() {
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long due = start;
+
+            while (true) {
+
+                if (options.rate > 0) {
+                    due += (long) (-Math.log(1 - random.nextDouble()) / options.rate * 1_000_000_000L);
+                    for (long wait = due - System.nanoTime(); wait > 0 && due < deadline;
+                         wait = due - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                    }
+                } else {
+                    due = System.nanoTime();
+                }
+
+                if (due >= deadline) {
+                    return;
+                }
+
+                Parked leaving = random.nextDouble() < options.exitShare ? parked.poll() : null;
+
+                if (leaving != null) {
+                    exit(leaving, random, due);
+                } else {
+                    enter(random, due);
+                }
+            }
+        }
+
+        private void enter(ThreadLocalRandom random, long due) {
+
+            ParkingType parkingType = random.nextDouble() < options.bikeShare ? ParkingType.BIKE : ParkingType.CAR;
+            String plate = random.nextDouble() < options.plateReuse ? departed.poll() : null;
+
+            selection = parkingType.getType();
+            vehicleRegNumber = plate != null ? plate : "P" + plateCount.incrementAndGet();
+            time = clock.incrementAndGet();
+
+            int status = 0;
+
+            if (options.flow.equals("http")) {
+                status = send("POST", "/entry?type=" + parkingType + "&plate=" + vehicleRegNumber);
+            } else if (options.flow.equals("api")) {
+                runCatching(() -> parkingService.enter(parkingType, vehicleRegNumber));
+            } else {
+                parkingService.processIncomingVehicle();
+            }
+            entries.record(System.nanoTime() - due);
+
+            boolean wasFull = options.flow.equals("http") ? status == 409 : parkingSpotDAO.wasFull();
+
+            if (status == 503) {
+                departed.add(vehicleRegNumber);
+                return;
+            }
+
+            if (ticketDAO.isActive(vehicleRegNumber)) {
+                parked.add(new Parked(vehicleRegNumber, time));
+            } else if (wasFull) {
+                lotFull.increment();
+            } else {
+                failedEntries.increment();
+            }
+        }
+
+        private void exit(Parked leaving, ThreadLocalRandom random, long due) {
+
+            vehicleRegNumber = leaving.vehicleRegNumber;
+            time = leaving.inTime + (long) (-Math.log(1 - random.nextDouble()) * options.stayMinutes * 60);
+
+            if (options.flow.equals("http")) {
+                if (send("POST", "/exit?plate=" + vehicleRegNumber) == 503) {
+                    parked.add(leaving);
+                    return;
+                }
+            } else if (options.flow.equals("api")) {
+                runCatching(() -> parkingService.exit(vehicleRegNumber));
+            } else {
+                parkingService.processExitingVehicle();
+            }
+            exits.record(System.nanoTime() - due);
+
+            if (ticketDAO.isActive(vehicleRegNumber)) {
+                failedExits.increment();
+            } else {
+                departed.add(vehicleRegNumber);
+            }
+        }
+
+        private int send(String method, String path) {
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create(serverAddress + path))
+                    .method(method, HttpRequest.BodyPublishers.noBody())
+                    .build();
+
+            try {
+                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+
+                if (status == 503) {
+                    rejectedRequests.increment();
+                }
+                return status;
+
+            } catch (IOException e) {
+                return 0;
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+
+        private void runCatching(Runnable call) {
+
+            try {
+                call.run();
+            } catch (RuntimeException e) {
+                // counted by the recording DAO, or as a failed entry or exit
+            }
+        }
+
+        @Override
+        public int readSelection() {
+            return selection;
+        }
+
+        @Override
+        public String readVehicleRegistrationNumber() {
+            return vehicleRegNumber;
+        }
+
+        @Override
+        public LocalDateTime getTime() {
+            return LocalDateTime.ofEpochSecond(time, 0, ZoneOffset.UTC);
+        }
+
+        @Override
+        public long getTimeInSeconds() {
+            return time;
+        }
+    }
+
+    /**
+     *     <code>TicketDAO</code> keeping track of the open ticket of each
+     * vehicle and of the spot it holds, to find spots handed out twice and
+     * tickets the database does not return on exit.
+     */
+    static class RecordingTicketDAO implements TicketDAO {
+
+        private final TicketDAO ticketDAO;
+        private final Map<String, Integer> activeTickets = new ConcurrentHashMap<>();
+        private final Map<Integer, String> occupiedSpots = new ConcurrentHashMap<>();
+        private final LongAdder doubleAllocations = new LongAdder();
+        private final LongAdder missingTickets = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        RecordingTicketDAO(TicketDAO ticketDAO) {
+            this.ticketDAO = ticketDAO;
+        }
+
+        @Override
+        public boolean saveTicket(Ticket ticket) {
+
+            boolean saved = countErrors(() -> ticketDAO.saveTicket(ticket));
+
+            if (saved) {
+
+                String holder = occupiedSpots.putIfAbsent(ticket.getParkingSpot().getId(),
+                        ticket.getVehicleRegNumber());
+
+                if (holder != null) {
+                    doubleAllocations.increment();
+                }
+                activeTickets.put(ticket.getVehicleRegNumber(), ticket.getId());
+            }
+
+            return saved;
+        }
+
+        @Override
+        public Ticket getTicket(String vehicleRegNumber) {
+
+            Ticket ticket = countErrors(() -> ticketDAO.getTicket(vehicleRegNumber));
+            Integer expectedId = activeTickets.get(vehicleRegNumber);
+
+            if (expectedId != null && (ticket == Ticket.NOT_FOUND || ticket.getId() != expectedId)) {
+                missingTickets.increment();
+            }
+
+            return ticket;
+        }
+
+        @Override
+        public boolean updateTicket(Ticket ticket) {
+
+            boolean updated = countErrors(() -> ticketDAO.updateTicket(ticket));
+
+            if (updated && activeTickets.remove(ticket.getVehicleRegNumber(), ticket.getId())) {
+                occupiedSpots.remove(ticket.getParkingSpot().getId(), ticket.getVehicleRegNumber());
+            }
+
+            return updated;
+        }
+
+        boolean isActive(String vehicleRegNumber) {
+            return activeTickets.containsKey(vehicleRegNumber);
+        }
+
+        private <T> T countErrors(Supplier<T> call) {
+
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                errors.increment();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     *     <code>ParkingSpotDAO</code> telling a gate whether its last claim
+     * found the lot full, and counting errors.
+     */
+    static class RecordingParkingSpotDAO implements ParkingSpotDAO {
+
+        private final ParkingSpotDAO parkingSpotDAO;
+        private final ThreadLocal<Boolean> full = ThreadLocal.withInitial(() -> false);
+        private final LongAdder errors = new LongAdder();
+
+        RecordingParkingSpotDAO(ParkingSpotDAO parkingSpotDAO) {
+            this.parkingSpotDAO = parkingSpotDAO;
+        }
+
+        @Override
+        public int getNextAvailableSlot(ParkingType parkingType) {
+
+            int parkingNumber = countErrors(() -> parkingSpotDAO.getNextAvailableSlot(parkingType));
+            full.set(parkingNumber <= 0);
+            return parkingNumber;
+        }
+
+        @Override
+        public int claimNextAvailableSlot(ParkingType parkingType) {
+
+            int parkingNumber = countErrors(() -> parkingSpotDAO.claimNextAvailableSlot(parkingType));
+            full.set(parkingNumber <= 0);
+            return parkingNumber;
+        }
+
+        @Override
+        public boolean claimParking(ParkingSpot parkingSpot) {
+            return countErrors(() -> parkingSpotDAO.claimParking(parkingSpot));
+        }
+
+        @Override
+        public List<ParkingSpot> getParkingSpots() {
+            return countErrors(parkingSpotDAO::getParkingSpots);
+        }
+
+        @Override
+        public boolean updateParking(ParkingSpot parkingSpot) {
+            return countErrors(() -> parkingSpotDAO.updateParking(parkingSpot));
+        }
+
+        /**
+         * Tells whether the last claim of the calling gate found no spot,
+         * and resets it.
+         *
+         * @return <code>true</code> if the lot was full
+         */
+        boolean wasFull() {
+
+            boolean wasFull = full.get();
+            full.set(false);
+            return wasFull;
+        }
+
+        private <T> T countErrors(Supplier<T> call) {
+
+            try {
+                return call.get();
+            } catch (RuntimeException e) {
+                errors.increment();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Latencies in nanoseconds recorded by one gate.
+     */
+    static class Latencies {
+
+        private long[] values = new long[1 << 12];
+        private int count;
+
+        void record(long nanos) {
+
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+        }
+
+        static long[] merge(List<Latencies> latencies) {
+
+            int total = 0;
+            for (Latencies l : latencies) {
+                total += l.count;
+            }
+
+            long[] merged = new long[total];
+            int offset = 0;
+
+            for (Latencies l : latencies) {
+                System.arraycopy(l.values, 0, merged, offset, l.count);
+                offset += l.count;
+            }
+
+            Arrays.sort(merged);
+            return merged;
+        }
+    }
+
+    /**
+     * Results of a run.
+     */
+    static class Report {
+
+        private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+
+        private final String text;
+
+        Report(Options options, long elapsedNanos, Gate[] gates, GateLoadGenerator generator) {
+
+            List<Latencies> entries = new ArrayList<>();
+            List<Latencies> exits = new ArrayList<>();
+
+            for (Gate gate : gates) {
+                entries.add(gate.entries);
+                exits.add(gate.exits);
+            }
+
+            long[] entryLatencies = Latencies.merge(entries);
+            long[] exitLatencies = Latencies.merge(exits);
+            double seconds = elapsedNanos / 1e9;
+
+            StringBuilder sb = new StringBuilder();
+            sb.append("Gate load ").append(options).append('\n');
+            sb.append(String.format("throughput: %.1f ops/s (%d entries, %d exits in %.1f s)%n",
+                    (entryLatencies.length + exitLatencies.length) / seconds,
+                    entryLatencies.length, exitLatencies.length, seconds));
+            sb.append(percentiles("entry", entryLatencies));
+            sb.append(percentiles("exit", exitLatencies));
+            sb.append(String.format("lot full: %d, failed entries: %d, failed exits: %d, DAO errors: %d%n",
+                    generator.lotFull.sum(),
+                    generator.failedEntries.sum(), generator.failedExits.sum(),
+                    generator.ticketDAO.errors.sum() + generator.parkingSpotDAO.errors.sum()));
+            sb.append(String.format("double allocations: %d, missing tickets: %d",
+                    generator.ticketDAO.doubleAllocations.sum(), generator.ticketDAO.missingTickets.sum()));
+
+            if (generator.gateServer != null) {
+                Runtime runtime = Runtime.getRuntime();
+                sb.append(String.format("%nrejected with 503: %d, server %s%nheap used: %.1f MB of %.1f MB",
+                        generator.rejectedRequests.sum(), generator.gateServer.getMetrics(),
+                        (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0, runtime.maxMemory() / 1048576.0));
+            }
+
+            this.text = sb.toString();
+        }
+
+        private static String percentiles(String name, long[] sorted) {
+
+            StringBuilder sb = new StringBuilder(name).append(" latency us:");
+
+            for (double percentile : PERCENTILES) {
+
+                long value = sorted.length == 0 ? 0
+                        : sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100 * sorted.length) - 1)];
+                sb.append(String.format(" %s=%.1f", percentile == 100 ? "max" : "p" + trim(percentile), value / 1e3));
+            }
+
+            return sb.append('\n').toString();
+        }
+
+        private static String trim(double percentile) {
+            return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
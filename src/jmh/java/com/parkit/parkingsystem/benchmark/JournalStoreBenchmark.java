@@ -0,0 +1,85 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.JournalStore;
+import com.parkit.parkingsystem.dao.JournalTicketDAOImpl;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ *     Measures a vehicle entry and exit written to the tickets of a
+ * <code>JournalStore</code>, the journaled counterpart of
+ * <code>saveTicket</code> and <code>updateTicket</code> of
+ * <code>TicketDAOBenchmark</code>, forcing the journal to disk every record,
+ * every 64 records or only from the background thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JournalStoreBenchmark {
+
+    @Param({"1", "64", "0"})
+    private int syncEveryRecords;
+
+    private Path directory;
+    private JournalStore journalStore;
+    private JournalTicketDAOImpl ticketDAO;
+    private ParkingSpot parkingSpot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        directory = Files.createTempDirectory("journal-benchmark");
+        journalStore = new JournalStore.Builder(directory)
+                .withSyncEveryRecords(syncEveryRecords)
+                .build();
+        ticketDAO = new JournalTicketDAOImpl(journalStore);
+        parkingSpot = new ParkingSpot(1, ParkingType.CAR, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+
+        journalStore.close();
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next() {
+            return next++ & Integer.MAX_VALUE;
+        }
+    }
+
+    @Benchmark
+    public boolean saveAndUpdateTicket(Cursor cursor) {
+
+        Ticket ticket = new Ticket();
+        ticket.setParkingSpot(parkingSpot);
+        ticket.setVehicleRegNumber("N" + cursor.next() % 1_000_000);
+        ticket.setInTime(System.currentTimeMillis() / 1000);
+        ticketDAO.saveTicket(ticket);
+
+        ticket.setPrice(1.5);
+        ticket.setOutTime(System.currentTimeMillis() / 1000);
+
+        return ticketDAO.updateTicket(ticket);
+    }
+}
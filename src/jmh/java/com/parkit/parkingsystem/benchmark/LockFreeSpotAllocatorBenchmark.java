@@ -0,0 +1,57 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.dao.LockFreeSpotAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *     Measures a claim followed by the release of the same spot on a
+ * <code>LockFreeSpotAllocator</code> shared by one and by several gates, for
+ * a lot fitting in one word and for a lot spread over many words.
+ * <p>
+ *     The lot is created with every spot free and each gate gives back the
+ * spot it took, so the allocator never runs out.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LockFreeSpotAllocatorBenchmark {
+
+    @Param({"64", "4096"})
+    private int spots;
+
+    private LockFreeSpotAllocator allocator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        allocator = new LockFreeSpotAllocator(spots);
+
+        for (int i = 0; i < spots; i++) {
+            allocator.release(i);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int oneGate() {
+        return allocateAndRelease();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int fourGates() {
+        return allocateAndRelease();
+    }
+
+    private int allocateAndRelease() {
+
+        int spotNumber = allocator.allocate();
+        allocator.release(spotNumber);
+        return spotNumber;
+    }
+}
@@ -0,0 +1,66 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.ParkingSpotDAOImpl;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *     Measures the round trips of <code>ParkingSpotDAOImpl</code> against an
+ * embedded database as the lot grows, with and without the indexes of the
+ * schema <code>Migration</code>, and with a connection per call or pooled.
+ * The cost of the connection alone is measured by
+ * <code>ConnectionBenchmark</code>.
+ * <p>
+ *     The lower half of the lot is taken, so
+ * <code>getNextAvailableSlot</code> has to skip it, and
+ * <code>updateParking</code> frees a spot which is already free, leaving
+ * the lot unchanged.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParkingSpotDAOBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int spots;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    @Param({"PER_CALL", "POOLED"})
+    private ConnectionMode connectionMode;
+
+    private BenchmarkDataBase dataBase;
+    private ParkingSpotDAOImpl parkingSpotDAO;
+    private ParkingSpot freeSpot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, ClassNotFoundException {
+
+        dataBase = new BenchmarkDataBase(spots, 0, indexed, connectionMode);
+        parkingSpotDAO = new ParkingSpotDAOImpl(dataBase.getDataBaseConfig());
+        freeSpot = new ParkingSpot(spots, spots % 3 == 0 ? ParkingType.BIKE : ParkingType.CAR, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, ClassNotFoundException {
+        dataBase.close();
+    }
+
+    @Benchmark
+    public int getNextAvailableSlot() {
+        return parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR);
+    }
+
+    @Benchmark
+    public boolean updateParking() {
+        return parkingSpotDAO.updateParking(freeSpot);
+    }
+}
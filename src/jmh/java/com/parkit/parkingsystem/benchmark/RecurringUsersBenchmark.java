@@ -0,0 +1,106 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.dao.RecurringUserRegistry;
+import com.parkit.parkingsystem.service.MigrationServiceImpl;
+import com.parkit.parkingsystem.util.BloomFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *     Measures the recurring user lookup of the exit path as the count of
+ * known users grows, for a <code>HashSet</code>, the
+ * <code>BloomFilter</code> alone and <code>RecurringUserRegistry</code>.
+ * <p>
+ *     The registry is only measured for first time visitors, the case it
+ * answers in memory. Recurring users are confirmed from the database and are
+ * covered by the DAO benchmarks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecurringUsersBenchmark {
+
+    private static final int LOOKUPS = 4096;
+
+    @Param({"1000", "100000", "1000000"})
+    private int users;
+
+    private Set<String> hashSet;
+    private BloomFilter bloomFilter;
+    private RecurringUserRegistry recurringUserRegistry;
+    private String[] knownPlates;
+    private String[] unknownPlates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        hashSet = new HashSet<>();
+        bloomFilter = new BloomFilter(users, 0.01);
+        EmbeddedDataBaseConfigImpl dataBaseConfig = new EmbeddedDataBaseConfigImpl(
+                "recurringUsersBenchmark" + users, "prod");
+        new MigrationServiceImpl(dataBaseConfig).migrate();
+        recurringUserRegistry = new RecurringUserRegistry(dataBaseConfig, users, 0.01);
+        recurringUserRegistry.reload();
+
+        for (int i = 0; i < users; i++) {
+            String plate = plate(i);
+            hashSet.add(plate);
+            bloomFilter.put(plate);
+            recurringUserRegistry.add(plate);
+        }
+
+        knownPlates = new String[LOOKUPS];
+        unknownPlates = new String[LOOKUPS];
+
+        for (int i = 0; i < LOOKUPS; i++) {
+            knownPlates[i] = plate((int) ((long) i * users / LOOKUPS));
+            unknownPlates[i] = plate(users + i);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next() {
+            return next++ & (LOOKUPS - 1);
+        }
+    }
+
+    @Benchmark
+    public boolean hashSetKnown(Cursor cursor) {
+        return hashSet.contains(knownPlates[cursor.next()]);
+    }
+
+    @Benchmark
+    public boolean hashSetUnknown(Cursor cursor) {
+        return hashSet.contains(unknownPlates[cursor.next()]);
+    }
+
+    @Benchmark
+    public boolean bloomFilterKnown(Cursor cursor) {
+        return bloomFilter.mightContain(knownPlates[cursor.next()]);
+    }
+
+    @Benchmark
+    public boolean bloomFilterUnknown(Cursor cursor) {
+        return bloomFilter.mightContain(unknownPlates[cursor.next()]);
+    }
+
+    @Benchmark
+    public boolean registryUnknown(Cursor cursor) {
+        return recurringUserRegistry.contains(unknownPlates[cursor.next()]);
+    }
+
+    private static String plate(int i) {
+        return String.format("PL%07d", i);
+    }
+}
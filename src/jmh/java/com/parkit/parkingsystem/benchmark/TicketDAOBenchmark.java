@@ -0,0 +1,96 @@
+package com.parkit.parkingsystem.benchmark;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.TicketDAOImpl;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *     Measures the round trips of <code>TicketDAOImpl</code> against an
+ * embedded database as the ticket history grows, with and without the
+ * indexes of the schema <code>Migration</code>, and with a connection per
+ * call or pooled. The cost of the connection alone is measured by
+ * <code>ConnectionBenchmark</code>.
+ * <p>
+ *     <code>getTicket</code> looks up plates having ten past tickets each,
+ * <code>updateTicket</code> closes again tickets of the history and
+ * <code>saveTicket</code> adds tickets, so the history grows by the count of
+ * its invocations during a trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TicketDAOBenchmark {
+
+    private static final int SPOTS = 1_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int tickets;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    @Param({"PER_CALL", "POOLED"})
+    private ConnectionMode connectionMode;
+
+    private BenchmarkDataBase dataBase;
+    private TicketDAOImpl ticketDAO;
+    private ParkingSpot parkingSpot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, ClassNotFoundException {
+
+        dataBase = new BenchmarkDataBase(SPOTS, tickets, indexed, connectionMode);
+        ticketDAO = new TicketDAOImpl(dataBase.getDataBaseConfig());
+        parkingSpot = new ParkingSpot(1, ParkingType.CAR, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, ClassNotFoundException {
+        dataBase.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        int next() {
+            return next++ & Integer.MAX_VALUE;
+        }
+    }
+
+    @Benchmark
+    public Ticket getTicket(Cursor cursor) {
+        return ticketDAO.getTicket(dataBase.plate(cursor.next()));
+    }
+
+    @Benchmark
+    public boolean updateTicket(Cursor cursor) {
+
+        Ticket ticket = new Ticket();
+        ticket.setId(cursor.next() % tickets + 1);
+        ticket.setPrice(1.5);
+        ticket.setOutTime(System.currentTimeMillis() / 1000);
+
+        return ticketDAO.updateTicket(ticket);
+    }
+
+    @Benchmark
+    public boolean saveTicket(Cursor cursor) {
+
+        Ticket ticket = new Ticket();
+        ticket.setParkingSpot(parkingSpot);
+        ticket.setVehicleRegNumber("N" + cursor.next() % 1_000_000);
+        ticket.setInTime(System.currentTimeMillis() / 1000);
+
+        return ticketDAO.saveTicket(ticket);
+    }
+}
@@ -1,12 +1,18 @@
 package com.parkit.parkingsystem;
 
 import com.parkit.parkingsystem.constants.DiscountType;
+import com.parkit.parkingsystem.constants.ReportPeriod;
 import com.parkit.parkingsystem.service.FareCalculatorServiceImpl;
 import com.parkit.parkingsystem.service.contracts.InteractiveShell;
 import com.parkit.parkingsystem.service.InteractiveShellImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Locale;
+
 
 /**
  *  Encapsulates the application's main entry point.
@@ -21,9 +27,9 @@ public class App {
      * The application's entry point.
      * <p>
      * Instantiates <code>InteractiveShell</code>, which have
-     * <code>FareCalculatorServiceImpl</code> instance as parameter in its
-     * constructor. <code>FareCalculatorServiceImpl</code> itself relies
-     * on Builder to construct its instance, and the Builder takes as
+     * <code>FareCalculatorServiceImpl</code> Builder as parameter in its
+     * constructor. The shell builds the <code>FareCalculatorServiceImpl</code>
+     * with its database backed recurring users, and the Builder takes as
      * parameter <code>DiscountType</code> <code>enum</code>.
      *
      * It is mandatory that this parameter is primary <code>DiscountType</code>,
@@ -36,6 +42,18 @@ public class App {
      * supplementary and added through the Builder's method
      * <code>withDiscountType</code>
      *
+     * When system property <code>parkit.server.port</code> is set, the shell
+     * serves gate controllers over HTTP on that port instead of loading the
+     * console menu, with <code>sun.net.httpserver.nodelay</code> set to
+     * <code>true</code> unless passed otherwise, before the server classes
+     * load. When system property <code>parkit.import.file</code> is
+     * set, the shell imports that gate log and exits. When system property
+     * <code>parkit.report.file</code> is set, the shell writes the revenue
+     * report of the days from <code>parkit.report.from</code>, by default the
+     * first of the month, to <code>parkit.report.to</code> excluded, by
+     * default tomorrow, per <code>parkit.report.period</code>, by default
+     * <code>DAY</code>, and exits.
+     *
      * @param args an array of command-line arguments for the application
      */
     public static void main(String[] args){
@@ -43,9 +61,29 @@ public class App {
 
         InteractiveShell interactiveShell = new InteractiveShellImpl(new FareCalculatorServiceImpl
                 .Builder(DiscountType.P_NO_DISCOUNT)
-                .withDiscountType(DiscountType.S_RECURRING_USERS_5PERCENT)
-                .build());
+                .withDiscountType(DiscountType.S_RECURRING_USERS_5PERCENT));
+
+        String serverPort = System.getProperty("parkit.server.port");
+
+        String importFile = System.getProperty("parkit.import.file");
+
+        String reportFile = System.getProperty("parkit.report.file");
 
-        interactiveShell.loadInterface();
+        if (importFile != null) {
+            interactiveShell.importGateLog(Paths.get(importFile));
+        } else if (reportFile != null) {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            interactiveShell.writeReport(Paths.get(reportFile),
+                    LocalDate.parse(System.getProperty("parkit.report.from", today.withDayOfMonth(1).toString())),
+                    LocalDate.parse(System.getProperty("parkit.report.to", today.plusDays(1).toString())),
+                    ReportPeriod.valueOf(System.getProperty("parkit.report.period", "DAY").toUpperCase(Locale.ROOT)));
+        } else if (serverPort != null) {
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
+            interactiveShell.serve(Integer.parseInt(serverPort.trim()));
+        } else {
+            interactiveShell.loadInterface();
+        }
     }
 }
@@ -0,0 +1,160 @@
+package com.parkit.parkingsystem.config;
+
+/**
+ * The class <code>ConnectionPoolMetrics</code> is an immutable snapshot of the
+ * state of a <code>PooledDataBaseConfigImpl</code> taken at the moment
+ * <code>getMetrics</code> was called.
+ * <p>
+ *     Borrow wait time is the time a caller of <code>getConnection</code>
+ * spent waiting for a free slot in the pool plus the time to validate or
+ * create the physical connection handed back to it.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>ConnectionPoolMetrics</code>.
+ */
+public class ConnectionPoolMetrics {
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final long borrowCount;
+    private final long totalBorrowWaitNanos;
+    private final long maxBorrowWaitNanos;
+    private final long borrowTimeoutCount;
+    private final long createdCount;
+    private final long evictedCount;
+    private final long validationFailureCount;
+    private final long leakCount;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    /**
+     * Construct new <code>ConnectionPoolMetrics</code> from passed parameters.
+     *
+     * @param activeConnections  connections currently lent to callers
+     * @param idleConnections  connections currently waiting in the pool
+     * @param borrowCount  successful calls to <code>getConnection</code>
+     * @param totalBorrowWaitNanos  summed wait time of all successful borrows
+     * @param maxBorrowWaitNanos  longest wait time of a successful borrow
+     * @param borrowTimeoutCount  borrows that gave up waiting for a free slot
+     * @param createdCount  physical connections opened since start
+     * @param evictedCount  physical connections closed by idle eviction
+     * @param validationFailureCount  idle connections discarded on borrow
+     *                                because they were no longer valid
+     * @param leakCount  connections reported as held longer than the leak
+     *                   detection threshold
+     * @param statementCacheHits  prepared statements served from the cache
+     * @param statementCacheMisses  prepared statements parsed by the server
+     */
+    public ConnectionPoolMetrics(int activeConnections, int idleConnections, long borrowCount,
+                                 long totalBorrowWaitNanos, long maxBorrowWaitNanos, long borrowTimeoutCount,
+                                 long createdCount, long evictedCount, long validationFailureCount,
+                                 long leakCount, long statementCacheHits, long statementCacheMisses) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.borrowCount = borrowCount;
+        this.totalBorrowWaitNanos = totalBorrowWaitNanos;
+        this.maxBorrowWaitNanos = maxBorrowWaitNanos;
+        this.borrowTimeoutCount = borrowTimeoutCount;
+        this.createdCount = createdCount;
+        this.evictedCount = evictedCount;
+        this.validationFailureCount = validationFailureCount;
+        this.leakCount = leakCount;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTotalBorrowWaitNanos() {
+        return totalBorrowWaitNanos;
+    }
+
+    public long getMaxBorrowWaitNanos() {
+        return maxBorrowWaitNanos;
+    }
+
+    /**
+     * Returns the mean borrow wait time of all successful borrows.
+     *
+     * @return mean wait in nanoseconds as <code>double</code> value, 0 when
+     * nothing was borrowed yet
+     */
+    public double getAverageBorrowWaitNanos() {
+        return borrowCount == 0 ? 0 : (double) totalBorrowWaitNanos / borrowCount;
+    }
+
+    public long getBorrowTimeoutCount() {
+        return borrowTimeoutCount;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailureCount;
+    }
+
+    public long getLeakCount() {
+        return leakCount;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    /**
+     * Returns the share of <code>prepareStatement</code> calls served from
+     * the statement cache.
+     *
+     * @return hit ratio between 0 and 1 as <code>double</code> value
+     */
+    public double getStatementCacheHitRatio() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0 : (double) statementCacheHits / lookups;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>ConnectionPoolMetrics</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "ConnectionPoolMetrics{" +
+                "activeConnections=" + activeConnections +
+                ", idleConnections=" + idleConnections +
+                ", borrowCount=" + borrowCount +
+                ", averageBorrowWaitNanos=" + getAverageBorrowWaitNanos() +
+                ", maxBorrowWaitNanos=" + maxBorrowWaitNanos +
+                ", borrowTimeoutCount=" + borrowTimeoutCount +
+                ", createdCount=" + createdCount +
+                ", evictedCount=" + evictedCount +
+                ", validationFailureCount=" + validationFailureCount +
+                ", leakCount=" + leakCount +
+                ", statementCacheHits=" + statementCacheHits +
+                ", statementCacheMisses=" + statementCacheMisses +
+                '}';
+    }
+}
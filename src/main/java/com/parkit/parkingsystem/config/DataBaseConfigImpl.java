@@ -17,7 +17,7 @@ public class DataBaseConfigImpl implements DataBaseConfig {
     public Connection getConnection() throws ClassNotFoundException, SQLException {
         logger.info("Create DB connection");
         Class.forName("com.mysql.cj.jdbc.Driver");
-        return DriverManager.getConnection("jdbc:mysql://localhost:3307/prod?serverTimezone=UTC",
+        return DriverManager.getConnection("jdbc:mysql://localhost:3307/prod?serverTimezone=UTC&useCursorFetch=true",
                 "root", "password");
     }
 
@@ -0,0 +1,183 @@
+package com.parkit.parkingsystem.config;
+
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ *     <code>DataBaseConfig</code> backed by an in-process H2 database running
+ * in MySQL compatibility mode, so the application, the integration tests and
+ * benchmarks can run without a MySQL server.
+ * <p>
+ *     On first use the schema is bootstrapped from the <code>Data.sql</code>
+ * script, the same script used to set up MySQL. <code>create database</code>
+ * and <code>use</code> statements of the script are translated to H2
+ * schemas, and every connection returned is switched to the schema passed in
+ * the constructor, <code>prod</code> or <code>test</code>.
+ * <p>
+ *     Databases are kept in memory for the life of the JVM and are shared by
+ * all instances created with the same database name.
+ */
+public class EmbeddedDataBaseConfigImpl implements DataBaseConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger("EmbeddedDataBaseConfig");
+
+    private static final String BOOTSTRAP_SCRIPT = "/Data.sql";
+    private static final Pattern CREATE_DATABASE = Pattern.compile("(?i)^create\\s+database\\s+(\\w+)$");
+    private static final Pattern USE_DATABASE = Pattern.compile("(?i)^use\\s+(\\w+)$");
+
+    private final String url;
+    private final String schema;
+    private volatile boolean bootstrapped;
+
+    /**
+     *     Creates instance of <code>EmbeddedDataBaseConfigImpl</code> using the
+     * <code>prod</code> schema of an in-memory database named
+     * <code>parkit</code>.
+     */
+    public EmbeddedDataBaseConfigImpl() {
+        this("parkit", "prod");
+    }
+
+    /**
+     *     Stores database name and schema passed as parameters and creates
+     * instance of <code>EmbeddedDataBaseConfigImpl</code>. Different database
+     * names give independent databases, which allows to stand up several of
+     * them in one JVM.
+     *
+     * @param databaseName  name of the in-memory database
+     * @param schema  schema of <code>Data.sql</code> the connections use,
+     *                <code>prod</code> or <code>test</code>
+     */
+    public EmbeddedDataBaseConfigImpl(String databaseName, String schema) {
+        this.url = "jdbc:h2:mem:" + databaseName + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        this.schema = schema;
+    }
+
+    @Override
+    public Connection getConnection() throws ClassNotFoundException, SQLException {
+        logger.info("Create embedded DB connection");
+        Class.forName("org.h2.Driver");
+
+        if (!bootstrapped) {
+            bootstrap();
+        }
+
+        Connection connection = DriverManager.getConnection(url, "sa", "");
+        connection.setSchema(schema.toUpperCase());
+
+        return connection;
+    }
+
+    @Override
+    public void closeResultSet(ResultSet rs) {
+        if (rs != null) {
+            try {
+                rs.close();
+                logger.info("Closing Result Set");
+            } catch (SQLException e) {
+                logger.error("Error while closing result set", e);
+            }
+        }
+    }
+
+    private synchronized void bootstrap() throws SQLException {
+
+        if (bootstrapped) {
+            return;
+        }
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+
+            if (!schemaExists(connection)) {
+
+                logger.info("Bootstrapping embedded DB from {}", BOOTSTRAP_SCRIPT);
+                runScript(connection, readScript());
+            }
+        }
+
+        bootstrapped = true;
+    }
+
+    private boolean schemaExists(Connection connection) throws SQLException {
+
+        try (ResultSet rs = connection.getMetaData().getSchemas()) {
+            while (rs.next()) {
+                if (schema.equalsIgnoreCase(rs.getString(1))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void runScript(Connection connection, String script) throws SQLException {
+
+        String withoutComments = script.replaceAll("(?s)/\\*.*?\\*/", "");
+
+        try (Statement statement = connection.createStatement()) {
+
+            for (String sql : withoutComments.split(";")) {
+
+                String trimmed = sql.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+
+                statement.execute(translate(trimmed));
+            }
+        }
+    }
+
+    private String translate(String sql) {
+
+        Matcher createDatabase = CREATE_DATABASE.matcher(sql);
+        if (createDatabase.matches()) {
+            return "create schema if not exists " + createDatabase.group(1);
+        }
+
+        Matcher useDatabase = USE_DATABASE.matcher(sql);
+        if (useDatabase.matches()) {
+            return "set schema " + useDatabase.group(1);
+        }
+
+        return sql;
+    }
+
+    private String readScript() throws SQLException {
+
+        InputStream in = EmbeddedDataBaseConfigImpl.class.getResourceAsStream(BOOTSTRAP_SCRIPT);
+
+        if (in == null) {
+            throw new SQLException("Bootstrap script " + BOOTSTRAP_SCRIPT + " not found on classpath");
+        }
+
+        StringBuilder script = new StringBuilder();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                script.append(line).append('\n');
+            }
+
+        } catch (IOException e) {
+            throw new SQLException("Unable to read bootstrap script " + BOOTSTRAP_SCRIPT, e);
+        }
+
+        return script.toString();
+    }
+}
@@ -0,0 +1,226 @@
+package com.parkit.parkingsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *     Bounded <code>Executor</code> dedicated to blocking JDBC calls, with
+ * one thread per connection of a <code>PooledDataBaseConfigImpl</code>, so
+ * the calls it runs at once never outnumber the connections and callers are
+ * not parked on database I/O. The pool is shared with the callers that do
+ * not go through the executor, so a call may still wait for a connection
+ * while they hold them, up to <code>borrowTimeoutMillis</code> of the pool.
+ * <p>
+ *     At most <code>queueCapacity</code> calls wait for a thread. Beyond
+ * that, <code>execute</code> holds the caller up to
+ * <code>enqueueTimeoutMillis</code> for room, which throttles callers to the
+ * rate of the database, and then rejects the call with
+ * <code>RejectedExecutionException</code>.
+ * <p>
+ *     The executor offers no asynchronous DAO of its own. Callers fan out
+ * blocking DAO calls on it through
+ * <code>CompletableFuture.supplyAsync</code>, as
+ * <code>ParkingService.quoteAsync</code> does with the ticket lookup and the
+ * recurring user check of a quote, and a rejection is thrown to them before
+ * any stage is created.
+ * <p>
+ *     Calls run on the threads of the executor, outside any unit of work of
+ * the caller's thread, so each is committed on its own.
+ * <p>
+ *     Follows Builder pattern, the only mandatory parameter of the Builder
+ * is the pool the executor is sized to.
+ */
+public class JdbcExecutor implements Executor, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger("JdbcExecutor");
+
+    private final int threads;
+    private final int queueCapacity;
+    private final long enqueueTimeoutMillis;
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore capacity;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong maxEnqueueWaitNanos = new AtomicLong();
+
+    private JdbcExecutor(Builder builder) {
+
+        this.threads = builder.threads;
+        this.queueCapacity = builder.queueCapacity;
+        this.enqueueTimeoutMillis = builder.enqueueTimeoutMillis;
+        this.capacity = new Semaphore(threads + queueCapacity);
+
+        AtomicInteger count = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "jdbc-executor-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static class Builder {
+
+        private int threads;
+        private int queueCapacity = 1_000;
+        private long enqueueTimeoutMillis = 1_000;
+
+        /**
+         * Creates Builder of an executor with as many threads as the passed
+         * pool has connections.
+         *
+         * @param pooledDataBaseConfig  pool the calls borrow connections from
+         */
+        public Builder(PooledDataBaseConfigImpl pooledDataBaseConfig) {
+
+            this.threads = pooledDataBaseConfig == null ? 0 : pooledDataBaseConfig.getMaxSize();
+        }
+
+        public Builder withThreads(int threads) {
+
+            this.threads = threads;
+
+            return this;
+        }
+
+        public Builder withQueueCapacity(int queueCapacity) {
+
+            this.queueCapacity = queueCapacity;
+
+            return this;
+        }
+
+        /**
+         * Sets how long <code>execute</code> waits for room in the queue
+         * before rejecting a call, 0 rejects it right away.
+         *
+         * @param enqueueTimeoutMillis  timeout in milliseconds
+         * @return this Builder
+         */
+        public Builder withEnqueueTimeoutMillis(long enqueueTimeoutMillis) {
+
+            this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+
+            return this;
+        }
+
+        public JdbcExecutor build() {
+
+            if (threads < 1 || queueCapacity < 0 || enqueueTimeoutMillis < 0) {
+                throw new IllegalArgumentException("Invalid JDBC executor - threads " + threads
+                        + " queue capacity " + queueCapacity + " enqueue timeout " + enqueueTimeoutMillis);
+            }
+
+            return new JdbcExecutor(this);
+        }
+    }
+
+    /**
+     *     Runs the passed call on a thread of the executor, waiting up to
+     * <code>enqueueTimeoutMillis</code> when all threads are busy and the
+     * queue is full.
+     *
+     * @param command  the call to run
+     * @throws RejectedExecutionException if there is still no room after the
+     * timeout, or the executor is closed
+     */
+    @Override
+    public void execute(Runnable command) {
+
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("JDBC executor is closed");
+        }
+
+        acquire();
+        submitted.increment();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    capacity.release();
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+
+            capacity.release();
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the executor counters.
+     *
+     * @return instance of <code>JdbcExecutorMetrics</code>, never null
+     */
+    public JdbcExecutorMetrics getMetrics() {
+
+        return new JdbcExecutorMetrics(threads, executor.getActiveCount(), executor.getQueue().size(),
+                submitted.sum(), throttled.sum(), rejected.sum(), maxEnqueueWaitNanos.get());
+    }
+
+    /**
+     * Stops accepting calls and waits for the queued ones to finish.
+     */
+    @Override
+    public void close() {
+
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(enqueueTimeoutMillis + 30_000, TimeUnit.MILLISECONDS)) {
+                logger.warn("JDBC executor closed with calls still running");
+            }
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+
+        logger.info("JDBC executor closed {}", getMetrics());
+    }
+
+    private void acquire() {
+
+        if (capacity.tryAcquire()) {
+            return;
+        }
+
+        throttled.increment();
+        long start = System.nanoTime();
+        boolean acquired;
+
+        try {
+            acquired = capacity.tryAcquire(enqueueTimeoutMillis, TimeUnit.MILLISECONDS);
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        long waited = System.nanoTime() - start;
+        maxEnqueueWaitNanos.accumulateAndGet(waited, Math::max);
+
+        if (!acquired) {
+            rejected.increment();
+            throw new RejectedExecutionException("JDBC executor saturated, " + threads + " threads busy and "
+                    + queueCapacity + " calls queued for " + enqueueTimeoutMillis + " ms");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.parkit.parkingsystem.config;
+
+/**
+ * The class <code>JdbcExecutorMetrics</code> is an immutable snapshot of the
+ * counters of a <code>JdbcExecutor</code>.
+ * <p>
+ *     Throttled calls found the executor full and waited for room, rejected
+ * calls did not find room before the timeout.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>JdbcExecutorMetrics</code>.
+ */
+public class JdbcExecutorMetrics {
+
+    private final int threads;
+    private final int activeThreads;
+    private final int queuedCalls;
+    private final long submitted;
+    private final long throttled;
+    private final long rejected;
+    private final long maxEnqueueWaitNanos;
+
+    /**
+     * Construct new <code>JdbcExecutorMetrics</code> from passed parameters.
+     *
+     * @param threads  threads of the executor
+     * @param activeThreads  threads running a call
+     * @param queuedCalls  calls waiting for a thread
+     * @param submitted  calls accepted
+     * @param throttled  calls which waited for room before being accepted or
+     *                   rejected
+     * @param rejected  calls rejected
+     * @param maxEnqueueWaitNanos  longest wait for room in nanoseconds
+     */
+    public JdbcExecutorMetrics(int threads, int activeThreads, int queuedCalls, long submitted, long throttled,
+                               long rejected, long maxEnqueueWaitNanos) {
+        this.threads = threads;
+        this.activeThreads = activeThreads;
+        this.queuedCalls = queuedCalls;
+        this.submitted = submitted;
+        this.throttled = throttled;
+        this.rejected = rejected;
+        this.maxEnqueueWaitNanos = maxEnqueueWaitNanos;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    public int getQueuedCalls() {
+        return queuedCalls;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getThrottled() {
+        return throttled;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getMaxEnqueueWaitNanos() {
+        return maxEnqueueWaitNanos;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>JdbcExecutorMetrics</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "JdbcExecutorMetrics{" +
+                "threads=" + threads +
+                ", activeThreads=" + activeThreads +
+                ", queuedCalls=" + queuedCalls +
+                ", submitted=" + submitted +
+                ", throttled=" + throttled +
+                ", rejected=" + rejected +
+                ", maxEnqueueWaitNanos=" + maxEnqueueWaitNanos +
+                '}';
+    }
+}
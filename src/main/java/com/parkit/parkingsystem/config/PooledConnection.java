@@ -0,0 +1,152 @@
+package com.parkit.parkingsystem.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *     Holds one physical <code>Connection</code> owned by
+ * <code>PooledDataBaseConfigImpl</code> together with the bookkeeping the
+ * pool needs for idle eviction and leak detection.
+ * <p>
+ *     Every borrow hands out a fresh proxy through <code>lease</code>, so a
+ * caller keeping a reference after <code>close</code> can not touch the
+ * physical connection once it was lent to somebody else.
+ * <p>
+ *     When a statement cache size greater than 0 is passed, calls to
+ * <code>prepareStatement(String)</code> and
+ * <code>prepareStatement(String, int)</code> are served from a
+ * <code>StatementCache</code> bound to this physical connection.
+ */
+class PooledConnection {
+
+    private final Connection physical;
+    private final PooledDataBaseConfigImpl pool;
+    private final StatementCache statementCache;
+
+    private volatile long lastReturnedNanos;
+    private volatile long borrowedAtNanos;
+    private volatile Throwable borrowTrace;
+    private volatile boolean leakReported;
+
+    PooledConnection(Connection physical, PooledDataBaseConfigImpl pool, int statementCacheSize,
+                     LongAdder statementCacheHits, LongAdder statementCacheMisses) {
+        this.physical = physical;
+        this.pool = pool;
+        this.statementCache = statementCacheSize > 0
+                ? new StatementCache(statementCacheSize, statementCacheHits, statementCacheMisses)
+                : null;
+        this.lastReturnedNanos = System.nanoTime();
+    }
+
+    Connection getPhysical() {
+        return physical;
+    }
+
+    long getLastReturnedNanos() {
+        return lastReturnedNanos;
+    }
+
+    long getBorrowedAtNanos() {
+        return borrowedAtNanos;
+    }
+
+    Throwable getBorrowTrace() {
+        return borrowTrace;
+    }
+
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    void markLeakReported() {
+        leakReported = true;
+    }
+
+    void markReturned() {
+        lastReturnedNanos = System.nanoTime();
+    }
+
+    /**
+     * Creates the proxy handed to the caller of <code>getConnection</code>.
+     * Calling <code>close</code> on the proxy returns the physical connection
+     * to the pool instead of closing it.
+     *
+     * @param captureTrace  <code>true</code> to record the borrowing stack
+     *                      trace for leak reports
+     * @return proxy <code>Connection</code> backed by this physical connection
+     */
+    Connection lease(boolean captureTrace) {
+        borrowedAtNanos = System.nanoTime();
+        borrowTrace = captureTrace ? new Throwable("Connection borrowed here") : null;
+        leakReported = false;
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Lease());
+    }
+
+    void closePhysical() {
+        if (statementCache != null) {
+            statementCache.clear();
+        }
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            // connection is discarded anyway, nothing left to recover
+        }
+    }
+
+    private class Lease implements InvocationHandler {
+
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection{" + physical + ", closed=" + closed + '}';
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection is already returned to the pool");
+            }
+
+            if (statementCache != null && "prepareStatement".equals(method.getName())) {
+
+                if (args.length == 1) {
+                    return statementCache.prepare((Connection) proxy, physical, (String) args[0],
+                            Statement.NO_GENERATED_KEYS);
+                }
+                if (args.length == 2 && method.getParameterTypes()[1] == int.class) {
+                    return statementCache.prepare((Connection) proxy, physical, (String) args[0], (Integer) args[1]);
+                }
+            }
+
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
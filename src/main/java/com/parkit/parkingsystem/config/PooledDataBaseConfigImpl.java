@@ -0,0 +1,467 @@
+package com.parkit.parkingsystem.config;
+
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *     <code>DataBaseConfig</code> keeping a bounded pool of physical
+ * connections opened through another <code>DataBaseConfig</code>, so DAOs
+ * calling <code>getConnection</code> and closing the result in try with
+ * resources blocks reuse connections instead of opening a new one each time.
+ * <p>
+ *     Idle connections are validated on borrow, unless they were returned
+ * less than <code>validationBypassMillis</code> ago, and connections idle
+ * longer than <code>idleTimeoutMillis</code> are evicted down to
+ * <code>minSize</code> by a background maintenance task. The same task
+ * reports connections held longer than <code>leakThresholdMillis</code>
+ * together with the stack trace of the code that borrowed them.
+ * <p>
+ *     Each physical connection keeps up to <code>statementCacheSize</code>
+ * prepared statements open between borrows, so repeated DAO calls with the
+ * same <code>DBConstants</code> SQL skip parsing on the server.
+ * <p>
+ *     Follows Builder pattern, the only mandatory parameter of the Builder
+ * is the <code>DataBaseConfig</code> used to open physical connections.
+ */
+public class PooledDataBaseConfigImpl implements DataBaseConfig, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger("PooledDataBaseConfig");
+
+    private final DataBaseConfig connectionFactory;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long maintenanceIntervalMillis;
+    private final long validationBypassMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    private final Semaphore slots;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicBoolean maintenanceStarted = new AtomicBoolean();
+    private final ScheduledExecutorService maintenance;
+    private volatile boolean closed;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalBorrowWaitNanos = new LongAdder();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+    private final LongAdder borrowTimeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder evictedCount = new LongAdder();
+    private final LongAdder validationFailureCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    private PooledDataBaseConfigImpl(Builder builder) {
+
+        this.connectionFactory = builder.connectionFactory;
+        this.minSize = builder.minSize;
+        this.maxSize = builder.maxSize;
+        this.borrowTimeoutMillis = builder.borrowTimeoutMillis;
+        this.idleTimeoutMillis = builder.idleTimeoutMillis;
+        this.leakThresholdMillis = builder.leakThresholdMillis;
+        this.maintenanceIntervalMillis = builder.maintenanceIntervalMillis;
+        this.validationBypassMillis = builder.validationBypassMillis;
+        this.validationTimeoutSeconds = builder.validationTimeoutSeconds;
+        this.statementCacheSize = builder.statementCacheSize;
+        this.slots = new Semaphore(maxSize, true);
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static class Builder {
+
+        private final DataBaseConfig connectionFactory;
+        private int minSize = 2;
+        private int maxSize = 10;
+        private long borrowTimeoutMillis = 30_000;
+        private long idleTimeoutMillis = 600_000;
+        private long leakThresholdMillis = 60_000;
+        private long maintenanceIntervalMillis = 30_000;
+        private long validationBypassMillis = 500;
+        private int validationTimeoutSeconds = 5;
+        private int statementCacheSize = 16;
+
+        public Builder(DataBaseConfig connectionFactory) {
+
+            this.connectionFactory = connectionFactory;
+        }
+
+        public Builder withMinSize(int minSize) {
+
+            this.minSize = minSize;
+
+            return this;
+        }
+
+        public Builder withMaxSize(int maxSize) {
+
+            this.maxSize = maxSize;
+
+            return this;
+        }
+
+        public Builder withBorrowTimeoutMillis(long borrowTimeoutMillis) {
+
+            this.borrowTimeoutMillis = borrowTimeoutMillis;
+
+            return this;
+        }
+
+        public Builder withIdleTimeoutMillis(long idleTimeoutMillis) {
+
+            this.idleTimeoutMillis = idleTimeoutMillis;
+
+            return this;
+        }
+
+        /**
+         * Sets how long a connection may stay borrowed before it is reported
+         * as leaked, 0 disables leak detection.
+         *
+         * @param leakThresholdMillis  threshold in milliseconds
+         * @return this Builder
+         */
+        public Builder withLeakThresholdMillis(long leakThresholdMillis) {
+
+            this.leakThresholdMillis = leakThresholdMillis;
+
+            return this;
+        }
+
+        public Builder withMaintenanceIntervalMillis(long maintenanceIntervalMillis) {
+
+            this.maintenanceIntervalMillis = maintenanceIntervalMillis;
+
+            return this;
+        }
+
+        /**
+         * Sets the window after a connection was returned in which it is
+         * handed out again without validation, 0 validates on every borrow.
+         *
+         * @param validationBypassMillis  window in milliseconds
+         * @return this Builder
+         */
+        public Builder withValidationBypassMillis(long validationBypassMillis) {
+
+            this.validationBypassMillis = validationBypassMillis;
+
+            return this;
+        }
+
+        public Builder withValidationTimeoutSeconds(int validationTimeoutSeconds) {
+
+            this.validationTimeoutSeconds = validationTimeoutSeconds;
+
+            return this;
+        }
+
+        /**
+         * Sets how many prepared statements each physical connection keeps
+         * open, 0 disables statement caching.
+         *
+         * @param statementCacheSize  maximum cached statements per connection
+         * @return this Builder
+         */
+        public Builder withStatementCacheSize(int statementCacheSize) {
+
+            this.statementCacheSize = statementCacheSize;
+
+            return this;
+        }
+
+        public PooledDataBaseConfigImpl build() {
+
+            if (connectionFactory == null) {
+                throw new IllegalArgumentException("Connection factory is mandatory");
+            }
+            if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+                throw new IllegalArgumentException("Invalid pool size - min " + minSize + " max " + maxSize);
+            }
+            if (statementCacheSize < 0) {
+                throw new IllegalArgumentException("Invalid statement cache size - " + statementCacheSize);
+            }
+
+            return new PooledDataBaseConfigImpl(this);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws ClassNotFoundException, SQLException {
+
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        startMaintenance();
+
+        long start = System.nanoTime();
+
+        try {
+            if (!slots.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+
+                borrowTimeoutCount.increment();
+                throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis +
+                        " ms waiting for a pooled connection");
+            }
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+
+            if (pooled == null) {
+                pooled = create();
+            }
+
+            borrowed.add(pooled);
+            Connection connection = pooled.lease(leakThresholdMillis > 0);
+
+            recordBorrowWait(System.nanoTime() - start);
+
+            return connection;
+
+        } catch (ClassNotFoundException | SQLException | RuntimeException e) {
+
+            slots.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void closeResultSet(ResultSet rs) {
+
+        connectionFactory.closeResultSet(rs);
+    }
+
+    /**
+     * Returns the count of connections the pool opens at most, the count of
+     * callers it serves at once without making them wait.
+     *
+     * @return maximum size of the pool
+     */
+    public int getMaxSize() {
+
+        return maxSize;
+    }
+
+    /**
+     * Returns a snapshot of the pool counters.
+     *
+     * @return instance of <code>ConnectionPoolMetrics</code>, never null
+     */
+    public ConnectionPoolMetrics getMetrics() {
+
+        return new ConnectionPoolMetrics(borrowed.size(), idle.size(), borrowCount.sum(),
+                totalBorrowWaitNanos.sum(), maxBorrowWaitNanos.get(), borrowTimeoutCount.sum(),
+                createdCount.sum(), evictedCount.sum(), validationFailureCount.sum(), leakCount.sum(),
+                statementCacheHits.sum(), statementCacheMisses.sum());
+    }
+
+    /**
+     * Stops the maintenance task and closes all idle connections. Borrowed
+     * connections are closed when their borrower returns them.
+     */
+    @Override
+    public void close() {
+
+        closed = true;
+        maintenance.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+
+        logger.info("Connection pool closed {}", getMetrics());
+    }
+
+    /**
+     * Called by the lease proxy when the borrower closes its connection.
+     *
+     * @param pooled  the connection being returned
+     */
+    void release(PooledConnection pooled) {
+
+        borrowed.remove(pooled);
+
+        if (pooled.isLeakReported()) {
+            logger.info("Connection previously reported as leaked was returned after {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pooled.getBorrowedAtNanos()));
+        }
+
+        try {
+            Connection physical = pooled.getPhysical();
+
+            if (closed || physical.isClosed()) {
+
+                discard(pooled);
+
+            } else {
+
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                pooled.markReturned();
+                idle.offerFirst(pooled);
+            }
+
+        } catch (SQLException e) {
+
+            logger.error("Error while returning connection to the pool", e);
+            discard(pooled);
+
+        } finally {
+
+            slots.release();
+        }
+    }
+
+    /**
+     * Runs one round of idle eviction, top-up to minimum size and leak
+     * detection. Scheduled periodically once the pool is first used.
+     * <p>
+     *  It is public for the sole reason of driving maintenance rounds
+     *  deterministically when testing.
+     */
+    public void maintain() {
+
+        long now = System.nanoTime();
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && totalConnections.get() > minSize) {
+
+            PooledConnection pooled = oldestFirst.next();
+
+            if (now - pooled.getLastReturnedNanos() > idleTimeoutNanos && idle.remove(pooled)) {
+                discard(pooled);
+                evictedCount.increment();
+            }
+        }
+
+        while (!closed && totalConnections.get() < minSize) {
+            try {
+                idle.offerLast(create());
+            } catch (ClassNotFoundException | SQLException e) {
+                logger.error("Error while filling the pool up to its minimum size", e);
+                break;
+            }
+        }
+
+        if (leakThresholdMillis > 0) {
+
+            long leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(leakThresholdMillis);
+
+            for (PooledConnection pooled : borrowed) {
+
+                if (!pooled.isLeakReported() && now - pooled.getBorrowedAtNanos() > leakThresholdNanos) {
+
+                    pooled.markLeakReported();
+                    leakCount.increment();
+                    logger.warn("Connection held for more than " + leakThresholdMillis + " ms, possible leak",
+                            pooled.getBorrowTrace());
+                }
+            }
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+
+        PooledConnection pooled;
+
+        while ((pooled = idle.pollFirst()) != null) {
+
+            long idleNanos = System.nanoTime() - pooled.getLastReturnedNanos();
+
+            if (idleNanos < TimeUnit.MILLISECONDS.toNanos(validationBypassMillis) || isValid(pooled)) {
+                return pooled;
+            }
+
+            validationFailureCount.increment();
+            discard(pooled);
+        }
+
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+
+        try {
+            return pooled.getPhysical().isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            logger.error("Error while validating pooled connection", e);
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws ClassNotFoundException, SQLException {
+
+        Connection physical = connectionFactory.getConnection();
+
+        totalConnections.incrementAndGet();
+        createdCount.increment();
+
+        return new PooledConnection(physical, this, statementCacheSize, statementCacheHits, statementCacheMisses);
+    }
+
+    private void discard(PooledConnection pooled) {
+
+        totalConnections.decrementAndGet();
+        pooled.closePhysical();
+    }
+
+    private void recordBorrowWait(long waitNanos) {
+
+        borrowCount.increment();
+        totalBorrowWaitNanos.add(waitNanos);
+        maxBorrowWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private void startMaintenance() {
+
+        if (maintenanceStarted.compareAndSet(false, true)) {
+            maintenance.scheduleWithFixedDelay(this::maintainSafely, maintenanceIntervalMillis,
+                    maintenanceIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void maintainSafely() {
+
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            logger.error("Error during connection pool maintenance", e);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.parkit.parkingsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *     Logical <code>Connection</code> handed out by
+ * <code>RoutingDataBaseConfigImpl</code>. Holds at most one primary and one
+ * replica physical connection, both opened on first use and closed together
+ * with the logical connection.
+ * <p>
+ *     Every call except <code>prepareStatement</code> for a replica routed
+ * read goes to the primary connection.
+ */
+class RoutingConnection implements InvocationHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger("RoutingDataBaseConfig");
+
+    private final RoutingDataBaseConfigImpl router;
+    private Connection primary;
+    private Connection replica;
+    private boolean autoCommit = true;
+    private boolean closed;
+
+    RoutingConnection(RoutingDataBaseConfigImpl router) {
+        this.router = router;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+        switch (method.getName()) {
+            case "close":
+                closed = true;
+                closeQuietly(replica);
+                closeQuietly(primary);
+                return null;
+            case "isClosed":
+                return closed;
+            case "getAutoCommit":
+                return autoCommit;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "RoutingConnection{primary=" + primary + ", replica=" + replica + '}';
+            default:
+                break;
+        }
+
+        if (closed) {
+            throw new SQLException("Connection is closed");
+        }
+
+        if ("setAutoCommit".equals(method.getName())) {
+            autoCommit = (Boolean) args[0];
+        }
+
+        if ("prepareStatement".equals(method.getName())) {
+
+            String sql = (String) args[0];
+
+            if (args.length == 1 && router.routeToReplica(sql, autoCommit)) {
+                return prepareRead((Connection) proxy, sql);
+            }
+            router.recordPrimaryStatement(sql);
+        }
+
+        return invokeOn(primary(), method, args);
+    }
+
+    private Object prepareRead(Connection lease, String sql) throws SQLException {
+
+        try {
+            if (replica == null) {
+                replica = router.nextReplica().getConnection();
+            }
+
+            PreparedStatement statement = replica.prepareStatement(sql);
+            router.recordReplicaRead();
+
+            if (router.getHedgeDelayMillis() == 0) {
+                return statement;
+            }
+
+            return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new HedgedStatement(lease, sql, statement));
+
+        } catch (ClassNotFoundException | SQLException e) {
+
+            logger.warn("Replica unavailable, reading from primary", e);
+            router.recordReplicaFailure();
+            closeQuietly(replica);
+            replica = null;
+
+            return primary().prepareStatement(sql);
+        }
+    }
+
+    private Connection primary() throws SQLException {
+
+        if (primary == null) {
+            try {
+                primary = router.getPrimary().getConnection();
+                if (!autoCommit) {
+                    primary.setAutoCommit(false);
+                }
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("Unable to load JDBC driver of primary database", e);
+            }
+        }
+        return primary;
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.error("Error while closing routed resource", e);
+            }
+        }
+    }
+
+    /**
+     *     Replica <code>PreparedStatement</code> that records its parameters,
+     * so <code>executeQuery</code> can replay them on the primary when the
+     * replica does not answer within the hedge delay.
+     * <p>
+     *     Each hedge runs on a statement of its own. The losing statement is
+     * cancelled and closed, with its <code>ResultSet</code>, once its query
+     * returns, and a replica statement that lost is replaced before the next
+     * call, so a query still running is never executed again.
+     */
+    private class HedgedStatement implements InvocationHandler {
+
+        private final Connection lease;
+        private final String sql;
+        private final List<Method> recordedMethods = new ArrayList<>();
+        private final List<Object[]> recordedArgs = new ArrayList<>();
+        private final List<PreparedStatement> hedgeStatements = new ArrayList<>();
+        private PreparedStatement replicaStatement;
+        private boolean replicaLost;
+
+        private HedgedStatement(Connection lease, String sql, PreparedStatement replicaStatement) {
+            this.lease = lease;
+            this.sql = sql;
+            this.replicaStatement = replicaStatement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            String name = method.getName();
+
+            switch (name) {
+                case "executeQuery":
+                    if (args == null) {
+                        return executeHedged();
+                    }
+                    break;
+                case "close":
+                    if (!replicaLost) {
+                        closeQuietly(replicaStatement);
+                    }
+                    hedgeStatements.forEach(RoutingConnection::closeQuietly);
+                    hedgeStatements.clear();
+                    return null;
+                case "getConnection":
+                    return lease;
+                case "clearParameters":
+                    recordedMethods.clear();
+                    recordedArgs.clear();
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (name.startsWith("set") && args != null) {
+                        replicaStatement();
+                        recordedMethods.add(method);
+                        recordedArgs.add(args);
+                    }
+                    break;
+            }
+
+            return invokeOn(replicaStatement(), method, args);
+        }
+
+        private ResultSet executeHedged() throws Throwable {
+
+            ExecutorCompletionService<ResultSet> race = new ExecutorCompletionService<>(router.getHedgeExecutor());
+            PreparedStatement replicaRun = replicaStatement();
+            Future<ResultSet> replicaRead = race.submit(replicaRun::executeQuery);
+
+            try {
+                Future<ResultSet> first = race.poll(router.getHedgeDelayMillis(), TimeUnit.MILLISECONDS);
+
+                if (first != null) {
+                    try {
+                        return first.get();
+                    } catch (ExecutionException e) {
+                        logger.warn("Replica read failed, reading from primary", e.getCause());
+                        router.recordReplicaFailure();
+                        return prepareHedge().executeQuery();
+                    }
+                }
+
+                PreparedStatement hedge = prepareHedge();
+                Future<ResultSet> primaryRead = race.submit(hedge::executeQuery);
+                Future<ResultSet> winner = race.take();
+                Future<ResultSet> loser = winner == replicaRead ? primaryRead : replicaRead;
+
+                try {
+                    ResultSet rs = winner.get();
+                    router.recordHedge(winner == primaryRead);
+
+                    if (winner == replicaRead) {
+                        discard(primaryRead, hedge);
+                    } else {
+                        discard(replicaRead, replicaRun);
+                        replicaLost = true;
+                    }
+                    return rs;
+
+                } catch (ExecutionException e) {
+
+                    router.recordHedge(loser == primaryRead);
+                    try {
+                        return loser.get();
+                    } catch (ExecutionException loserFailure) {
+                        throw loserFailure.getCause();
+                    }
+                }
+
+            } catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+                discard(replicaRead, replicaRun);
+                replicaLost = true;
+                throw new SQLException("Interrupted while waiting for hedged read", e);
+            }
+        }
+
+        private PreparedStatement replicaStatement() throws Throwable {
+
+            if (replicaLost) {
+                replicaStatement = replay(replica.prepareStatement(sql));
+                replicaLost = false;
+            }
+            return replicaStatement;
+        }
+
+        private PreparedStatement prepareHedge() throws Throwable {
+
+            PreparedStatement hedge = primary().prepareStatement(sql);
+            hedgeStatements.add(hedge);
+
+            return replay(hedge);
+        }
+
+        private PreparedStatement replay(PreparedStatement statement) throws Throwable {
+
+            for (int i = 0; i < recordedMethods.size(); i++) {
+                invokeOn(statement, recordedMethods.get(i), recordedArgs.get(i));
+            }
+            return statement;
+        }
+
+        /**
+         * Cancels the losing read and closes its statement, and the
+         * <code>ResultSet</code> it may still return, once it completed.
+         */
+        private void discard(Future<ResultSet> read, PreparedStatement statement) {
+
+            cancelQuietly(statement);
+            hedgeStatements.remove(statement);
+
+            try {
+                router.getHedgeExecutor().execute(() -> {
+                    try {
+                        closeQuietly(read.get());
+
+                    } catch (ExecutionException e) {
+                        logger.debug("Losing hedged read failed", e.getCause());
+
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+
+                    } finally {
+                        closeQuietly(statement);
+                    }
+                });
+
+            } catch (RejectedExecutionException e) {
+
+                closeQuietly(statement);
+            }
+        }
+
+        private void cancelQuietly(Statement statement) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                logger.error("Error while cancelling losing hedged read", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.parkit.parkingsystem.config;
+
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *     <code>DataBaseConfig</code> splitting reads and writes between a
+ * primary database and one or more read replicas, without changes to the
+ * DAOs using it.
+ * <p>
+ *     Connections returned by <code>getConnection</code> decide the route on
+ * every <code>prepareStatement</code> call. Plain <code>select</code>
+ * statements outside of a transaction go to the next replica in round robin
+ * order, everything else goes to the primary. Physical connections are
+ * opened lazily, so a DAO call only touching one side never opens the
+ * other.
+ * <p>
+ *     Statements inside a transaction always go to the primary, so the entry
+ * and exit flows run in units of work of a <code>TransactionManager</code>
+ * over this config never read a replica. After a thread prepared a write,
+ * its own reads outside of a transaction are pinned to the primary for
+ * <code>pinMillis</code>. Pinning is per thread, not per vehicle: a read on
+ * another thread, such as a quote served by an executor right after the
+ * entry of the vehicle, may still be answered by a lagging replica.
+ * <p>
+ *     When <code>hedgeDelayMillis</code> is greater than 0, a replica query
+ * not answered within that delay is sent to the primary as well and the
+ * first answer wins.
+ * <p>
+ *     Follows Builder pattern, the only mandatory parameter of the Builder
+ * is the primary <code>DataBaseConfig</code>. Pooling belongs to the
+ * <code>DataBaseConfig</code> instances passed to the Builder, not to this
+ * class.
+ */
+public class RoutingDataBaseConfigImpl implements DataBaseConfig, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger("RoutingDataBaseConfig");
+
+    private final DataBaseConfig primary;
+    private final List<DataBaseConfig> replicas;
+    private final long pinMillis;
+    private final long hedgeDelayMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ThreadLocal<Long> pinnedUntilNanos = new ThreadLocal<>();
+    private final ExecutorService hedgeExecutor;
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder pinnedReads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder hedgedReads = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder replicaFailures = new LongAdder();
+
+    private RoutingDataBaseConfigImpl(Builder builder) {
+
+        this.primary = builder.primary;
+        this.replicas = new ArrayList<>(builder.replicas);
+        this.pinMillis = builder.pinMillis;
+        this.hedgeDelayMillis = builder.hedgeDelayMillis;
+        this.hedgeExecutor = hedgeDelayMillis > 0
+                ? Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "hedged-read");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    public static class Builder {
+
+        private final DataBaseConfig primary;
+        private final List<DataBaseConfig> replicas = new ArrayList<>();
+        private long pinMillis = 1_000;
+        private long hedgeDelayMillis = 0;
+
+        public Builder(DataBaseConfig primary) {
+
+            this.primary = primary;
+        }
+
+        public Builder withReplica(DataBaseConfig replica) {
+
+            replicas.add(replica);
+
+            return this;
+        }
+
+        /**
+         * Sets how long reads of a thread stay on the primary after that
+         * thread prepared a write, 0 disables pinning.
+         *
+         * @param pinMillis  pin duration in milliseconds
+         * @return this Builder
+         */
+        public Builder withPinMillis(long pinMillis) {
+
+            this.pinMillis = pinMillis;
+
+            return this;
+        }
+
+        /**
+         * Sets how long a replica query may run before the same query is sent
+         * to the primary, 0 disables hedged reads.
+         *
+         * @param hedgeDelayMillis  hedge delay in milliseconds
+         * @return this Builder
+         */
+        public Builder withHedgeDelayMillis(long hedgeDelayMillis) {
+
+            this.hedgeDelayMillis = hedgeDelayMillis;
+
+            return this;
+        }
+
+        public RoutingDataBaseConfigImpl build() {
+
+            if (primary == null) {
+                throw new IllegalArgumentException("Primary database is mandatory");
+            }
+            if (pinMillis < 0 || hedgeDelayMillis < 0) {
+                throw new IllegalArgumentException("Pin and hedge delay can not be negative");
+            }
+
+            return new RoutingDataBaseConfigImpl(this);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws ClassNotFoundException, SQLException {
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new RoutingConnection(this));
+    }
+
+    @Override
+    public void closeResultSet(ResultSet rs) {
+
+        primary.closeResultSet(rs);
+    }
+
+    /**
+     * Returns a snapshot of the routing counters.
+     *
+     * @return instance of <code>RoutingMetrics</code>, never null
+     */
+    public RoutingMetrics getMetrics() {
+
+        return new RoutingMetrics(replicaReads.sum(), primaryReads.sum(), pinnedReads.sum(), writes.sum(),
+                hedgedReads.sum(), hedgeWins.sum(), replicaFailures.sum());
+    }
+
+    /**
+     * Stops the threads running hedged reads.
+     */
+    @Override
+    public void close() {
+
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdownNow();
+        }
+        logger.info("Routing data base config closed {}", getMetrics());
+    }
+
+    /**
+     * Decides if a statement can be sent to a replica, counting the reads
+     * kept on the primary because the current thread is pinned.
+     *
+     * @param sql  SQL of the statement
+     * @param autoCommit  <code>false</code> when the statement runs inside a
+     *                    transaction
+     * @return <code>true</code> when the statement should go to a replica
+     */
+    boolean routeToReplica(String sql, boolean autoCommit) {
+
+        if (replicas.isEmpty() || !autoCommit || !isPlainSelect(sql)) {
+            return false;
+        }
+
+        Long pinnedUntil = pinnedUntilNanos.get();
+
+        if (pinnedUntil != null) {
+            if (System.nanoTime() - pinnedUntil < 0) {
+                pinnedReads.increment();
+                return false;
+            }
+            pinnedUntilNanos.remove();
+        }
+
+        return true;
+    }
+
+    void recordPrimaryStatement(String sql) {
+
+        if (isPlainSelect(sql)) {
+            primaryReads.increment();
+            return;
+        }
+
+        writes.increment();
+
+        if (pinMillis > 0) {
+            pinnedUntilNanos.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pinMillis));
+        }
+    }
+
+    DataBaseConfig getPrimary() {
+        return primary;
+    }
+
+    DataBaseConfig nextReplica() {
+        return replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+    }
+
+    long getHedgeDelayMillis() {
+        return hedgeDelayMillis;
+    }
+
+    ExecutorService getHedgeExecutor() {
+        return hedgeExecutor;
+    }
+
+    void recordReplicaRead() {
+        replicaReads.increment();
+    }
+
+    void recordReplicaFailure() {
+        replicaFailures.increment();
+        primaryReads.increment();
+    }
+
+    void recordHedge(boolean primaryWon) {
+        hedgedReads.increment();
+        if (primaryWon) {
+            hedgeWins.increment();
+        }
+    }
+
+    private static boolean isPlainSelect(String sql) {
+
+        String normalized = sql.trim().toLowerCase();
+
+        return normalized.startsWith("select") && !normalized.contains("for update");
+    }
+}
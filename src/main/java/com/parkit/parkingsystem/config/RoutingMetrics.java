@@ -0,0 +1,93 @@
+package com.parkit.parkingsystem.config;
+
+/**
+ * The class <code>RoutingMetrics</code> is an immutable snapshot of the
+ * routing decisions taken by a <code>RoutingDataBaseConfigImpl</code>.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this <code>RoutingMetrics</code>.
+ */
+public class RoutingMetrics {
+
+    private final long replicaReads;
+    private final long primaryReads;
+    private final long pinnedReads;
+    private final long writes;
+    private final long hedgedReads;
+    private final long hedgeWins;
+    private final long replicaFailures;
+
+    /**
+     * Construct new <code>RoutingMetrics</code> from passed parameters.
+     *
+     * @param replicaReads  read statements prepared on a replica
+     * @param primaryReads  read statements prepared on the primary, including
+     *                      pinned reads and replica fallbacks
+     * @param pinnedReads  reads sent to the primary because the thread wrote
+     *                     recently
+     * @param writes  write statements prepared on the primary
+     * @param hedgedReads  replica reads for which a hedge was sent to the
+     *                     primary because the replica was slow
+     * @param hedgeWins  hedged reads answered first by the primary
+     * @param replicaFailures  replica reads that failed and were sent to the
+     *                         primary instead
+     */
+    public RoutingMetrics(long replicaReads, long primaryReads, long pinnedReads, long writes, long hedgedReads,
+                          long hedgeWins, long replicaFailures) {
+        this.replicaReads = replicaReads;
+        this.primaryReads = primaryReads;
+        this.pinnedReads = pinnedReads;
+        this.writes = writes;
+        this.hedgedReads = hedgedReads;
+        this.hedgeWins = hedgeWins;
+        this.replicaFailures = replicaFailures;
+    }
+
+    public long getReplicaReads() {
+        return replicaReads;
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads;
+    }
+
+    public long getPinnedReads() {
+        return pinnedReads;
+    }
+
+    public long getWrites() {
+        return writes;
+    }
+
+    public long getHedgedReads() {
+        return hedgedReads;
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins;
+    }
+
+    public long getReplicaFailures() {
+        return replicaFailures;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>RoutingMetrics</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "RoutingMetrics{" +
+                "replicaReads=" + replicaReads +
+                ", primaryReads=" + primaryReads +
+                ", pinnedReads=" + pinnedReads +
+                ", writes=" + writes +
+                ", hedgedReads=" + hedgedReads +
+                ", hedgeWins=" + hedgeWins +
+                ", replicaFailures=" + replicaFailures +
+                '}';
+    }
+}
@@ -0,0 +1,207 @@
+package com.parkit.parkingsystem.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *     Keeps the <code>PreparedStatement</code> objects of one physical
+ * <code>Connection</code> open between borrows, keyed by their SQL, so the
+ * fixed set of statements in <code>DBConstants</code> is parsed once per
+ * physical connection instead of once per DAO call.
+ * <p>
+ *     The cache is bounded and evicts the least recently used statement.
+ * Statements are handed out as proxies, closing the proxy clears the
+ * parameters and returns the statement to the cache. When a statement with
+ * the same SQL is already checked out, an uncached statement is returned.
+ * Statements returning generated keys are cached apart from statements with
+ * the same SQL not returning them.
+ */
+class StatementCache {
+
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    StatementCache(int maxSize, LongAdder hits, LongAdder misses) {
+
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+
+                if (size() > StatementCache.this.maxSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns a cached statement for the passed SQL, preparing it on the
+     * physical connection on a miss.
+     *
+     * @param lease  the proxy connection the statement is handed out through,
+     *               returned from <code>PreparedStatement.getConnection</code>
+     * @param physical  the physical connection owning the statements
+     * @param sql  SQL of the statement
+     * @param autoGeneratedKeys  <code>Statement.RETURN_GENERATED_KEYS</code>
+     *                           or <code>Statement.NO_GENERATED_KEYS</code>
+     * @return proxy <code>PreparedStatement</code>, never null
+     * @throws SQLException if the statement could not be prepared
+     */
+    synchronized PreparedStatement prepare(Connection lease, Connection physical, String sql, int autoGeneratedKeys)
+            throws SQLException {
+
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "keys:" + sql : sql;
+        CachedStatement cached = statements.get(key);
+
+        if (cached != null && !cached.inUse) {
+
+            hits.increment();
+            return cached.checkout(lease);
+        }
+
+        misses.increment();
+        PreparedStatement statement = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS
+                ? physical.prepareStatement(sql, autoGeneratedKeys)
+                : physical.prepareStatement(sql);
+
+        if (cached != null) {
+            return statement;
+        }
+
+        cached = new CachedStatement(statement);
+        statements.put(key, cached);
+
+        return cached.checkout(lease);
+    }
+
+    /**
+     * Closes all cached statements, called before the physical connection
+     * is closed.
+     */
+    synchronized void clear() {
+
+        List<CachedStatement> all = new ArrayList<>(statements.values());
+        statements.clear();
+
+        for (CachedStatement cached : all) {
+            cached.evict();
+        }
+    }
+
+    private synchronized void checkin(CachedStatement cached) {
+
+        cached.inUse = false;
+
+        if (cached.evicted) {
+            cached.closeQuietly();
+            return;
+        }
+
+        try {
+            cached.statement.clearParameters();
+        } catch (SQLException e) {
+            statements.values().remove(cached);
+            cached.closeQuietly();
+        }
+    }
+
+    private class CachedStatement {
+
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement checkout(Connection lease) {
+
+            inUse = true;
+
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new Checkout(lease));
+        }
+
+        private void evict() {
+
+            evicted = true;
+
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // statement is dropped from the cache anyway
+            }
+        }
+
+        private class Checkout implements InvocationHandler {
+
+            private final Connection lease;
+            private boolean closed;
+
+            private Checkout(Connection lease) {
+                this.lease = lease;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            checkin(CachedStatement.this);
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed || statement.isClosed();
+                    case "getConnection":
+                        return lease;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "CachedStatement{" + statement + ", closed=" + closed + '}';
+                    default:
+                        break;
+                }
+
+                if (closed) {
+                    throw new SQLException("Statement is already returned to the cache");
+                }
+
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+    }
+}
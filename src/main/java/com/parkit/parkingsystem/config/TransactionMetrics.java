@@ -0,0 +1,65 @@
+package com.parkit.parkingsystem.config;
+
+/**
+ * The class <code>TransactionMetrics</code> is an immutable snapshot of the
+ * units of work run by a <code>TransactionalDataBaseConfigImpl</code>.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this <code>TransactionMetrics</code>.
+ */
+public class TransactionMetrics {
+
+    private final long transactions;
+    private final long commits;
+    private final long rollbacks;
+    private final long autoCommitConnections;
+
+    /**
+     * Construct new <code>TransactionMetrics</code> from passed parameters.
+     *
+     * @param transactions  units of work started
+     * @param commits  units of work committed
+     * @param rollbacks  units of work rolled back
+     * @param autoCommitConnections  connections handed out outside of a unit
+     *                               of work, each committing on its own
+     */
+    public TransactionMetrics(long transactions, long commits, long rollbacks, long autoCommitConnections) {
+        this.transactions = transactions;
+        this.commits = commits;
+        this.rollbacks = rollbacks;
+        this.autoCommitConnections = autoCommitConnections;
+    }
+
+    public long getTransactions() {
+        return transactions;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public long getRollbacks() {
+        return rollbacks;
+    }
+
+    public long getAutoCommitConnections() {
+        return autoCommitConnections;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>TransactionMetrics</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "TransactionMetrics{" +
+                "transactions=" + transactions +
+                ", commits=" + commits +
+                ", rollbacks=" + rollbacks +
+                ", autoCommitConnections=" + autoCommitConnections +
+                '}';
+    }
+}
@@ -0,0 +1,220 @@
+package com.parkit.parkingsystem.config;
+
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.config.contracts.TransactionManager;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ *     <code>DataBaseConfig</code> and <code>TransactionManager</code> letting
+ * several DAO calls share one connection and one commit.
+ * <p>
+ *     <code>inTransaction</code> takes a connection from the wrapped
+ * <code>DataBaseConfig</code>, turns auto-commit off and binds it to the
+ * current thread. Until the work returns, <code>getConnection</code> called
+ * from that thread hands out the bound connection behind a proxy ignoring
+ * <code>close</code>, so the try-with-resources blocks of the DAOs leave it
+ * open for the next DAO call. Outside of a unit of work connections come
+ * straight from the wrapped <code>DataBaseConfig</code> in auto-commit mode.
+ * <p>
+ *     Actions passed to <code>afterCommit</code> during a unit of work run
+ * in the order they were passed once its connection is committed and
+ * released, and are dropped when it is rolled back.
+ */
+public class TransactionalDataBaseConfigImpl implements DataBaseConfig, TransactionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger("TransactionalDataBaseConfig");
+
+    private final DataBaseConfig dataBaseConfig;
+    private final ThreadLocal<Connection> boundConnection = new ThreadLocal<>();
+    private final ThreadLocal<List<Runnable>> afterCommitActions = new ThreadLocal<>();
+
+    private final LongAdder transactions = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder rollbacks = new LongAdder();
+    private final LongAdder autoCommitConnections = new LongAdder();
+
+    /**
+     *     Stores <code>DataBaseConfig</code> variable passed as parameter and
+     * creates instance of <code>TransactionalDataBaseConfigImpl</code>.
+     *
+     * @param dataBaseConfig  instance of <code>DataBaseConfig</code> the
+     *                        connections are taken from
+     */
+    public TransactionalDataBaseConfigImpl(DataBaseConfig dataBaseConfig) {
+        this.dataBaseConfig = dataBaseConfig;
+    }
+
+    @Override
+    public Connection getConnection() throws ClassNotFoundException, SQLException {
+
+        Connection bound = boundConnection.get();
+
+        if (bound != null) {
+            return joined(bound);
+        }
+
+        autoCommitConnections.increment();
+
+        return dataBaseConfig.getConnection();
+    }
+
+    @Override
+    public void closeResultSet(ResultSet rs) {
+
+        dataBaseConfig.closeResultSet(rs);
+    }
+
+    @Override
+    public <T> T inTransaction(Supplier<T> work) {
+
+        if (boundConnection.get() != null) {
+            return work.get();
+        }
+
+        Connection connection = begin();
+        List<Runnable> actions = new ArrayList<>();
+        boundConnection.set(connection);
+        afterCommitActions.set(actions);
+        transactions.increment();
+        T result;
+
+        try {
+
+            result = work.get();
+
+            connection.commit();
+            commits.increment();
+
+        } catch (SQLException ex) {
+
+            rollback(connection);
+            logger.error("Error committing transaction", ex);
+            throw new UnsuccessfulOperationException("Unable to commit transaction", ex);
+
+        } catch (RuntimeException | Error ex) {
+
+            rollback(connection);
+            throw ex;
+
+        } finally {
+
+            boundConnection.remove();
+            afterCommitActions.remove();
+            end(connection);
+        }
+
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException ex) {
+                logger.error("Error running action after commit", ex);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void afterCommit(Runnable action) {
+
+        List<Runnable> actions = afterCommitActions.get();
+
+        if (actions != null) {
+            actions.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the unit of work counters.
+     *
+     * @return instance of <code>TransactionMetrics</code>, never null
+     */
+    public TransactionMetrics getMetrics() {
+
+        return new TransactionMetrics(transactions.sum(), commits.sum(), rollbacks.sum(),
+                autoCommitConnections.sum());
+    }
+
+    private Connection begin() {
+
+        Connection connection = null;
+
+        try {
+
+            connection = dataBaseConfig.getConnection();
+            connection.setAutoCommit(false);
+
+            return connection;
+
+        } catch (ClassNotFoundException | SQLException ex) {
+
+            if (connection != null) {
+                end(connection);
+            }
+            logger.error("Error starting transaction", ex);
+            throw new UnsuccessfulOperationException("Unable to start transaction", ex);
+        }
+    }
+
+    private void rollback(Connection connection) {
+
+        rollbacks.increment();
+
+        try {
+            connection.rollback();
+        } catch (SQLException ex) {
+            logger.error("Error rolling back transaction", ex);
+        }
+    }
+
+    private void end(Connection connection) {
+
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException ex) {
+            logger.error("Error restoring auto-commit", ex);
+        }
+
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            logger.error("Error closing transaction connection", ex);
+        }
+    }
+
+    private static Connection joined(Connection bound) {
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(bound, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+}
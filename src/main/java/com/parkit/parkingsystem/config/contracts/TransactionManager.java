@@ -0,0 +1,53 @@
+package com.parkit.parkingsystem.config.contracts;
+
+import java.util.function.Supplier;
+
+/**
+ *     Runs a unit of work on one database connection with one commit.
+ * <p>
+ *     DAOs join the unit of work without changes, through the
+ * <code>DataBaseConfig</code> they already use: while the work runs, every
+ * <code>getConnection</code> call made by the same thread returns the
+ * connection of the unit of work.
+ * <p>
+ *     Consists of methods <code>inTransaction</code> and
+ * <code>afterCommit</code>, and flag static instance <code>NONE</code>, which
+ * runs the work directly, every DAO call then committing on its own.
+ */
+public interface TransactionManager {
+
+    /**
+     * Runs the work directly, without a unit of work.
+     */
+    TransactionManager NONE = new TransactionManager() {
+        @Override
+        public <T> T inTransaction(Supplier<T> work) {
+            return work.get();
+        }
+    };
+
+    /**
+     *     Runs the work passed as parameter in a unit of work, committed when
+     * the work returns and rolled back when it throws. Called while a unit of
+     * work is already running on the thread, the work joins it.
+     *
+     * @param work  database operations to run as one unit
+     * @param <T>  type of the result of the work
+     * @return result of the work
+     * @throws com.parkit.parkingsystem.exception.UnsuccessfulOperationException
+     * if the unit of work can not be started or committed
+     */
+    <T> T inTransaction(Supplier<T> work);
+
+    /**
+     *     Runs the action passed as parameter once the unit of work running
+     * on the thread has committed, or never if it is rolled back, so state
+     * kept outside the database only reflects committed rows. Outside of a
+     * unit of work, the action runs right away.
+     *
+     * @param action  operation to run after the commit, should not throw
+     */
+    default void afterCommit(Runnable action) {
+        action.run();
+    }
+}
@@ -12,6 +12,26 @@ public class DBConstants {
     public static final String GET_NEXT_PARKING_SPOT = "select min(PARKING_NUMBER) from parking where " +
             "AVAILABLE = true and TYPE = ?";
 
+    /**
+     * Retrieves from database table parking all slots with their type and
+     * availability
+     */
+    public static final String GET_PARKING_SPOTS = "select PARKING_NUMBER, AVAILABLE, TYPE from parking";
+
+    /**
+     * Locks in database table parking first available slot for passed parking
+     * type, skipping slots already locked by other transactions
+     */
+    public static final String LOCK_NEXT_PARKING_SPOT = "select PARKING_NUMBER from parking where " +
+            "AVAILABLE = true and TYPE = ? order by PARKING_NUMBER limit 1 for update skip locked";
+
+    /**
+     * Marks as occupied in database table parking passed parking number, if it
+     * is still available
+     */
+    public static final String CLAIM_PARKING_SPOT = "update parking set AVAILABLE = false where " +
+            "PARKING_NUMBER = ? and AVAILABLE = true";
+
     /**
      * Updates database table parking for passed parking number with passed
      * boolean variable for availability status
@@ -38,4 +58,126 @@ public class DBConstants {
     public static final String GET_TICKET = "select t.PARKING_NUMBER, t.ID, t.PRICE, t.IN_TIME, t.OUT_TIME," +
             " p.TYPE from ticket t,parking p where p.parking_number = t.parking_number and t.VEHICLE_REG_NUMBER=?" +
             " order by t.IN_TIME desc  limit 1";
+
+    /**
+     * Retrieves from database tables ticket and ticket_archive registration
+     * numbers of all vehicles that have left the parking at least once
+     */
+    public static final String GET_RECURRING_VEHICLE_REG_NUMBERS = "select VEHICLE_REG_NUMBER from ticket" +
+            " where OUT_TIME is not null union select VEHICLE_REG_NUMBER from ticket_archive";
+
+    /**
+     * Counts in database tables ticket and ticket_archive up to two tickets
+     * per table for passed registration number, passed once per table, two
+     * or more meaning the vehicle has visited before
+     */
+    public static final String COUNT_VISITS_UP_TO_TWO = "select count(*) from ((select ID from ticket" +
+            " where VEHICLE_REG_NUMBER = ? limit 2) union all (select ID from ticket_archive" +
+            " where VEHICLE_REG_NUMBER = ? limit 2)) visits";
+
+    /**
+     * Retrieves from database tables ticket and ticket_archive the parking
+     * type, in and out time and price of all tickets closed between the
+     * passed out times, from inclusive to exclusive, the range being passed
+     * once per table
+     */
+    public static final String GET_CLOSED_TICKETS_BETWEEN = "select p.TYPE, t.IN_TIME, t.OUT_TIME, t.PRICE" +
+            " from ticket t, parking p where p.PARKING_NUMBER = t.PARKING_NUMBER and t.OUT_TIME >= ?" +
+            " and t.OUT_TIME < ? union all select p.TYPE, a.IN_TIME, a.OUT_TIME, a.PRICE from ticket_archive a," +
+            " parking p where p.PARKING_NUMBER = a.PARKING_NUMBER and a.OUT_TIME >= ? and a.OUT_TIME < ?";
+
+    /**
+     * Retrieves from database table ticket the next tickets, in out time and
+     * id order, closed before the passed out time and following the passed
+     * out time and id, up to the passed count
+     */
+    public static final String GET_ARCHIVABLE_TICKETS = "select ID, PARKING_NUMBER, VEHICLE_REG_NUMBER," +
+            " PRICE, IN_TIME, OUT_TIME from ticket where OUT_TIME < ? and (OUT_TIME > ?" +
+            " or (OUT_TIME = ? and ID > ?)) order by OUT_TIME, ID limit ?";
+
+    /**
+     * Creating in database table ticket_archive record for passed ticket,
+     * keeping its id
+     */
+    public static final String ARCHIVE_TICKET = "insert into ticket_archive(ID, PARKING_NUMBER," +
+            " VEHICLE_REG_NUMBER, PRICE, IN_TIME, OUT_TIME) values(?,?,?,?,?,?)";
+
+    /**
+     * Deletes from database table ticket record for passed <code>id</code>,
+     * if it is closed
+     */
+    public static final String DELETE_CLOSED_TICKET = "delete from ticket where ID = ? and OUT_TIME is not null";
+
+    /**
+     * Creates, if missing, database table schema_version recording applied
+     * migrations
+     */
+    public static final String CREATE_SCHEMA_VERSION = "create table if not exists schema_version(" +
+            "VERSION int PRIMARY KEY, DESCRIPTION varchar(100) NOT NULL, CHECKSUM bigint NOT NULL," +
+            " INSTALLED_ON DATETIME NOT NULL)";
+
+    /**
+     * Retrieves from database table schema_version all applied migrations with
+     * their checksum
+     */
+    public static final String GET_SCHEMA_VERSIONS = "select VERSION, CHECKSUM from schema_version order by VERSION";
+
+    /**
+     * Creating in database table schema_version record for applied migration
+     */
+    public static final String SAVE_SCHEMA_VERSION = "insert into schema_version(VERSION, DESCRIPTION, CHECKSUM," +
+            " INSTALLED_ON) values(?,?,?,?)";
+
+    /**
+     * Creates, if missing, database table schema_lock holding the lease that
+     * serializes migrations of instances sharing the database
+     */
+    public static final String CREATE_SCHEMA_LOCK = "create table if not exists schema_lock(" +
+            "ID int PRIMARY KEY, LOCKED boolean NOT NULL, LOCKED_AT DATETIME, LOCKED_BY varchar(100))";
+
+    /**
+     * Creating in database table schema_lock the single lease record, failing
+     * with a duplicate key if another instance created it first
+     */
+    public static final String INIT_SCHEMA_LOCK = "insert into schema_lock(ID, LOCKED) values(1, false)";
+
+    /**
+     * Taking in database table schema_lock the lease for passed holder, if it
+     * is free or was taken before passed stale time
+     */
+    public static final String ACQUIRE_SCHEMA_LOCK = "update schema_lock set LOCKED = true, LOCKED_AT = ?," +
+            " LOCKED_BY = ? where ID = 1 and (LOCKED = false or LOCKED_AT < ?)";
+
+    /**
+     * Freeing in database table schema_lock the lease, if still held by passed
+     * holder
+     */
+    public static final String RELEASE_SCHEMA_LOCK = "update schema_lock set LOCKED = false, LOCKED_AT = null," +
+            " LOCKED_BY = null where ID = 1 and LOCKED_BY = ?";
+
+    /**
+     * Retrieves from database table import_checkpoint the line, byte offset
+     * and totals of the last commit of the import of passed gate log
+     */
+    public static final String GET_IMPORT_CHECKPOINT = "select LINE_NUMBER, BYTE_OFFSET, IMPORTED, REJECTED" +
+            " from import_checkpoint where GATE_LOG = ?";
+
+    /**
+     * Updates in database table import_checkpoint the record of passed gate
+     * log
+     */
+    public static final String UPDATE_IMPORT_CHECKPOINT = "update import_checkpoint set LINE_NUMBER=?," +
+            " BYTE_OFFSET=?, IMPORTED=?, REJECTED=?, UPDATED_ON=? where GATE_LOG=?";
+
+    /**
+     * Creating in database table import_checkpoint record for passed gate log
+     */
+    public static final String SAVE_IMPORT_CHECKPOINT = "insert into import_checkpoint(LINE_NUMBER," +
+            " BYTE_OFFSET, IMPORTED, REJECTED, UPDATED_ON, GATE_LOG) values(?,?,?,?,?,?)";
+
+    /**
+     * Prefix turning a statement into a query plan request, supported by both
+     * MySQL and the embedded database
+     */
+    public static final String EXPLAIN = "explain ";
 }
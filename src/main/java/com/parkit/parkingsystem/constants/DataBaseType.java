@@ -0,0 +1,58 @@
+package com.parkit.parkingsystem.constants;
+
+import com.parkit.parkingsystem.config.DataBaseConfigImpl;
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+
+/**
+ * Represents the database backends the application can run against.
+ * Consists of method <code>createDataBaseConfig</code>, which when called
+ * from <code>DataBaseType</code> enum returns the <code>DataBaseConfig</code>
+ * opening connections to this backend, and static method
+ * <code>selected</code> which returns the backend chosen at runtime.
+ * <p>
+ *     The backend is chosen through system property
+ * <code>parkit.database</code>, <code>mysql</code> when not set.
+ */
+public enum DataBaseType {
+
+    MYSQL {
+        @Override
+        public DataBaseConfig createDataBaseConfig() {
+
+            return new DataBaseConfigImpl();
+        }
+    }, EMBEDDED {
+        @Override
+        public DataBaseConfig createDataBaseConfig() {
+
+            return new EmbeddedDataBaseConfigImpl();
+        }
+    };
+
+    /**
+     * Name of the system property selecting the backend.
+     */
+    public static final String PROPERTY = "parkit.database";
+
+    /**
+     * Returns the <code>DataBaseConfig</code> opening connections to this
+     * backend.
+     *
+     * @return new instance of <code>DataBaseConfig</code>, never null
+     */
+    public abstract DataBaseConfig createDataBaseConfig();
+
+    /**
+     * Returns the backend chosen through system property
+     * <code>parkit.database</code>, case insensitive.
+     *
+     * @return instance of <code>DataBaseType</code>, <code>MYSQL</code> when
+     * property is not set
+     * @throws IllegalArgumentException if the property names no backend
+     */
+    public static DataBaseType selected() {
+
+        return valueOf(System.getProperty(PROPERTY, MYSQL.name()).trim().toUpperCase());
+    }
+}
@@ -0,0 +1,104 @@
+package com.parkit.parkingsystem.constants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Represents the ordered schema changes applied over the tables created by
+ * <code>Data.sql</code>.
+ * <p>
+ *     Each <code>enum</code> is associated with a version, a description, the
+ * table and, for an index, the index it creates, and the DDL statement
+ * applied through constructor injection. Versions are
+ * applied in ascending order and recorded together with a checksum of their
+ * statement, so a migration already applied must never be edited, a new
+ * <code>Migration</code> has to be appended instead.
+ * <p>
+ *     The table and index names let a migration whose object already exists,
+ * created by an interrupted run whose DDL was committed before its version
+ * was recorded, be recorded without executing its statement again.
+ */
+public enum Migration {
+
+    V1_INDEX_PARKING_TYPE_AVAILABLE(1, "Covering index for next available parking spot lookups",
+            "parking", "IDX_PARKING_TYPE_AVAILABLE",
+            "create index IDX_PARKING_TYPE_AVAILABLE on parking(TYPE, AVAILABLE, PARKING_NUMBER)"),
+    V2_INDEX_TICKET_VEHICLE_REG_NUMBER(2, "Covering index for latest ticket lookups by registration number",
+            "ticket", "IDX_TICKET_VEHICLE_REG_NUMBER",
+            "create index IDX_TICKET_VEHICLE_REG_NUMBER on ticket(VEHICLE_REG_NUMBER, IN_TIME, PARKING_NUMBER," +
+                    " PRICE, OUT_TIME)"),
+    V3_INDEX_TICKET_OUT_TIME(3, "Index for report scans of tickets closed in a period",
+            "ticket", "IDX_TICKET_OUT_TIME",
+            "create index IDX_TICKET_OUT_TIME on ticket(OUT_TIME)"),
+    V4_CREATE_TICKET_ARCHIVE(4, "Archive table of closed tickets past their retention",
+            "ticket_archive", null,
+            "create table ticket_archive(ID int PRIMARY KEY, PARKING_NUMBER int NOT NULL," +
+                    " VEHICLE_REG_NUMBER varchar(10) NOT NULL, PRICE double, IN_TIME DATETIME NOT NULL," +
+                    " OUT_TIME DATETIME NOT NULL)"),
+    V5_INDEX_TICKET_ARCHIVE_OUT_TIME(5, "Index for report scans of archived tickets closed in a period",
+            "ticket_archive", "IDX_TICKET_ARCHIVE_OUT_TIME",
+            "create index IDX_TICKET_ARCHIVE_OUT_TIME on ticket_archive(OUT_TIME)"),
+    V6_INDEX_TICKET_ARCHIVE_VEHICLE_REG_NUMBER(6, "Index for recurring user lookups of archived tickets",
+            "ticket_archive", "IDX_TICKET_ARCHIVE_VEHICLE_REG_NUMBER",
+            "create index IDX_TICKET_ARCHIVE_VEHICLE_REG_NUMBER on ticket_archive(VEHICLE_REG_NUMBER)"),
+    V7_CREATE_IMPORT_CHECKPOINT(7, "Checkpoint table of gate log imports committed with their rows",
+            "import_checkpoint", null,
+            "create table import_checkpoint(GATE_LOG varchar(255) PRIMARY KEY, LINE_NUMBER bigint NOT NULL," +
+                    " BYTE_OFFSET bigint NOT NULL, IMPORTED bigint NOT NULL, REJECTED bigint NOT NULL," +
+                    " UPDATED_ON DATETIME NOT NULL)");
+
+    private final int version;
+    private final String description;
+    private final String table;
+    private final String index;
+    private final String sql;
+
+    Migration(int version, String description, String table, String index, String sql) {
+        this.version = version;
+        this.description = description;
+        this.table = table;
+        this.index = index;
+        this.sql = sql;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Gets the index created by this <code>Migration</code>.
+     *
+     * @return the index name, <code>null</code> if the migration creates the
+     * table itself
+     */
+    public String getIndex() {
+        return index;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Calculates CRC32 checksum of the statement of this
+     * <code>Migration</code>, stored when the migration is applied and
+     * compared on every following start.
+     *
+     * @return the checksum as <code>long</code> value
+     */
+    public long getChecksum() {
+
+        CRC32 crc = new CRC32();
+        crc.update(sql.getBytes(StandardCharsets.UTF_8));
+
+        return crc.getValue();
+    }
+}
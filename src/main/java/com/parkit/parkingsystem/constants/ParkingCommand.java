@@ -45,6 +45,14 @@ public enum ParkingCommand {
 
             return false;
         }
+    }, STATISTICS(4) {
+        @Override
+        public boolean execute(ParkingService parkingService) {
+
+            parkingService.processStatistics();
+
+            return true;
+        }
     }, NOT_FOUND(0) {
         @Override
         public boolean execute(ParkingService parkingService) {
@@ -0,0 +1,42 @@
+package com.parkit.parkingsystem.constants;
+
+/**
+ * Represents the statements of <code>DBConstants</code> on hot paths together
+ * with the index their query plan is expected to use once all
+ * <code>Migration</code> are applied.
+ * <p>
+ *     Each <code>enum</code> is associated through constructor injection with
+ * the statement, the expected index name and a sample value bound to every
+ * parameter of the statement when it is explained.
+ */
+public enum QueryPlanCheck {
+
+    GET_NEXT_PARKING_SPOT(DBConstants.GET_NEXT_PARKING_SPOT, "IDX_PARKING_TYPE_AVAILABLE",
+            ParkingType.CAR.toString()),
+    LOCK_NEXT_PARKING_SPOT(DBConstants.LOCK_NEXT_PARKING_SPOT, "IDX_PARKING_TYPE_AVAILABLE",
+            ParkingType.CAR.toString()),
+    GET_TICKET(DBConstants.GET_TICKET, "IDX_TICKET_VEHICLE_REG_NUMBER", "ABCDEF"),
+    COUNT_VISITS_UP_TO_TWO(DBConstants.COUNT_VISITS_UP_TO_TWO, "IDX_TICKET_VEHICLE_REG_NUMBER", "ABCDEF");
+
+    private final String sql;
+    private final String expectedIndex;
+    private final String sampleParameter;
+
+    QueryPlanCheck(String sql, String expectedIndex, String sampleParameter) {
+        this.sql = sql;
+        this.expectedIndex = expectedIndex;
+        this.sampleParameter = sampleParameter;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getExpectedIndex() {
+        return expectedIndex;
+    }
+
+    public String getSampleParameter() {
+        return sampleParameter;
+    }
+}
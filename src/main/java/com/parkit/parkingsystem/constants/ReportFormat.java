@@ -0,0 +1,93 @@
+package com.parkit.parkingsystem.constants;
+
+import com.parkit.parkingsystem.service.RevenueReport;
+import com.parkit.parkingsystem.service.RevenueReportRow;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Represents the file formats a <code>RevenueReport</code> is written in.
+ * Consists of method <code>write</code>, which when called from
+ * <code>ReportFormat</code> enum writes the rows of the report to the passed
+ * <code>Writer</code> one at a time, and <code>forFile</code> which selects
+ * the format from the extension of a file name.
+ * <p>
+ *     Amounts are written with two decimals and utilization with four,
+ * always with a dot as decimal separator.
+ */
+public enum ReportFormat {
+
+    CSV {
+        @Override
+        public void write(RevenueReport report, Writer writer) throws IOException {
+
+            writer.write("period_start,parking_type,tickets,revenue,dwell_seconds,average_dwell_seconds,"
+                    + "max_dwell_seconds,utilization\n");
+
+            for (RevenueReportRow row : report.getRows()) {
+                writer.write(row.getPeriodStart() + "," + row.getParkingType() + "," + row.getTickets() + ","
+                        + amount(row.getRevenue()) + "," + row.getDwellSeconds() + ","
+                        + amount(row.getAverageDwellSeconds()) + "," + row.getMaxDwellSeconds() + ","
+                        + ratio(row.getUtilization()) + "\n");
+            }
+        }
+    },
+    JSON {
+        @Override
+        public void write(RevenueReport report, Writer writer) throws IOException {
+
+            writer.write("{\"from\":\"" + report.getFrom() + "\",\"to\":\"" + report.getTo()
+                    + "\",\"period\":\"" + report.getPeriod() + "\",\"ticketsRead\":" + report.getTicketsRead()
+                    + ",\"ticketsSkipped\":" + report.getTicketsSkipped() + ",\"rows\":[");
+
+            String separator = "\n";
+
+            for (RevenueReportRow row : report.getRows()) {
+                writer.write(separator + "{\"periodStart\":\"" + row.getPeriodStart()
+                        + "\",\"parkingType\":\"" + row.getParkingType()
+                        + "\",\"tickets\":" + row.getTickets()
+                        + ",\"revenue\":" + amount(row.getRevenue())
+                        + ",\"dwellSeconds\":" + row.getDwellSeconds()
+                        + ",\"averageDwellSeconds\":" + amount(row.getAverageDwellSeconds())
+                        + ",\"maxDwellSeconds\":" + row.getMaxDwellSeconds()
+                        + ",\"utilization\":" + ratio(row.getUtilization()) + "}");
+                separator = ",\n";
+            }
+
+            writer.write("\n]}\n");
+        }
+    };
+
+    /**
+     * Writes the report passed as parameter in the format represented by
+     * <code>enum</code> <code>ReportFormat</code>.
+     *
+     * @param report  the report written
+     * @param writer  destination of the report, left open
+     * @throws IOException if the writer fails
+     */
+    public abstract void write(RevenueReport report, Writer writer) throws IOException;
+
+    /**
+     * Selects the format from the extension of the file passed as parameter.
+     *
+     * @param file  path of the report
+     * @return <code>JSON</code> for a <code>.json</code> file,
+     * <code>CSV</code> otherwise
+     */
+    public static ReportFormat forFile(Path file) {
+
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json") ? JSON : CSV;
+    }
+
+    private static String amount(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static String ratio(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+}
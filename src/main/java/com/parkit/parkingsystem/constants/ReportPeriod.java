@@ -0,0 +1,34 @@
+package com.parkit.parkingsystem.constants;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the periods a report groups the tickets by.
+ * Consists of method <code>getStart</code>, which when called from
+ * <code>ReportPeriod</code> enum returns the first day of the period holding
+ * the passed day.
+ */
+public enum ReportPeriod {
+
+    DAY {
+        @Override
+        public LocalDate getStart(LocalDate day) {
+            return day;
+        }
+    },
+    MONTH {
+        @Override
+        public LocalDate getStart(LocalDate day) {
+            return day.withDayOfMonth(1);
+        }
+    };
+
+    /**
+     * Returns the first day of the period holding the day passed as
+     * parameter.
+     *
+     * @param day  day in UTC
+     * @return first day of its period
+     */
+    public abstract LocalDate getStart(LocalDate day);
+}
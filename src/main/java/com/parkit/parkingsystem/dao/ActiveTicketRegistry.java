@@ -0,0 +1,129 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *     In-memory registry of the open tickets, those of vehicles still in the
+ * parking, keyed by vehicle registration number.
+ * <p>
+ *     Entries are immutable copies of the registered tickets, every lookup
+ * returns a new <code>Ticket</code>, so callers changing the returned ticket
+ * never change the registry. Lookups are counted as hits and misses.
+ */
+public class ActiveTicketRegistry {
+
+    private final ConcurrentMap<String, Entry> tickets = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Registers the open ticket passed as parameter, replacing any ticket
+     * registered for the same vehicle.
+     *
+     * @param ticket  open <code>Ticket</code> with id, parking spot and
+     *                registration number set
+     */
+    public void register(Ticket ticket) {
+
+        tickets.put(ticket.getVehicleRegNumber(), new Entry(ticket));
+    }
+
+    /**
+     * Returns a copy of the open ticket of the vehicle passed as parameter.
+     *
+     * @param vehicleRegNumber  vehicle registration number
+     * @return new <code>Ticket</code> with out-time -1, or
+     * <code>Ticket.NOT_FOUND</code> if no open ticket is registered for the
+     * vehicle, never null
+     */
+    public Ticket find(String vehicleRegNumber) {
+
+        Entry entry = vehicleRegNumber == null ? null : tickets.get(vehicleRegNumber);
+
+        if (entry == null) {
+
+            misses.increment();
+            return Ticket.NOT_FOUND;
+        }
+
+        hits.increment();
+
+        return entry.toTicket(vehicleRegNumber);
+    }
+
+    /**
+     * Removes the ticket of the vehicle passed as parameter.
+     *
+     * @param vehicleRegNumber  vehicle registration number
+     */
+    public void remove(String vehicleRegNumber) {
+
+        if (vehicleRegNumber != null) {
+            tickets.remove(vehicleRegNumber);
+        }
+    }
+
+    /**
+     * Returns copies of all registered tickets, without counting lookups.
+     * Tickets registered or removed meanwhile may or may not be included.
+     *
+     * @return <code>List</code> of <code>Ticket</code> with out-time -1,
+     * never null
+     */
+    public List<Ticket> getTickets() {
+
+        List<Ticket> copies = new ArrayList<>(tickets.size());
+
+        tickets.forEach((vehicleRegNumber, entry) -> copies.add(entry.toTicket(vehicleRegNumber)));
+
+        return copies;
+    }
+
+    /**
+     * Returns a snapshot of the registry size and lookup counters.
+     *
+     * @return instance of <code>ActiveTicketRegistryMetrics</code>, never null
+     */
+    public ActiveTicketRegistryMetrics getMetrics() {
+
+        return new ActiveTicketRegistryMetrics(tickets.size(), hits.sum(), misses.sum());
+    }
+
+    private static final class Entry {
+
+        private final int id;
+        private final int parkingNumber;
+        private final ParkingType parkingType;
+        private final double price;
+        private final long inTime;
+
+        private Entry(Ticket ticket) {
+            this.id = ticket.getId();
+            this.parkingNumber = ticket.getParkingSpot().getId();
+            this.parkingType = ticket.getParkingSpot().getParkingType();
+            this.price = ticket.getPrice();
+            this.inTime = ticket.getInTime();
+        }
+
+        private Ticket toTicket(String vehicleRegNumber) {
+
+            Ticket ticket = new Ticket();
+
+            ticket.setId(id);
+            ticket.setParkingSpot(new ParkingSpot(parkingNumber, parkingType, false));
+            ticket.setVehicleRegNumber(vehicleRegNumber);
+            ticket.setPrice(price);
+            ticket.setInTime(inTime);
+
+            return ticket;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.parkit.parkingsystem.dao;
+
+/**
+ * The class <code>ActiveTicketRegistryMetrics</code> is an immutable snapshot
+ * of the size and lookup counters of an <code>ActiveTicketRegistry</code>.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>ActiveTicketRegistryMetrics</code>.
+ */
+public class ActiveTicketRegistryMetrics {
+
+    private final int activeTickets;
+    private final long hits;
+    private final long misses;
+
+    /**
+     * Construct new <code>ActiveTicketRegistryMetrics</code> from passed
+     * parameters.
+     *
+     * @param activeTickets  open tickets currently registered
+     * @param hits  lookups answered by the registry
+     * @param misses  lookups of vehicles without registered ticket
+     */
+    public ActiveTicketRegistryMetrics(int activeTickets, long hits, long misses) {
+        this.activeTickets = activeTickets;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    public int getActiveTickets() {
+        return activeTickets;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns share of lookups answered by the registry.
+     *
+     * @return hit ratio between 0 and 1, 0 when no lookup was made
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>ActiveTicketRegistryMetrics</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "ActiveTicketRegistryMetrics{" +
+                "activeTickets=" + activeTickets +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", hitRatio=" + getHitRatio() +
+                '}';
+    }
+}
@@ -0,0 +1,272 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
+import com.parkit.parkingsystem.exception.PendingWritesException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *     <code>ParkingSpotDAO</code> decorator allocating spots in memory with
+ * one <code>LockFreeSpotAllocator</code> per <code>ParkingType</code>, for
+ * many gates of one application sharing a single instance.
+ * <p>
+ *     <code>claimNextAvailableSlot</code> takes a spot from the allocator
+ * and then marks it occupied in the database through
+ * <code>claimParking</code> of the decorated DAO, which only updates a spot
+ * still available. A spot the database reports occupied stays taken in the
+ * allocator, matching the database, and the next one is tried. If the write
+ * fails, the spot is given back to the allocator. A spot whose release is
+ * still queued behind, reported by <code>PendingWritesException</code>, is
+ * given back once the claim is over and skipped meanwhile, and the exception
+ * is only rethrown if no other spot could be claimed, so the unit of work is
+ * retried once the releases are written.
+ * <code>updateParking</code> keeps the allocators up to date after the
+ * decorated DAO succeeded.
+ * <p>
+ *     The allocators are loaded from the database on first use. The
+ * database stays the source of truth: when an allocator has no free spot
+ * the decorated DAO is asked, and if it finds one the allocators are
+ * reloaded. Claims and updates hold the read lock of a
+ * <code>ReadWriteLock</code> from the allocator to the database and a
+ * reload holds its write lock, so a reload never reads the database while
+ * a spot is taken in memory and not yet written. Applications sharing the
+ * database with other applications allocating spots should use
+ * <code>claimNextAvailableSlot</code> of <code>ParkingSpotDAOImpl</code>
+ * instead.
+ */
+public class AllocatingParkingSpotDAOImpl implements ParkingSpotDAO {
+
+    private static final Logger logger = LoggerFactory.getLogger("AllocatingParkingSpotDAO");
+
+    private final ParkingSpotDAO parkingSpotDAO;
+    private final ReadWriteLock claimLock = new ReentrantReadWriteLock();
+    private volatile Map<ParkingType, LockFreeSpotAllocator> allocators;
+
+    /**
+     *     Stores <code>ParkingSpotDAO</code> variable passed as parameter and
+     * creates instance of <code>AllocatingParkingSpotDAOImpl</code>.
+     *
+     * @param parkingSpotDAO  instance of <code>ParkingSpotDAO</code> reading
+     *                        and writing the database
+     */
+    public AllocatingParkingSpotDAOImpl(ParkingSpotDAO parkingSpotDAO) {
+        this.parkingSpotDAO = parkingSpotDAO;
+    }
+
+    @Override
+    public int getNextAvailableSlot(ParkingType parkingType) {
+
+        int parkingNumber = allocator(parkingType).peek();
+
+        if (parkingNumber > 0) {
+
+            return parkingNumber;
+        }
+
+        return checkDatabase(parkingType);
+    }
+
+    @Override
+    public int claimNextAvailableSlot(ParkingType parkingType) {
+
+        int parkingNumber = claim(parkingType);
+
+        if (parkingNumber > 0 || checkDatabase(parkingType) <= 0) {
+            return parkingNumber;
+        }
+
+        return claim(parkingType);
+    }
+
+    @Override
+    public boolean claimParking(ParkingSpot parkingSpot) {
+
+        allocator(parkingSpot.getParkingType());
+
+        claimLock.readLock().lock();
+        try {
+            LockFreeSpotAllocator allocator = allocators.get(parkingSpot.getParkingType());
+            boolean claimed = parkingSpotDAO.claimParking(parkingSpot);
+
+            allocator.reserve(parkingSpot.getId());
+
+            return claimed;
+
+        } finally {
+            claimLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ParkingSpot> getParkingSpots() {
+
+        return parkingSpotDAO.getParkingSpots();
+    }
+
+    @Override
+    public boolean updateParking(ParkingSpot parkingSpot) {
+
+        allocator(parkingSpot.getParkingType());
+
+        claimLock.readLock().lock();
+        try {
+            LockFreeSpotAllocator allocator = allocators.get(parkingSpot.getParkingType());
+            boolean updated = parkingSpotDAO.updateParking(parkingSpot);
+
+            if (parkingSpot.isAvailable()) {
+                allocator.release(parkingSpot.getId());
+            } else {
+                allocator.reserve(parkingSpot.getId());
+            }
+
+            return updated;
+
+        } finally {
+            claimLock.readLock().unlock();
+        }
+    }
+
+    /**
+     *     Rebuilds the allocators from the places currently in the database.
+     * Called on first use, it is public to allow a reload after the database
+     * was changed by another application. Waits for the claims and updates
+     * in flight, and holds new ones until the allocators are replaced.
+     */
+    public synchronized void reload() {
+
+        claimLock.writeLock().lock();
+        try {
+            load();
+        } finally {
+            claimLock.writeLock().unlock();
+        }
+    }
+
+    private void load() {
+
+        List<ParkingSpot> parkingSpots = parkingSpotDAO.getParkingSpots();
+        Map<ParkingType, Integer> capacities = new EnumMap<>(ParkingType.class);
+
+        for (ParkingSpot parkingSpot : parkingSpots) {
+            capacities.merge(parkingSpot.getParkingType(), parkingSpot.getId() + 1, Math::max);
+        }
+
+        Map<ParkingType, LockFreeSpotAllocator> fresh = new EnumMap<>(ParkingType.class);
+
+        for (ParkingType parkingType : ParkingType.values()) {
+            fresh.put(parkingType, new LockFreeSpotAllocator(capacities.getOrDefault(parkingType, 1)));
+        }
+
+        for (ParkingSpot parkingSpot : parkingSpots) {
+            if (parkingSpot.isAvailable()) {
+                fresh.get(parkingSpot.getParkingType()).release(parkingSpot.getId());
+            }
+        }
+
+        allocators = fresh;
+        logger.info("Spot allocators loaded with {} parking spots", parkingSpots.size());
+    }
+
+    /**
+     *     Takes spots from the allocator until the database confirms one, all
+     * under the read lock so no reload starts between the two.
+     *
+     * @return number of the claimed spot, -1 if the allocator has none left
+     * @throws PendingWritesException if the allocator has only spots whose
+     * release is still queued
+     */
+    private int claim(ParkingType parkingType) {
+
+        allocator(parkingType);
+
+        List<Integer> pending = new ArrayList<>();
+        PendingWritesException pendingWrites = null;
+
+        claimLock.readLock().lock();
+        try {
+            LockFreeSpotAllocator allocator = allocators.get(parkingType);
+
+            try {
+                for (int parkingNumber = allocator.allocate(); parkingNumber > 0;
+                     parkingNumber = allocator.allocate()) {
+
+                    boolean claimed;
+
+                    try {
+                        claimed = parkingSpotDAO.claimParking(new ParkingSpot(parkingNumber, parkingType, false));
+
+                    } catch (PendingWritesException ex) {
+
+                        pending.add(parkingNumber);
+                        pendingWrites = ex;
+                        continue;
+
+                    } catch (RuntimeException ex) {
+
+                        allocator.release(parkingNumber);
+                        throw ex;
+                    }
+
+                    if (claimed) {
+                        return parkingNumber;
+                    }
+
+                    logger.warn("Parking spot {} already occupied in database, trying next", parkingNumber);
+                }
+            } finally {
+                for (int parkingNumber : pending) {
+                    allocator.release(parkingNumber);
+                }
+            }
+
+        } finally {
+            claimLock.readLock().unlock();
+        }
+
+        if (pendingWrites != null) {
+            throw pendingWrites;
+        }
+
+        return -1;
+    }
+
+    private int checkDatabase(ParkingType parkingType) {
+
+        int parkingNumber = parkingSpotDAO.getNextAvailableSlot(parkingType);
+
+        if (parkingNumber > 0) {
+
+            logger.warn("Spot allocator of {} out of date, reloading", parkingType);
+            reload();
+        }
+
+        return parkingNumber;
+    }
+
+    /**
+     * Returns the allocator of the passed type, loading the allocators on
+     * first use. Not to be called under the read lock, which a load would
+     * wait for.
+     */
+    private LockFreeSpotAllocator allocator(ParkingType parkingType) {
+
+        if (allocators == null) {
+            synchronized (this) {
+                if (allocators == null) {
+                    reload();
+                }
+            }
+        }
+
+        return allocators.get(parkingType);
+    }
+}
@@ -0,0 +1,100 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.config.contracts.TransactionManager;
+import com.parkit.parkingsystem.dao.contracts.TicketDAO;
+import com.parkit.parkingsystem.model.Ticket;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ *     <code>TicketDAO</code> decorator serving <code>getTicket</code> for
+ * vehicles still in the parking from an <code>ActiveTicketRegistry</code>,
+ * instead of joining and sorting the database tables on every exit.
+ * <p>
+ *     <code>saveTicket</code> registers the ticket once the unit of work
+ * saving it through the decorated DAO has committed, so a ticket rolled back
+ * with the rest of an entry is never served. <code>updateTicket</code>
+ * removes it, whether the update
+ * succeeds or not, so a ticket the database does not hold never stays in
+ * the registry. Vehicles unknown to the registry are looked up in the
+ * database.
+ */
+public class CachingTicketDAOImpl implements TicketDAO {
+
+    private final TicketDAO ticketDAO;
+    private final ActiveTicketRegistry activeTicketRegistry;
+    private final TransactionManager transactionManager;
+
+    /**
+     *     Stores <code>TicketDAO</code> and <code>ActiveTicketRegistry</code>
+     * variables passed as parameters and creates instance of
+     * <code>CachingTicketDAOImpl</code> registering saved tickets right away,
+     * for a decorated DAO committing every call on its own.
+     *
+     * @param ticketDAO  instance of <code>TicketDAO</code> reading and
+     *                   writing the database
+     * @param activeTicketRegistry  registry of the open tickets
+     */
+    public CachingTicketDAOImpl(TicketDAO ticketDAO, ActiveTicketRegistry activeTicketRegistry) {
+        this(ticketDAO, activeTicketRegistry, TransactionManager.NONE);
+    }
+
+    /**
+     *     Stores <code>TicketDAO</code>, <code>ActiveTicketRegistry</code> and
+     * <code>TransactionManager</code> variables passed as parameters and
+     * creates instance of <code>CachingTicketDAOImpl</code>.
+     *
+     * @param ticketDAO  instance of <code>TicketDAO</code> reading and
+     *                   writing the database
+     * @param activeTicketRegistry  registry of the open tickets
+     * @param transactionManager  manager of the units of work the decorated
+     *                            DAO joins
+     */
+    public CachingTicketDAOImpl(TicketDAO ticketDAO, ActiveTicketRegistry activeTicketRegistry,
+                                TransactionManager transactionManager) {
+        this.ticketDAO = ticketDAO;
+        this.activeTicketRegistry = activeTicketRegistry;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public boolean saveTicket(Ticket ticket) {
+
+        boolean saved = ticketDAO.saveTicket(ticket);
+
+        if (ticket.getOutTime() == -1L && ticket.getId() > 0) {
+            transactionManager.afterCommit(() -> activeTicketRegistry.register(ticket));
+        }
+
+        return saved;
+    }
+
+    @Override
+    public Ticket getTicket(String vehicleRegNumber) {
+
+        Ticket ticket = activeTicketRegistry.find(vehicleRegNumber);
+
+        if (ticket == Ticket.NOT_FOUND) {
+
+            return ticketDAO.getTicket(vehicleRegNumber);
+        }
+
+        ticket.setOutTime(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC));
+
+        return ticket;
+    }
+
+    @Override
+    public boolean updateTicket(Ticket ticket) {
+
+        try {
+
+            return ticketDAO.updateTicket(ticket);
+
+        } finally {
+
+            activeTicketRegistry.remove(ticket.getVehicleRegNumber());
+        }
+    }
+}
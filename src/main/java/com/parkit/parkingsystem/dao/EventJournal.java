@@ -0,0 +1,586 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+/**
+ *     Append-only journal of events, kept in memory mapped segment files of
+ * one directory. Appending a record is a copy into the mapped segment under
+ * a short lock, with no system call, and a full segment is followed by a new
+ * one named after the position of its first record.
+ * <p>
+ *     A record is laid out as the length of its content, a CRC32C checksum of
+ * its content and the content itself, a type byte followed by a payload.
+ * Records are addressed by position, the count of record bytes appended
+ * before them, which <code>append</code> returns and <code>replay</code>
+ * starts from.
+ * <p>
+ *     An appended record lives in the page cache, so it survives a crash of
+ * the application but not one of the operating system until its segment is
+ * forced to disk. <code>append</code> forces the segment every
+ * <code>syncEveryRecords</code> records, 1 forcing every record, and a
+ * background thread forces it every <code>syncIntervalMillis</code>, which
+ * bounds the records lost by a power failure in count and in time.
+ * <p>
+ *     A journal directory is locked by the first journal opening it. When
+ * built, the journal recovers the tail of its last segment: the
+ * first record whose length or checksum does not match ends the journal and
+ * the bytes after it are cleared, so a record torn by a crash is dropped. A
+ * bad record in an earlier segment is reported by <code>replay</code> as
+ * corruption.
+ * <p>
+ *     Follows Builder pattern, the only mandatory parameter of the Builder
+ * is the directory of the segments.
+ */
+public class EventJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger("EventJournal");
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final Pattern SEGMENT_NAME = Pattern.compile("\\d{20}\\" + SEGMENT_SUFFIX);
+    private static final int HEADER_BYTES = 8;
+
+    /**
+     * Receives the records read by <code>replay</code>.
+     */
+    public interface RecordHandler {
+
+        /**
+         * Handles one record.
+         *
+         * @param type  type byte of the record
+         * @param payload  payload of the record, valid only during the call
+         */
+        void handle(byte type, ByteBuffer payload);
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int syncEveryRecords;
+    private final long syncIntervalMillis;
+
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel lockChannel;
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+    private long activeBase;
+    private int activeOffset;
+    private int unsynced;
+    private boolean closed;
+
+    private final ScheduledExecutorService syncer;
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder appendedBytes = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+
+    private EventJournal(Builder builder) throws IOException {
+
+        this.directory = builder.directory;
+        this.segmentSize = builder.segmentSize;
+        this.syncEveryRecords = builder.syncEveryRecords;
+        this.syncIntervalMillis = builder.syncIntervalMillis;
+
+        try {
+            open();
+
+        } catch (IOException | RuntimeException ex) {
+
+            if (activeChannel != null) {
+                activeChannel.close();
+            }
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+            throw ex;
+        }
+
+        if (syncIntervalMillis > 0) {
+
+            syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "event-journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+
+        } else {
+
+            syncer = null;
+        }
+    }
+
+    public static class Builder {
+
+        private final Path directory;
+        private int segmentSize = 64 << 20;
+        private int syncEveryRecords = 64;
+        private long syncIntervalMillis = 100;
+
+        /**
+         * Creates Builder of a journal kept in the passed directory, created
+         * if missing.
+         *
+         * @param directory  directory of the segment files
+         */
+        public Builder(Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Sets the size in bytes of new segment files, 64 MiB by default.
+         *
+         * @param segmentSize  size in bytes, at least 1 KiB
+         * @return this Builder
+         */
+        public Builder withSegmentSize(int segmentSize) {
+
+            this.segmentSize = segmentSize;
+
+            return this;
+        }
+
+        /**
+         * Sets how many records <code>append</code> lets pass before forcing
+         * the segment to disk, 0 leaving it to the background thread only.
+         *
+         * @param syncEveryRecords  count of records, 64 by default
+         * @return this Builder
+         */
+        public Builder withSyncEveryRecords(int syncEveryRecords) {
+
+            this.syncEveryRecords = syncEveryRecords;
+
+            return this;
+        }
+
+        /**
+         * Sets how often the background thread forces appended records to
+         * disk, 0 for no background thread.
+         *
+         * @param syncIntervalMillis  interval in milliseconds, 100 by default
+         * @return this Builder
+         */
+        public Builder withSyncIntervalMillis(long syncIntervalMillis) {
+
+            this.syncIntervalMillis = syncIntervalMillis;
+
+            return this;
+        }
+
+        /**
+         * Opens the journal and recovers the tail of its last segment.
+         *
+         * @return new instance of <code>EventJournal</code>
+         * @throws UnsuccessfulOperationException if the directory or a
+         * segment can not be opened
+         */
+        public EventJournal build() {
+
+            if (directory == null || segmentSize < 1024 || syncEveryRecords < 0 || syncIntervalMillis < 0) {
+                throw new IllegalArgumentException("Invalid event journal - directory " + directory
+                        + " segment size " + segmentSize + " sync every " + syncEveryRecords
+                        + " records or " + syncIntervalMillis + " ms");
+            }
+
+            try {
+                return new EventJournal(this);
+
+            } catch (IOException | UncheckedIOException ex) {
+
+                logger.error("Error opening event journal {}", directory, ex);
+                throw new UnsuccessfulOperationException("Unable to open event journal " + directory, ex);
+            }
+        }
+    }
+
+    /**
+     *     Appends a record. The record is visible to <code>replay</code> and
+     * survives a crash of the application once the method returns.
+     *
+     * @param type  type byte of the record
+     * @param payload  payload of the record, from its position to its limit,
+     *                 left unchanged
+     * @return position following the record
+     * @throws UnsuccessfulOperationException if the journal is closed or a
+     * new segment can not be opened
+     * @throws IllegalArgumentException if the record is larger than a segment
+     */
+    public long append(byte type, ByteBuffer payload) {
+
+        int length = 1 + payload.remaining();
+
+        if (HEADER_BYTES + length > segmentSize) {
+            throw new IllegalArgumentException("Record of " + length + " bytes does not fit a segment of "
+                    + segmentSize + " bytes");
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload.duplicate());
+
+        long position;
+        boolean syncDue;
+
+        synchronized (this) {
+
+            if (closed) {
+                throw new UnsuccessfulOperationException("Event journal " + directory + " is closed");
+            }
+
+            if (activeOffset + HEADER_BYTES + length > active.limit()) {
+                roll();
+            }
+
+            ByteBuffer record = active.duplicate();
+            record.position(activeOffset);
+            record.putInt(length).putInt((int) crc.getValue()).put(type).put(payload.duplicate());
+
+            activeOffset += HEADER_BYTES + length;
+            position = activeBase + activeOffset;
+            unsynced++;
+            syncDue = syncEveryRecords > 0 && unsynced >= syncEveryRecords;
+        }
+
+        appended.increment();
+        appendedBytes.add(HEADER_BYTES + length);
+
+        if (syncDue) {
+            sync();
+        }
+
+        return position;
+    }
+
+    /**
+     *     Reads the records from the passed position to the end of the
+     * journal, in the order they were appended. Meant to rebuild state
+     * before records are appended again.
+     *
+     * @param fromPosition  position of the first record, 0 or a position
+     *                      returned by this journal
+     * @param handler  receives each record
+     * @return position following the last record read
+     * @throws UnsuccessfulOperationException if a segment can not be read or
+     * holds a bad record
+     * @throws IllegalArgumentException if the position is outside the journal
+     */
+    public long replay(long fromPosition, RecordHandler handler) {
+
+        NavigableMap<Long, Path> toRead;
+        ByteBuffer last;
+        long end;
+
+        synchronized (this) {
+            toRead = new TreeMap<>(segments);
+            last = active.duplicate();
+            end = activeBase + activeOffset;
+        }
+
+        Long first = toRead.floorKey(fromPosition);
+
+        if (first == null || fromPosition > end) {
+            throw new IllegalArgumentException("Position " + fromPosition + " is outside event journal "
+                    + directory + " ending at " + end);
+        }
+
+        long position = fromPosition;
+
+        for (Map.Entry<Long, Path> segment : toRead.tailMap(first, true).entrySet()) {
+
+            long base = segment.getKey();
+            Long next = toRead.higherKey(base);
+            long segmentEnd = next == null ? end : next;
+            ByteBuffer buffer = next == null ? last : mapReadOnly(segment.getValue());
+            int offset = (int) (position - base);
+
+            while (base + offset < segmentEnd) {
+
+                int recordEnd = recordEnd(buffer, offset);
+
+                if (recordEnd < 0) {
+                    break;
+                }
+
+                ByteBuffer payload = buffer.duplicate();
+                payload.limit(recordEnd).position(offset + HEADER_BYTES + 1);
+                handler.handle(buffer.get(offset + HEADER_BYTES), payload.slice());
+
+                offset = recordEnd;
+            }
+
+            if (base + offset != segmentEnd) {
+                throw new UnsuccessfulOperationException("Event journal segment " + segment.getValue()
+                        + " is corrupt at offset " + offset);
+            }
+
+            position = segmentEnd;
+        }
+
+        return position;
+    }
+
+    /**
+     * Returns the position following the last appended record.
+     *
+     * @return position in bytes
+     */
+    public synchronized long getPosition() {
+
+        return activeBase + activeOffset;
+    }
+
+    /**
+     * Forces the records appended so far to disk.
+     */
+    public void sync() {
+
+        MappedByteBuffer segment;
+
+        synchronized (this) {
+
+            if (unsynced == 0 || closed) {
+                return;
+            }
+
+            segment = active;
+            unsynced = 0;
+        }
+
+        segment.force();
+        syncs.increment();
+    }
+
+    /**
+     * Returns a snapshot of the journal counters.
+     *
+     * @return instance of <code>EventJournalMetrics</code>, never null
+     */
+    public EventJournalMetrics getMetrics() {
+
+        int segmentCount;
+        long position;
+        int pending;
+
+        synchronized (this) {
+            segmentCount = segments.size();
+            position = activeBase + activeOffset;
+            pending = unsynced;
+        }
+
+        return new EventJournalMetrics(segmentCount, position, appended.sum(), appendedBytes.sum(), syncs.sum(),
+                pending);
+    }
+
+    /**
+     * Stops the background thread, forces the appended records to disk and
+     * closes the active segment.
+     */
+    @Override
+    public void close() {
+
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+
+        synchronized (this) {
+
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            active.force();
+
+            try {
+                activeChannel.close();
+                lockChannel.close();
+
+            } catch (IOException ex) {
+
+                logger.warn("Error closing event journal segment", ex);
+            }
+        }
+
+        logger.info("Event journal closed {}", getMetrics());
+    }
+
+    private void open() throws IOException {
+
+        Files.createDirectories(directory);
+
+        lockChannel = FileChannel.open(directory.resolve("journal.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+
+        try {
+            if (lockChannel.tryLock() == null) {
+                throw new IOException("Event journal " + directory + " is locked by another process");
+            }
+        } catch (IOException | OverlappingFileLockException ex) {
+
+            lockChannel.close();
+            throw new IOException("Event journal " + directory + " is already open", ex);
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+
+                String name = file.getFileName().toString();
+
+                if (SEGMENT_NAME.matcher(name).matches()) {
+                    segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file);
+                }
+            }
+        }
+
+        if (segments.isEmpty()) {
+
+            openSegment(0);
+            return;
+        }
+
+        Map.Entry<Long, Path> last = segments.lastEntry();
+        activeBase = last.getKey();
+        activeChannel = FileChannel.open(last.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                Math.max(activeChannel.size(), segmentSize));
+
+        recoverTail();
+    }
+
+    private void recoverTail() {
+
+        int offset = 0;
+        int recordEnd;
+
+        while ((recordEnd = recordEnd(active, offset)) >= 0) {
+            offset = recordEnd;
+        }
+
+        activeOffset = offset;
+
+        int dirtyEnd = offset;
+        int i = offset;
+
+        for (; i <= active.limit() - Long.BYTES; i += Long.BYTES) {
+            if (active.getLong(i) != 0) {
+                dirtyEnd = i + Long.BYTES;
+            }
+        }
+        for (; i < active.limit(); i++) {
+            if (active.get(i) != 0) {
+                dirtyEnd = i + 1;
+            }
+        }
+
+        if (dirtyEnd > offset) {
+
+            logger.warn("Event journal segment {} has a torn record at offset {}, clearing {} bytes",
+                    segments.lastEntry().getValue(), offset, dirtyEnd - offset);
+
+            for (i = offset; i < dirtyEnd; i++) {
+                active.put(i, (byte) 0);
+            }
+            active.force();
+        }
+    }
+
+    private void roll() {
+
+        try {
+            active.force();
+            activeChannel.close();
+            openSegment(activeBase + activeOffset);
+            unsynced = 0;
+
+        } catch (IOException ex) {
+
+            logger.error("Error rolling event journal {}", directory, ex);
+            throw new UnsuccessfulOperationException("Unable to open a new event journal segment", ex);
+        }
+    }
+
+    private void openSegment(long base) throws IOException {
+
+        Path file = directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+
+        activeChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        activeBase = base;
+        activeOffset = 0;
+        segments.put(base, file);
+    }
+
+    private void syncQuietly() {
+
+        try {
+            sync();
+
+        } catch (RuntimeException ex) {
+
+            logger.error("Error forcing event journal to disk", ex);
+        }
+    }
+
+    private static ByteBuffer mapReadOnly(Path file) {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+        } catch (IOException ex) {
+
+            logger.error("Error reading event journal segment {}", file, ex);
+            throw new UnsuccessfulOperationException("Unable to read event journal segment " + file, ex);
+        }
+    }
+
+    /**
+     * Checks the record at the passed offset.
+     *
+     * @return offset following the record, -1 if there is no complete record
+     * with a matching checksum at the offset
+     */
+    private static int recordEnd(ByteBuffer segment, int offset) {
+
+        if (offset > segment.limit() - HEADER_BYTES) {
+            return -1;
+        }
+
+        int length = segment.getInt(offset);
+
+        if (length <= 0 || length > segment.limit() - offset - HEADER_BYTES) {
+            return -1;
+        }
+
+        ByteBuffer content = segment.duplicate();
+        content.limit(offset + HEADER_BYTES + length).position(offset + HEADER_BYTES);
+
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+
+        return (int) crc.getValue() == segment.getInt(offset + 4) ? offset + HEADER_BYTES + length : -1;
+    }
+}
@@ -0,0 +1,82 @@
+package com.parkit.parkingsystem.dao;
+
+/**
+ * The class <code>EventJournalMetrics</code> is an immutable snapshot of the
+ * size and counters of an <code>EventJournal</code>.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>EventJournalMetrics</code>.
+ */
+public class EventJournalMetrics {
+
+    private final int segments;
+    private final long position;
+    private final long appended;
+    private final long appendedBytes;
+    private final long syncs;
+    private final int unsynced;
+
+    /**
+     * Construct new <code>EventJournalMetrics</code> from passed parameters.
+     *
+     * @param segments  segment files of the journal
+     * @param position  position following the last record
+     * @param appended  records appended since the journal was opened
+     * @param appendedBytes  bytes appended since the journal was opened
+     * @param syncs  times the active segment was forced to disk
+     * @param unsynced  records appended since the last force
+     */
+    public EventJournalMetrics(int segments, long position, long appended, long appendedBytes, long syncs,
+                               int unsynced) {
+        this.segments = segments;
+        this.position = position;
+        this.appended = appended;
+        this.appendedBytes = appendedBytes;
+        this.syncs = syncs;
+        this.unsynced = unsynced;
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public long getAppended() {
+        return appended;
+    }
+
+    public long getAppendedBytes() {
+        return appendedBytes;
+    }
+
+    public long getSyncs() {
+        return syncs;
+    }
+
+    public int getUnsynced() {
+        return unsynced;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>EventJournalMetrics</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "EventJournalMetrics{" +
+                "segments=" + segments +
+                ", position=" + position +
+                ", appended=" + appended +
+                ", appendedBytes=" + appendedBytes +
+                ", syncs=" + syncs +
+                ", unsynced=" + unsynced +
+                '}';
+    }
+}
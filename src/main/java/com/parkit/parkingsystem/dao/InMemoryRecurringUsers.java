@@ -0,0 +1,51 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *     <code>RecurringUsers</code> kept in memory in a <code>Set</code> of
+ * registration numbers, lost on restart unless the set is restored by its
+ * owner, as <code>JournalStore</code> does from its closed tickets.
+ */
+public class InMemoryRecurringUsers implements RecurringUsers {
+
+    private final Set<String> vehicleRegNumbers;
+
+    /**
+     * Creates instance of <code>InMemoryRecurringUsers</code> backed by an
+     * empty concurrent <code>Set</code>.
+     */
+    public InMemoryRecurringUsers() {
+        this(ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     *     Stores <code>Set</code> variable passed as parameter and creates
+     * instance of <code>InMemoryRecurringUsers</code> reading and writing
+     * through to it.
+     *
+     * @param vehicleRegNumbers  registration numbers of recurring users,
+     *                           safe for the threads using this instance
+     */
+    public InMemoryRecurringUsers(Set<String> vehicleRegNumbers) {
+        this.vehicleRegNumbers = vehicleRegNumbers;
+    }
+
+    @Override
+    public boolean contains(String vehicleRegNumber) {
+        return vehicleRegNumbers.contains(vehicleRegNumber);
+    }
+
+    @Override
+    public boolean add(String vehicleRegNumber) {
+        return vehicleRegNumbers.add(vehicleRegNumber);
+    }
+
+    @Override
+    public String toString() {
+        return "InMemoryRecurringUsers{size=" + vehicleRegNumbers.size() + '}';
+    }
+}
@@ -0,0 +1,250 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
+import com.parkit.parkingsystem.exception.PendingWritesException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *     <code>ParkingSpotDAO</code> decorator answering
+ * <code>getNextAvailableSlot</code> and <code>claimNextAvailableSlot</code>
+ * from an in-memory availability index instead of running a <code>min</code>
+ * aggregate or a locking scan over the database table <code>Parking</code>.
+ * <p>
+ *     The index holds one <code>BitSet</code> per <code>ParkingType</code>,
+ * bit <code>n</code> set when place number <code>n</code> is available, so
+ * the next available place is found by scanning words for the first set bit.
+ * It is loaded from the database on first use and kept up to date by
+ * <code>claimNextAvailableSlot</code>, <code>claimParking</code> and
+ * <code>updateParking</code>, after the decorated DAO succeeded.
+ * <p>
+ *     A claim takes the first available place out of the index, so
+ * concurrent gates get different candidates, and marks it occupied with the
+ * single row update of <code>claimParking</code>. A candidate already taken
+ * in the database is left out of the index and the next one is tried, up to
+ * <code>MAX_INDEX_CANDIDATES</code>, before the claim falls back to the
+ * locking scan of the decorated DAO. A candidate whose release is still
+ * queued behind, reported by <code>PendingWritesException</code>, is put
+ * back in the index once the claim is over and skipped meanwhile.
+ * <p>
+ *     The database stays the source of truth. When the index knows no
+ * available place, the decorated DAO is asked, and if it finds one the index
+ * is reloaded, which recovers from writes rolled back after the index was
+ * updated.
+ */
+public class IndexedParkingSpotDAOImpl implements ParkingSpotDAO {
+
+    private static final Logger logger = LoggerFactory.getLogger("IndexedParkingSpotDAO");
+
+    private static final int MAX_INDEX_CANDIDATES = 3;
+
+    private final ParkingSpotDAO parkingSpotDAO;
+    private final Map<ParkingType, BitSet> availability = new EnumMap<>(ParkingType.class);
+    private volatile boolean loaded;
+
+    /**
+     *     Stores <code>ParkingSpotDAO</code> variable passed as parameter and
+     * creates instance of <code>IndexedParkingSpotDAOImpl</code>.
+     *
+     * @param parkingSpotDAO  instance of <code>ParkingSpotDAO</code> reading
+     *                        and writing the database
+     */
+    public IndexedParkingSpotDAOImpl(ParkingSpotDAO parkingSpotDAO) {
+        this.parkingSpotDAO = parkingSpotDAO;
+
+        for (ParkingType parkingType : ParkingType.values()) {
+            availability.put(parkingType, new BitSet());
+        }
+    }
+
+    @Override
+    public int getNextAvailableSlot(ParkingType parkingType) {
+
+        BitSet available = index(parkingType);
+        int parkingNumber;
+
+        synchronized (available) {
+            parkingNumber = available.nextSetBit(1);
+        }
+
+        if (parkingNumber > 0) {
+
+            return parkingNumber;
+        }
+
+        parkingNumber = parkingSpotDAO.getNextAvailableSlot(parkingType);
+
+        if (parkingNumber > 0) {
+
+            logger.warn("Availability index of {} out of date, reloading", parkingType);
+            reload();
+        }
+
+        return parkingNumber;
+    }
+
+    @Override
+    public int claimNextAvailableSlot(ParkingType parkingType) {
+
+        BitSet available = index(parkingType);
+        List<Integer> pending = new ArrayList<>();
+        boolean indexEmpty = false;
+
+        try {
+            for (int attempt = 0; attempt < MAX_INDEX_CANDIDATES && !indexEmpty; attempt++) {
+
+                int candidate;
+
+                synchronized (available) {
+                    candidate = available.nextSetBit(1);
+                    if (candidate > 0) {
+                        available.clear(candidate);
+                    }
+                }
+
+                if (candidate <= 0) {
+
+                    indexEmpty = true;
+
+                } else if (claimCandidate(parkingType, candidate, pending)) {
+
+                    return candidate;
+                }
+            }
+        } finally {
+            for (int candidate : pending) {
+                mark(parkingType, candidate, true);
+            }
+        }
+
+        int parkingNumber = parkingSpotDAO.claimNextAvailableSlot(parkingType);
+
+        if (parkingNumber > 0 && indexEmpty && pending.isEmpty()) {
+
+            logger.warn("Availability index of {} out of date, reloading", parkingType);
+            reload();
+        }
+        if (parkingNumber > 0) {
+            mark(parkingType, parkingNumber, false);
+        }
+
+        return parkingNumber;
+    }
+
+    @Override
+    public boolean claimParking(ParkingSpot parkingSpot) {
+
+        boolean claimed = parkingSpotDAO.claimParking(parkingSpot);
+
+        mark(parkingSpot.getParkingType(), parkingSpot.getId(), false);
+
+        return claimed;
+    }
+
+    @Override
+    public List<ParkingSpot> getParkingSpots() {
+
+        return parkingSpotDAO.getParkingSpots();
+    }
+
+    @Override
+    public boolean updateParking(ParkingSpot parkingSpot) {
+
+        boolean updated = parkingSpotDAO.updateParking(parkingSpot);
+
+        mark(parkingSpot.getParkingType(), parkingSpot.getId(), parkingSpot.isAvailable());
+
+        return updated;
+    }
+
+    /**
+     *     Rebuilds the index from the places currently in the database.
+     * Called on first use, it is public to allow a reload after the database
+     * was changed by another application.
+     */
+    public synchronized void reload() {
+
+        Map<ParkingType, BitSet> fresh = new EnumMap<>(ParkingType.class);
+
+        for (ParkingType parkingType : ParkingType.values()) {
+            fresh.put(parkingType, new BitSet());
+        }
+
+        List<ParkingSpot> parkingSpots = parkingSpotDAO.getParkingSpots();
+
+        for (ParkingSpot parkingSpot : parkingSpots) {
+            if (parkingSpot.isAvailable()) {
+                fresh.get(parkingSpot.getParkingType()).set(parkingSpot.getId());
+            }
+        }
+
+        for (ParkingType parkingType : ParkingType.values()) {
+
+            BitSet available = availability.get(parkingType);
+
+            synchronized (available) {
+                available.clear();
+                available.or(fresh.get(parkingType));
+            }
+        }
+
+        loaded = true;
+        logger.info("Availability index loaded with {} parking spots", parkingSpots.size());
+    }
+
+    private boolean claimCandidate(ParkingType parkingType, int candidate, List<Integer> pending) {
+
+        try {
+            if (parkingSpotDAO.claimParking(new ParkingSpot(candidate, parkingType, false))) {
+                return true;
+            }
+
+            logger.warn("Parking spot {} of availability index already taken", candidate);
+            return false;
+
+        } catch (PendingWritesException e) {
+
+            pending.add(candidate);
+            return false;
+
+        } catch (RuntimeException e) {
+
+            mark(parkingType, candidate, true);
+            throw e;
+        }
+    }
+
+    private BitSet index(ParkingType parkingType) {
+
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+
+        return availability.get(parkingType);
+    }
+
+    private void mark(ParkingType parkingType, int parkingNumber, boolean isAvailable) {
+
+        if (!loaded) {
+            return;
+        }
+
+        BitSet available = availability.get(parkingType);
+
+        synchronized (available) {
+            available.set(parkingNumber, isAvailable);
+        }
+    }
+}
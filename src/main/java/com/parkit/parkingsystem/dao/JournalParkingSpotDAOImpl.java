@@ -0,0 +1,62 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
+import com.parkit.parkingsystem.model.ParkingSpot;
+
+import java.util.List;
+
+/**
+ *     <code>ParkingSpotDAO</code> backed by a <code>JournalStore</code>
+ * instead of the database table <code>Parking</code>.
+ * <p>
+ *     Spots are allocated in memory without a lock, and every change of
+ * availability is journaled. Claims are atomic within the application, so
+ * the journal directory must not be shared with another application.
+ */
+public class JournalParkingSpotDAOImpl implements ParkingSpotDAO {
+
+    private final JournalStore journalStore;
+
+    /**
+     *     Stores <code>JournalStore</code> variable passed as parameter and
+     * creates instance of <code>JournalParkingSpotDAOImpl</code>.
+     *
+     * @param journalStore  instance of <code>JournalStore</code>
+     */
+    public JournalParkingSpotDAOImpl(JournalStore journalStore) {
+        this.journalStore = journalStore;
+    }
+
+    @Override
+    public int getNextAvailableSlot(ParkingType parkingType) {
+
+        return journalStore.peekSpot(parkingType);
+    }
+
+    @Override
+    public int claimNextAvailableSlot(ParkingType parkingType) {
+
+        return journalStore.claimSpot(parkingType);
+    }
+
+    @Override
+    public boolean claimParking(ParkingSpot parkingSpot) {
+
+        return journalStore.claimSpot(parkingSpot);
+    }
+
+    @Override
+    public List<ParkingSpot> getParkingSpots() {
+
+        return journalStore.getParkingSpots();
+    }
+
+    @Override
+    public boolean updateParking(ParkingSpot parkingSpot) {
+
+        journalStore.updateSpot(parkingSpot);
+
+        return true;
+    }
+}
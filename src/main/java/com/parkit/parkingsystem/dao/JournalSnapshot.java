@@ -0,0 +1,275 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ *     Compact binary image of the state of a <code>JournalStore</code> at a
+ * position of its <code>EventJournal</code>: parking spots with their
+ * availability, open tickets, recurring users and the last ticket id. A
+ * store restarting from a snapshot replays only the events following its
+ * position, so its startup time depends on the events since the snapshot
+ * instead of the whole history.
+ * <p>
+ *     Snapshot files are named after their position and end with a CRC32C
+ * checksum of their content. They are written to a temporary file, forced
+ * to disk and renamed, so a crash never leaves a partial snapshot under a
+ * snapshot name, and a file whose checksum does not match is skipped for
+ * the previous one.
+ */
+public class JournalSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger("JournalSnapshot");
+
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("\\d{20}\\" + SNAPSHOT_SUFFIX);
+    private static final int MAGIC = 0x50534E50;
+    private static final int VERSION = 1;
+
+    private static final ParkingType[] PARKING_TYPES = ParkingType.values();
+
+    private final long position;
+    private final int lastTicketId;
+    private final List<ParkingSpot> parkingSpots;
+    private final List<Ticket> openTickets;
+    private final Collection<String> recurringUsers;
+
+    /**
+     * Construct new <code>JournalSnapshot</code> from passed parameters.
+     *
+     * @param position  journal position the state is taken at
+     * @param lastTicketId  highest ticket id handed out
+     * @param parkingSpots  parking spots with their availability
+     * @param openTickets  tickets of the vehicles in the parking
+     * @param recurringUsers  registration numbers of vehicles which have left
+     *                        the parking before
+     */
+    public JournalSnapshot(long position, int lastTicketId, List<ParkingSpot> parkingSpots,
+                           List<Ticket> openTickets, Collection<String> recurringUsers) {
+        this.position = position;
+        this.lastTicketId = lastTicketId;
+        this.parkingSpots = parkingSpots;
+        this.openTickets = openTickets;
+        this.recurringUsers = recurringUsers;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public int getLastTicketId() {
+        return lastTicketId;
+    }
+
+    public List<ParkingSpot> getParkingSpots() {
+        return parkingSpots;
+    }
+
+    public List<Ticket> getOpenTickets() {
+        return openTickets;
+    }
+
+    public Collection<String> getRecurringUsers() {
+        return recurringUsers;
+    }
+
+    /**
+     *     Writes this snapshot to the passed directory and deletes all but the
+     * <code>retained</code> latest snapshots.
+     *
+     * @param directory  directory of the snapshots
+     * @param retained  count of snapshots kept, at least 1
+     * @return path of the snapshot file
+     * @throws IOException if the snapshot can not be written
+     */
+    public Path write(Path directory, int retained) throws IOException {
+
+        Path file = directory.resolve(String.format("%020d%s", position, SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            OutputStream stream = new CheckedOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), crc);
+            DataOutputStream out = new DataOutputStream(stream);
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(position);
+            out.writeInt(lastTicketId);
+
+            out.writeInt(parkingSpots.size());
+            for (ParkingSpot parkingSpot : parkingSpots) {
+                out.writeInt(parkingSpot.getId());
+                out.writeByte(parkingSpot.getParkingType().ordinal());
+                out.writeBoolean(parkingSpot.isAvailable());
+            }
+
+            out.writeInt(openTickets.size());
+            for (Ticket ticket : openTickets) {
+                out.writeInt(ticket.getId());
+                out.writeInt(ticket.getParkingSpot().getId());
+                out.writeByte(ticket.getParkingSpot().getParkingType().ordinal());
+                out.writeLong(ticket.getInTime());
+                out.writeDouble(ticket.getPrice());
+                out.writeUTF(ticket.getVehicleRegNumber());
+            }
+
+            List<String> users = new ArrayList<>(recurringUsers);
+            out.writeInt(users.size());
+            for (String vehicleRegNumber : users) {
+                out.writeUTF(vehicleRegNumber);
+            }
+
+            out.flush();
+            new DataOutputStream(Channels.newOutputStream(channel)).writeLong(crc.getValue());
+            channel.force(true);
+        }
+
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+
+        NavigableMap<Long, Path> snapshots = list(directory);
+        while (snapshots.size() > retained) {
+            Files.deleteIfExists(snapshots.pollFirstEntry().getValue());
+        }
+
+        return file;
+    }
+
+    /**
+     *     Reads the latest snapshot of the passed directory which is intact
+     * and taken at a position not after <code>maxPosition</code>, skipping
+     * others with a warning.
+     *
+     * @param directory  directory of the snapshots
+     * @param maxPosition  position following the last record of the journal
+     * @return the snapshot, null if there is none
+     * @throws IOException if the directory can not be listed
+     */
+    public static JournalSnapshot readLatest(Path directory, long maxPosition) throws IOException {
+
+        for (Path file : list(directory).headMap(maxPosition, true).descendingMap().values()) {
+
+            try {
+                return read(file);
+
+            } catch (IOException | RuntimeException ex) {
+
+                logger.warn("Skipping unreadable journal snapshot {}", file, ex);
+            }
+        }
+
+        return null;
+    }
+
+    private static JournalSnapshot read(Path file) throws IOException {
+
+        CRC32C crc = new CRC32C();
+        long size = Files.size(file);
+
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+
+            DataInputStream in = new DataInputStream(new CheckedInputStream(stream, crc));
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a journal snapshot of version " + VERSION);
+            }
+
+            long position = in.readLong();
+            int lastTicketId = in.readInt();
+
+            int spotCount = readCount(in, size);
+            List<ParkingSpot> parkingSpots = new ArrayList<>(spotCount);
+            for (int i = 0; i < spotCount; i++) {
+                parkingSpots.add(new ParkingSpot(in.readInt(), PARKING_TYPES[in.readByte()], in.readBoolean()));
+            }
+
+            int ticketCount = readCount(in, size);
+            List<Ticket> openTickets = new ArrayList<>(ticketCount);
+            for (int i = 0; i < ticketCount; i++) {
+
+                Ticket ticket = new Ticket();
+                ticket.setId(in.readInt());
+                ticket.setParkingSpot(new ParkingSpot(in.readInt(), PARKING_TYPES[in.readByte()], false));
+                ticket.setInTime(in.readLong());
+                ticket.setPrice(in.readDouble());
+                ticket.setVehicleRegNumber(in.readUTF());
+                openTickets.add(ticket);
+            }
+
+            int userCount = readCount(in, size);
+            List<String> recurringUsers = new ArrayList<>(userCount);
+            for (int i = 0; i < userCount; i++) {
+                recurringUsers.add(in.readUTF());
+            }
+
+            long expected = crc.getValue();
+
+            if (new DataInputStream(stream).readLong() != expected) {
+                throw new IOException("Checksum of journal snapshot " + file + " does not match");
+            }
+
+            return new JournalSnapshot(position, lastTicketId, Collections.unmodifiableList(parkingSpots),
+                    Collections.unmodifiableList(openTickets), Collections.unmodifiableList(recurringUsers));
+        }
+    }
+
+    private static int readCount(DataInputStream in, long size) throws IOException {
+
+        int count = in.readInt();
+
+        if (count < 0 || count > size) {
+            throw new IOException("Invalid count " + count + " in journal snapshot of " + size + " bytes");
+        }
+
+        return count;
+    }
+
+    private static NavigableMap<Long, Path> list(Path directory) throws IOException {
+
+        NavigableMap<Long, Path> snapshots = new TreeMap<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SNAPSHOT_SUFFIX)) {
+            for (Path file : files) {
+
+                String name = file.getFileName().toString();
+
+                if (SNAPSHOT_NAME.matcher(name).matches()) {
+                    snapshots.put(Long.parseLong(name.substring(0, name.length() - SNAPSHOT_SUFFIX.length())), file);
+                }
+            }
+        }
+
+        return snapshots;
+    }
+}
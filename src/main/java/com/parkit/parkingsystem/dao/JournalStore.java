@@ -0,0 +1,660 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *     Parking state kept in memory and persisted as events in an
+ * <code>EventJournal</code> instead of a database, for lots running without
+ * a database server. Read by <code>JournalParkingSpotDAOImpl</code> and
+ * <code>JournalTicketDAOImpl</code>.
+ * <p>
+ *     Three events are journaled: a parking spot changing availability, a
+ * ticket saved at entry and a ticket closed at exit. Each change is appended
+ * before it is applied in memory, so the events of one spot or one vehicle
+ * reach the journal in the order they happen. When built, the store replays
+ * the journal into one <code>LockFreeSpotAllocator</code> per
+ * <code>ParkingType</code>, an <code>ActiveTicketRegistry</code> indexing
+ * open tickets by registration number and the set of recurring users,
+ * vehicles which have left the parking before.
+ * <p>
+ *     The store snapshots its state to the journal directory every
+ * <code>snapshotIntervalMillis</code> and when closed, and starts from the
+ * latest intact snapshot, replaying only the events journaled after it, so
+ * its startup time stays flat as the history grows.
+ * <p>
+ *     Only open tickets are indexed, a vehicle which has left is not found
+ * until it enters again. The parking spots passed to the Builder are
+ * journaled when the journal holds none, later spots are taken from the
+ * journal.
+ * <p>
+ *     Follows Builder pattern, the only mandatory parameter of the Builder
+ * is the directory of the journal.
+ */
+public class JournalStore implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger("JournalStore");
+
+    private static final byte SPOT_UPDATED = 1;
+    private static final byte TICKET_SAVED = 2;
+    private static final byte TICKET_CLOSED = 3;
+
+    private static final ParkingType[] PARKING_TYPES = ParkingType.values();
+
+    private static final int RETAINED_SNAPSHOTS = 2;
+
+    private final Path directory;
+    private final EventJournal eventJournal;
+    private final ActiveTicketRegistry activeTicketRegistry;
+    private final Map<Integer, ParkingType> spotTypes;
+    private final Map<ParkingType, LockFreeSpotAllocator> allocators = new EnumMap<>(ParkingType.class);
+    private final Set<String> recurringUsers = ConcurrentHashMap.newKeySet();
+    private final RecurringUsers recurringUsersView = new InMemoryRecurringUsers(recurringUsers);
+    private final AtomicInteger lastTicketId = new AtomicInteger();
+    private final ReadWriteLock positionLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService snapshotter;
+    private long snapshotPosition = -1;
+
+    private JournalStore(Builder builder) {
+
+        this.directory = builder.directory;
+        this.eventJournal = builder.eventJournalBuilder.build();
+        this.activeTicketRegistry = builder.activeTicketRegistry;
+
+        try {
+            long start = System.nanoTime();
+            Map<Integer, ParkingSpot> parkingSpots = new TreeMap<>();
+
+            JournalSnapshot snapshot = JournalSnapshot.readLatest(directory, eventJournal.getPosition());
+
+            if (snapshot != null) {
+                load(snapshot, parkingSpots);
+                snapshotPosition = snapshot.getPosition();
+            }
+
+            long from = Math.max(snapshotPosition, 0);
+            long end = eventJournal.replay(from, (type, payload) -> apply(type, payload, parkingSpots));
+
+            if (parkingSpots.isEmpty()) {
+                for (ParkingSpot parkingSpot : builder.parkingSpots) {
+
+                    eventJournal.append(SPOT_UPDATED, encodeSpot(parkingSpot));
+                    parkingSpots.put(parkingSpot.getId(), parkingSpot);
+                }
+            }
+
+            this.spotTypes = loadAllocators(parkingSpots);
+
+            logger.info("Journal store loaded snapshot at {} and replayed {} bytes in {} ms, {} parking spots, "
+                            + "{} open tickets, {} recurring users", snapshotPosition, end - from,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), parkingSpots.size(),
+                    activeTicketRegistry.getMetrics().getActiveTickets(), recurringUsers.size());
+
+        } catch (IOException ex) {
+
+            eventJournal.close();
+            throw new UnsuccessfulOperationException("Unable to read snapshots of journal " + directory, ex);
+
+        } catch (RuntimeException ex) {
+
+            eventJournal.close();
+            throw ex;
+        }
+
+        if (builder.snapshotIntervalMillis > 0) {
+
+            snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotter.scheduleWithFixedDelay(this::snapshotQuietly, builder.snapshotIntervalMillis,
+                    builder.snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+
+        } else {
+
+            snapshotter = null;
+        }
+    }
+
+    public static class Builder {
+
+        private final Path directory;
+        private final EventJournal.Builder eventJournalBuilder;
+        private List<ParkingSpot> parkingSpots = Collections.emptyList();
+        private ActiveTicketRegistry activeTicketRegistry = new ActiveTicketRegistry();
+        private long snapshotIntervalMillis = 60_000;
+
+        /**
+         * Creates Builder of a store journaling to the passed directory.
+         *
+         * @param directory  directory of the journal segments and snapshots
+         */
+        public Builder(Path directory) {
+            this.directory = directory;
+            this.eventJournalBuilder = new EventJournal.Builder(directory);
+        }
+
+        public Builder withSegmentSize(int segmentSize) {
+
+            eventJournalBuilder.withSegmentSize(segmentSize);
+
+            return this;
+        }
+
+        public Builder withSyncEveryRecords(int syncEveryRecords) {
+
+            eventJournalBuilder.withSyncEveryRecords(syncEveryRecords);
+
+            return this;
+        }
+
+        public Builder withSyncIntervalMillis(long syncIntervalMillis) {
+
+            eventJournalBuilder.withSyncIntervalMillis(syncIntervalMillis);
+
+            return this;
+        }
+
+        /**
+         * Sets the parking spots of a new lot, journaled only when the
+         * journal holds no parking spot yet.
+         *
+         * @param parkingSpots  parking spots with their type and availability
+         * @return this Builder
+         */
+        public Builder withParkingSpots(List<ParkingSpot> parkingSpots) {
+
+            this.parkingSpots = parkingSpots;
+
+            return this;
+        }
+
+        public Builder withActiveTicketRegistry(ActiveTicketRegistry activeTicketRegistry) {
+
+            this.activeTicketRegistry = activeTicketRegistry;
+
+            return this;
+        }
+
+        /**
+         * Sets how often a background thread snapshots the store, 0 to
+         * snapshot only when the store is closed.
+         *
+         * @param snapshotIntervalMillis  interval in milliseconds, one minute
+         *                                by default
+         * @return this Builder
+         */
+        public Builder withSnapshotIntervalMillis(long snapshotIntervalMillis) {
+
+            this.snapshotIntervalMillis = snapshotIntervalMillis;
+
+            return this;
+        }
+
+        /**
+         * Opens the journal, loads the latest snapshot and replays the
+         * journal from there.
+         *
+         * @return new instance of <code>JournalStore</code>
+         * @throws UnsuccessfulOperationException if the journal can not be
+         * opened or read
+         */
+        public JournalStore build() {
+
+            return new JournalStore(this);
+        }
+    }
+
+    /**
+     * Returns the lowest available parking spot of the passed type, without
+     * taking it.
+     *
+     * @param parkingType  instance of <code>ParkingType</code> enum
+     * @return number of the parking spot, -1 if none is available
+     */
+    public int peekSpot(ParkingType parkingType) {
+
+        int parkingNumber = allocators.get(parkingType).peek();
+
+        return parkingNumber > 0 ? parkingNumber : -1;
+    }
+
+    /**
+     * Takes an available parking spot of the passed type.
+     *
+     * @param parkingType  instance of <code>ParkingType</code> enum
+     * @return number of the parking spot taken, -1 if none is available
+     * @throws UnsuccessfulOperationException if the event can not be journaled
+     */
+    public int claimSpot(ParkingType parkingType) {
+
+        LockFreeSpotAllocator allocator = allocators.get(parkingType);
+
+        // the spot is taken before its event is appended, so both happen
+        // under the read lock for a snapshot never to see one without the
+        // other
+        positionLock.readLock().lock();
+        try {
+            int parkingNumber = allocator.allocate();
+
+            if (parkingNumber <= 0) {
+                return -1;
+            }
+
+            try {
+                eventJournal.append(SPOT_UPDATED, encodeSpot(new ParkingSpot(parkingNumber, parkingType, false)));
+
+            } catch (RuntimeException ex) {
+
+                allocator.release(parkingNumber);
+                throw ex;
+            }
+
+            return parkingNumber;
+
+        } finally {
+            positionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the passed parking spot, if it is available.
+     *
+     * @param parkingSpot  parking spot known to the store
+     * @return <code>true</code> if the spot was available and is now taken
+     * @throws UnsuccessfulOperationException if the store has no such spot or
+     * the event can not be journaled
+     */
+    public boolean claimSpot(ParkingSpot parkingSpot) {
+
+        if (spotTypes.get(parkingSpot.getId()) != parkingSpot.getParkingType()) {
+            throw new UnsuccessfulOperationException("Unable to claim parking spot " + parkingSpot.getId()
+                    + " of type " + parkingSpot.getParkingType() + ", unknown to the journal");
+        }
+
+        LockFreeSpotAllocator allocator = allocators.get(parkingSpot.getParkingType());
+
+        positionLock.readLock().lock();
+        try {
+            if (!allocator.reserve(parkingSpot.getId())) {
+                return false;
+            }
+
+            try {
+                eventJournal.append(SPOT_UPDATED, encodeSpot(new ParkingSpot(parkingSpot.getId(),
+                        parkingSpot.getParkingType(), false)));
+
+            } catch (RuntimeException ex) {
+
+                allocator.release(parkingSpot.getId());
+                throw ex;
+            }
+
+            return true;
+
+        } finally {
+            positionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Journals and applies the availability of the passed parking spot.
+     *
+     * @param parkingSpot  parking spot known to the store
+     * @throws UnsuccessfulOperationException if the store has no such spot or
+     * the event can not be journaled
+     */
+    public void updateSpot(ParkingSpot parkingSpot) {
+
+        if (spotTypes.get(parkingSpot.getId()) != parkingSpot.getParkingType()) {
+            throw new UnsuccessfulOperationException("Unable to update parking spot " + parkingSpot.getId()
+                    + " of type " + parkingSpot.getParkingType() + ", unknown to the journal");
+        }
+
+        LockFreeSpotAllocator allocator = allocators.get(parkingSpot.getParkingType());
+
+        append(SPOT_UPDATED, encodeSpot(parkingSpot), () -> {
+            if (parkingSpot.isAvailable()) {
+                allocator.release(parkingSpot.getId());
+            } else {
+                allocator.reserve(parkingSpot.getId());
+            }
+        });
+    }
+
+    /**
+     * Returns all parking spots with their current availability.
+     *
+     * @return <code>List</code> of <code>ParkingSpot</code> ordered by number,
+     * never null
+     */
+    public List<ParkingSpot> getParkingSpots() {
+
+        List<ParkingSpot> parkingSpots = new ArrayList<>(spotTypes.size());
+
+        spotTypes.forEach((parkingNumber, parkingType) -> parkingSpots.add(new ParkingSpot(parkingNumber,
+                parkingType, allocators.get(parkingType).isFree(parkingNumber))));
+
+        return parkingSpots;
+    }
+
+    /**
+     * Journals the passed open ticket, sets its id and indexes it by
+     * registration number.
+     *
+     * @param ticket  ticket with parking spot, registration number and
+     *                in-time set
+     * @throws UnsuccessfulOperationException if the event can not be journaled
+     */
+    public void saveTicket(Ticket ticket) {
+
+        ticket.setId(lastTicketId.incrementAndGet());
+
+        append(TICKET_SAVED, encodeSavedTicket(ticket), () -> activeTicketRegistry.register(ticket));
+    }
+
+    /**
+     * Returns the open ticket of the passed vehicle.
+     *
+     * @param vehicleRegNumber  vehicle registration number
+     * @return copy of the open ticket with out-time -1, or
+     * <code>Ticket.NOT_FOUND</code>, never null
+     */
+    public Ticket findOpenTicket(String vehicleRegNumber) {
+
+        return activeTicketRegistry.find(vehicleRegNumber);
+    }
+
+    /**
+     * Journals the out-time and price of the passed ticket and removes it
+     * from the open tickets. The vehicle becomes a recurring user.
+     *
+     * @param ticket  ticket of a vehicle in the parking, with out-time and
+     *                price set
+     * @throws UnsuccessfulOperationException if the vehicle has no open
+     * ticket with the id of the passed one, or the event can not be journaled
+     */
+    public void closeTicket(Ticket ticket) {
+
+        Ticket open = activeTicketRegistry.find(ticket.getVehicleRegNumber());
+
+        if (open == Ticket.NOT_FOUND || open.getId() != ticket.getId()) {
+            throw new UnsuccessfulOperationException("Unable to update ticket information, no open ticket "
+                    + ticket.getId() + " for vehicle " + ticket.getVehicleRegNumber());
+        }
+
+        append(TICKET_CLOSED, encodeClosedTicket(ticket), () -> {
+            activeTicketRegistry.remove(ticket.getVehicleRegNumber());
+            recurringUsers.add(ticket.getVehicleRegNumber());
+        });
+    }
+
+    /**
+     *     Returns the registration numbers of the vehicles which have left
+     * the parking before, to be passed as recurring users to
+     * <code>FareCalculatorService</code>. Vehicles added by the fare
+     * calculation are kept in memory, the journal restores them from the
+     * closed tickets.
+     *
+     * @return <code>RecurringUsers</code> backed by the store, never null
+     */
+    public RecurringUsers getRecurringUsers() {
+
+        return recurringUsersView;
+    }
+
+    /**
+     * Returns a snapshot of the journal counters.
+     *
+     * @return instance of <code>EventJournalMetrics</code>, never null
+     */
+    public EventJournalMetrics getMetrics() {
+
+        return eventJournal.getMetrics();
+    }
+
+    /**
+     *     Writes a snapshot of the store to its directory, unless no event
+     * was journaled since the last one, keeping the two latest snapshots.
+     * Events keep being journaled while the snapshot is written: the
+     * position of the snapshot and the parking spots are read while no event
+     * is between its append and its application in memory, and events
+     * applied after that position are replayed over the snapshot at startup,
+     * where each of them sets the same state again. A spot taken by
+     * <code>claimSpot</code> is therefore never in a snapshot without its
+     * event in the journal.
+     *
+     * @return position of the snapshot
+     * @throws UnsuccessfulOperationException if the snapshot can not be
+     * written
+     */
+    public synchronized long snapshot() {
+
+        long start = System.nanoTime();
+        long position;
+        List<ParkingSpot> parkingSpots;
+
+        positionLock.writeLock().lock();
+        try {
+            position = eventJournal.getPosition();
+            parkingSpots = getParkingSpots();
+        } finally {
+            positionLock.writeLock().unlock();
+        }
+
+        if (position == snapshotPosition) {
+            return position;
+        }
+
+        eventJournal.sync();
+
+        JournalSnapshot snapshot = new JournalSnapshot(position, lastTicketId.get(), parkingSpots,
+                activeTicketRegistry.getTickets(), new ArrayList<>(recurringUsers));
+
+        try {
+            snapshot.write(directory, RETAINED_SNAPSHOTS);
+
+        } catch (IOException ex) {
+
+            logger.error("Error writing journal snapshot at {}", position, ex);
+            throw new UnsuccessfulOperationException("Unable to write journal snapshot at " + position, ex);
+        }
+
+        snapshotPosition = position;
+
+        logger.info("Journal snapshot at {} written in {} ms, {} open tickets, {} recurring users", position,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), snapshot.getOpenTickets().size(),
+                snapshot.getRecurringUsers().size());
+
+        return position;
+    }
+
+    /**
+     * Stops the background snapshots, writes a last snapshot, forces the
+     * journal to disk and closes it.
+     */
+    @Override
+    public void close() {
+
+        if (snapshotter != null) {
+            snapshotter.shutdownNow();
+        }
+
+        snapshotQuietly();
+        eventJournal.close();
+    }
+
+    private void append(byte type, ByteBuffer payload, Runnable application) {
+
+        positionLock.readLock().lock();
+        try {
+            eventJournal.append(type, payload);
+            application.run();
+        } finally {
+            positionLock.readLock().unlock();
+        }
+    }
+
+    private void snapshotQuietly() {
+
+        try {
+            snapshot();
+
+        } catch (RuntimeException ex) {
+
+            logger.error("Error snapshotting journal store", ex);
+        }
+    }
+
+    private void load(JournalSnapshot snapshot, Map<Integer, ParkingSpot> parkingSpots) {
+
+        for (ParkingSpot parkingSpot : snapshot.getParkingSpots()) {
+            parkingSpots.put(parkingSpot.getId(), parkingSpot);
+        }
+        for (Ticket ticket : snapshot.getOpenTickets()) {
+            activeTicketRegistry.register(ticket);
+        }
+        recurringUsers.addAll(snapshot.getRecurringUsers());
+        lastTicketId.set(snapshot.getLastTicketId());
+    }
+
+    private void apply(byte type, ByteBuffer payload, Map<Integer, ParkingSpot> parkingSpots) {
+
+        switch (type) {
+
+            case SPOT_UPDATED: {
+
+                ParkingSpot parkingSpot = new ParkingSpot(payload.getInt(), PARKING_TYPES[payload.get()],
+                        payload.get() != 0);
+                parkingSpots.put(parkingSpot.getId(), parkingSpot);
+                break;
+            }
+            case TICKET_SAVED: {
+
+                Ticket ticket = new Ticket();
+                ticket.setId(payload.getInt());
+                ticket.setParkingSpot(new ParkingSpot(payload.getInt(), PARKING_TYPES[payload.get()], false));
+                ticket.setInTime(payload.getLong());
+                ticket.setPrice(payload.getDouble());
+                ticket.setVehicleRegNumber(decodeString(payload));
+
+                activeTicketRegistry.register(ticket);
+                lastTicketId.accumulateAndGet(ticket.getId(), Math::max);
+                break;
+            }
+            case TICKET_CLOSED: {
+
+                payload.getInt();
+                payload.getLong();
+                payload.getDouble();
+                String vehicleRegNumber = decodeString(payload);
+
+                activeTicketRegistry.remove(vehicleRegNumber);
+                recurringUsers.add(vehicleRegNumber);
+                break;
+            }
+            default:
+                throw new UnsuccessfulOperationException("Unknown journal event type " + type);
+        }
+    }
+
+    private Map<Integer, ParkingType> loadAllocators(Map<Integer, ParkingSpot> parkingSpots) {
+
+        Map<ParkingType, Integer> capacities = new EnumMap<>(ParkingType.class);
+        Map<Integer, ParkingType> types = new TreeMap<>();
+
+        for (ParkingSpot parkingSpot : parkingSpots.values()) {
+
+            capacities.merge(parkingSpot.getParkingType(), parkingSpot.getId() + 1, Math::max);
+            types.put(parkingSpot.getId(), parkingSpot.getParkingType());
+        }
+
+        for (ParkingType parkingType : PARKING_TYPES) {
+            allocators.put(parkingType, new LockFreeSpotAllocator(capacities.getOrDefault(parkingType, 1)));
+        }
+
+        for (ParkingSpot parkingSpot : parkingSpots.values()) {
+            if (parkingSpot.isAvailable()) {
+                allocators.get(parkingSpot.getParkingType()).release(parkingSpot.getId());
+            }
+        }
+
+        return Collections.unmodifiableMap(types);
+    }
+
+    private static ByteBuffer encodeSpot(ParkingSpot parkingSpot) {
+
+        ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES + 2);
+
+        payload.putInt(parkingSpot.getId())
+                .put((byte) parkingSpot.getParkingType().ordinal())
+                .put((byte) (parkingSpot.isAvailable() ? 1 : 0));
+
+        return payload.flip();
+    }
+
+    private static ByteBuffer encodeSavedTicket(Ticket ticket) {
+
+        byte[] vehicleRegNumber = ticket.getVehicleRegNumber().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(2 * Integer.BYTES + 1 + Long.BYTES + Double.BYTES
+                + Short.BYTES + vehicleRegNumber.length);
+
+        payload.putInt(ticket.getId())
+                .putInt(ticket.getParkingSpot().getId())
+                .put((byte) ticket.getParkingSpot().getParkingType().ordinal())
+                .putLong(ticket.getInTime())
+                .putDouble(ticket.getPrice())
+                .putShort((short) vehicleRegNumber.length)
+                .put(vehicleRegNumber);
+
+        return payload.flip();
+    }
+
+    private static ByteBuffer encodeClosedTicket(Ticket ticket) {
+
+        byte[] vehicleRegNumber = ticket.getVehicleRegNumber().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + Double.BYTES
+                + Short.BYTES + vehicleRegNumber.length);
+
+        payload.putInt(ticket.getId())
+                .putLong(ticket.getOutTime())
+                .putDouble(ticket.getPrice())
+                .putShort((short) vehicleRegNumber.length)
+                .put(vehicleRegNumber);
+
+        return payload.flip();
+    }
+
+    private static String decodeString(ByteBuffer payload) {
+
+        byte[] bytes = new byte[payload.getShort()];
+        payload.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,59 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.dao.contracts.TicketDAO;
+import com.parkit.parkingsystem.model.Ticket;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ *     <code>TicketDAO</code> backed by a <code>JournalStore</code> instead of
+ * the database table <code>Ticket</code>.
+ * <p>
+ *     <code>saveTicket</code> journals the entry and indexes the ticket by
+ * registration number, <code>updateTicket</code> journals the exit and
+ * removes it. <code>getTicket</code> answers from the index, which holds
+ * open tickets only, so a vehicle which has left is not found.
+ */
+public class JournalTicketDAOImpl implements TicketDAO {
+
+    private final JournalStore journalStore;
+
+    /**
+     *     Stores <code>JournalStore</code> variable passed as parameter and
+     * creates instance of <code>JournalTicketDAOImpl</code>.
+     *
+     * @param journalStore  instance of <code>JournalStore</code>
+     */
+    public JournalTicketDAOImpl(JournalStore journalStore) {
+        this.journalStore = journalStore;
+    }
+
+    @Override
+    public boolean saveTicket(Ticket ticket) {
+
+        journalStore.saveTicket(ticket);
+
+        return true;
+    }
+
+    @Override
+    public Ticket getTicket(String vehicleRegNumber) {
+
+        Ticket ticket = journalStore.findOpenTicket(vehicleRegNumber);
+
+        if (ticket != Ticket.NOT_FOUND) {
+            ticket.setOutTime(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC));
+        }
+
+        return ticket;
+    }
+
+    @Override
+    public boolean updateTicket(Ticket ticket) {
+
+        journalStore.closeTicket(ticket);
+
+        return true;
+    }
+}
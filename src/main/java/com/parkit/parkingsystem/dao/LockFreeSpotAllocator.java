@@ -0,0 +1,162 @@
+package com.parkit.parkingsystem.dao;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ *     Hands out parking spot numbers of one <code>ParkingType</code> to many
+ * threads without a lock. Spot <code>n</code> is free while bit
+ * <code>n</code> of an <code>AtomicLongArray</code> is set; allocating and
+ * releasing a spot is a compare-and-set on the word holding its bit, so two
+ * threads never receive the same spot and a thread losing a race simply
+ * retries on the fresh value of the word.
+ * <p>
+ *     Every thread starts its search at its own word, so gates allocating at
+ * the same time work on different words instead of retrying on the same
+ * one. Within a word the lowest free spot is taken. Lots with up to 64 spots
+ * of a type have a single word, so the lowest free spot is always taken.
+ */
+public class LockFreeSpotAllocator {
+
+    private static final int WORD_BITS = 64;
+
+    private final AtomicLongArray free;
+
+    /**
+     *     Creates instance of <code>LockFreeSpotAllocator</code> able to hold
+     * spot numbers from 0 to <code>capacity</code> - 1, all of them taken.
+     *
+     * @param capacity  highest spot number + 1
+     */
+    public LockFreeSpotAllocator(int capacity) {
+        this.free = new AtomicLongArray(Math.max(1, (capacity + WORD_BITS - 1) / WORD_BITS));
+    }
+
+    /**
+     * Takes a free spot.
+     *
+     * @return number of the spot taken, -1 if no spot is free
+     */
+    public int allocate() {
+
+        int words = free.length();
+        int start = (int) (Thread.currentThread().getId() % words);
+
+        for (int i = 0; i < words; i++) {
+
+            int index = (start + i) % words;
+            long word = free.get(index);
+
+            while (word != 0) {
+
+                long lowest = word & -word;
+
+                if (free.compareAndSet(index, word, word & ~lowest)) {
+                    return index * WORD_BITS + Long.numberOfTrailingZeros(lowest);
+                }
+
+                word = free.get(index);
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Takes the spot passed as parameter, if it is free.
+     *
+     * @param spotNumber  number of the spot
+     * @return <code>true</code> if the spot was free and is now taken
+     */
+    public boolean reserve(int spotNumber) {
+
+        return update(spotNumber, false);
+    }
+
+    /**
+     * Frees the spot passed as parameter.
+     *
+     * @param spotNumber  number of the spot
+     * @return <code>true</code> if the spot was taken and is now free,
+     * <code>false</code> if it was already free
+     */
+    public boolean release(int spotNumber) {
+
+        return update(spotNumber, true);
+    }
+
+    /**
+     * Returns the lowest free spot, without taking it.
+     *
+     * @return number of the lowest free spot, -1 if no spot is free
+     */
+    public int peek() {
+
+        for (int index = 0; index < free.length(); index++) {
+
+            long word = free.get(index);
+
+            if (word != 0) {
+                return index * WORD_BITS + Long.numberOfTrailingZeros(word);
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Tells whether the spot passed as parameter is free.
+     *
+     * @param spotNumber  number of the spot
+     * @return <code>true</code> if the spot is free, <code>false</code> if it
+     * is taken or out of range
+     */
+    public boolean isFree(int spotNumber) {
+
+        int index = spotNumber / WORD_BITS;
+
+        return spotNumber >= 0 && index < free.length()
+                && (free.get(index) & (1L << (spotNumber % WORD_BITS))) != 0;
+    }
+
+    /**
+     * Counts the free spots. The result is exact only while no other thread
+     * allocates or releases.
+     *
+     * @return number of free spots
+     */
+    public int countFree() {
+
+        int count = 0;
+
+        for (int index = 0; index < free.length(); index++) {
+            count += Long.bitCount(free.get(index));
+        }
+
+        return count;
+    }
+
+    private boolean update(int spotNumber, boolean makeFree) {
+
+        int index = spotNumber / WORD_BITS;
+
+        if (spotNumber < 0 || index >= free.length()) {
+            throw new IllegalArgumentException("Spot number " + spotNumber + " is out of range");
+        }
+
+        long bit = 1L << (spotNumber % WORD_BITS);
+
+        while (true) {
+
+            long word = free.get(index);
+            boolean isFree = (word & bit) != 0;
+
+            if (isFree == makeFree) {
+                return false;
+            }
+
+            if (free.compareAndSet(index, word, makeFree ? word | bit : word & ~bit)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.config.PooledDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.TransactionalDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.contracts.TransactionManager;
+import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
+import com.parkit.parkingsystem.dao.contracts.TicketDAO;
+
+/**
+ *     Builds the database backed DAO stack the gates of the app run on, so
+ * the app and the tools measuring it run the same one.
+ * <p>
+ *     Tickets and spots are read and claimed through a
+ * <code>TransactionalDataBaseConfigImpl</code> over the pool, and their
+ * updates written through one <code>WriteBehindQueue</code> in the commit of
+ * the unit of work of a <code>WriteBehindTransactionManager</code>. Spots
+ * are claimed from an <code>IndexedParkingSpotDAOImpl</code>, or from an
+ * <code>AllocatingParkingSpotDAOImpl</code> when the app is the only one
+ * allocating spots on its database, open tickets are looked up in an
+ * <code>ActiveTicketRegistry</code>, and recurring users in a
+ * <code>RecurringUserRegistry</code> to be loaded before the first exit.
+ * <p>
+ *     The factory owns no thread, the <code>WriteBehindQueue</code> is closed
+ * by the caller before the pool.
+ */
+public class ParkingDAOFactory {
+
+    private final TransactionalDataBaseConfigImpl transactionalDataBaseConfig;
+    private final WriteBehindQueue writeBehindQueue;
+    private final ActiveTicketRegistry activeTicketRegistry = new ActiveTicketRegistry();
+    private final RecurringUserRegistry recurringUserRegistry;
+    private final ParkingSpotDAO parkingSpotDAO;
+    private final TicketDAO ticketDAO;
+    private final TransactionManager transactionManager;
+
+    /**
+     *     Builds the DAO stack over the <code>PooledDataBaseConfigImpl</code>
+     * passed as parameter and creates instance of
+     * <code>ParkingDAOFactory</code>.
+     *
+     * @param dataBaseConfig  pool of connections to the database
+     * @param lockFreeSpots  whether spots are taken from lock-free allocators
+     *                       in memory instead of the availability index
+     */
+    public ParkingDAOFactory(PooledDataBaseConfigImpl dataBaseConfig, boolean lockFreeSpots) {
+
+        transactionalDataBaseConfig = new TransactionalDataBaseConfigImpl(dataBaseConfig);
+        writeBehindQueue = new WriteBehindQueue.Builder(dataBaseConfig).build();
+        recurringUserRegistry = new RecurringUserRegistry(transactionalDataBaseConfig);
+
+        ParkingSpotDAO writeBehindParkingSpotDAO = new WriteBehindParkingSpotDAOImpl(
+                new ParkingSpotDAOImpl(transactionalDataBaseConfig), writeBehindQueue);
+
+        parkingSpotDAO = lockFreeSpots
+                ? new AllocatingParkingSpotDAOImpl(writeBehindParkingSpotDAO)
+                : new IndexedParkingSpotDAOImpl(writeBehindParkingSpotDAO);
+        ticketDAO = new CachingTicketDAOImpl(new WriteBehindTicketDAOImpl(
+                new TicketDAOImpl(transactionalDataBaseConfig), writeBehindQueue), activeTicketRegistry,
+                transactionalDataBaseConfig);
+        transactionManager = new WriteBehindTransactionManager(transactionalDataBaseConfig, writeBehindQueue);
+    }
+
+    public TransactionalDataBaseConfigImpl getTransactionalDataBaseConfig() {
+        return transactionalDataBaseConfig;
+    }
+
+    public WriteBehindQueue getWriteBehindQueue() {
+        return writeBehindQueue;
+    }
+
+    public ActiveTicketRegistry getActiveTicketRegistry() {
+        return activeTicketRegistry;
+    }
+
+    public RecurringUserRegistry getRecurringUserRegistry() {
+        return recurringUserRegistry;
+    }
+
+    public ParkingSpotDAO getParkingSpotDAO() {
+        return parkingSpotDAO;
+    }
+
+    public TicketDAO getTicketDAO() {
+        return ticketDAO;
+    }
+
+    public TransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+}
@@ -14,6 +14,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 
 public class ParkingSpotDAOImpl implements ParkingSpotDAO {
@@ -64,6 +66,133 @@ public class ParkingSpotDAOImpl implements ParkingSpotDAO {
         }
     }
 
+    @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
+    @Override
+    public int claimNextAvailableSlot(ParkingType parkingType) {
+
+        try (Connection con = dataBaseConfig.getConnection()) {
+
+            boolean ownTransaction = con.getAutoCommit();
+
+            if (ownTransaction) {
+                con.setAutoCommit(false);
+            }
+
+            try {
+
+                int parkingNumber = claim(con, parkingType);
+
+                if (ownTransaction) {
+                    con.commit();
+                }
+
+                return parkingNumber;
+
+            } catch (SQLException | UnsuccessfulOperationException ex) {
+
+                if (ownTransaction) {
+                    con.rollback();
+                }
+                throw ex;
+
+            } finally {
+
+                if (ownTransaction) {
+                    con.setAutoCommit(true);
+                }
+            }
+
+        } catch (ClassNotFoundException | SQLException | UnsuccessfulOperationException ex) {
+
+            logger.error("Error claiming next available slot", ex);
+            throw new UnsuccessfulOperationException("Unable to claim next available slot", ex);
+        }
+    }
+
+    private int claim(Connection con, ParkingType parkingType) throws SQLException {
+
+        ResultSet rs = null;
+
+        try (PreparedStatement lock = con.prepareStatement(DBConstants.LOCK_NEXT_PARKING_SPOT)) {
+
+            lock.setString(1, parkingType.toString());
+            rs = lock.executeQuery();
+
+            if (!rs.next()) {
+
+                return -1;
+            }
+
+            int parkingNumber = rs.getInt(1);
+
+            try (PreparedStatement update = con.prepareStatement(DBConstants.CLAIM_PARKING_SPOT)) {
+
+                update.setInt(1, parkingNumber);
+
+                if (update.executeUpdate() != 1) {
+
+                    throw new UnsuccessfulOperationException("Unable to claim locked parking spot " + parkingNumber);
+                }
+            }
+
+            return parkingNumber;
+
+        } finally {
+
+            dataBaseConfig.closeResultSet(rs);
+        }
+    }
+
+    @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
+    @Override
+    public boolean claimParking(ParkingSpot parkingSpot) {
+
+        try(Connection con = dataBaseConfig.getConnection();
+            PreparedStatement ps = con.prepareStatement(DBConstants.CLAIM_PARKING_SPOT)) {
+
+            ps.setInt(1, parkingSpot.getId());
+
+            return ps.executeUpdate() == 1;
+
+        } catch (ClassNotFoundException | SQLException ex) {
+
+            logger.error("Error claiming parking spot", ex);
+            throw new UnsuccessfulOperationException("Unable to claim parking spot " + parkingSpot.getId(), ex);
+        }
+    }
+
+    @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
+    @Override
+    public List<ParkingSpot> getParkingSpots() {
+
+        ResultSet rs = null;
+
+        try(Connection con = dataBaseConfig.getConnection();
+            PreparedStatement ps = con.prepareStatement(DBConstants.GET_PARKING_SPOTS)) {
+
+            rs = ps.executeQuery();
+
+            List<ParkingSpot> parkingSpots = new ArrayList<>();
+
+            while (rs.next()) {
+
+                parkingSpots.add(new ParkingSpot(rs.getInt(1), ParkingType.valueOf(rs.getString(3)),
+                        rs.getBoolean(2)));
+            }
+
+            return parkingSpots;
+
+        } catch (ClassNotFoundException | SQLException ex) {
+
+            logger.error("Error fetching parking spots", ex);
+            throw new UnsuccessfulOperationException("Unable to fetch parking spots",ex);
+
+        } finally {
+
+            dataBaseConfig.closeResultSet(rs);
+        }
+    }
+
     @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
     @Override
     public boolean updateParking(ParkingSpot parkingSpot) {
@@ -71,8 +200,7 @@ public class ParkingSpotDAOImpl implements ParkingSpotDAO {
         try(Connection con = dataBaseConfig.getConnection();
             PreparedStatement ps = con.prepareStatement(DBConstants.UPDATE_PARKING_SPOT)) {
 
-            ps.setBoolean(1, parkingSpot.isAvailable());
-            ps.setInt(2, parkingSpot.getId());
+            bindUpdateParking(ps, parkingSpot);
 
             int updateRowCount = ps.executeUpdate();
 
@@ -92,4 +220,20 @@ public class ParkingSpotDAOImpl implements ParkingSpotDAO {
             throw new UnsuccessfulOperationException("Unable to update parking spot",ex);
         }
     }
+
+    /**
+     * Sets the parameters of <code>DBConstants.UPDATE_PARKING_SPOT</code> from
+     * the passed <code>ParkingSpot</code>, shared with the write-behind
+     * flushes.
+     *
+     * @param ps  statement prepared from
+     *            <code>DBConstants.UPDATE_PARKING_SPOT</code>
+     * @param parkingSpot  parking spot holding number and availability
+     * @throws SQLException if a parameter could not be set
+     */
+    static void bindUpdateParking(PreparedStatement ps, ParkingSpot parkingSpot) throws SQLException {
+
+        ps.setBoolean(1, parkingSpot.isAvailable());
+        ps.setInt(2, parkingSpot.getId());
+    }
 }
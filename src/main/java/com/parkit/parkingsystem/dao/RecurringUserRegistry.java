@@ -0,0 +1,205 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.constants.DBConstants;
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.util.BloomFilter;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *     Registry of recurring users backed by the ticket history in the
+ * database tables <code>Ticket</code> and <code>ticket_archive</code>, so
+ * recurring users keep their discount across restarts and archival, fronted by a <code>BloomFilter</code> of the
+ * registration numbers of vehicles that have left the parking before.
+ * <p>
+ *     A vehicle the filter has never seen is rejected in memory. Only when
+ * the filter answers that it probably has, the database is asked whether the
+ * vehicle has more than one ticket, its current one and an earlier one,
+ * which is an indexed lookup reading at most two rows per table.
+ * <p>
+ *     The registry is passed as <code>RecurringUsers</code> to
+ * <code>FareCalculatorService</code>. It holds no list of its users, the
+ * approximate count of registration numbers in the filter is reported by
+ * <code>getMetrics</code>.
+ * <p>
+ *     The filter is loaded by <code>reload</code>, which reads every vehicle
+ * that has left the parking and is meant to run once at startup, before any
+ * gate is served, after the schema is migrated as it reads table
+ * ticket_archive. Until then every lookup goes to the database, so an exit
+ * never pays for the full scan while it holds a connection. The registry is
+ * meant to be built on <code>TransactionalDataBaseConfigImpl</code>, so the
+ * lookup of an exit joins the connection of its unit of work.
+ */
+public class RecurringUserRegistry implements RecurringUsers {
+
+    private static final Logger logger = LoggerFactory.getLogger("RecurringUserRegistry");
+
+    private static final long DEFAULT_EXPECTED_USERS = 5_000_000;
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    private final DataBaseConfig dataBaseConfig;
+    private final BloomFilter bloomFilter;
+    private volatile boolean loaded;
+
+    private final LongAdder rejectedInMemory = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     *     Stores <code>DataBaseConfig</code> variable passed as parameter and
+     * creates instance of <code>RecurringUserRegistry</code> with a filter
+     * sized for five million vehicles at a false positive rate of 1%.
+     *
+     * @param dataBaseConfig  instance of <code>DataBaseConfig</code>
+     */
+    public RecurringUserRegistry(DataBaseConfig dataBaseConfig) {
+        this(dataBaseConfig, DEFAULT_EXPECTED_USERS, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     *     Stores <code>DataBaseConfig</code> variable passed as parameter and
+     * creates instance of <code>RecurringUserRegistry</code> with a filter
+     * sized from the passed parameters.
+     *
+     * @param dataBaseConfig  instance of <code>DataBaseConfig</code>
+     * @param expectedUsers  count of distinct vehicles the filter is sized for
+     * @param falsePositiveRate  wanted share of first time visitors reaching
+     *                           the database
+     */
+    public RecurringUserRegistry(DataBaseConfig dataBaseConfig, long expectedUsers, double falsePositiveRate) {
+        this.dataBaseConfig = dataBaseConfig;
+        this.bloomFilter = new BloomFilter(expectedUsers, falsePositiveRate);
+    }
+
+    @Override
+    public boolean contains(String vehicleRegNumber) {
+
+        if (vehicleRegNumber == null) {
+            return false;
+        }
+
+        if (!loaded) {
+            return hasVisitedBefore(vehicleRegNumber);
+        }
+
+        if (!bloomFilter.mightContain(vehicleRegNumber)) {
+
+            rejectedInMemory.increment();
+            return false;
+        }
+
+        if (hasVisitedBefore(vehicleRegNumber)) {
+
+            confirmed.increment();
+            return true;
+        }
+
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Registers the passed vehicle as recurring for its next visits.
+     *
+     * @param vehicleRegNumber  registration number of the vehicle
+     * @return <code>true</code> if the vehicle was certainly not registered
+     * before
+     */
+    @Override
+    public boolean add(String vehicleRegNumber) {
+
+        return bloomFilter.put(vehicleRegNumber);
+    }
+
+    @Override
+    public String toString() {
+
+        return "RecurringUserRegistry" + getMetrics();
+    }
+
+    /**
+     * Returns a snapshot of the registry counters.
+     *
+     * @return instance of <code>RecurringUserRegistryMetrics</code>, never null
+     */
+    public RecurringUserRegistryMetrics getMetrics() {
+
+        return new RecurringUserRegistryMetrics(bloomFilter.getApproximateInsertions(),
+                bloomFilter.getSizeInBytes(), bloomFilter.getHashCount(),
+                bloomFilter.getExpectedFalsePositiveRate(), rejectedInMemory.sum(), confirmed.sum(),
+                falsePositives.sum());
+    }
+
+    /**
+     * Adds to the filter the registration numbers of all vehicles that have
+     * left the parking, as recorded in the database tables
+     * <code>Ticket</code> and <code>ticket_archive</code>.
+     * <p>
+     *  Lookups are answered by the database alone until it has run.
+     */
+    @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
+    public synchronized void reload() {
+
+        ResultSet rs = null;
+
+        try (Connection con = dataBaseConfig.getConnection();
+             PreparedStatement ps = con.prepareStatement(DBConstants.GET_RECURRING_VEHICLE_REG_NUMBERS)) {
+
+            ps.setFetchSize(1_000);
+            rs = ps.executeQuery();
+
+            long count = 0;
+
+            while (rs.next()) {
+                bloomFilter.put(rs.getString(1));
+                count++;
+            }
+
+            loaded = true;
+            logger.info("Loaded {} recurring users {}", count, getMetrics());
+
+        } catch (ClassNotFoundException | SQLException ex) {
+
+            logger.error("Error loading recurring users", ex);
+            throw new UnsuccessfulOperationException("Unable to load recurring users", ex);
+
+        } finally {
+
+            dataBaseConfig.closeResultSet(rs);
+        }
+    }
+
+    @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
+    private boolean hasVisitedBefore(String vehicleRegNumber) {
+
+        ResultSet rs = null;
+
+        try (Connection con = dataBaseConfig.getConnection();
+             PreparedStatement ps = con.prepareStatement(DBConstants.COUNT_VISITS_UP_TO_TWO)) {
+
+            ps.setString(1, vehicleRegNumber);
+            ps.setString(2, vehicleRegNumber);
+            rs = ps.executeQuery();
+
+            return rs.next() && rs.getInt(1) > 1;
+
+        } catch (ClassNotFoundException | SQLException ex) {
+
+            logger.error("Error checking visits of vehicle", ex);
+            throw new UnsuccessfulOperationException("Unable to check visits of vehicle", ex);
+
+        } finally {
+
+            dataBaseConfig.closeResultSet(rs);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.parkit.parkingsystem.dao;
+
+/**
+ * The class <code>RecurringUserRegistryMetrics</code> is an immutable
+ * snapshot of the filter size and lookup counters of a
+ * <code>RecurringUserRegistry</code>.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>RecurringUserRegistryMetrics</code>.
+ */
+public class RecurringUserRegistryMetrics {
+
+    private final long registeredUsers;
+    private final long filterSizeInBytes;
+    private final int hashCount;
+    private final double expectedFalsePositiveRate;
+    private final long rejectedInMemory;
+    private final long confirmed;
+    private final long falsePositives;
+
+    /**
+     * Construct new <code>RecurringUserRegistryMetrics</code> from passed
+     * parameters.
+     *
+     * @param registeredUsers  approximate count of vehicles in the filter
+     * @param filterSizeInBytes  memory held by the filter bits
+     * @param hashCount  bits set per vehicle
+     * @param expectedFalsePositiveRate  false positive rate estimated from the
+     *                                   filter fill
+     * @param rejectedInMemory  lookups answered by the filter alone
+     * @param confirmed  lookups the database confirmed as recurring
+     * @param falsePositives  lookups the filter let through and the database
+     *                        rejected
+     */
+    public RecurringUserRegistryMetrics(long registeredUsers, long filterSizeInBytes, int hashCount,
+                                        double expectedFalsePositiveRate, long rejectedInMemory, long confirmed,
+                                        long falsePositives) {
+        this.registeredUsers = registeredUsers;
+        this.filterSizeInBytes = filterSizeInBytes;
+        this.hashCount = hashCount;
+        this.expectedFalsePositiveRate = expectedFalsePositiveRate;
+        this.rejectedInMemory = rejectedInMemory;
+        this.confirmed = confirmed;
+        this.falsePositives = falsePositives;
+    }
+
+    public long getRegisteredUsers() {
+        return registeredUsers;
+    }
+
+    public long getFilterSizeInBytes() {
+        return filterSizeInBytes;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public double getExpectedFalsePositiveRate() {
+        return expectedFalsePositiveRate;
+    }
+
+    public long getRejectedInMemory() {
+        return rejectedInMemory;
+    }
+
+    public long getConfirmed() {
+        return confirmed;
+    }
+
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    /**
+     * Returns share of vehicles not recurring that the filter let through to
+     * the database.
+     *
+     * @return observed false positive rate between 0 and 1, 0 when no such
+     * lookup was made
+     */
+    public double getObservedFalsePositiveRate() {
+        long negatives = rejectedInMemory + falsePositives;
+        return negatives == 0 ? 0 : (double) falsePositives / negatives;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>RecurringUserRegistryMetrics</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "RecurringUserRegistryMetrics{" +
+                "registeredUsers=" + registeredUsers +
+                ", filterSizeInBytes=" + filterSizeInBytes +
+                ", hashCount=" + hashCount +
+                ", expectedFalsePositiveRate=" + expectedFalsePositiveRate +
+                ", rejectedInMemory=" + rejectedInMemory +
+                ", confirmed=" + confirmed +
+                ", falsePositives=" + falsePositives +
+                ", observedFalsePositiveRate=" + getObservedFalsePositiveRate() +
+                '}';
+    }
+}
@@ -36,19 +36,25 @@ public class TicketDAOImpl implements TicketDAO {
     public boolean saveTicket(Ticket ticket) {
 
         try (Connection con = dataBaseConfig.getConnection();
-             PreparedStatement ps = con.prepareStatement(DBConstants.SAVE_TICKET)) {
+             PreparedStatement ps = con.prepareStatement(DBConstants.SAVE_TICKET, Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setInt(1, ticket.getParkingSpot().getId());
             ps.setString(2, ticket.getVehicleRegNumber());
             ps.setDouble(3, ticket.getPrice());
             ps.setTimestamp(4, new Timestamp(ticket.getInTime() * 1000));
             ps.setTimestamp(5,
-                    (ticket.getOutTime() == -1L) ? null : (new Timestamp(ticket.getOutTime())));
+                    (ticket.getOutTime() == -1L) ? null : (new Timestamp(ticket.getOutTime() * 1000)));
 
             int createdRowCount = ps.executeUpdate();
 
             if (createdRowCount == 1){
 
+                try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        ticket.setId(generatedKeys.getInt(1));
+                    }
+                }
+
                 return true;
 
             }else {
@@ -116,9 +122,7 @@ public class TicketDAOImpl implements TicketDAO {
         try (Connection con = dataBaseConfig.getConnection();
              PreparedStatement ps = con.prepareStatement(DBConstants.UPDATE_TICKET)) {
 
-            ps.setDouble(1, ticket.getPrice());
-            ps.setTimestamp(2, new Timestamp(ticket.getOutTime()));
-            ps.setInt(3, ticket.getId());
+            bindUpdateTicket(ps, ticket);
 
             int updateRowCount = ps.executeUpdate();
 
@@ -138,4 +142,19 @@ public class TicketDAOImpl implements TicketDAO {
             throw new UnsuccessfulOperationException("Unable to update ticket information", ex);
         }
     }
+
+    /**
+     * Sets the parameters of <code>DBConstants.UPDATE_TICKET</code> from the
+     * passed <code>Ticket</code>, shared with the write-behind flushes.
+     *
+     * @param ps  statement prepared from <code>DBConstants.UPDATE_TICKET</code>
+     * @param ticket  ticket holding price and out time
+     * @throws SQLException if a parameter could not be set
+     */
+    static void bindUpdateTicket(PreparedStatement ps, Ticket ticket) throws SQLException {
+
+        ps.setDouble(1, ticket.getPrice());
+        ps.setTimestamp(2, new Timestamp(ticket.getOutTime() * 1000));
+        ps.setInt(3, ticket.getId());
+    }
 }
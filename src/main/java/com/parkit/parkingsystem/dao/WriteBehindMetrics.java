@@ -0,0 +1,127 @@
+package com.parkit.parkingsystem.dao;
+
+/**
+ * The class <code>WriteBehindMetrics</code> is an immutable snapshot of the
+ * depth and write counters of a <code>WriteBehindQueue</code>.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>WriteBehindMetrics</code>.
+ */
+public class WriteBehindMetrics {
+
+    private final int queueDepth;
+    private final long queued;
+    private final long committed;
+    private final long unmatched;
+    private final long timedOut;
+    private final long batches;
+    private final long retries;
+    private final long deadLettered;
+    private final long maxLagMillis;
+    private final long peakMutationsPerSecond;
+
+    /**
+     * Construct new <code>WriteBehindMetrics</code> from passed parameters.
+     *
+     * @param queueDepth  mutations waiting for the flusher
+     * @param queued  mutations accepted since start
+     * @param committed  mutations committed and updating a row
+     * @param unmatched  mutations committed without updating any row
+     * @param timedOut  mutations refused as the queue stayed full for
+     *                  longer than the enqueue timeout
+     * @param batches  groups committed, each with a single commit
+     * @param retries  attempts repeated after a failed group
+     * @param deadLettered  mutations of groups failing with a non-transient
+     *                      error, written to the dead-letter log
+     * @param maxLagMillis  longest time from queueing a mutation to its commit
+     * @param peakMutationsPerSecond  most mutations written within one second
+     */
+    public WriteBehindMetrics(int queueDepth, long queued, long committed, long unmatched, long timedOut,
+                              long batches, long retries, long deadLettered, long maxLagMillis,
+                              long peakMutationsPerSecond) {
+        this.queueDepth = queueDepth;
+        this.queued = queued;
+        this.committed = committed;
+        this.unmatched = unmatched;
+        this.timedOut = timedOut;
+        this.batches = batches;
+        this.retries = retries;
+        this.deadLettered = deadLettered;
+        this.maxLagMillis = maxLagMillis;
+        this.peakMutationsPerSecond = peakMutationsPerSecond;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getQueued() {
+        return queued;
+    }
+
+    public long getCommitted() {
+        return committed;
+    }
+
+    public long getUnmatched() {
+        return unmatched;
+    }
+
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    public long getDeadLettered() {
+        return deadLettered;
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    public long getPeakMutationsPerSecond() {
+        return peakMutationsPerSecond;
+    }
+
+    /**
+     * Returns mean count of mutations written per commit.
+     *
+     * @return average group size, 0 when nothing was committed
+     */
+    public double getAverageBatchSize() {
+        return batches == 0 ? 0 : (double) (committed + unmatched) / batches;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>WriteBehindMetrics</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "WriteBehindMetrics{" +
+                "queueDepth=" + queueDepth +
+                ", queued=" + queued +
+                ", committed=" + committed +
+                ", unmatched=" + unmatched +
+                ", timedOut=" + timedOut +
+                ", batches=" + batches +
+                ", retries=" + retries +
+                ", deadLettered=" + deadLettered +
+                ", maxLagMillis=" + maxLagMillis +
+                ", peakMutationsPerSecond=" + peakMutationsPerSecond +
+                ", averageBatchSize=" + getAverageBatchSize() +
+                '}';
+    }
+}
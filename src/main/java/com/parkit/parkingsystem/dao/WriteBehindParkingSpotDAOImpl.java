@@ -0,0 +1,105 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.constants.DBConstants;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
+import com.parkit.parkingsystem.exception.PendingWritesException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+
+import java.util.List;
+
+/**
+ *     <code>ParkingSpotDAO</code> decorator queueing <code>updateParking</code>
+ * on a <code>WriteBehindQueue</code>, so a place released on exit does not
+ * hold the gate until the database commit. Within a unit of work of
+ * <code>WriteBehindTransactionManager</code> the release is written in the
+ * same commit as the update of the ticket.
+ * <p>
+ *     Claims stay synchronous as they have to be atomic. A released place is
+ * only claimable once its update is written, so when no place is found while
+ * updates are still queued, the queue is flushed and the claim retried once.
+ * Within a unit of work of <code>WriteBehindTransactionManager</code> the
+ * claim holds a connection the flusher may be waiting for, so it throws
+ * <code>PendingWritesException</code> instead and the manager flushes and
+ * retries the unit of work once it is rolled back.
+ */
+public class WriteBehindParkingSpotDAOImpl implements ParkingSpotDAO {
+
+    private final ParkingSpotDAO parkingSpotDAO;
+    private final WriteBehindQueue writeBehindQueue;
+
+    /**
+     *     Stores <code>ParkingSpotDAO</code> and <code>WriteBehindQueue</code>
+     * variables passed as parameters and creates instance of
+     * <code>WriteBehindParkingSpotDAOImpl</code>.
+     *
+     * @param parkingSpotDAO  instance of <code>ParkingSpotDAO</code> reading
+     *                        and claiming from the database
+     * @param writeBehindQueue  queue the updates are written through
+     */
+    public WriteBehindParkingSpotDAOImpl(ParkingSpotDAO parkingSpotDAO, WriteBehindQueue writeBehindQueue) {
+        this.parkingSpotDAO = parkingSpotDAO;
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    @Override
+    public int getNextAvailableSlot(ParkingType parkingType) {
+
+        return parkingSpotDAO.getNextAvailableSlot(parkingType);
+    }
+
+    @Override
+    public int claimNextAvailableSlot(ParkingType parkingType) {
+
+        int parkingNumber = parkingSpotDAO.claimNextAvailableSlot(parkingType);
+
+        if (parkingNumber <= 0 && writeBehindQueue.hasPending()) {
+
+            flushOrRetryLater("No " + parkingType + " parking spot");
+            parkingNumber = parkingSpotDAO.claimNextAvailableSlot(parkingType);
+        }
+
+        return parkingNumber;
+    }
+
+    @Override
+    public boolean claimParking(ParkingSpot parkingSpot) {
+
+        boolean claimed = parkingSpotDAO.claimParking(parkingSpot);
+
+        if (!claimed && writeBehindQueue.hasPending()) {
+
+            flushOrRetryLater("Parking spot " + parkingSpot.getId() + " not available");
+            claimed = parkingSpotDAO.claimParking(parkingSpot);
+        }
+
+        return claimed;
+    }
+
+    @Override
+    public List<ParkingSpot> getParkingSpots() {
+
+        return parkingSpotDAO.getParkingSpots();
+    }
+
+    @Override
+    public boolean updateParking(ParkingSpot parkingSpot) {
+
+        ParkingSpot update = new ParkingSpot(parkingSpot.getId(), parkingSpot.getParkingType(),
+                parkingSpot.isAvailable());
+
+        writeBehindQueue.enqueue("parking spot " + update.getId(), DBConstants.UPDATE_PARKING_SPOT,
+                ps -> ParkingSpotDAOImpl.bindUpdateParking(ps, update));
+
+        return true;
+    }
+
+    private void flushOrRetryLater(String reason) {
+
+        if (writeBehindQueue.isInGroup()) {
+            throw new PendingWritesException(reason + " while releases are queued, retry once they are written");
+        }
+
+        writeBehindQueue.flush();
+    }
+}
@@ -0,0 +1,749 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ *     Bounded queue of database mutations written behind the callers by a
+ * single flusher thread, so gates return as soon as a mutation is queued
+ * instead of waiting for its commit.
+ * <p>
+ *     The flusher takes every mutation queued so far, waits up to
+ * <code>maxDelayMillis</code> for more to arrive, and writes them with one
+ * JDBC batch per statement and a single commit for the whole group. As there
+ * is one flusher taking mutations in the order they were queued, mutations of
+ * the same vehicle are committed in the order they were made.
+ * <p>
+ *     Mutations queued by a thread while it runs <code>inGroup</code> are
+ * held back and queued as one entry when the work returns, so they are
+ * written in the same commit, as the ticket and parking spot updates of one
+ * exit are, or not queued at all when the work throws.
+ * <p>
+ *     A group failing with a transient <code>SQLException</code>, a
+ * <code>SQLTransientException</code>, a
+ * <code>SQLRecoverableException</code> or one of SQL state class 08
+ * (connection) or 40 (rollback), is rolled back and retried until it commits,
+ * waiting <code>retryBackoffMillis</code> after the first failure and twice
+ * as long after each next one, up to <code>maxRetryBackoffMillis</code>.
+ * While the database is unreachable the flusher holds its group and the
+ * queue fills up. Any other failure would fail on every attempt, so the
+ * groups written together are written one at a time, and a group still
+ * failing on its own is rolled back and written to the dead-letter log,
+ * logger <code>WriteBehindDeadLetter</code>, one line per statement with its
+ * bound parameters, before the flusher carries on with the next groups.
+ * Statements updating no row are logged and counted as unmatched without
+ * failing the rest of the group.
+ * <p>
+ *     When the queue is full callers wait up to
+ * <code>enqueueTimeoutMillis</code>, which throttles the gates to the write
+ * rate of the database, and fail with
+ * <code>UnsuccessfulOperationException</code> once it is over, so a gate
+ * refuses a vehicle instead of accepting a write that can not be queued.
+ * Callers wait for room on a semaphore without holding any lock, the lock
+ * numbering the mutations in queue order is only held to add one, so waiting
+ * callers neither hold up the others nor pin the carrier of a virtual
+ * thread.
+ * <code>close</code> stops accepting mutations and returns once every queued
+ * one is written, or after <code>closeTimeoutMillis</code> while the database
+ * is unreachable, logging how many are left.
+ * <p>
+ *     The flusher borrows its connection from the same
+ * <code>DataBaseConfig</code> as the callers, so <code>flush</code> must not
+ * be called while the caller holds a connection, as in a unit of work: the
+ * flusher could wait for that very connection. <code>flush</code> gives up
+ * after <code>flushTimeoutMillis</code>.
+ * <p>
+ *     Follows Builder pattern, the only mandatory parameter of the Builder
+ * is the <code>DataBaseConfig</code> the mutations are written through.
+ */
+public class WriteBehindQueue implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger("WriteBehindQueue");
+    private static final Logger deadLetterLogger = LoggerFactory.getLogger("WriteBehindDeadLetter");
+
+    private final DataBaseConfig dataBaseConfig;
+    private final int maxBatchSize;
+    private final long maxDelayMillis;
+    private final long enqueueTimeoutMillis;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+    private final long flushTimeoutMillis;
+    private final long closeTimeoutMillis;
+
+    private final BlockingQueue<Mutation> queue;
+    private final ThreadLocal<List<QueuedStatement>> group = new ThreadLocal<>();
+    private final AtomicBoolean flusherStarted = new AtomicBoolean();
+    private final Thread flusher;
+    private final Object progress = new Object();
+    private final Semaphore room;
+    private final ReentrantLock enqueueLock = new ReentrantLock();
+    private volatile boolean closed;
+    private volatile long lastQueued;
+    private volatile long lastWritten;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder unmatched = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private final AtomicLong peakMutationsPerSecond = new AtomicLong();
+    private long currentSecond;
+    private long currentSecondMutations;
+
+    private WriteBehindQueue(Builder builder) {
+
+        this.dataBaseConfig = builder.dataBaseConfig;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxDelayMillis = builder.maxDelayMillis;
+        this.enqueueTimeoutMillis = builder.enqueueTimeoutMillis;
+        this.retryBackoffMillis = builder.retryBackoffMillis;
+        this.maxRetryBackoffMillis = builder.maxRetryBackoffMillis;
+        this.flushTimeoutMillis = builder.flushTimeoutMillis;
+        this.closeTimeoutMillis = builder.closeTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(builder.capacity);
+        this.room = new Semaphore(builder.capacity);
+        this.flusher = new Thread(this::flushUntilClosed, "write-behind-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    public static class Builder {
+
+        private final DataBaseConfig dataBaseConfig;
+        private int capacity = 10_000;
+        private int maxBatchSize = 500;
+        private long maxDelayMillis = 5;
+        private long enqueueTimeoutMillis = 5_000;
+        private long retryBackoffMillis = 100;
+        private long maxRetryBackoffMillis = 5_000;
+        private long flushTimeoutMillis = 30_000;
+        private long closeTimeoutMillis = 30_000;
+
+        public Builder(DataBaseConfig dataBaseConfig) {
+
+            this.dataBaseConfig = dataBaseConfig;
+        }
+
+        public Builder withCapacity(int capacity) {
+
+            this.capacity = capacity;
+
+            return this;
+        }
+
+        public Builder withMaxBatchSize(int maxBatchSize) {
+
+            this.maxBatchSize = maxBatchSize;
+
+            return this;
+        }
+
+        /**
+         * Sets how long the flusher waits for more mutations before
+         * committing a group smaller than <code>maxBatchSize</code>, 0
+         * commits whatever is queued right away.
+         *
+         * @param maxDelayMillis  delay in milliseconds
+         * @return this Builder
+         */
+        public Builder withMaxDelayMillis(long maxDelayMillis) {
+
+            this.maxDelayMillis = maxDelayMillis;
+
+            return this;
+        }
+
+        public Builder withEnqueueTimeoutMillis(long enqueueTimeoutMillis) {
+
+            this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+
+            return this;
+        }
+
+        public Builder withRetryBackoffMillis(long retryBackoffMillis) {
+
+            this.retryBackoffMillis = retryBackoffMillis;
+
+            return this;
+        }
+
+        /**
+         * Sets the longest wait between two attempts to write a failing
+         * group, reached by doubling <code>retryBackoffMillis</code>.
+         *
+         * @param maxRetryBackoffMillis  wait in milliseconds
+         * @return this Builder
+         */
+        public Builder withMaxRetryBackoffMillis(long maxRetryBackoffMillis) {
+
+            this.maxRetryBackoffMillis = maxRetryBackoffMillis;
+
+            return this;
+        }
+
+        /**
+         * Sets how long <code>flush</code> waits for the queued mutations to
+         * be written before giving up.
+         *
+         * @param flushTimeoutMillis  timeout in milliseconds
+         * @return this Builder
+         */
+        public Builder withFlushTimeoutMillis(long flushTimeoutMillis) {
+
+            this.flushTimeoutMillis = flushTimeoutMillis;
+
+            return this;
+        }
+
+        /**
+         * Sets how long <code>close</code> waits for the queued mutations to
+         * be written before returning without them.
+         *
+         * @param closeTimeoutMillis  timeout in milliseconds
+         * @return this Builder
+         */
+        public Builder withCloseTimeoutMillis(long closeTimeoutMillis) {
+
+            this.closeTimeoutMillis = closeTimeoutMillis;
+
+            return this;
+        }
+
+        public WriteBehindQueue build() {
+
+            if (dataBaseConfig == null) {
+                throw new IllegalArgumentException("Database config is mandatory");
+            }
+            if (capacity < 1 || maxBatchSize < 1 || retryBackoffMillis < 1
+                    || maxRetryBackoffMillis < retryBackoffMillis || flushTimeoutMillis < 0
+                    || closeTimeoutMillis < 0) {
+                throw new IllegalArgumentException("Invalid write-behind queue - capacity " + capacity
+                        + " batch size " + maxBatchSize + " retry backoff " + retryBackoffMillis
+                        + " to " + maxRetryBackoffMillis + " ms flush timeout " + flushTimeoutMillis
+                        + " ms close timeout " + closeTimeoutMillis + " ms");
+            }
+
+            return new WriteBehindQueue(this);
+        }
+    }
+
+    /**
+     *     Binds the parameters of one queued mutation to the statement it is
+     * batched into.
+     */
+    public interface Binder {
+
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     *     Queues a mutation, waiting up to <code>enqueueTimeoutMillis</code>
+     * while the queue is full. Called from the work of <code>inGroup</code>,
+     * the mutation is added to the group instead.
+     *
+     * @param key  what the mutation is about, e.g. the vehicle registration
+     *             number, used when it is logged
+     * @param sql  statement of <code>DBConstants</code> updating one row
+     * @param binder  sets the parameters of the statement, must only use
+     *                values captured when the mutation was made
+     * @throws UnsuccessfulOperationException if the queue is closed or stays
+     * full for longer than the timeout
+     */
+    public void enqueue(String key, String sql, Binder binder) {
+
+        QueuedStatement statement = new QueuedStatement(key, sql, binder);
+        List<QueuedStatement> statements = group.get();
+
+        if (statements != null) {
+            statements.add(statement);
+        } else {
+            enqueue(Collections.singletonList(statement));
+        }
+    }
+
+    /**
+     *     Runs the work passed as parameter and queues the mutations it makes
+     * through <code>enqueue</code> on this thread as one entry, written in a
+     * single commit, once it returns. When the work throws they are
+     * discarded. Called while a group is already open on the thread, the
+     * work joins it.
+     *
+     * @param work  operations whose mutations are written together
+     * @param <T>  type of the result of the work
+     * @return result of the work
+     * @throws UnsuccessfulOperationException if the queue is closed or stays
+     * full for longer than the timeout
+     */
+    public <T> T inGroup(Supplier<T> work) {
+
+        if (group.get() != null) {
+            return work.get();
+        }
+
+        List<QueuedStatement> statements = new ArrayList<>();
+        group.set(statements);
+
+        T result;
+
+        try {
+            result = work.get();
+        } finally {
+            group.remove();
+        }
+
+        if (!statements.isEmpty()) {
+            enqueue(statements);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns whether the current thread runs the work of
+     * <code>inGroup</code>.
+     *
+     * @return <code>true</code> if mutations queued by this thread are held
+     * back in a group
+     */
+    public boolean isInGroup() {
+
+        return group.get() != null;
+    }
+
+    private void enqueue(List<QueuedStatement> statements) {
+
+        startFlusher();
+
+        String key = statements.get(0).key;
+
+        if (closed) {
+            throw new UnsuccessfulOperationException("Write-behind queue is closed, unable to write " + key);
+        }
+
+        try {
+            if (!room.tryAcquire(enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timedOut.increment();
+                throw new UnsuccessfulOperationException("Write-behind queue full for more than "
+                        + enqueueTimeoutMillis + " ms, unable to write " + key);
+            }
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new UnsuccessfulOperationException("Interrupted while queueing write of " + key, e);
+        }
+
+        enqueueLock.lock();
+
+        try {
+            if (closed) {
+                room.release();
+                throw new UnsuccessfulOperationException("Write-behind queue is closed, unable to write " + key);
+            }
+
+            Mutation mutation = new Mutation(lastQueued + 1, statements);
+
+            queue.add(mutation);
+            lastQueued = mutation.sequence;
+            queued.add(statements.size());
+
+        } finally {
+
+            enqueueLock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether mutations are queued or being written.
+     *
+     * @return <code>true</code> if a mutation queued earlier is not written
+     * yet
+     */
+    public boolean hasPending() {
+
+        return lastWritten < lastQueued;
+    }
+
+    /**
+     *     Waits until every mutation queued before this call is committed,
+     * for up to <code>flushTimeoutMillis</code>. Must not be called while the
+     * thread holds a connection of the <code>DataBaseConfig</code> of the
+     * queue.
+     *
+     * @throws UnsuccessfulOperationException if the mutations are not written
+     * before the timeout, or if interrupted while waiting
+     */
+    public void flush() {
+
+        long target = lastQueued;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushTimeoutMillis);
+
+        synchronized (progress) {
+            while (lastWritten < target) {
+
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+                    throw new UnsuccessfulOperationException("Write-behind queue not flushed within "
+                            + flushTimeoutMillis + " ms, " + (target - lastWritten) + " groups still queued");
+                }
+
+                try {
+                    progress.wait(Math.max(1, Math.min(100, TimeUnit.NANOSECONDS.toMillis(remaining))));
+                } catch (InterruptedException e) {
+
+                    Thread.currentThread().interrupt();
+                    throw new UnsuccessfulOperationException("Interrupted while flushing write-behind queue", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the queue counters.
+     *
+     * @return instance of <code>WriteBehindMetrics</code>, never null
+     */
+    public WriteBehindMetrics getMetrics() {
+
+        return new WriteBehindMetrics(queue.size(), queued.sum(), committed.sum(), unmatched.sum(), timedOut.sum(),
+                batches.sum(), retries.sum(), deadLettered.sum(), TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get()),
+                peakMutationsPerSecond.get());
+    }
+
+    /**
+     * Stops accepting mutations and waits up to
+     * <code>closeTimeoutMillis</code> until every queued one is written, so
+     * nothing queued is lost when the application shuts down while the
+     * database is reachable.
+     */
+    @Override
+    public void close() {
+
+        enqueueLock.lock();
+
+        try {
+            closed = true;
+        } finally {
+            enqueueLock.unlock();
+        }
+
+        if (flusherStarted.get()) {
+            try {
+                flusher.join(Math.max(1, closeTimeoutMillis));
+
+                if (flusher.isAlive()) {
+                    logger.error("Write-behind flusher still writing after {} ms, {} groups not written",
+                            closeTimeoutMillis, queue.size() + 1);
+                }
+            } catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+                logger.error("Interrupted while waiting for write-behind flusher, {} mutations not written",
+                        queue.size());
+            }
+        }
+
+        logger.info("Write-behind queue closed {}", getMetrics());
+    }
+
+    private void startFlusher() {
+
+        if (flusherStarted.compareAndSet(false, true)) {
+            flusher.start();
+        }
+    }
+
+    private void flushUntilClosed() {
+
+        try {
+            while (true) {
+
+                Mutation first = queue.poll(100, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+
+                List<Mutation> batch = collect(first);
+
+                write(batch);
+
+                synchronized (progress) {
+                    lastWritten = batch.get(batch.size() - 1).sequence;
+                    progress.notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            logger.error("Write-behind flusher interrupted, {} mutations not written", queue.size());
+        }
+    }
+
+    private List<Mutation> collect(Mutation first) throws InterruptedException {
+
+        List<Mutation> batch = new ArrayList<>();
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - 1);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+
+        while (batch.size() < maxBatchSize && !closed) {
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+
+            Mutation next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+
+        room.release(batch.size());
+
+        return batch;
+    }
+
+    private void write(List<Mutation> batch) throws InterruptedException {
+
+        Exception failure = writeUntilCommittedOrFailed(batch);
+
+        if (failure == null) {
+            return;
+        }
+
+        if (batch.size() > 1) {
+
+            logger.warn("Writing {} groups one at a time after non-transient failure: {}", batch.size(),
+                    failure.toString());
+
+            for (Mutation mutation : batch) {
+                write(Collections.singletonList(mutation));
+            }
+            return;
+        }
+
+        deadLetter(batch.get(0), failure);
+    }
+
+    private Exception writeUntilCommittedOrFailed(List<Mutation> batch) throws InterruptedException {
+
+        long backoffMillis = retryBackoffMillis;
+
+        for (int attempt = 1; ; attempt++) {
+
+            try (Connection con = dataBaseConfig.getConnection()) {
+
+                con.setAutoCommit(false);
+
+                try {
+                    int unmatchedRows = executeBatches(con, batch);
+                    con.commit();
+
+                    recordCommit(batch, unmatchedRows);
+                    return null;
+
+                } catch (SQLException | RuntimeException e) {
+
+                    rollback(con, e);
+                    throw e;
+
+                } finally {
+
+                    con.setAutoCommit(true);
+                }
+
+            } catch (SQLException e) {
+
+                if (!isTransient(e)) {
+                    return e;
+                }
+
+                logger.error("Attempt " + attempt + " to write " + batch.size() + " groups failed, retrying in "
+                        + backoffMillis + " ms with " + queue.size() + " more queued", e);
+
+                retries.increment();
+                Thread.sleep(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, maxRetryBackoffMillis);
+
+            } catch (ClassNotFoundException | RuntimeException e) {
+
+                return e;
+            }
+        }
+    }
+
+    private static void rollback(Connection con, Exception failure) {
+
+        try {
+            con.rollback();
+        } catch (SQLException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private static boolean isTransient(SQLException e) {
+
+        String sqlState = e.getSQLState();
+
+        return e instanceof SQLTransientException || e instanceof SQLRecoverableException
+                || sqlState != null && (sqlState.startsWith("08") || sqlState.startsWith("40"));
+    }
+
+    private void deadLetter(Mutation mutation, Exception failure) {
+
+        logger.error("Group " + mutation.sequence + " of " + mutation.statements.get(0).key
+                + " can not be written, moved to the dead-letter log", failure);
+
+        for (QueuedStatement statement : mutation.statements) {
+            deadLetterLogger.error("{}\t{}\t{}\t{}", mutation.sequence, statement.key, statement.sql,
+                    parameters(statement));
+        }
+
+        deadLettered.add(mutation.statements.size());
+    }
+
+    private static String parameters(QueuedStatement statement) {
+
+        Map<Integer, Object> parameters = new TreeMap<>();
+
+        PreparedStatement recorder = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length > 1
+                            && args[0] instanceof Integer) {
+                        parameters.put((Integer) args[0], args[1]);
+                    }
+                    return null;
+                });
+
+        try {
+            statement.binder.bind(recorder);
+        } catch (SQLException | RuntimeException e) {
+            return "unbound " + e;
+        }
+
+        return parameters.values().toString();
+    }
+
+    private int executeBatches(Connection con, List<Mutation> batch) throws SQLException {
+
+        Map<String, List<QueuedStatement>> bySql = new LinkedHashMap<>();
+
+        for (Mutation mutation : batch) {
+            for (QueuedStatement statement : mutation.statements) {
+                bySql.computeIfAbsent(statement.sql, sql -> new ArrayList<>()).add(statement);
+            }
+        }
+
+        int unmatchedRows = 0;
+
+        for (Map.Entry<String, List<QueuedStatement>> sameSql : bySql.entrySet()) {
+
+            List<QueuedStatement> statements = sameSql.getValue();
+
+            try (PreparedStatement ps = con.prepareStatement(sameSql.getKey())) {
+
+                for (QueuedStatement statement : statements) {
+                    statement.binder.bind(ps);
+                    ps.addBatch();
+                }
+
+                int[] counts = ps.executeBatch();
+
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        unmatchedRows++;
+                        logger.warn("Write of {} updated no row: {}", statements.get(i).key, sameSql.getKey());
+                    }
+                }
+            }
+        }
+
+        return unmatchedRows;
+    }
+
+    private void recordCommit(List<Mutation> batch, int unmatchedRows) {
+
+        long now = System.nanoTime();
+        int written = 0;
+
+        for (Mutation mutation : batch) {
+            written += mutation.statements.size();
+        }
+
+        batches.increment();
+        committed.add(written - unmatchedRows);
+        unmatched.add(unmatchedRows);
+        maxLagNanos.accumulateAndGet(now - batch.get(0).queuedAtNanos, Math::max);
+
+        long second = TimeUnit.NANOSECONDS.toSeconds(now);
+
+        if (second != currentSecond) {
+            currentSecond = second;
+            currentSecondMutations = 0;
+        }
+
+        currentSecondMutations += written;
+        peakMutationsPerSecond.accumulateAndGet(currentSecondMutations, Math::max);
+    }
+
+    private static class Mutation {
+
+        private final long sequence;
+        private final List<QueuedStatement> statements;
+        private final long queuedAtNanos = System.nanoTime();
+
+        private Mutation(long sequence, List<QueuedStatement> statements) {
+            this.sequence = sequence;
+            this.statements = statements;
+        }
+    }
+
+    private static class QueuedStatement {
+
+        private final String key;
+        private final String sql;
+        private final Binder binder;
+
+        private QueuedStatement(String key, String sql, Binder binder) {
+            this.key = key;
+            this.sql = sql;
+            this.binder = binder;
+        }
+    }
+}
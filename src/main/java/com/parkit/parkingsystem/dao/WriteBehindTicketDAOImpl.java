@@ -0,0 +1,62 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.constants.DBConstants;
+import com.parkit.parkingsystem.dao.contracts.TicketDAO;
+import com.parkit.parkingsystem.model.Ticket;
+
+/**
+ *     <code>TicketDAO</code> decorator queueing <code>updateTicket</code> on a
+ * <code>WriteBehindQueue</code>, so the fare is shown on exit without waiting
+ * for the database commit.
+ * <p>
+ *     Price and out time are copied when the update is queued. Within a unit
+ * of work of <code>WriteBehindTransactionManager</code> the update is written
+ * in the same commit as the release of the parking spot. Saving stays
+ * synchronous as the ticket id is generated by the database, and reads go to
+ * the decorated DAO.
+ */
+public class WriteBehindTicketDAOImpl implements TicketDAO {
+
+    private final TicketDAO ticketDAO;
+    private final WriteBehindQueue writeBehindQueue;
+
+    /**
+     *     Stores <code>TicketDAO</code> and <code>WriteBehindQueue</code>
+     * variables passed as parameters and creates instance of
+     * <code>WriteBehindTicketDAOImpl</code>.
+     *
+     * @param ticketDAO  instance of <code>TicketDAO</code> reading and
+     *                   saving to the database
+     * @param writeBehindQueue  queue the updates are written through
+     */
+    public WriteBehindTicketDAOImpl(TicketDAO ticketDAO, WriteBehindQueue writeBehindQueue) {
+        this.ticketDAO = ticketDAO;
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    @Override
+    public boolean saveTicket(Ticket ticket) {
+
+        return ticketDAO.saveTicket(ticket);
+    }
+
+    @Override
+    public Ticket getTicket(String vehicleRegNumber) {
+
+        return ticketDAO.getTicket(vehicleRegNumber);
+    }
+
+    @Override
+    public boolean updateTicket(Ticket ticket) {
+
+        Ticket update = new Ticket();
+        update.setId(ticket.getId());
+        update.setPrice(ticket.getPrice());
+        update.setOutTime(ticket.getOutTime());
+
+        writeBehindQueue.enqueue(ticket.getVehicleRegNumber(), DBConstants.UPDATE_TICKET,
+                ps -> TicketDAOImpl.bindUpdateTicket(ps, update));
+
+        return true;
+    }
+}
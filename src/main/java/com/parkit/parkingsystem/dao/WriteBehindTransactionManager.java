@@ -0,0 +1,67 @@
+package com.parkit.parkingsystem.dao;
+
+import com.parkit.parkingsystem.config.contracts.TransactionManager;
+import com.parkit.parkingsystem.exception.PendingWritesException;
+
+import java.util.function.Supplier;
+
+/**
+ *     <code>TransactionManager</code> decorator writing the mutations a unit
+ * of work queues on a <code>WriteBehindQueue</code> in one group, so the
+ * ticket and parking spot updates of one exit are committed together or not
+ * at all.
+ * <p>
+ *     The group is queued once the decorated unit of work has committed, and
+ * discarded when it is rolled back.
+ * <p>
+ *     A unit of work failing with <code>PendingWritesException</code>, as a
+ * claim finding no place while releases are queued does, is rolled back,
+ * which returns its connection, then the queue is flushed and the work run
+ * once more. The queue is never flushed while the unit of work holds a
+ * connection the flusher may need.
+ */
+public class WriteBehindTransactionManager implements TransactionManager {
+
+    private final TransactionManager transactionManager;
+    private final WriteBehindQueue writeBehindQueue;
+
+    /**
+     *     Stores <code>TransactionManager</code> and
+     * <code>WriteBehindQueue</code> variables passed as parameters and
+     * creates instance of <code>WriteBehindTransactionManager</code>.
+     *
+     * @param transactionManager  instance of <code>TransactionManager</code>
+     *                            running the synchronous part of the work
+     * @param writeBehindQueue  queue the mutations of the work are written
+     *                          through
+     */
+    public WriteBehindTransactionManager(TransactionManager transactionManager,
+                                         WriteBehindQueue writeBehindQueue) {
+        this.transactionManager = transactionManager;
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    @Override
+    public <T> T inTransaction(Supplier<T> work) {
+
+        if (writeBehindQueue.isInGroup()) {
+            return transactionManager.inTransaction(work);
+        }
+
+        try {
+            return writeBehindQueue.inGroup(() -> transactionManager.inTransaction(work));
+
+        } catch (PendingWritesException e) {
+
+            writeBehindQueue.flush();
+
+            return writeBehindQueue.inGroup(() -> transactionManager.inTransaction(work));
+        }
+    }
+
+    @Override
+    public void afterCommit(Runnable action) {
+
+        transactionManager.afterCommit(action);
+    }
+}
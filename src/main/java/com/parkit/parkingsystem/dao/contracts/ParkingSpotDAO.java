@@ -3,11 +3,15 @@ package com.parkit.parkingsystem.dao.contracts;
 import com.parkit.parkingsystem.constants.ParkingType;
 import com.parkit.parkingsystem.model.ParkingSpot;
 
+import java.util.List;
+
 /**
  *     Handles interactions with the database table <code>Parking</code>.
- * Consists of methods <code>getNextAvailableSlot</code> and
- * <code>updateParking</code> which creates search and update queries to
- * the database table <code>Parking</code>.
+ * Consists of methods <code>getNextAvailableSlot</code>,
+ * <code>claimNextAvailableSlot</code>, <code>claimParking</code>,
+ * <code>getParkingSpots</code> and
+ * <code>updateParking</code> which creates search and update queries to the
+ * database table <code>Parking</code>.
  * <p>
  *     Holds dependency to <code>DataBaseConfig</code> class through
  * constructor injection, that allows to create <code>Connection</code>
@@ -31,6 +35,44 @@ public interface ParkingSpotDAO {
 	 */
 	int getNextAvailableSlot(ParkingType parkingType);
 
+	/**
+	 *     Finds and marks as occupied in one locked transaction the first
+	 * available place in the database table <code>Parking</code> for vehicle
+	 * of the passed <code>ParkingType</code>, so two gates never receive the
+	 * same place. Places locked by a concurrent claim are skipped instead of
+	 * waited for.
+	 * Returns -1 in case there is no available place of the specified type.
+	 * <p>
+	 *     Runs in its own transaction, unless the connection it receives is
+	 * already part of a unit of work, which it then joins.
+	 *
+	 * @param parkingType  instance of <code>ParkingType</code> enum, not null
+	 * @return <code>int</code> variable representing number of the claimed
+	 * parking slot, -1 if there is no available slots
+	 */
+	int claimNextAvailableSlot(ParkingType parkingType);
+
+	/**
+	 *     Marks as occupied in the database table <code>Parking</code> the
+	 * passed place, only if it is still available, so a place already taken
+	 * by another gate or application is never handed out twice.
+	 *
+	 * @param parkingSpot  instance of <code>ParkingSpot</code> holding number
+	 *                     and type of the place to claim
+	 * @return <code>true</code> if the place was available and is now
+	 * occupied, <code>false</code> if it was already occupied
+	 */
+	boolean claimParking(ParkingSpot parkingSpot);
+
+	/**
+	 *     Retrieves all places of the database table <code>Parking</code>
+	 * with their type and availability.
+	 *
+	 * @return <code>List</code> of <code>ParkingSpot</code>, empty if the
+	 * table holds no places, never null
+	 */
+	List<ParkingSpot> getParkingSpots();
+
 	/**
 	 *     Handles updates to database table <code>Parking</code>.
 	 * Throws new <code>UnsuccessfulOperationException</code> on any result
@@ -0,0 +1,32 @@
+package com.parkit.parkingsystem.dao.contracts;
+
+/**
+ *     Registration numbers of the vehicles which have left the parking
+ * before and get the discount of recurring users. Consists of methods
+ * <code>contains</code> answering whether a vehicle is recurring and
+ * <code>add</code> registering a vehicle at the end of its stay.
+ * <p>
+ *     Implementations are not required to list or count their users, so
+ * they can be answered from a filter in front of the database instead of
+ * holding every registration number in memory.
+ */
+public interface RecurringUsers {
+
+	/**
+	 *     Tells whether the vehicle has left the parking before.
+	 *
+	 * @param vehicleRegNumber  vehicle registration number as
+	 *                          <code>String</code>
+	 * @return <code>true</code> if the vehicle is a recurring user
+	 */
+	boolean contains(String vehicleRegNumber);
+
+	/**
+	 *     Registers the vehicle as recurring for its next visits.
+	 *
+	 * @param vehicleRegNumber  vehicle registration number as
+	 *                          <code>String</code>
+	 * @return <code>true</code> if the vehicle was not registered before
+	 */
+	boolean add(String vehicleRegNumber);
+}
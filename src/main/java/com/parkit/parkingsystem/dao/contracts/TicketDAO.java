@@ -21,7 +21,8 @@ public interface TicketDAO {
 	 * different then <code>true</code> as update works with predefined
 	 * conditions and expected behavior is to update successfully. Different
 	 * than 1 created rows is considered exceptional case, and 1 created row
-	 * returns <code>true</code>.
+	 * returns <code>true</code>. The id generated by the database is set on
+	 * the passed <code>Ticket</code>.
 	 * <p>
 	 *     Method has @SuppressFBWarnings annotation to suppress redundant
 	 * null check warning when using try with resource block from FindBugs
@@ -0,0 +1,22 @@
+package com.parkit.parkingsystem.exception;
+
+/**
+ * Signals that an operation failed only because writes it depends on are
+ * still queued behind, and may succeed once they are written. Thrown inside a
+ * unit of work, so the unit can be rolled back, releasing its connection,
+ * before the writes are waited for and the work retried.
+ */
+public class PendingWritesException extends UnsuccessfulOperationException {
+
+    /**
+     * Constructs a new exception with the specified detail message.
+     *
+     * @param errorMessage  <code>String</code> variable as parameter
+     *                    representing error message explaining the cause for
+     *                    the exception
+     */
+    public PendingWritesException(String errorMessage) {
+
+        super(errorMessage);
+    }
+}
@@ -0,0 +1,111 @@
+package com.parkit.parkingsystem.model;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The class <code>ParkingStatistics</code> is an immutable snapshot of the
+ * occupancy of the parking and of the entries, exits and revenue of one day,
+ * per <code>ParkingType</code> and in total.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>ParkingStatistics</code>.
+ */
+public class ParkingStatistics {
+
+    private final LocalDate day;
+    private final int[] freeSpots;
+    private final int[] occupiedSpots;
+    private final long[] entries;
+    private final long[] exits;
+    private final double[] revenue;
+
+    /**
+     *     Construct new <code>ParkingStatistics</code> from passed parameters.
+     * The arrays are indexed by the ordinal of the <code>ParkingType</code>
+     * and copied.
+     *
+     * @param day  day in UTC the entries, exits and revenue are counted for
+     * @param freeSpots  free spots per parking type
+     * @param occupiedSpots  occupied spots per parking type
+     * @param entries  vehicles entered during the day per parking type
+     * @param exits  vehicles exited during the day per parking type
+     * @param revenue  fares of the exits of the day per parking type
+     */
+    public ParkingStatistics(LocalDate day, int[] freeSpots, int[] occupiedSpots, long[] entries, long[] exits,
+                             double[] revenue) {
+        this.day = day;
+        this.freeSpots = freeSpots.clone();
+        this.occupiedSpots = occupiedSpots.clone();
+        this.entries = entries.clone();
+        this.exits = exits.clone();
+        this.revenue = revenue.clone();
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public int getFreeSpots(ParkingType parkingType) {
+        return freeSpots[parkingType.ordinal()];
+    }
+
+    public int getOccupiedSpots(ParkingType parkingType) {
+        return occupiedSpots[parkingType.ordinal()];
+    }
+
+    public long getEntries(ParkingType parkingType) {
+        return entries[parkingType.ordinal()];
+    }
+
+    public long getExits(ParkingType parkingType) {
+        return exits[parkingType.ordinal()];
+    }
+
+    public double getRevenue(ParkingType parkingType) {
+        return revenue[parkingType.ordinal()];
+    }
+
+    /**
+     * Returns the count of vehicles in the parking, one per occupied spot.
+     *
+     * @return occupied spots of all parking types
+     */
+    public int getVehiclesInside() {
+        return Arrays.stream(occupiedSpots).sum();
+    }
+
+    public long getEntries() {
+        return Arrays.stream(entries).sum();
+    }
+
+    public long getExits() {
+        return Arrays.stream(exits).sum();
+    }
+
+    public double getRevenue() {
+        return Arrays.stream(revenue).sum();
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>ParkingStatistics</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "ParkingStatistics{" +
+                "day=" + day +
+                ", freeSpots=" + Arrays.toString(freeSpots) +
+                ", occupiedSpots=" + Arrays.toString(occupiedSpots) +
+                ", entries=" + Arrays.toString(entries) +
+                ", exits=" + Arrays.toString(exits) +
+                ", revenue=" + Arrays.toString(revenue) +
+                '}';
+    }
+}
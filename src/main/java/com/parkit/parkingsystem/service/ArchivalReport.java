@@ -0,0 +1,96 @@
+package com.parkit.parkingsystem.service;
+
+/**
+ * The class <code>ArchivalReport</code> is an immutable summary of one run
+ * of <code>ArchivalServiceImpl</code>.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>ArchivalReport</code>.
+ */
+public class ArchivalReport {
+
+    private final long cutoff;
+    private final long startLagSeconds;
+    private final long endLagSeconds;
+    private final long moved;
+    private final long chunks;
+    private final long elapsedNanos;
+
+    /**
+     * Construct new <code>ArchivalReport</code> from passed parameters.
+     *
+     * @param cutoff  out-time in seconds since the epoch before which the
+     *                tickets were archived
+     * @param startLagSeconds  seconds between the out-time of the oldest
+     *                         ticket to archive and the cutoff at the start
+     *                         of the run, 0 when there was none
+     * @param endLagSeconds  seconds between the out-time reached and the
+     *                       cutoff at the end of the run, 0 when it has
+     *                       caught up
+     * @param moved  tickets moved to the archive by this run
+     * @param chunks  chunks committed by this run
+     * @param elapsedNanos  duration of the run in nanoseconds
+     */
+    public ArchivalReport(long cutoff, long startLagSeconds, long endLagSeconds, long moved, long chunks,
+                          long elapsedNanos) {
+        this.cutoff = cutoff;
+        this.startLagSeconds = startLagSeconds;
+        this.endLagSeconds = endLagSeconds;
+        this.moved = moved;
+        this.chunks = chunks;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getCutoff() {
+        return cutoff;
+    }
+
+    public long getStartLagSeconds() {
+        return startLagSeconds;
+    }
+
+    public long getEndLagSeconds() {
+        return endLagSeconds;
+    }
+
+    public long getMoved() {
+        return moved;
+    }
+
+    public long getChunks() {
+        return chunks;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the rate of the run.
+     *
+     * @return tickets moved per second, 0 when nothing was moved
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : moved * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>ArchivalReport</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "ArchivalReport{" +
+                "cutoff=" + cutoff +
+                ", startLagSeconds=" + startLagSeconds +
+                ", endLagSeconds=" + endLagSeconds +
+                ", moved=" + moved +
+                ", chunks=" + chunks +
+                ", elapsedNanos=" + elapsedNanos +
+                '}';
+    }
+}
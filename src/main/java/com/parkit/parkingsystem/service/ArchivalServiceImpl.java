@@ -0,0 +1,376 @@
+package com.parkit.parkingsystem.service;
+
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.constants.DBConstants;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.service.contracts.ArchivalService;
+import com.parkit.parkingsystem.util.TimeUtilImpl;
+import com.parkit.parkingsystem.util.contracts.TimeUtil;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *     <code>ArchivalService</code> moving the closed tickets in chunks of
+ * <code>chunkSize</code> rows, each read, copied to table ticket_archive and
+ * deleted from table ticket in one short transaction of its own, with a
+ * pause of <code>pauseMillis</code> between chunks. Gates only ever wait
+ * for the locks of one chunk, never for the whole run.
+ * <p>
+ *     Chunks are paginated by keyset on out-time and id, so every chunk
+ * seeks through the out-time index to where the previous one stopped
+ * instead of skipping the rows already read. Every closed ticket past the
+ * cutoff is archived, the recurring user lookups read table ticket_archive
+ * as well, so a vehicle keeps its discount once all its stays are
+ * archived.
+ * <p>
+ *     Each run reports the tickets moved per second and how far behind the
+ * cutoff the archival was at its start and end, logged and kept as the last
+ * report.
+ * <p>
+ *     Follows Builder pattern, the only mandatory parameter of the Builder
+ * is the <code>DataBaseConfig</code> the tickets are moved through.
+ */
+public class ArchivalServiceImpl implements ArchivalService {
+
+    private static final Logger logger = LoggerFactory.getLogger("ArchivalService");
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final DataBaseConfig dataBaseConfig;
+    private final TimeUtil timeUtil;
+    private final int retentionDays;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final long intervalMillis;
+
+    private ScheduledExecutorService archiver;
+    private volatile boolean stopped;
+    private volatile ArchivalReport lastReport;
+
+    private ArchivalServiceImpl(Builder builder) {
+
+        this.dataBaseConfig = builder.dataBaseConfig;
+        this.timeUtil = builder.timeUtil;
+        this.retentionDays = builder.retentionDays;
+        this.chunkSize = builder.chunkSize;
+        this.pauseMillis = builder.pauseMillis;
+        this.intervalMillis = builder.intervalMillis;
+    }
+
+    public static class Builder {
+
+        private final DataBaseConfig dataBaseConfig;
+        private TimeUtil timeUtil = new TimeUtilImpl();
+        private int retentionDays = 365;
+        private int chunkSize = 500;
+        private long pauseMillis = 50;
+        private long intervalMillis = 3_600_000;
+
+        public Builder(DataBaseConfig dataBaseConfig) {
+
+            this.dataBaseConfig = dataBaseConfig;
+        }
+
+        public Builder withTimeUtil(TimeUtil timeUtil) {
+
+            this.timeUtil = timeUtil;
+
+            return this;
+        }
+
+        /**
+         * Sets how many days closed tickets stay in table ticket after their
+         * out-time.
+         *
+         * @param retentionDays  days of retention, 0 to archive every closed
+         *                       ticket
+         * @return this Builder
+         */
+        public Builder withRetentionDays(int retentionDays) {
+
+            this.retentionDays = retentionDays;
+
+            return this;
+        }
+
+        /**
+         * Sets how many tickets are moved per transaction, which bounds how
+         * long the rows of a chunk stay locked.
+         *
+         * @param chunkSize  tickets per chunk
+         * @return this Builder
+         */
+        public Builder withChunkSize(int chunkSize) {
+
+            this.chunkSize = chunkSize;
+
+            return this;
+        }
+
+        public Builder withPauseMillis(long pauseMillis) {
+
+            this.pauseMillis = pauseMillis;
+
+            return this;
+        }
+
+        public Builder withIntervalMillis(long intervalMillis) {
+
+            this.intervalMillis = intervalMillis;
+
+            return this;
+        }
+
+        public ArchivalServiceImpl build() {
+
+            if (dataBaseConfig == null || timeUtil == null) {
+                throw new IllegalArgumentException("Database config and time util are mandatory");
+            }
+            if (retentionDays < 0 || chunkSize < 1 || pauseMillis < 0 || intervalMillis < 1) {
+                throw new IllegalArgumentException("Invalid archival service - retention days " + retentionDays
+                        + " chunk size " + chunkSize + " pause millis " + pauseMillis
+                        + " interval millis " + intervalMillis);
+            }
+
+            return new ArchivalServiceImpl(this);
+        }
+    }
+
+    @Override
+    public ArchivalReport archive() {
+
+        long startNanos = System.nanoTime();
+        long cutoff = timeUtil.getTimeInSeconds() - retentionDays * SECONDS_PER_DAY;
+        Timestamp cutoffTime = new Timestamp(cutoff * 1000);
+
+        Chunk chunk = new Chunk(new Timestamp(0), 0);
+        long startLag = 0;
+        long endLag = 0;
+        long moved = 0;
+        long chunks = 0;
+
+        while (true) {
+
+            chunk = moveChunk(cutoffTime, chunk);
+
+            if (chunk.selected == 0) {
+                break;
+            }
+            if (chunks == 0) {
+                startLag = lag(cutoff, chunk.firstOutTime);
+            }
+
+            moved += chunk.moved;
+            chunks++;
+            logger.debug("Archived chunk of {} tickets up to out-time {}", chunk.moved, chunk.lastOutTime);
+
+            if (chunk.selected < chunkSize) {
+                break;
+            }
+            if (stopped || !pause()) {
+                endLag = lag(cutoff, chunk.lastOutTime);
+                break;
+            }
+        }
+
+        ArchivalReport report = new ArchivalReport(cutoff, startLag, endLag, moved, chunks,
+                System.nanoTime() - startNanos);
+
+        if (moved > 0) {
+            logger.info("Archived tickets {} at {} rows/s, {} s behind", report,
+                    Math.round(report.getRowsPerSecond()), endLag);
+        } else {
+            logger.debug("No ticket to archive before {}", cutoffTime);
+        }
+
+        lastReport = report;
+
+        return report;
+    }
+
+    @Override
+    public synchronized void start() {
+
+        if (archiver != null) {
+            return;
+        }
+
+        stopped = false;
+        archiver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ticket-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        archiver.scheduleWithFixedDelay(this::archiveQuietly, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+
+        stopped = true;
+
+        if (archiver == null) {
+            return;
+        }
+
+        archiver.shutdown();
+
+        try {
+            if (!archiver.awaitTermination(pauseMillis + 5_000, TimeUnit.MILLISECONDS)) {
+                logger.warn("Ticket archiver still running after stop");
+            }
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+
+        archiver = null;
+    }
+
+    /**
+     * Returns the report of the last run.
+     *
+     * @return instance of <code>ArchivalReport</code>, null before the
+     * first run
+     */
+    public ArchivalReport getLastReport() {
+        return lastReport;
+    }
+
+    @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
+    private Chunk moveChunk(Timestamp cutoffTime, Chunk previous) {
+
+        try (Connection con = dataBaseConfig.getConnection()) {
+
+            con.setAutoCommit(false);
+
+            try (PreparedStatement select = con.prepareStatement(DBConstants.GET_ARCHIVABLE_TICKETS);
+                 PreparedStatement insert = con.prepareStatement(DBConstants.ARCHIVE_TICKET);
+                 PreparedStatement delete = con.prepareStatement(DBConstants.DELETE_CLOSED_TICKET)) {
+
+                select.setTimestamp(1, cutoffTime);
+                select.setTimestamp(2, previous.lastOutTime);
+                select.setTimestamp(3, previous.lastOutTime);
+                select.setInt(4, previous.lastId);
+                select.setInt(5, chunkSize);
+
+                Chunk chunk = new Chunk(previous.lastOutTime, previous.lastId);
+
+                try (ResultSet rs = select.executeQuery()) {
+
+                    while (rs.next()) {
+
+                        int id = rs.getInt(1);
+                        Timestamp outTime = rs.getTimestamp(6);
+
+                        insert.setInt(1, id);
+                        insert.setInt(2, rs.getInt(2));
+                        insert.setString(3, rs.getString(3));
+                        insert.setDouble(4, rs.getDouble(4));
+                        insert.setTimestamp(5, rs.getTimestamp(5));
+                        insert.setTimestamp(6, outTime);
+                        insert.addBatch();
+
+                        delete.setInt(1, id);
+                        delete.addBatch();
+
+                        if (chunk.selected == 0) {
+                            chunk.firstOutTime = outTime;
+                        }
+                        chunk.selected++;
+                        chunk.lastOutTime = outTime;
+                        chunk.lastId = id;
+                    }
+                }
+
+                if (chunk.selected > 0) {
+
+                    insert.executeBatch();
+
+                    for (int deleted : delete.executeBatch()) {
+                        chunk.moved += deleted == Statement.SUCCESS_NO_INFO ? 1 : deleted;
+                    }
+                }
+
+                con.commit();
+
+                return chunk;
+
+            } catch (SQLException e) {
+
+                con.rollback();
+                throw e;
+
+            } finally {
+
+                con.setAutoCommit(true);
+            }
+
+        } catch (ClassNotFoundException | SQLException e) {
+
+            logger.error("Error archiving tickets after out-time {} and id {}", previous.lastOutTime,
+                    previous.lastId, e);
+            throw new UnsuccessfulOperationException("Unable to archive tickets after out-time "
+                    + previous.lastOutTime + ", previous chunks archived", e);
+        }
+    }
+
+    private boolean pause() {
+
+        if (pauseMillis == 0) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void archiveQuietly() {
+
+        try {
+            archive();
+
+        } catch (RuntimeException ex) {
+
+            logger.error("Error archiving tickets", ex);
+        }
+    }
+
+    private static long lag(long cutoff, Timestamp outTime) {
+        return Math.max(0, cutoff - outTime.getTime() / 1000);
+    }
+
+    private static final class Chunk {
+
+        private Timestamp firstOutTime;
+        private Timestamp lastOutTime;
+        private int lastId;
+        private int selected;
+        private long moved;
+
+        private Chunk(Timestamp lastOutTime, int lastId) {
+            this.lastOutTime = lastOutTime;
+            this.lastId = lastId;
+        }
+    }
+}
@@ -1,28 +1,32 @@
 package com.parkit.parkingsystem.service;
 
 import com.parkit.parkingsystem.constants.DiscountType;
+import com.parkit.parkingsystem.dao.InMemoryRecurringUsers;
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
 import com.parkit.parkingsystem.model.Ticket;
 import com.parkit.parkingsystem.service.contracts.FareCalculatorService;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 
 public class FareCalculatorServiceImpl implements FareCalculatorService {
 
-    public List<DiscountType> discounts;
-    public Set<String> recurringUsers;
+    private final List<DiscountType> discounts;
+    private final RecurringUsers recurringUsers;
+    private final FarePipeline farePipeline;
 
     private FareCalculatorServiceImpl(Builder builder) {
 
-        this.discounts = new ArrayList<>(builder.getDiscounts());
-        this.recurringUsers = new HashSet<>();
+        this.discounts = Collections.unmodifiableList(new ArrayList<>(builder.getDiscounts()));
+        this.recurringUsers = builder.recurringUsers;
+        this.farePipeline = FarePipeline.canCompile(discounts) ? new FarePipeline(discounts) : null;
     }
 
     public static class Builder {
 
         private final List<DiscountType> discountsList = new ArrayList<>();
+        private RecurringUsers recurringUsers = new InMemoryRecurringUsers();
 
         public Builder(DiscountType discountType) {
 
@@ -36,6 +40,20 @@ public class FareCalculatorServiceImpl implements FareCalculatorService {
             return this;
         }
 
+        /**
+         * Sets the recurring users the built service applies to, by default
+         * an empty <code>InMemoryRecurringUsers</code>.
+         *
+         * @param recurringUsers  registration numbers of recurring users
+         * @return this Builder
+         */
+        public Builder withRecurringUsers(RecurringUsers recurringUsers) {
+
+            this.recurringUsers = recurringUsers;
+
+            return this;
+        }
+
         public FareCalculatorServiceImpl build() {
 
             return new FareCalculatorServiceImpl(this);
@@ -52,12 +70,12 @@ public class FareCalculatorServiceImpl implements FareCalculatorService {
     }
 
     @Override
-    public Set<String> getRecurringUsers() {
+    public RecurringUsers getRecurringUsers() {
         return recurringUsers;
     }
 
     @Override
-    public void calculateFare(Ticket ticket, List<DiscountType> discounts, Set<String> recurringUsers) {
+    public void calculateFare(Ticket ticket, List<DiscountType> discounts, RecurringUsers recurringUsers) {
         if ((ticket.getOutTime() == -1L) || (ticket.getOutTime() < (ticket.getInTime()))) {
 
             throw new IllegalArgumentException
@@ -67,6 +85,14 @@ public class FareCalculatorServiceImpl implements FareCalculatorService {
         long inMinute = ticket.getInTime();
         long outMinute = ticket.getOutTime();
         long duration = (outMinute - inMinute) / 60;
+
+        if (discounts == this.discounts && farePipeline != null) {
+
+            calculateCompiledFare(ticket, farePipeline.getFareFunction(ticket.getParkingSpot().getParkingType()),
+                    duration, recurringUsers);
+            return;
+        }
+
         double price = 0.0;
         double fare = ticket.getParkingSpot().getParkingType().getFare();
         boolean isRecurringUser = recurringUsers.contains(ticket.getVehicleRegNumber());
@@ -81,4 +107,30 @@ public class FareCalculatorServiceImpl implements FareCalculatorService {
 
         ticket.setPrice(price);
     }
+
+    private void calculateCompiledFare(Ticket ticket, FareFunction fareFunction, long duration,
+                                       RecurringUsers recurringUsers) {
+
+        double price = fareFunction.basePrice(duration);
+
+        if (price == 0.0) return;
+
+        String vehicleRegNumber = ticket.getVehicleRegNumber();
+
+        if (fareFunction.hasRecurringUserDiscount()) {
+
+            boolean isRecurringUser = recurringUsers.contains(vehicleRegNumber);
+            price = fareFunction.discountedPrice(price, isRecurringUser);
+
+            if (price == 0.0) return;
+
+            if (!isRecurringUser) recurringUsers.add(vehicleRegNumber);
+
+        } else {
+
+            recurringUsers.add(vehicleRegNumber);
+        }
+
+        ticket.setPrice(price);
+    }
 }
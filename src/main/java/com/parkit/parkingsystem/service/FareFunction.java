@@ -0,0 +1,78 @@
+package com.parkit.parkingsystem.service;
+
+/**
+ *     Immutable fare of one <code>ParkingType</code> under one chain of
+ * <code>DiscountType</code>, compiled by <code>FarePipeline</code> from a
+ * primary discount followed by supplementary ones.
+ * <p>
+ *     The hourly rate is read once when compiled, the primary discount is
+ * reduced to a count of free minutes, 0 for <code>P_NO_DISCOUNT</code>, and
+ * the supplementary discounts to the count of recurring user discounts, so
+ * pricing a stay is a couple of arithmetic operations without dispatch or
+ * allocation. Results are the same, to the last bit, as applying the chain
+ * one <code>DiscountType</code> after another.
+ */
+public final class FareFunction {
+
+    private static final double RECURRING_USER_FACTOR = 0.95;
+
+    private final double ratePerHour;
+    private final long freeMinutes;
+    private final int recurringUserDiscounts;
+
+    /**
+     *     Stores parameters of the compiled chain and creates instance of
+     * <code>FareFunction</code>.
+     *
+     * @param ratePerHour  rate of the parking type per hour
+     * @param freeMinutes  minutes of the stay which are free, the whole stay
+     *                     is free if not longer
+     * @param recurringUserDiscounts  count of recurring user discounts in the
+     *                                chain
+     */
+    FareFunction(double ratePerHour, long freeMinutes, int recurringUserDiscounts) {
+        this.ratePerHour = ratePerHour;
+        this.freeMinutes = freeMinutes;
+        this.recurringUserDiscounts = recurringUserDiscounts;
+    }
+
+    /**
+     * Calculates price of the stay before supplementary discounts.
+     *
+     * @param durationMinutes  duration of the stay in minutes
+     * @return price as <code>double</code> value, 0 if the stay is free
+     */
+    public double basePrice(long durationMinutes) {
+
+        return durationMinutes <= freeMinutes ? 0 : (durationMinutes - freeMinutes) * ratePerHour / 60;
+    }
+
+    /**
+     * Applies supplementary discounts over the passed base price.
+     *
+     * @param basePrice  price returned by <code>basePrice</code>
+     * @param recurringUser  whether the vehicle belongs to a recurring user
+     * @return final price as <code>double</code> value
+     */
+    public double discountedPrice(double basePrice, boolean recurringUser) {
+
+        double price = basePrice;
+
+        if (recurringUser) {
+            for (int i = 0; i < recurringUserDiscounts; i++) {
+                price = price * RECURRING_USER_FACTOR;
+            }
+        }
+
+        return price;
+    }
+
+    /**
+     * Tells whether the price depends on the vehicle being a recurring user.
+     *
+     * @return <code>true</code> if the chain has a recurring user discount
+     */
+    public boolean hasRecurringUserDiscount() {
+        return recurringUserDiscounts > 0;
+    }
+}
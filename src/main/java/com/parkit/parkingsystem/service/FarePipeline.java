@@ -0,0 +1,88 @@
+package com.parkit.parkingsystem.service;
+
+import com.parkit.parkingsystem.constants.DiscountType;
+import com.parkit.parkingsystem.constants.ParkingType;
+
+import java.util.List;
+
+/**
+ *     Chain of <code>DiscountType</code> compiled into one immutable
+ * <code>FareFunction</code> per <code>ParkingType</code>, built once by
+ * <code>FareCalculatorServiceImpl</code> instead of walking the chain on
+ * every exit.
+ * <p>
+ *     Only chains made of a primary discount followed by supplementary ones
+ * can be compiled, as required by <code>DiscountType</code>. Other chains,
+ * and chains with a <code>DiscountType</code> unknown to the pipeline, are
+ * left to the loop of <code>FareCalculatorServiceImpl</code>.
+ */
+public final class FarePipeline {
+
+    private static final long FREE_30_MINUTES = 30;
+
+    private final FareFunction[] fareFunctions;
+
+    /**
+     *     Compiles the passed chain and creates instance of
+     * <code>FarePipeline</code>.
+     *
+     * @param discounts  chain of discounts, a primary one first
+     * @throws IllegalArgumentException if the chain can not be compiled
+     */
+    public FarePipeline(List<DiscountType> discounts) {
+
+        if (!canCompile(discounts)) {
+            throw new IllegalArgumentException("Discount chain can not be compiled - " + discounts);
+        }
+
+        long freeMinutes = discounts.get(0) == DiscountType.P_FREE_30_MIN ? FREE_30_MINUTES : 0;
+        int recurringUserDiscounts = discounts.size() - 1;
+
+        ParkingType[] parkingTypes = ParkingType.values();
+        this.fareFunctions = new FareFunction[parkingTypes.length];
+
+        for (ParkingType parkingType : parkingTypes) {
+            fareFunctions[parkingType.ordinal()] =
+                    new FareFunction(parkingType.getFare(), freeMinutes, recurringUserDiscounts);
+        }
+    }
+
+    /**
+     * Checks whether the passed chain has a primary discount followed only by
+     * supplementary discounts known to the pipeline.
+     *
+     * @param discounts  chain of discounts
+     * @return <code>true</code> if the chain can be compiled
+     */
+    public static boolean canCompile(List<DiscountType> discounts) {
+
+        if (discounts == null || discounts.isEmpty()) {
+            return false;
+        }
+
+        DiscountType primary = discounts.get(0);
+
+        if (primary != DiscountType.P_NO_DISCOUNT && primary != DiscountType.P_FREE_30_MIN) {
+            return false;
+        }
+
+        for (int i = 1; i < discounts.size(); i++) {
+            if (discounts.get(i) != DiscountType.S_RECURRING_USERS_5PERCENT) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the compiled fare of the passed parking type.
+     *
+     * @param parkingType  type of the parking spot
+     * @return instance of <code>FareFunction</code>, never null
+     */
+    public FareFunction getFareFunction(ParkingType parkingType) {
+
+        return fareFunctions[parkingType.ordinal()];
+    }
+}
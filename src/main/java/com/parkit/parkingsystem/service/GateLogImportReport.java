@@ -0,0 +1,93 @@
+package com.parkit.parkingsystem.service;
+
+/**
+ * The class <code>GateLogImportReport</code> is an immutable summary of one
+ * run of <code>GateLogImportServiceImpl</code>.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>GateLogImportReport</code>.
+ */
+public class GateLogImportReport {
+
+    private final long resumedFromLine;
+    private final long linesRead;
+    private final long imported;
+    private final long rejected;
+    private final long commits;
+    private final long elapsedNanos;
+
+    /**
+     * Construct new <code>GateLogImportReport</code> from passed parameters.
+     *
+     * @param resumedFromLine  lines of the file skipped as imported by an
+     *                         earlier run, 0 for a fresh import
+     * @param linesRead  lines read by this run, header included
+     * @param imported  tickets written by this run
+     * @param rejected  lines rejected as invalid by this run
+     * @param commits  commits, each followed by a checkpoint
+     * @param elapsedNanos  duration of the run in nanoseconds
+     */
+    public GateLogImportReport(long resumedFromLine, long linesRead, long imported, long rejected, long commits,
+                               long elapsedNanos) {
+        this.resumedFromLine = resumedFromLine;
+        this.linesRead = linesRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.commits = commits;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getResumedFromLine() {
+        return resumedFromLine;
+    }
+
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the rate of lines read by this run.
+     *
+     * @return rows per second, 0 if nothing was read
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : linesRead * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>GateLogImportReport</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "GateLogImportReport{" +
+                "resumedFromLine=" + resumedFromLine +
+                ", linesRead=" + linesRead +
+                ", imported=" + imported +
+                ", rejected=" + rejected +
+                ", commits=" + commits +
+                ", elapsedNanos=" + elapsedNanos +
+                ", rowsPerSecond=" + getRowsPerSecond() +
+                '}';
+    }
+}
@@ -0,0 +1,608 @@
+package com.parkit.parkingsystem.service;
+
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.constants.DBConstants;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.ParkingSpotDAOImpl;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.service.contracts.GateLogImportService;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ *     <code>GateLogImportService</code> streaming the gate log through a
+ * <code>FileChannel</code> read in large buffers, so files of millions of
+ * lines are imported in constant memory, and writing the tickets on one
+ * connection in JDBC batches of <code>batchSize</code> rows.
+ * <p>
+ *     Every <code>commitInterval</code> rows are committed together with a
+ * checkpoint, holding the byte offset and line number reached, saved in
+ * table import_checkpoint under the absolute path of the file within the
+ * same transaction. A later run of the same file seeks to that offset, so an
+ * import interrupted at any point resumes without duplicating or losing the
+ * committed rows. A <code>&lt;file&gt;.checkpoint</code> written next to the
+ * file by former versions is read when the table holds no checkpoint yet,
+ * and deleted once the first rows are committed. Each commit logs the rate
+ * of the run in rows per second.
+ * <p>
+ *     Follows Builder pattern, the only mandatory parameter of the Builder
+ * is the <code>DataBaseConfig</code> the tickets are written through.
+ */
+public class GateLogImportServiceImpl implements GateLogImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger("GateLogImportService");
+
+    private static final String HEADER = "vehicle_reg_number";
+    private static final int MAX_VEHICLE_REG_NUMBER_LENGTH = 10;
+    private static final int MAX_LOGGED_REJECTIONS = 100;
+    private static final int MAX_GATE_LOG_LENGTH = 255;
+
+    private final DataBaseConfig dataBaseConfig;
+    private final int batchSize;
+    private final int commitInterval;
+    private final int bufferSize;
+
+    private GateLogImportServiceImpl(Builder builder) {
+
+        this.dataBaseConfig = builder.dataBaseConfig;
+        this.batchSize = builder.batchSize;
+        this.commitInterval = builder.commitInterval;
+        this.bufferSize = builder.bufferSize;
+    }
+
+    public static class Builder {
+
+        private final DataBaseConfig dataBaseConfig;
+        private int batchSize = 500;
+        private int commitInterval = 10_000;
+        private int bufferSize = 1 << 20;
+
+        public Builder(DataBaseConfig dataBaseConfig) {
+
+            this.dataBaseConfig = dataBaseConfig;
+        }
+
+        public Builder withBatchSize(int batchSize) {
+
+            this.batchSize = batchSize;
+
+            return this;
+        }
+
+        /**
+         * Sets how many rows are committed together, which is also the count
+         * of rows a resumed import may read again. Rounded up to a multiple
+         * of the batch size.
+         *
+         * @param commitInterval  rows per commit
+         * @return this Builder
+         */
+        public Builder withCommitInterval(int commitInterval) {
+
+            this.commitInterval = commitInterval;
+
+            return this;
+        }
+
+        public Builder withBufferSize(int bufferSize) {
+
+            this.bufferSize = bufferSize;
+
+            return this;
+        }
+
+        public GateLogImportServiceImpl build() {
+
+            if (dataBaseConfig == null) {
+                throw new IllegalArgumentException("Database config is mandatory");
+            }
+            if (batchSize < 1 || commitInterval < 1 || bufferSize < 1) {
+                throw new IllegalArgumentException("Invalid gate log import - batch size " + batchSize
+                        + " commit interval " + commitInterval + " buffer size " + bufferSize);
+            }
+
+            return new GateLogImportServiceImpl(this);
+        }
+    }
+
+    @Override
+    public GateLogImportReport importGateLog(Path gateLog) {
+
+        String key = gateLog.toAbsolutePath().normalize().toString();
+
+        if (key.length() > MAX_GATE_LOG_LENGTH) {
+            throw new UnsuccessfulOperationException("Gate log path " + key + " is longer than "
+                    + MAX_GATE_LOG_LENGTH + " characters");
+        }
+
+        Path checkpointFile = gateLog.resolveSibling(gateLog.getFileName() + ".checkpoint");
+        Checkpoint checkpoint = readCheckpoint(key, checkpointFile, gateLog);
+        Map<Integer, ParkingType> parkingTypes = parkingTypes();
+
+        if (checkpoint.line > 0) {
+            logger.info("Resuming import of {} after line {}", gateLog, checkpoint.line);
+        }
+
+        Run run = new Run(key, checkpoint);
+
+        try (FileChannel channel = FileChannel.open(gateLog, StandardOpenOption.READ)) {
+
+            LineReader reader = new LineReader(channel, checkpoint.offset, bufferSize);
+
+            importLines(reader, parkingTypes, run, checkpointFile);
+
+        } catch (IOException e) {
+
+            logger.error("Error reading gate log {}", gateLog, e);
+            throw new UnsuccessfulOperationException("Unable to read gate log " + gateLog, e);
+        }
+
+        GateLogImportReport report = run.report();
+        logger.info("Imported gate log {} {}", gateLog, report);
+
+        return report;
+    }
+
+    @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
+    private void importLines(LineReader reader, Map<Integer, ParkingType> parkingTypes, Run run,
+                             Path checkpointFile) throws IOException {
+
+        try (Connection con = dataBaseConfig.getConnection()) {
+
+            con.setAutoCommit(false);
+
+            try (PreparedStatement tickets = con.prepareStatement(DBConstants.SAVE_TICKET);
+                 PreparedStatement spots = con.prepareStatement(DBConstants.UPDATE_PARKING_SPOT)) {
+
+                int batched = 0;
+                int uncommitted = 0;
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+
+                    run.line++;
+                    run.linesRead++;
+
+                    if (line.trim().isEmpty() || (run.line == 1 && line.regionMatches(true, 0, HEADER, 0,
+                            HEADER.length()))) {
+                        continue;
+                    }
+
+                    try {
+                        bind(tickets, spots, line, parkingTypes);
+
+                    } catch (IllegalArgumentException e) {
+
+                        run.rejected++;
+                        if (run.rejected <= MAX_LOGGED_REJECTIONS) {
+                            logger.warn("Gate log line {} rejected - {}", run.line, e.getMessage());
+                        }
+                        continue;
+                    }
+
+                    batched++;
+                    uncommitted++;
+
+                    if (batched == batchSize) {
+                        executeBatches(tickets, spots);
+                        batched = 0;
+                    }
+
+                    if (uncommitted >= commitInterval && batched == 0) {
+                        commit(con, run, reader.offset(), uncommitted, checkpointFile);
+                        uncommitted = 0;
+                    }
+                }
+
+                executeBatches(tickets, spots);
+                commit(con, run, reader.offset(), uncommitted, checkpointFile);
+
+            } catch (SQLException e) {
+
+                con.rollback();
+                throw e;
+
+            } finally {
+
+                con.setAutoCommit(true);
+            }
+
+        } catch (ClassNotFoundException | SQLException e) {
+
+            logger.error("Error importing gate log after line {}", run.committedLine, e);
+            throw new UnsuccessfulOperationException("Unable to import gate log, rows after line "
+                    + run.committedLine + " rolled back", e);
+        }
+    }
+
+    private static void bind(PreparedStatement tickets, PreparedStatement spots, String line,
+                             Map<Integer, ParkingType> parkingTypes) throws SQLException {
+
+        String[] fields = line.split(",", -1);
+
+        if (fields.length < 4 || fields.length > 6) {
+            throw new IllegalArgumentException("Expected 4 to 6 fields, found " + fields.length);
+        }
+
+        String vehicleRegNumber = field(fields, 0);
+        ParkingType parkingType = parkingType(field(fields, 1));
+        int parkingNumber = parkingNumber(field(fields, 2), parkingType, parkingTypes);
+        long inTime = time(field(fields, 3), "in-time");
+        String outTimeField = field(fields, 4);
+        long outTime = outTimeField.isEmpty() ? -1L : time(outTimeField, "out-time");
+        String priceField = field(fields, 5);
+        double price = priceField.isEmpty() ? 0 : price(priceField);
+
+        if (vehicleRegNumber.isEmpty() || vehicleRegNumber.length() > MAX_VEHICLE_REG_NUMBER_LENGTH
+                || !vehicleRegNumber.chars().allMatch(c -> Character.isLetterOrDigit(c) || c == '-' || c == ' ')) {
+            throw new IllegalArgumentException("Invalid vehicle registration number " + vehicleRegNumber);
+        }
+        if (outTime != -1L && outTime < inTime) {
+            throw new IllegalArgumentException("Out-time before in-time");
+        }
+
+        tickets.setInt(1, parkingNumber);
+        tickets.setString(2, vehicleRegNumber);
+        tickets.setDouble(3, price);
+        tickets.setTimestamp(4, new Timestamp(inTime * 1000));
+        tickets.setTimestamp(5, outTime == -1L ? null : new Timestamp(outTime * 1000));
+        tickets.addBatch();
+
+        if (outTime == -1L) {
+            spots.setBoolean(1, false);
+            spots.setInt(2, parkingNumber);
+            spots.addBatch();
+        }
+    }
+
+    private static String field(String[] fields, int index) {
+
+        if (index >= fields.length) {
+            return "";
+        }
+
+        String field = fields[index].trim();
+
+        if (field.length() >= 2 && field.charAt(0) == '"' && field.charAt(field.length() - 1) == '"') {
+            field = field.substring(1, field.length() - 1).trim();
+        }
+
+        return field;
+    }
+
+    private static ParkingType parkingType(String type) {
+
+        try {
+            return ParkingType.valueOf(type.toUpperCase(Locale.ROOT));
+
+        } catch (IllegalArgumentException e) {
+
+            throw new IllegalArgumentException("Unknown parking type " + type);
+        }
+    }
+
+    private static int parkingNumber(String number, ParkingType parkingType, Map<Integer, ParkingType> parkingTypes) {
+
+        int parkingNumber;
+
+        try {
+            parkingNumber = Integer.parseInt(number);
+
+        } catch (NumberFormatException e) {
+
+            throw new IllegalArgumentException("Invalid parking number " + number);
+        }
+
+        if (parkingTypes.get(parkingNumber) != parkingType) {
+            throw new IllegalArgumentException("No " + parkingType + " spot number " + parkingNumber);
+        }
+
+        return parkingNumber;
+    }
+
+    private static long time(String time, String name) {
+
+        try {
+            if (time.chars().allMatch(Character::isDigit)) {
+                return Long.parseLong(time);
+            }
+
+            return LocalDateTime.parse(time.replace(' ', 'T')).toEpochSecond(ZoneOffset.UTC);
+
+        } catch (NumberFormatException | DateTimeParseException e) {
+
+            throw new IllegalArgumentException("Invalid " + name + " " + time);
+        }
+    }
+
+    private static double price(String price) {
+
+        try {
+            double value = Double.parseDouble(price);
+
+            if (value >= 0 && !Double.isInfinite(value)) {
+                return value;
+            }
+
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+
+        throw new IllegalArgumentException("Invalid price " + price);
+    }
+
+    private static void executeBatches(PreparedStatement tickets, PreparedStatement spots) throws SQLException {
+
+        tickets.executeBatch();
+        spots.executeBatch();
+    }
+
+    private void commit(Connection con, Run run, long offset, int rows, Path checkpointFile) throws SQLException {
+
+        saveCheckpoint(con, run.gateLog, new Checkpoint(run.line, offset,
+                run.resumed.imported + run.imported + rows, run.resumed.rejected + run.rejected));
+
+        con.commit();
+
+        run.imported += rows;
+        run.commits++;
+        run.committedLine = run.line;
+
+        if (run.commits == 1) {
+            deleteLegacyCheckpoint(checkpointFile);
+        }
+
+        logger.info("Gate log committed up to line {}, {} rows imported, {} rejected, {} rows/s",
+                run.line, run.imported, run.rejected, String.format("%.0f", run.report().getRowsPerSecond()));
+    }
+
+    private Map<Integer, ParkingType> parkingTypes() {
+
+        Map<Integer, ParkingType> parkingTypes = new HashMap<>();
+
+        for (ParkingSpot parkingSpot : new ParkingSpotDAOImpl(dataBaseConfig).getParkingSpots()) {
+            parkingTypes.put(parkingSpot.getId(), parkingSpot.getParkingType());
+        }
+
+        return parkingTypes;
+    }
+
+    @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
+    private Checkpoint readCheckpoint(String key, Path checkpointFile, Path gateLog) {
+
+        Checkpoint checkpoint = null;
+
+        try (Connection con = dataBaseConfig.getConnection();
+             PreparedStatement ps = con.prepareStatement(DBConstants.GET_IMPORT_CHECKPOINT)) {
+
+            ps.setString(1, key);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    checkpoint = new Checkpoint(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4));
+                }
+            }
+
+        } catch (ClassNotFoundException | SQLException e) {
+
+            logger.error("Error reading checkpoint of gate log {}", key, e);
+            throw new UnsuccessfulOperationException("Unable to read checkpoint of gate log " + key, e);
+        }
+
+        if (checkpoint == null) {
+            checkpoint = readLegacyCheckpoint(checkpointFile);
+        }
+
+        try {
+            if (checkpoint.offset > Files.size(gateLog)) {
+                throw new UnsuccessfulOperationException("Checkpoint of " + key + " is past the end of the file,"
+                        + " delete its import_checkpoint row to import the file again");
+            }
+
+        } catch (IOException e) {
+
+            throw new UnsuccessfulOperationException("Unable to read gate log " + gateLog, e);
+        }
+
+        return checkpoint;
+    }
+
+    private static Checkpoint readLegacyCheckpoint(Path checkpointFile) {
+
+        if (!Files.exists(checkpointFile)) {
+            return new Checkpoint(0, 0, 0, 0);
+        }
+
+        Properties properties = new Properties();
+
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+
+            properties.load(in);
+
+            return new Checkpoint(Long.parseLong(properties.getProperty("line")),
+                    Long.parseLong(properties.getProperty("offset")),
+                    Long.parseLong(properties.getProperty("imported")),
+                    Long.parseLong(properties.getProperty("rejected")));
+
+        } catch (IOException | RuntimeException e) {
+
+            throw new UnsuccessfulOperationException("Unable to read checkpoint " + checkpointFile, e);
+        }
+    }
+
+    private static void saveCheckpoint(Connection con, String key, Checkpoint checkpoint) throws SQLException {
+
+        try (PreparedStatement update = con.prepareStatement(DBConstants.UPDATE_IMPORT_CHECKPOINT)) {
+
+            if (bindCheckpoint(update, key, checkpoint).executeUpdate() > 0) {
+                return;
+            }
+        }
+
+        try (PreparedStatement save = con.prepareStatement(DBConstants.SAVE_IMPORT_CHECKPOINT)) {
+
+            bindCheckpoint(save, key, checkpoint).executeUpdate();
+        }
+    }
+
+    private static PreparedStatement bindCheckpoint(PreparedStatement ps, String key, Checkpoint checkpoint)
+            throws SQLException {
+
+        ps.setLong(1, checkpoint.line);
+        ps.setLong(2, checkpoint.offset);
+        ps.setLong(3, checkpoint.imported);
+        ps.setLong(4, checkpoint.rejected);
+        ps.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+        ps.setString(6, key);
+
+        return ps;
+    }
+
+    private static void deleteLegacyCheckpoint(Path checkpointFile) {
+
+        try {
+            if (Files.deleteIfExists(checkpointFile)) {
+                logger.info("Checkpoint {} moved to table import_checkpoint", checkpointFile);
+            }
+
+        } catch (IOException e) {
+
+            logger.warn("Unable to delete former checkpoint {}, no longer read", checkpointFile, e);
+        }
+    }
+
+    /**
+     * Position and totals of the import when the last rows were committed.
+     */
+    private static final class Checkpoint {
+
+        private final long line;
+        private final long offset;
+        private final long imported;
+        private final long rejected;
+
+        private Checkpoint(long line, long offset, long imported, long rejected) {
+            this.line = line;
+            this.offset = offset;
+            this.imported = imported;
+            this.rejected = rejected;
+        }
+    }
+
+    /**
+     * Counters of one run.
+     */
+    private static final class Run {
+
+        private final String gateLog;
+        private final Checkpoint resumed;
+        private final long start = System.nanoTime();
+        private long line;
+        private long committedLine;
+        private long linesRead;
+        private long imported;
+        private long rejected;
+        private long commits;
+
+        private Run(String gateLog, Checkpoint resumed) {
+            this.gateLog = gateLog;
+            this.resumed = resumed;
+            this.line = resumed.line;
+            this.committedLine = resumed.line;
+        }
+
+        private GateLogImportReport report() {
+            return new GateLogImportReport(resumed.line, linesRead, imported, rejected, commits,
+                    System.nanoTime() - start);
+        }
+    }
+
+    /**
+     *     Reads UTF-8 lines from a <code>FileChannel</code> through one
+     * reused buffer, keeping the byte offset of the next line so a checkpoint
+     * can seek back to it.
+     */
+    private static final class LineReader {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private byte[] line = new byte[256];
+        private long offset;
+
+        private LineReader(FileChannel channel, long offset, int bufferSize) throws IOException {
+            this.channel = channel.position(offset);
+            this.buffer = ByteBuffer.allocate(bufferSize);
+            this.buffer.flip();
+            this.offset = offset;
+        }
+
+        private String readLine() throws IOException {
+
+            int length = 0;
+            boolean ended = false;
+
+            while (!ended) {
+
+                if (!buffer.hasRemaining()) {
+
+                    buffer.clear();
+                    int read = channel.read(buffer);
+                    buffer.flip();
+
+                    if (read <= 0) {
+                        if (length == 0) {
+                            return null;
+                        }
+                        break;
+                    }
+                }
+
+                byte b = buffer.get();
+                offset++;
+
+                if (b == '\n') {
+                    ended = true;
+                } else {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = b;
+                }
+            }
+
+            if (length > 0 && line[length - 1] == '\r') {
+                length--;
+            }
+
+            return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private long offset() {
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,513 @@
+package com.parkit.parkingsystem.service;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.model.ParkingStatistics;
+import com.parkit.parkingsystem.model.Ticket;
+import com.parkit.parkingsystem.service.contracts.GateServer;
+import com.parkit.parkingsystem.service.contracts.ParkingService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ *     <code>GateServer</code> built on the HTTP server of the JDK, serving
+ * every request on its own thread so a gate waiting on the database holds
+ * nothing but that thread.
+ * <p>
+ *     On Java 21 and later the threads are virtual, created per request by
+ * <code>Executors.newVirtualThreadPerTaskExecutor</code>, so thousands of
+ * gates blocked on the connection pool cost a few kilobytes each. The
+ * executor is looked up at runtime as the application is compiled for older
+ * releases, which fall back to a cached pool of platform threads.
+ * <p>
+ *     Memory stays bounded however many gates call at once: at most
+ * <code>maxInFlightRequests</code> requests are served together and the
+ * others are answered with status 503 at once, without reading them further
+ * or queueing them.
+ * <p>
+ *     With a quote executor, such as a <code>JdbcExecutor</code>, quotes
+ * look up the ticket and the recurring user at once through
+ * <code>quoteAsync</code>, and are answered with 503 as well when the
+ * executor is saturated.
+ * <p>
+ *     The JDK server writes headers and body apart, which Nagle's algorithm
+ * holds back for the delayed acknowledgement of the client. It is turned off
+ * by system property <code>sun.net.httpserver.nodelay</code>, read once when
+ * the server classes load, so it has to be set at launch.
+ * <p>
+ *     Follows Builder pattern, the only mandatory parameter of the Builder
+ * is the <code>ParkingService</code> the requests are served by.
+ */
+public class GateServerImpl implements GateServer {
+
+    private static final Logger logger = LoggerFactory.getLogger("GateServer");
+
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private final ParkingService parkingService;
+    private final String host;
+    private final int port;
+    private final int backlog;
+    private final int maxInFlightRequests;
+    private final int retryAfterSeconds;
+    private final Executor quoteExecutor;
+
+    private final Semaphore inFlight;
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private volatile boolean virtualThreads;
+
+    private GateServerImpl(Builder builder) {
+
+        this.parkingService = builder.parkingService;
+        this.host = builder.host;
+        this.port = builder.port;
+        this.backlog = builder.backlog;
+        this.maxInFlightRequests = builder.maxInFlightRequests;
+        this.retryAfterSeconds = builder.retryAfterSeconds;
+        this.quoteExecutor = builder.quoteExecutor;
+        this.inFlight = new Semaphore(builder.maxInFlightRequests);
+    }
+
+    public static class Builder {
+
+        private final ParkingService parkingService;
+        private String host = "0.0.0.0";
+        private int port = 8080;
+        private int backlog = 1024;
+        private int maxInFlightRequests = 10_000;
+        private int retryAfterSeconds = 1;
+        private Executor quoteExecutor;
+
+        public Builder(ParkingService parkingService) {
+
+            this.parkingService = parkingService;
+        }
+
+        public Builder withHost(String host) {
+
+            this.host = host;
+
+            return this;
+        }
+
+        /**
+         * Sets the port the server binds to, 0 lets the system choose a free
+         * one, returned by <code>getPort</code> once started.
+         *
+         * @param port  port number
+         * @return this Builder
+         */
+        public Builder withPort(int port) {
+
+            this.port = port;
+
+            return this;
+        }
+
+        /**
+         * Sets how many connections the system keeps waiting to be accepted.
+         *
+         * @param backlog  length of the accept queue, 0 for the system default
+         * @return this Builder
+         */
+        public Builder withBacklog(int backlog) {
+
+            this.backlog = backlog;
+
+            return this;
+        }
+
+        public Builder withMaxInFlightRequests(int maxInFlightRequests) {
+
+            this.maxInFlightRequests = maxInFlightRequests;
+
+            return this;
+        }
+
+        public Builder withRetryAfterSeconds(int retryAfterSeconds) {
+
+            this.retryAfterSeconds = retryAfterSeconds;
+
+            return this;
+        }
+
+        /**
+         * Sets the executor running the lookups of a quote, quotes are
+         * looked up one after another on the request thread without it.
+         *
+         * @param quoteExecutor  executor of the lookups
+         * @return this Builder
+         */
+        public Builder withQuoteExecutor(Executor quoteExecutor) {
+
+            this.quoteExecutor = quoteExecutor;
+
+            return this;
+        }
+
+        public GateServerImpl build() {
+
+            if (parkingService == null) {
+                throw new IllegalArgumentException("Parking service is mandatory");
+            }
+            if (port < 0 || port > 65_535 || backlog < 0 || maxInFlightRequests < 1 || retryAfterSeconds < 0) {
+                throw new IllegalArgumentException("Invalid gate server - port " + port + " backlog " + backlog
+                        + " in-flight requests " + maxInFlightRequests + " retry after " + retryAfterSeconds);
+            }
+
+            return new GateServerImpl(this);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+
+        if (server != null) {
+            return;
+        }
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), backlog);
+
+        } catch (IOException e) {
+
+            throw new UnsuccessfulOperationException("Unable to bind gate server to port " + port, e);
+        }
+
+        executor = newRequestExecutor();
+
+        server.createContext("/entry", exchange -> serve(exchange, "POST", this::entry));
+        server.createContext("/exit", exchange -> serve(exchange, "POST", this::exit));
+        server.createContext("/quote", exchange -> serve(exchange, "GET", this::quote));
+        server.createContext("/statistics", exchange -> serve(exchange, "GET", this::statistics));
+        server.setExecutor(executor);
+        server.start();
+
+        logger.info("Gate server listening on port {}, {} requests in flight at most on {} threads",
+                getPort(), maxInFlightRequests, virtualThreads ? "virtual" : "platform");
+    }
+
+    @Override
+    public synchronized void stop(int delaySeconds) {
+
+        if (server == null) {
+            return;
+        }
+
+        server.stop(delaySeconds);
+        executor.shutdown();
+        server = null;
+
+        logger.info("Gate server stopped {}", getMetrics());
+    }
+
+    @Override
+    public synchronized int getPort() {
+
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    /**
+     * Returns a snapshot of the request counters of the server.
+     *
+     * @return instance of <code>GateServerMetrics</code>
+     */
+    public GateServerMetrics getMetrics() {
+
+        return new GateServerMetrics(requests.sum(), rejected.sum(), failures.sum(),
+                maxInFlightRequests - inFlight.availablePermits(), peakInFlight.get(), virtualThreads);
+    }
+
+    private ExecutorService newRequestExecutor() {
+
+        try {
+            ExecutorService virtualThreadExecutor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            virtualThreads = true;
+
+            return virtualThreadExecutor;
+
+        } catch (ReflectiveOperationException e) {
+
+            logger.warn("Virtual threads need Java 21 or later, serving requests on platform threads");
+            virtualThreads = false;
+
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void serve(HttpExchange exchange, String method, Function<Map<String, String>, Response> handler)
+            throws IOException {
+
+        try {
+
+            if (!inFlight.tryAcquire()) {
+
+                rejected.increment();
+                send(exchange, new Response(503, error("Too many requests in flight")));
+                return;
+            }
+
+            try {
+                peakInFlight.accumulateAndGet(maxInFlightRequests - inFlight.availablePermits(), Math::max);
+                requests.increment();
+                drain(exchange.getRequestBody());
+
+                Response response;
+
+                if (!method.equals(exchange.getRequestMethod())) {
+
+                    exchange.getResponseHeaders().set("Allow", method);
+                    response = new Response(405, error("Method " + exchange.getRequestMethod() + " not allowed"));
+                } else {
+
+                    response = handle(handler, parameters(exchange.getRequestURI().getRawQuery()));
+                }
+
+                send(exchange, response);
+
+            } finally {
+
+                inFlight.release();
+            }
+
+        } finally {
+
+            exchange.close();
+        }
+    }
+
+    private Response handle(Function<Map<String, String>, Response> handler, Map<String, String> parameters) {
+
+        try {
+            return handler.apply(parameters);
+
+        } catch (IllegalArgumentException e) {
+
+            return new Response(400, error(e.getMessage()));
+
+        } catch (RejectedExecutionException e) {
+
+            rejected.increment();
+
+            return new Response(503, error("Database calls saturated"));
+
+        } catch (RuntimeException e) {
+
+            failures.increment();
+            logger.error("Unable to serve gate request", e);
+
+            return new Response(500, error("Unable to serve request"));
+        }
+    }
+
+    private Response entry(Map<String, String> parameters) {
+
+        Ticket ticket = parkingService.enter(parkingType(parameters.get("type")), parameters.get("plate"));
+
+        return ticket.equals(Ticket.NOT_FOUND)
+                ? new Response(409, error("No parking spot available"))
+                : new Response(201, json(ticket));
+    }
+
+    private Response exit(Map<String, String> parameters) {
+
+        return ticketResponse(parkingService.exit(parameters.get("plate")));
+    }
+
+    private Response quote(Map<String, String> parameters) {
+
+        if (quoteExecutor == null) {
+            return ticketResponse(parkingService.quote(parameters.get("plate")));
+        }
+
+        try {
+            return ticketResponse(parkingService.quoteAsync(parameters.get("plate"), quoteExecutor)
+                    .toCompletableFuture()
+                    .join());
+
+        } catch (CompletionException e) {
+
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private Response statistics(Map<String, String> parameters) {
+
+        return new Response(200, json(parkingService.getStatistics()));
+    }
+
+    private Response ticketResponse(Ticket ticket) {
+
+        return ticket.equals(Ticket.NOT_FOUND)
+                ? new Response(404, error("Registration number is not registered"))
+                : new Response(200, json(ticket));
+    }
+
+    private ParkingType parkingType(String type) {
+
+        if (type == null) {
+            throw new IllegalArgumentException("Parking type is required");
+        }
+
+        try {
+            return ParkingType.valueOf(type.trim().toUpperCase(Locale.ROOT));
+
+        } catch (IllegalArgumentException e) {
+
+            throw new IllegalArgumentException("Unknown parking type " + type);
+        }
+    }
+
+    private static Map<String, String> parameters(String query) {
+
+        Map<String, String> parameters = new HashMap<>();
+
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+
+        for (String pair : query.split("&")) {
+
+            int separator = pair.indexOf('=');
+
+            if (separator > 0) {
+                parameters.putIfAbsent(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+
+        return parameters;
+    }
+
+    private static void drain(InputStream body) throws IOException {
+
+        byte[] buffer = new byte[512];
+
+        while (body.read(buffer) != -1) {
+            // requests carry their parameters in the query
+        }
+    }
+
+    private void send(HttpExchange exchange, Response response) throws IOException {
+
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        if (response.status == 503) {
+            exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds));
+        }
+        exchange.sendResponseHeaders(response.status, body.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String json(Ticket ticket) {
+
+        return "{\"id\":" + ticket.getId()
+                + ",\"vehicleRegNumber\":" + quoted(ticket.getVehicleRegNumber())
+                + ",\"parkingNumber\":" + ticket.getParkingSpot().getId()
+                + ",\"parkingType\":" + quoted(ticket.getParkingSpot().getParkingType().name())
+                + ",\"inTime\":" + ticket.getInTime()
+                + ",\"outTime\":" + ticket.getOutTime()
+                + ",\"price\":" + ticket.getPrice()
+                + "}";
+    }
+
+    private static String json(ParkingStatistics statistics) {
+
+        StringBuilder json = new StringBuilder("{\"day\":").append(quoted(statistics.getDay().toString()))
+                .append(",\"vehiclesInside\":").append(statistics.getVehiclesInside())
+                .append(",\"entries\":").append(statistics.getEntries())
+                .append(",\"exits\":").append(statistics.getExits())
+                .append(",\"revenue\":").append(statistics.getRevenue())
+                .append(",\"parkingTypes\":{");
+
+        for (ParkingType parkingType : ParkingType.values()) {
+
+            if (parkingType.ordinal() > 0) {
+                json.append(',');
+            }
+
+            json.append(quoted(parkingType.name()))
+                    .append(":{\"freeSpots\":").append(statistics.getFreeSpots(parkingType))
+                    .append(",\"occupiedSpots\":").append(statistics.getOccupiedSpots(parkingType))
+                    .append(",\"entries\":").append(statistics.getEntries(parkingType))
+                    .append(",\"exits\":").append(statistics.getExits(parkingType))
+                    .append(",\"revenue\":").append(statistics.getRevenue(parkingType))
+                    .append('}');
+        }
+
+        return json.append("}}").toString();
+    }
+
+    private static String error(String message) {
+
+        return "{\"error\":" + quoted(message) + "}";
+    }
+
+    private static String quoted(String value) {
+
+        if (value == null) {
+            return "null";
+        }
+
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+
+            char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+
+        return quoted.append('"').toString();
+    }
+
+    private static final class Response {
+
+        private final int status;
+        private final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.parkit.parkingsystem.service;
+
+/**
+ * The class <code>GateServerMetrics</code> is an immutable snapshot of the
+ * request counters of a <code>GateServerImpl</code>.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>GateServerMetrics</code>.
+ */
+public class GateServerMetrics {
+
+    private final long requests;
+    private final long rejected;
+    private final long failures;
+    private final int inFlight;
+    private final int peakInFlight;
+    private final boolean virtualThreads;
+
+    /**
+     * Construct new <code>GateServerMetrics</code> from passed parameters.
+     *
+     * @param requests  requests served, rejected ones excluded
+     * @param rejected  requests answered with 503 over the in-flight limit
+     * @param failures  requests answered with 500
+     * @param inFlight  requests being served when the snapshot was taken
+     * @param peakInFlight  highest count of requests served at once
+     * @param virtualThreads  whether requests run on virtual threads
+     */
+    public GateServerMetrics(long requests, long rejected, long failures, int inFlight, int peakInFlight,
+                             boolean virtualThreads) {
+        this.requests = requests;
+        this.rejected = rejected;
+        this.failures = failures;
+        this.inFlight = inFlight;
+        this.peakInFlight = peakInFlight;
+        this.virtualThreads = virtualThreads;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>GateServerMetrics</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "GateServerMetrics{" +
+                "requests=" + requests +
+                ", rejected=" + rejected +
+                ", failures=" + failures +
+                ", inFlight=" + inFlight +
+                ", peakInFlight=" + peakInFlight +
+                ", virtualThreads=" + virtualThreads +
+                '}';
+    }
+}
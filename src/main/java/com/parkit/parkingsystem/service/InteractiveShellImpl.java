@@ -1,13 +1,31 @@
 package com.parkit.parkingsystem.service;
 
-import com.parkit.parkingsystem.config.DataBaseConfigImpl;
+import com.parkit.parkingsystem.config.JdbcExecutor;
+import com.parkit.parkingsystem.config.PooledDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.TransactionalDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.contracts.TransactionManager;
+import com.parkit.parkingsystem.constants.DataBaseType;
 import com.parkit.parkingsystem.constants.ParkingCommand;
-import com.parkit.parkingsystem.dao.TicketDAOImpl;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.constants.QueryPlanCheck;
+import com.parkit.parkingsystem.constants.ReportFormat;
+import com.parkit.parkingsystem.constants.ReportPeriod;
+import com.parkit.parkingsystem.dao.ActiveTicketRegistry;
+import com.parkit.parkingsystem.dao.JournalParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.JournalStore;
+import com.parkit.parkingsystem.dao.JournalTicketDAOImpl;
+import com.parkit.parkingsystem.dao.ParkingDAOFactory;
+import com.parkit.parkingsystem.dao.RecurringUserRegistry;
+import com.parkit.parkingsystem.dao.WriteBehindQueue;
 import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
-import com.parkit.parkingsystem.dao.ParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
 import com.parkit.parkingsystem.dao.contracts.TicketDAO;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.service.contracts.ArchivalService;
 import com.parkit.parkingsystem.service.contracts.InteractiveShell;
 import com.parkit.parkingsystem.service.contracts.FareCalculatorService;
+import com.parkit.parkingsystem.service.contracts.MigrationService;
 import com.parkit.parkingsystem.service.contracts.ParkingService;
 import com.parkit.parkingsystem.util.InputReaderUtilImpl;
 import com.parkit.parkingsystem.util.TimeUtilImpl;
@@ -16,17 +34,47 @@ import com.parkit.parkingsystem.util.contracts.TimeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 public class InteractiveShellImpl implements InteractiveShell {
 
     private static final Logger logger = LoggerFactory.getLogger("InteractiveShell");
 
     private InputReaderUtil inputReaderUtil = new InputReaderUtilImpl();
-    private ParkingSpotDAO parkingSpotDAO = new ParkingSpotDAOImpl(new DataBaseConfigImpl());
-    private TicketDAO ticketDAO = new TicketDAOImpl(new DataBaseConfigImpl());
+    private PooledDataBaseConfigImpl dataBaseConfig = new PooledDataBaseConfigImpl
+            .Builder(DataBaseType.selected().createDataBaseConfig())
+            .build();
+    private ParkingDAOFactory daoFactory = new ParkingDAOFactory(dataBaseConfig,
+            Boolean.getBoolean("parkit.spots.lockFree"));
+    private TransactionalDataBaseConfigImpl transactionalDataBaseConfig =
+            daoFactory.getTransactionalDataBaseConfig();
+    private WriteBehindQueue writeBehindQueue = daoFactory.getWriteBehindQueue();
+    private ActiveTicketRegistry activeTicketRegistry = daoFactory.getActiveTicketRegistry();
+    private JournalStore journalStore = openJournalStore(activeTicketRegistry);
+    private ParkingSpotDAO parkingSpotDAO = journalStore != null
+            ? new JournalParkingSpotDAOImpl(journalStore)
+            : daoFactory.getParkingSpotDAO();
+    private TicketDAO ticketDAO = journalStore != null
+            ? new JournalTicketDAOImpl(journalStore)
+            : daoFactory.getTicketDAO();
+    private TransactionManager transactionManager = journalStore != null
+            ? TransactionManager.NONE
+            : daoFactory.getTransactionManager();
     private TimeUtil timeUtil = new TimeUtilImpl();
+    private MigrationService migrationService = new MigrationServiceImpl(dataBaseConfig);
+    private RecurringUserRegistry recurringUserRegistry;
     private ParkingService parkingService;
+    private JdbcExecutor jdbcExecutor;
+    private ArchivalService archivalService;
 
 
     /**
@@ -39,12 +87,50 @@ public class InteractiveShellImpl implements InteractiveShell {
     public InteractiveShellImpl(FareCalculatorService fareCalculatorService) {
 
         parkingService = new ParkingServiceImpl(inputReaderUtil, parkingSpotDAO, ticketDAO, timeUtil,
-                fareCalculatorService);
+                fareCalculatorService, transactionManager);
+    }
+
+    /**
+     * Stores <code>FareCalculatorServiceImpl.Builder</code> variable passed as
+     * parameter and creates instance of <code>InteractiveShellImpl</code>.
+     * The fare calculator is built with a <code>RecurringUserRegistry</code>
+     * backed by the database of the shell, or with the recurring users of
+     * the journal, so recurring users keep their discount across restarts.
+     * The registry joins the unit of work of the exit consulting it and is
+     * loaded when the shell starts, before the first vehicle is served.
+     *
+     * @param fareCalculatorServiceBuilder  Builder holding the discounts of
+     *                                      the price calculating function of
+     *                                      the app
+     */
+    public InteractiveShellImpl(FareCalculatorServiceImpl.Builder fareCalculatorServiceBuilder) {
+
+        RecurringUsers recurringUsers;
+
+        if (journalStore != null) {
+            recurringUsers = journalStore.getRecurringUsers();
+        } else {
+            recurringUsers = recurringUserRegistry = daoFactory.getRecurringUserRegistry();
+        }
+
+        parkingService = new ParkingServiceImpl(inputReaderUtil, parkingSpotDAO, ticketDAO, timeUtil,
+                fareCalculatorServiceBuilder.withRecurringUsers(recurringUsers).build(), transactionManager);
     }
 
     @Override
     public void loadInterface() {
 
+        if (journalStore == null) {
+            if (!migrateSchema()) {
+                shutdown();
+                return;
+            }
+            loadRecurringUsers();
+            startArchival();
+        }
+
+        loadStatistics();
+
         logger.info("App initialized!!!");
         System.out.println("Welcome to Parking System!");
 
@@ -61,6 +147,218 @@ public class InteractiveShellImpl implements InteractiveShell {
                     .findFirst()
                     .orElse(ParkingCommand.NOT_FOUND).execute(parkingService);
         }
+
+        shutdown();
+    }
+
+    @Override
+    public void serve(int port) {
+
+        if (journalStore == null) {
+            if (!migrateSchema()) {
+                shutdown();
+                return;
+            }
+            loadRecurringUsers();
+            startArchival();
+        }
+
+        loadStatistics();
+
+        jdbcExecutor = new JdbcExecutor.Builder(dataBaseConfig).build();
+
+        GateServerImpl gateServer = new GateServerImpl.Builder(parkingService)
+                .withPort(port)
+                .withQuoteExecutor(jdbcExecutor)
+                .build();
+
+        gateServer.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            gateServer.stop(5);
+            shutdown();
+        }, "gate-server-shutdown"));
+
+        logger.info("App initialized!!! Serving gates on port {}", gateServer.getPort());
+    }
+
+    @Override
+    public void importGateLog(Path gateLog) {
+
+        if (!migrateSchema()) {
+            shutdown();
+            return;
+        }
+
+        try {
+            new GateLogImportServiceImpl.Builder(dataBaseConfig)
+                    .withBatchSize(Integer.getInteger("parkit.import.batchSize", 500))
+                    .withCommitInterval(Integer.getInteger("parkit.import.commitInterval", 10_000))
+                    .build()
+                    .importGateLog(gateLog);
+
+        } catch (UnsuccessfulOperationException e) {
+
+            logger.error("Unable to import gate log", e);
+
+        } finally {
+
+            shutdown();
+        }
+    }
+
+    @Override
+    public void writeReport(Path report, LocalDate from, LocalDate to, ReportPeriod period) {
+
+        if (!migrateSchema()) {
+            shutdown();
+            return;
+        }
+
+        try (Writer writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+
+            ReportFormat.forFile(report).write(new ReportServiceImpl.Builder(dataBaseConfig)
+                    .withFetchSize(Integer.getInteger("parkit.report.fetchSize", 1000))
+                    .withParallelism(Integer.getInteger("parkit.report.parallelism",
+                            Runtime.getRuntime().availableProcessors()))
+                    .build()
+                    .getRevenueReport(from, to, period), writer);
+
+        } catch (IOException | UnsuccessfulOperationException e) {
+
+            logger.error("Unable to write report {}", report, e);
+
+        } finally {
+
+            shutdown();
+        }
+    }
+
+    private void shutdown() {
+
+        if (archivalService != null) {
+            archivalService.stop();
+        }
+        if (jdbcExecutor != null) {
+            jdbcExecutor.close();
+        }
+        writeBehindQueue.close();
+        if (journalStore != null) {
+            journalStore.close();
+        }
+
+        logger.info("Units of work {}", transactionalDataBaseConfig.getMetrics());
+        logger.info("Open ticket lookups {}", activeTicketRegistry.getMetrics());
+        if (recurringUserRegistry != null) {
+            logger.info("Recurring user lookups {}", recurringUserRegistry.getMetrics());
+        }
+        dataBaseConfig.close();
+    }
+
+    /*
+     * Nothing is served on a schema that could not be brought up to date, as
+     * statements would fail or run without their index on every gate.
+     */
+    private boolean migrateSchema() {
+
+        try {
+            int applied = migrationService.migrate();
+            logger.info("Database schema up to date, {} migrations applied", applied);
+
+            List<QueryPlanCheck> failing = migrationService.verifyQueryPlans();
+            if (!failing.isEmpty()) {
+                logger.warn("Statements not using their index {}", failing);
+            }
+
+            return true;
+
+        } catch (UnsuccessfulOperationException e) {
+
+            logger.error("Unable to bring database schema up to date, stopping", e);
+            return false;
+        }
+    }
+
+    private void loadRecurringUsers() {
+
+        if (recurringUserRegistry == null) {
+            return;
+        }
+
+        try {
+            recurringUserRegistry.reload();
+
+        } catch (UnsuccessfulOperationException e) {
+
+            logger.error("Unable to load recurring users, checking them in the database", e);
+        }
+    }
+
+    private void loadStatistics() {
+
+        try {
+            writeBehindQueue.flush();
+            parkingService.loadStatistics();
+
+        } catch (UnsuccessfulOperationException e) {
+
+            logger.error("Unable to load parking statistics", e);
+        }
+    }
+
+    private void startArchival() {
+
+        Integer retentionDays = Integer.getInteger("parkit.archive.retentionDays");
+
+        if (retentionDays == null) {
+            return;
+        }
+
+        archivalService = new ArchivalServiceImpl.Builder(dataBaseConfig)
+                .withTimeUtil(timeUtil)
+                .withRetentionDays(retentionDays)
+                .withChunkSize(Integer.getInteger("parkit.archive.chunkSize", 500))
+                .withPauseMillis(Long.getLong("parkit.archive.pauseMillis", 50))
+                .withIntervalMillis(Long.getLong("parkit.archive.intervalMillis", 3_600_000))
+                .build();
+        archivalService.start();
+    }
+
+    /**
+     *     Opens the journal named by system property
+     * <code>parkit.journal.dir</code>, seeded with the parking spots of
+     * <code>parkit.journal.spots</code>, a list of types and counts such as
+     * <code>CAR:3,BIKE:2</code> numbered from 1.
+     *
+     * @return the opened store, null when the property is not set
+     */
+    private static JournalStore openJournalStore(ActiveTicketRegistry activeTicketRegistry) {
+
+        String directory = System.getProperty("parkit.journal.dir");
+
+        if (directory == null) {
+            return null;
+        }
+
+        List<ParkingSpot> parkingSpots = new ArrayList<>();
+
+        for (String group : System.getProperty("parkit.journal.spots", "CAR:3,BIKE:2").split(",")) {
+
+            String[] typeAndCount = group.trim().split(":");
+            ParkingType parkingType = ParkingType.valueOf(typeAndCount[0].trim().toUpperCase());
+
+            for (int i = Integer.parseInt(typeAndCount[1].trim()); i > 0; i--) {
+                parkingSpots.add(new ParkingSpot(parkingSpots.size() + 1, parkingType, true));
+            }
+        }
+
+        return new JournalStore.Builder(Paths.get(directory))
+                .withSyncEveryRecords(Integer.getInteger("parkit.journal.syncEveryRecords", 64))
+                .withSyncIntervalMillis(Long.getLong("parkit.journal.syncIntervalMillis", 100))
+                .withSnapshotIntervalMillis(Long.getLong("parkit.journal.snapshotIntervalMillis", 60_000))
+                .withParkingSpots(parkingSpots)
+                .withActiveTicketRegistry(activeTicketRegistry)
+                .build();
     }
 
     private void loadMenu() {
@@ -68,5 +366,6 @@ public class InteractiveShellImpl implements InteractiveShell {
         System.out.println("1 New Vehicle Entering - Allocate Parking Space");
         System.out.println("2 Vehicle Exiting - Generate Ticket Price");
         System.out.println("3 Shutdown System");
+        System.out.println("4 Show Parking Statistics");
     }
 }
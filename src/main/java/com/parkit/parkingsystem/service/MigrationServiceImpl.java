@@ -0,0 +1,347 @@
+package com.parkit.parkingsystem.service;
+
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.constants.DBConstants;
+import com.parkit.parkingsystem.constants.Migration;
+import com.parkit.parkingsystem.constants.QueryPlanCheck;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.service.contracts.MigrationService;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+public class MigrationServiceImpl implements MigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger("MigrationService");
+
+    private static final long DEFAULT_LOCK_WAIT_MILLIS = 60_000;
+    private static final long DEFAULT_LOCK_LEASE_MILLIS = 3_600_000;
+    private static final long LOCK_POLL_MILLIS = 200;
+
+    private final DataBaseConfig dataBaseConfig;
+    private final long lockWaitMillis;
+    private final long lockLeaseMillis;
+    private final String lockHolder;
+
+    /**
+     *     Stores <code>DataBaseConfig</code> variable passed as parameter and
+     * creates instance of <code>MigrationServiceImpl</code>, waiting up to a
+     * minute for the migration lock, and taking over a lock held for more
+     * than an hour as left by a crashed instance.
+     *
+     * @param dataBaseConfig  instance of <code>DataBaseConfig</code>
+     */
+    public MigrationServiceImpl(DataBaseConfig dataBaseConfig) {
+        this(dataBaseConfig, DEFAULT_LOCK_WAIT_MILLIS, DEFAULT_LOCK_LEASE_MILLIS);
+    }
+
+    /**
+     *     Stores variables passed as parameters and creates instance of
+     * <code>MigrationServiceImpl</code>.
+     *
+     * @param dataBaseConfig  instance of <code>DataBaseConfig</code>
+     * @param lockWaitMillis  how long <code>migrate</code> waits for the
+     *                        migration lock held by another instance
+     * @param lockLeaseMillis  age after which a migration lock is considered
+     *                         left by a crashed instance and taken over
+     */
+    public MigrationServiceImpl(DataBaseConfig dataBaseConfig, long lockWaitMillis, long lockLeaseMillis) {
+
+        if (lockWaitMillis < 0 || lockLeaseMillis <= 0) {
+            throw new IllegalArgumentException("Invalid migration lock timing - wait " + lockWaitMillis
+                    + " lease " + lockLeaseMillis);
+        }
+
+        this.dataBaseConfig = dataBaseConfig;
+        this.lockWaitMillis = lockWaitMillis;
+        this.lockLeaseMillis = lockLeaseMillis;
+        this.lockHolder = ManagementFactory.getRuntimeMXBean().getName() + "#" + System.identityHashCode(this);
+    }
+
+    @Override
+    public int migrate() {
+
+        try (Connection con = dataBaseConfig.getConnection()) {
+
+            try (Statement statement = con.createStatement()) {
+                statement.execute(DBConstants.CREATE_SCHEMA_VERSION);
+                statement.execute(DBConstants.CREATE_SCHEMA_LOCK);
+            }
+
+            lock(con);
+
+            try {
+                Map<Integer, Long> applied = getAppliedVersions(con);
+                List<Migration> pending = getPendingMigrations(applied);
+
+                for (Migration migration : pending) {
+                    apply(con, migration);
+                }
+
+                return pending.size();
+
+            } finally {
+                unlock(con);
+            }
+
+        } catch (ClassNotFoundException | SQLException ex) {
+
+            logger.error("Error migrating database schema", ex);
+            throw new UnsuccessfulOperationException("Unable to migrate database schema", ex);
+
+        } catch (InterruptedException ex) {
+
+            Thread.currentThread().interrupt();
+            throw new UnsuccessfulOperationException("Interrupted waiting for the migration lock", ex);
+        }
+    }
+
+    /*
+     * A lease row rather than a row lock or GET_LOCK: MySQL commits DDL
+     * implicitly, releasing row locks, and GET_LOCK is not portable to the
+     * embedded database.
+     */
+    private void lock(Connection con) throws SQLException, InterruptedException {
+
+        try (PreparedStatement ps = con.prepareStatement(DBConstants.INIT_SCHEMA_LOCK)) {
+            ps.executeUpdate();
+
+        } catch (SQLException ex) {
+
+            if (ex.getSQLState() == null || !ex.getSQLState().startsWith("23")) {
+                throw ex;
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lockWaitMillis);
+
+        while (true) {
+
+            try (PreparedStatement ps = con.prepareStatement(DBConstants.ACQUIRE_SCHEMA_LOCK)) {
+
+                long now = System.currentTimeMillis();
+                ps.setTimestamp(1, new Timestamp(now));
+                ps.setString(2, lockHolder);
+                ps.setTimestamp(3, new Timestamp(now - lockLeaseMillis));
+
+                if (ps.executeUpdate() == 1) {
+                    return;
+                }
+            }
+
+            if (System.nanoTime() - deadline >= 0) {
+                throw new UnsuccessfulOperationException("Migration lock still held by another instance after "
+                        + lockWaitMillis + " ms");
+            }
+
+            logger.info("Waiting for another instance to finish migrating the database schema");
+            Thread.sleep(LOCK_POLL_MILLIS);
+        }
+    }
+
+    private void unlock(Connection con) {
+
+        try (PreparedStatement ps = con.prepareStatement(DBConstants.RELEASE_SCHEMA_LOCK)) {
+
+            ps.setString(1, lockHolder);
+            ps.executeUpdate();
+
+        } catch (SQLException ex) {
+
+            logger.error("Error releasing migration lock, it will be taken over after its lease", ex);
+        }
+    }
+
+    private Map<Integer, Long> getAppliedVersions(Connection con) throws SQLException {
+
+        Map<Integer, Long> applied = new TreeMap<>();
+
+        try (PreparedStatement ps = con.prepareStatement(DBConstants.GET_SCHEMA_VERSIONS);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+
+        return applied;
+    }
+
+    private List<Migration> getPendingMigrations(Map<Integer, Long> applied) {
+
+        List<Migration> pending = new ArrayList<>();
+        int latestKnown = 0;
+
+        for (Migration migration : Migration.values()) {
+
+            latestKnown = Math.max(latestKnown, migration.getVersion());
+            Long checksum = applied.get(migration.getVersion());
+
+            if (checksum == null) {
+
+                pending.add(migration);
+
+            } else if (checksum != migration.getChecksum()) {
+
+                throw new UnsuccessfulOperationException("Checksum of applied migration " + migration.getVersion()
+                        + " differs from " + migration + ", applied migrations must not be edited");
+            }
+        }
+
+        for (int version : applied.keySet()) {
+
+            if (version > latestKnown) {
+                throw new UnsuccessfulOperationException("Database schema version " + version
+                        + " is newer than the application");
+            }
+        }
+
+        pending.sort(Comparator.comparingInt(Migration::getVersion));
+
+        return pending;
+    }
+
+    private void apply(Connection con, Migration migration) throws SQLException {
+
+        if (exists(con, migration)) {
+
+            logger.info("Recording migration {} {}, its schema object already exists", migration.getVersion(),
+                    migration.getDescription());
+
+        } else {
+
+            logger.info("Applying migration {} {}", migration.getVersion(), migration.getDescription());
+
+            try (Statement statement = con.createStatement()) {
+                statement.execute(migration.getSql());
+            }
+        }
+
+        try (PreparedStatement ps = con.prepareStatement(DBConstants.SAVE_SCHEMA_VERSION)) {
+
+            ps.setInt(1, migration.getVersion());
+            ps.setString(2, migration.getDescription());
+            ps.setLong(3, migration.getChecksum());
+            ps.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+            ps.executeUpdate();
+        }
+    }
+
+    private boolean exists(Connection con, Migration migration) throws SQLException {
+
+        DatabaseMetaData metaData = con.getMetaData();
+        String table = toStoredCase(metaData, migration.getTable());
+
+        if (migration.getIndex() == null) {
+
+            try (ResultSet rs = metaData.getTables(con.getCatalog(), con.getSchema(), table, null)) {
+                return rs.next();
+            }
+        }
+
+        try (ResultSet rs = metaData.getIndexInfo(con.getCatalog(), con.getSchema(), table, false, true)) {
+
+            while (rs.next()) {
+                if (migration.getIndex().equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private String toStoredCase(DatabaseMetaData metaData, String identifier) throws SQLException {
+
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return identifier.toUpperCase(Locale.ROOT);
+        }
+
+        if (metaData.storesLowerCaseIdentifiers()) {
+            return identifier.toLowerCase(Locale.ROOT);
+        }
+
+        return identifier;
+    }
+
+    @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
+    @Override
+    public List<QueryPlanCheck> verifyQueryPlans() {
+
+        List<QueryPlanCheck> failing = new ArrayList<>();
+
+        try (Connection con = dataBaseConfig.getConnection()) {
+
+            for (QueryPlanCheck check : QueryPlanCheck.values()) {
+
+                String plan;
+
+                try {
+                    plan = explain(con, check);
+
+                } catch (SQLException ex) {
+
+                    logger.warn("Query plan of {} can not be explained: {}", check, ex.getMessage());
+                    failing.add(check);
+                    continue;
+                }
+
+                if (!plan.toUpperCase(Locale.ROOT).contains(check.getExpectedIndex())) {
+
+                    logger.warn("Query plan of {} does not use {}: {}", check, check.getExpectedIndex(), plan);
+                    failing.add(check);
+                }
+            }
+
+            return failing;
+
+        } catch (ClassNotFoundException | SQLException ex) {
+
+            logger.error("Error verifying query plans", ex);
+            throw new UnsuccessfulOperationException("Unable to verify query plans", ex);
+        }
+    }
+
+    private String explain(Connection con, QueryPlanCheck check) throws SQLException {
+
+        StringBuilder plan = new StringBuilder();
+
+        try (PreparedStatement ps = con.prepareStatement(DBConstants.EXPLAIN + check.getSql())) {
+
+            int parameters = ps.getParameterMetaData().getParameterCount();
+
+            for (int i = 1; i <= parameters; i++) {
+                ps.setString(i, check.getSampleParameter());
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+
+                int columns = rs.getMetaData().getColumnCount();
+
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        plan.append(rs.getString(i)).append(' ');
+                    }
+                }
+            }
+        }
+
+        return plan.toString().trim();
+    }
+}
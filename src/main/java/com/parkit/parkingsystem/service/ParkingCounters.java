@@ -0,0 +1,175 @@
+package com.parkit.parkingsystem.service;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.ParkingStatistics;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *     Lock-free counters of the occupancy of the parking and of the entries,
+ * exits and revenue of the current day, per <code>ParkingType</code>, kept
+ * up to date by <code>ParkingServiceImpl</code> after every committed entry
+ * and exit, so statistics are read in constant time without querying the
+ * database.
+ * <p>
+ *     Occupancy is loaded once from the parking spots at startup, before the
+ * gates are served, and then follows the recorded entries and exits. Loading again
+ * resets it to the passed spots. The daily counters start empty at startup
+ * and at midnight UTC, when the first entry, exit or read of the new day
+ * replaces the counters of the previous one.
+ */
+public class ParkingCounters {
+
+    private static final ParkingType[] PARKING_TYPES = ParkingType.values();
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final LongAdder[] occupied = adders();
+    private final AtomicReference<Day> today = new AtomicReference<>(new Day(Long.MIN_VALUE));
+    private volatile int[] capacities;
+
+    /**
+     *     Sets the capacity and occupancy of every parking type from the
+     * spots passed as parameter. Entries and exits recorded while loading may
+     * be counted twice or not at all, so load while the gates are idle.
+     *
+     * @param parkingSpots  all parking spots with their availability
+     */
+    public synchronized void load(List<ParkingSpot> parkingSpots) {
+
+        int[] fresh = new int[PARKING_TYPES.length];
+        int[] taken = new int[PARKING_TYPES.length];
+
+        for (ParkingSpot parkingSpot : parkingSpots) {
+
+            int type = parkingSpot.getParkingType().ordinal();
+
+            fresh[type]++;
+            if (!parkingSpot.isAvailable()) {
+                taken[type]++;
+            }
+        }
+
+        for (int type = 0; type < PARKING_TYPES.length; type++) {
+            occupied[type].reset();
+            occupied[type].add(taken[type]);
+        }
+
+        capacities = fresh;
+    }
+
+    public boolean isLoaded() {
+        return capacities != null;
+    }
+
+    /**
+     * Counts a vehicle which took a spot of the passed type.
+     *
+     * @param parkingType  type of the spot taken
+     * @param epochSeconds  in-time of the vehicle in seconds since the epoch
+     */
+    public void recordEntry(ParkingType parkingType, long epochSeconds) {
+
+        occupied[parkingType.ordinal()].increment();
+        day(epochSeconds).entries[parkingType.ordinal()].increment();
+    }
+
+    /**
+     * Counts a vehicle which freed a spot of the passed type, and its fare.
+     *
+     * @param parkingType  type of the spot freed
+     * @param price  fare paid by the vehicle
+     * @param epochSeconds  out-time of the vehicle in seconds since the epoch
+     */
+    public void recordExit(ParkingType parkingType, double price, long epochSeconds) {
+
+        occupied[parkingType.ordinal()].decrement();
+
+        Day day = day(epochSeconds);
+
+        day.exits[parkingType.ordinal()].increment();
+        day.revenue[parkingType.ordinal()].add(price);
+    }
+
+    /**
+     *     Returns the current values of the counters. Entries and exits
+     * recorded meanwhile may or may not be included.
+     *
+     * @param epochSeconds  current time in seconds since the epoch, selecting
+     *                      the day reported
+     * @return instance of <code>ParkingStatistics</code>, never null
+     */
+    public ParkingStatistics getStatistics(long epochSeconds) {
+
+        int[] capacity = capacities;
+        Day day = day(epochSeconds);
+
+        int[] free = new int[PARKING_TYPES.length];
+        int[] taken = new int[PARKING_TYPES.length];
+        long[] entries = new long[PARKING_TYPES.length];
+        long[] exits = new long[PARKING_TYPES.length];
+        double[] revenue = new double[PARKING_TYPES.length];
+
+        for (int type = 0; type < PARKING_TYPES.length; type++) {
+
+            taken[type] = (int) Math.max(0, occupied[type].sum());
+            free[type] = capacity == null ? 0 : Math.max(0, capacity[type] - taken[type]);
+            entries[type] = day.entries[type].sum();
+            exits[type] = day.exits[type].sum();
+            revenue[type] = day.revenue[type].sum();
+        }
+
+        return new ParkingStatistics(LocalDate.ofEpochDay(day.epochDay), free, taken, entries, exits, revenue);
+    }
+
+    private Day day(long epochSeconds) {
+
+        long epochDay = Math.floorDiv(epochSeconds, SECONDS_PER_DAY);
+        Day day = today.get();
+
+        // a late record of the previous day is counted in the current one
+        while (day.epochDay < epochDay) {
+
+            Day next = new Day(epochDay);
+
+            if (today.compareAndSet(day, next)) {
+                return next;
+            }
+
+            day = today.get();
+        }
+
+        return day;
+    }
+
+    private static LongAdder[] adders() {
+
+        LongAdder[] adders = new LongAdder[PARKING_TYPES.length];
+
+        for (int type = 0; type < adders.length; type++) {
+            adders[type] = new LongAdder();
+        }
+
+        return adders;
+    }
+
+    private static final class Day {
+
+        private final long epochDay;
+        private final LongAdder[] entries = adders();
+        private final LongAdder[] exits = adders();
+        private final DoubleAdder[] revenue = new DoubleAdder[PARKING_TYPES.length];
+
+        private Day(long epochDay) {
+            this.epochDay = epochDay;
+
+            for (int type = 0; type < revenue.length; type++) {
+                revenue[type] = new DoubleAdder();
+            }
+        }
+    }
+}
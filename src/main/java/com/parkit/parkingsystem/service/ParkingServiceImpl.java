@@ -1,9 +1,12 @@
 package com.parkit.parkingsystem.service;
 
+import com.parkit.parkingsystem.config.contracts.TransactionManager;
 import com.parkit.parkingsystem.constants.ParkingType;
 import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
 import com.parkit.parkingsystem.dao.contracts.TicketDAO;
 import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.ParkingStatistics;
 import com.parkit.parkingsystem.model.Ticket;
 import com.parkit.parkingsystem.service.contracts.FareCalculatorService;
 import com.parkit.parkingsystem.service.contracts.ParkingService;
@@ -17,6 +20,10 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
 public class ParkingServiceImpl implements ParkingService {
 
@@ -28,6 +35,8 @@ public class ParkingServiceImpl implements ParkingService {
     private final TicketDAO ticketDAO;
     private final TimeUtil timeUtil;
     private final FareCalculatorService fareCalculatorService;
+    private final TransactionManager transactionManager;
+    private final ParkingCounters parkingCounters = new ParkingCounters();
 
     /**
      *     Stores <code>FareCalculatorService</code>, <code>InputReaderUtil</code>,
@@ -48,39 +57,63 @@ public class ParkingServiceImpl implements ParkingService {
      */
     public ParkingServiceImpl(InputReaderUtil inputReaderUtil, ParkingSpotDAO parkingSpotDAO, TicketDAO ticketDAO, TimeUtil timeUtil,
                               FareCalculatorService fareCalculatorService) {
+        this(inputReaderUtil, parkingSpotDAO, ticketDAO, timeUtil, fareCalculatorService, TransactionManager.NONE);
+    }
+
+    /**
+     *     Stores the same dependencies as the constructor above together with
+     * <code>TransactionManager</code> passed as parameter and creates instance
+     * of <code>ParkingServiceImpl</code>. The database operations of every
+     * vehicle entry and exit then run as one unit of work.
+     *
+     * @param fareCalculatorService dependency variable presenting  price
+     *                             calculating function of the app
+     * @param inputReaderUtil       dependency variable presenting  input
+     *                             reading function of the app
+     * @param parkingSpotDAO        dependency variable presenting  parking
+     *                             spot handling function of the app
+     * @param ticketDAO             dependency variable presenting  ticket
+     *                             handling function of the app
+     * @param timeUtil              dependency variable presenting  time
+     *                             handling function of the app
+     * @param transactionManager    dependency variable presenting  unit of
+     *                             work handling function of the app
+     */
+    public ParkingServiceImpl(InputReaderUtil inputReaderUtil, ParkingSpotDAO parkingSpotDAO, TicketDAO ticketDAO, TimeUtil timeUtil,
+                              FareCalculatorService fareCalculatorService, TransactionManager transactionManager) {
         this.inputReaderUtil = inputReaderUtil;
         this.parkingSpotDAO = parkingSpotDAO;
         this.ticketDAO = ticketDAO;
         this.timeUtil = timeUtil;
         this.fareCalculatorService = fareCalculatorService;
+        this.transactionManager = transactionManager;
     }
 
     @Override
     public void processIncomingVehicle() {
         try {
             ParkingSpot parkingSpot = getNextParkingNumberIfAvailable();
+            Ticket ticket = new Ticket();
 
             if (parkingSpot != ParkingSpot.NOT_AVAILABLE) {
-                parkingSpot.setAvailable(false);
-
-                parkingSpotDAO.updateParking(parkingSpot);
+                ParkingType parkingType = parkingSpot.getParkingType();
 
                 String vehicleRegNumber = getVehicleRegNumber();
                 long inTime = timeUtil.getTimeInSeconds();
 
-                Ticket ticket = new Ticket();
-
-                ticket.setParkingSpot(parkingSpot);
                 ticket.setVehicleRegNumber(vehicleRegNumber);
                 ticket.setInTime(inTime);
 
-                ticketDAO.saveTicket(ticket);
+                parkingSpot = commitEntry(parkingType, ticket);
+            }
+
+            if (parkingSpot != ParkingSpot.NOT_AVAILABLE) {
 
                 System.out.println("Generated Ticket and saved in DB");
                 System.out.println("Please park your vehicle in spot number:" + parkingSpot.getId());
                 System.out
-                        .println("Recorded in-time for vehicle number:" + vehicleRegNumber + " is: "
-                                + LocalDateTime.ofEpochSecond(inTime, 0, ZoneOffset.UTC).format(dateTimeFormatter));
+                        .println("Recorded in-time for vehicle number:" + ticket.getVehicleRegNumber() + " is: "
+                                + LocalDateTime.ofEpochSecond(ticket.getInTime(), 0, ZoneOffset.UTC).format(dateTimeFormatter));
             } else {
 
                 System.out.println("Error fetching parking number from DB. Parking slots might be full");
@@ -142,23 +175,10 @@ public class ParkingServiceImpl implements ParkingService {
         try {
             String vehicleRegNumber = getVehicleRegNumber();
 
-            Ticket ticket = ticketDAO.getTicket(vehicleRegNumber);
+            Ticket ticket = commitExit(vehicleRegNumber);
 
             if(!ticket.equals(Ticket.NOT_FOUND)) {
 
-                ticket.setOutTime(timeUtil.getTimeInSeconds());
-
-                fareCalculatorService.calculateFare(ticket, fareCalculatorService.getDiscounts(),
-                        fareCalculatorService.getRecurringUsers());
-
-                ticketDAO.updateTicket(ticket);
-
-                ParkingSpot parkingSpot = ticket.getParkingSpot();
-
-                parkingSpot.setAvailable(true);
-
-                parkingSpotDAO.updateParking(parkingSpot);
-
                 DecimalFormat df = new DecimalFormat("#.##");
 
                 System.out.println("Please pay the parking fare: " + df.format(ticket.getPrice()) + "€");
@@ -174,4 +194,225 @@ public class ParkingServiceImpl implements ParkingService {
             logger.error("Unable to process exiting vehicle", e);
         }
     }
+
+    @Override
+    public Ticket enter(ParkingType parkingType, String vehicleRegNumber) {
+
+        if (parkingType == null || vehicleRegNumber == null || vehicleRegNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Parking type and vehicle registration number are required");
+        }
+
+        Ticket ticket = new Ticket();
+
+        ticket.setVehicleRegNumber(vehicleRegNumber);
+        ticket.setInTime(timeUtil.getTimeInSeconds());
+
+        ParkingSpot parkingSpot = commitEntry(parkingType, ticket);
+
+        return parkingSpot != ParkingSpot.NOT_AVAILABLE ? ticket : Ticket.NOT_FOUND;
+    }
+
+    @Override
+    public Ticket exit(String vehicleRegNumber) {
+
+        if (vehicleRegNumber == null || vehicleRegNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Vehicle registration number is required");
+        }
+
+        return commitExit(vehicleRegNumber);
+    }
+
+    @Override
+    public void loadStatistics() {
+
+        parkingCounters.load(parkingSpotDAO.getParkingSpots());
+    }
+
+    @Override
+    public ParkingStatistics getStatistics() {
+
+        if (!parkingCounters.isLoaded()) {
+            throw new IllegalStateException("Parking statistics are not loaded");
+        }
+
+        return parkingCounters.getStatistics(timeUtil.getTimeInSeconds());
+    }
+
+    @Override
+    public void processStatistics() {
+        try {
+            ParkingStatistics statistics = getStatistics();
+            DecimalFormat df = new DecimalFormat("#.##");
+
+            System.out.println("Parking statistics of " + statistics.getDay() + " (UTC)");
+
+            for (ParkingType parkingType : ParkingType.values()) {
+                System.out.println(parkingType + ": " + statistics.getFreeSpots(parkingType) + " free, "
+                        + statistics.getOccupiedSpots(parkingType) + " occupied, "
+                        + statistics.getEntries(parkingType) + " entries, "
+                        + statistics.getExits(parkingType) + " exits, "
+                        + df.format(statistics.getRevenue(parkingType)) + "€ revenue");
+            }
+
+            System.out.println("Vehicles inside: " + statistics.getVehiclesInside()
+                    + ", entries today: " + statistics.getEntries()
+                    + ", exits today: " + statistics.getExits()
+                    + ", revenue today: " + df.format(statistics.getRevenue()) + "€");
+
+        } catch (RuntimeException e) {
+
+            logger.error("Unable to process statistics", e);
+        }
+    }
+
+    @Override
+    public Ticket quote(String vehicleRegNumber) {
+
+        requireVehicleRegNumber(vehicleRegNumber);
+
+        Ticket ticket = ticketDAO.getTicket(vehicleRegNumber);
+
+        return ticket.equals(Ticket.NOT_FOUND) ? ticket : quote(ticket, fareCalculatorService.getRecurringUsers()::contains);
+    }
+
+    @Override
+    public CompletionStage<Ticket> quoteAsync(String vehicleRegNumber, Executor executor) {
+
+        requireVehicleRegNumber(vehicleRegNumber);
+
+        CompletableFuture<Ticket> ticket = CompletableFuture.supplyAsync(
+                () -> ticketDAO.getTicket(vehicleRegNumber), executor);
+        CompletableFuture<Boolean> recurringUser = CompletableFuture.supplyAsync(
+                () -> fareCalculatorService.getRecurringUsers().contains(vehicleRegNumber), executor);
+
+        return ticket.thenCombine(recurringUser, (found, recurring) -> quote(found, quoted -> recurring));
+    }
+
+    private Ticket quote(Ticket ticket, Predicate<String> recurringUser) {
+
+        if (ticket.equals(Ticket.NOT_FOUND)) {
+            return ticket;
+        }
+
+        Ticket quote = new Ticket();
+
+        quote.setId(ticket.getId());
+        quote.setParkingSpot(ticket.getParkingSpot());
+        quote.setVehicleRegNumber(ticket.getVehicleRegNumber());
+        quote.setInTime(ticket.getInTime());
+        quote.setOutTime(timeUtil.getTimeInSeconds());
+
+        fareCalculatorService.calculateFare(quote, fareCalculatorService.getDiscounts(),
+                new ReadOnlyRecurringUsers(recurringUser));
+
+        return quote;
+    }
+
+    private static void requireVehicleRegNumber(String vehicleRegNumber) {
+
+        if (vehicleRegNumber == null || vehicleRegNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Vehicle registration number is required");
+        }
+    }
+
+    @Override
+    public CompletionStage<Ticket> enterAsync(ParkingType parkingType, String vehicleRegNumber, Executor executor) {
+
+        return CompletableFuture.supplyAsync(() -> enter(parkingType, vehicleRegNumber), executor);
+    }
+
+    @Override
+    public CompletionStage<Ticket> exitAsync(String vehicleRegNumber, Executor executor) {
+
+        return CompletableFuture.supplyAsync(() -> exit(vehicleRegNumber), executor);
+    }
+
+    private ParkingSpot commitEntry(ParkingType parkingType, Ticket ticket) {
+
+        ParkingSpot parkingSpot = transactionManager.inTransaction(() -> enterVehicle(parkingType, ticket));
+
+        if (parkingSpot != ParkingSpot.NOT_AVAILABLE) {
+            parkingCounters.recordEntry(parkingType, ticket.getInTime());
+        }
+
+        return parkingSpot;
+    }
+
+    private Ticket commitExit(String vehicleRegNumber) {
+
+        Ticket ticket = transactionManager.inTransaction(() -> exitVehicle(vehicleRegNumber));
+
+        if (!ticket.equals(Ticket.NOT_FOUND)) {
+            parkingCounters.recordExit(ticket.getParkingSpot().getParkingType(), ticket.getPrice(),
+                    ticket.getOutTime());
+        }
+
+        return ticket;
+    }
+
+    private ParkingSpot enterVehicle(ParkingType parkingType, Ticket ticket) {
+
+        int parkingNumber = parkingSpotDAO.claimNextAvailableSlot(parkingType);
+
+        if (parkingNumber <= 0) {
+
+            return ParkingSpot.NOT_AVAILABLE;
+        }
+
+        ParkingSpot parkingSpot = new ParkingSpot(parkingNumber, parkingType, false);
+
+        ticket.setParkingSpot(parkingSpot);
+
+        ticketDAO.saveTicket(ticket);
+
+        return parkingSpot;
+    }
+
+    private Ticket exitVehicle(String vehicleRegNumber) {
+
+        Ticket ticket = ticketDAO.getTicket(vehicleRegNumber);
+
+        if (!ticket.equals(Ticket.NOT_FOUND)) {
+
+            ticket.setOutTime(timeUtil.getTimeInSeconds());
+
+            fareCalculatorService.calculateFare(ticket, fareCalculatorService.getDiscounts(),
+                    fareCalculatorService.getRecurringUsers());
+
+            ticketDAO.updateTicket(ticket);
+
+            ParkingSpot parkingSpot = ticket.getParkingSpot();
+
+            parkingSpot.setAvailable(true);
+
+            parkingSpotDAO.updateParking(parkingSpot);
+        }
+
+        return ticket;
+    }
+
+    /**
+     *     Recurring users passed to the fare calculation of a quote,
+     * answering lookups from the real recurring users, or from a lookup made
+     * ahead, while ignoring the registration of the quoted vehicle, as the
+     * stay is not ended.
+     */
+    private static final class ReadOnlyRecurringUsers implements RecurringUsers {
+
+        private final Predicate<String> recurringUser;
+
+        private ReadOnlyRecurringUsers(Predicate<String> recurringUser) {
+            this.recurringUser = recurringUser;
+        }
+
+        @Override
+        public boolean contains(String vehicleRegNumber) {
+            return recurringUser.test(vehicleRegNumber);
+        }
+
+        @Override
+        public boolean add(String vehicleRegNumber) {
+            return false;
+        }
+    }
 }
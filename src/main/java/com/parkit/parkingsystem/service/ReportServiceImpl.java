@@ -0,0 +1,408 @@
+package com.parkit.parkingsystem.service;
+
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.constants.DBConstants;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.constants.ReportPeriod;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.service.contracts.ReportService;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *     <code>ReportService</code> streaming the tickets of the range, archived
+ * ones included, through
+ * one forward-only, read-only cursor fetching <code>fetchSize</code> rows at
+ * a time, so the database never materializes the result and a report over
+ * years of history holds no more than a few batches of rows in memory.
+ * Through a <code>RoutingDataBaseConfigImpl</code> the query is served by a
+ * replica. On MySQL the rows are fetched from a server side cursor, enabled
+ * by <code>useCursorFetch</code> in the connection URL.
+ * <p>
+ *     The reading thread only copies rows into batches of primitive arrays
+ * and hands them over through a bounded queue to <code>parallelism</code>
+ * aggregator threads, each summing its batches by day and parking type into
+ * its own arrays. The partial sums are merged once the cursor is drained and
+ * rolled up into the periods of the report, so memory depends on the days
+ * of the range, never on the count of tickets.
+ * <p>
+ *     Tickets with an out-time before their in-time, as written by releases
+ * storing the out-time in seconds instead of milliseconds, are skipped and
+ * counted.
+ * <p>
+ *     Follows Builder pattern, the only mandatory parameter of the Builder
+ * is the <code>DataBaseConfig</code> the tickets are read through.
+ */
+public class ReportServiceImpl implements ReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger("ReportService");
+
+    private static final ParkingType[] PARKING_TYPES = ParkingType.values();
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final int QUEUED_BATCHES_PER_AGGREGATOR = 2;
+    private static final AtomicInteger aggregatorCount = new AtomicInteger();
+
+    private final DataBaseConfig dataBaseConfig;
+    private final int fetchSize;
+    private final int parallelism;
+
+    private ReportServiceImpl(Builder builder) {
+
+        this.dataBaseConfig = builder.dataBaseConfig;
+        this.fetchSize = builder.fetchSize;
+        this.parallelism = builder.parallelism;
+    }
+
+    public static class Builder {
+
+        private final DataBaseConfig dataBaseConfig;
+        private int fetchSize = 1000;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        public Builder(DataBaseConfig dataBaseConfig) {
+
+            this.dataBaseConfig = dataBaseConfig;
+        }
+
+        /**
+         * Sets how many rows the driver fetches per round trip, which is also
+         * the count of rows handed to an aggregator at once.
+         *
+         * @param fetchSize  rows per fetch
+         * @return this Builder
+         */
+        public Builder withFetchSize(int fetchSize) {
+
+            this.fetchSize = fetchSize;
+
+            return this;
+        }
+
+        public Builder withParallelism(int parallelism) {
+
+            this.parallelism = parallelism;
+
+            return this;
+        }
+
+        public ReportServiceImpl build() {
+
+            if (dataBaseConfig == null) {
+                throw new IllegalArgumentException("Database config is mandatory");
+            }
+            if (fetchSize < 1 || parallelism < 1) {
+                throw new IllegalArgumentException("Invalid report service - fetch size " + fetchSize
+                        + " parallelism " + parallelism);
+            }
+
+            return new ReportServiceImpl(this);
+        }
+    }
+
+    @Override
+    public RevenueReport getRevenueReport(LocalDate from, LocalDate to, ReportPeriod period) {
+
+        if (from == null || to == null || period == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Report needs a period and a range of days, from " + from
+                    + " to " + to);
+        }
+
+        long startNanos = System.nanoTime();
+        long days = ChronoUnit.DAYS.between(from, to);
+
+        if (days > Integer.MAX_VALUE / PARKING_TYPES.length) {
+            throw new IllegalArgumentException("Report range of " + days + " days is too long");
+        }
+
+        int[] spots = countSpots();
+        Sums sums = aggregate(from, to, (int) days);
+        List<RevenueReportRow> rows = rollUp(sums, from, period, spots);
+
+        RevenueReport report = new RevenueReport(from, to, period, Collections.unmodifiableList(rows),
+                sums.read, sums.skipped, System.nanoTime() - startNanos);
+        logger.info("Revenue report {} at {} tickets/s", report, Math.round(report.getTicketsPerSecond()));
+
+        return report;
+    }
+
+    @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
+    private int[] countSpots() {
+
+        int[] spots = new int[PARKING_TYPES.length];
+
+        try (Connection con = dataBaseConfig.getConnection();
+             PreparedStatement ps = con.prepareStatement(DBConstants.GET_PARKING_SPOTS);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                spots[ParkingType.valueOf(rs.getString(3)).ordinal()]++;
+            }
+
+            return spots;
+
+        } catch (ClassNotFoundException | SQLException ex) {
+
+            logger.error("Error counting parking spots", ex);
+            throw new UnsuccessfulOperationException("Unable to count parking spots", ex);
+        }
+    }
+
+    private Sums aggregate(LocalDate from, LocalDate to, int days) {
+
+        long firstDay = from.toEpochDay();
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(parallelism * QUEUED_BATCHES_PER_AGGREGATOR);
+        ExecutorService aggregators = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "report-aggregator-" + aggregatorCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<Sums>> partials = new ArrayList<>(parallelism);
+
+            for (int i = 0; i < parallelism; i++) {
+                partials.add(aggregators.submit(() -> {
+
+                    Sums partial = new Sums(firstDay, days);
+
+                    for (Batch batch = queue.take(); batch != Batch.END; batch = queue.take()) {
+                        partial.add(batch);
+                    }
+
+                    return partial;
+                }));
+            }
+
+            stream(from, to, queue, partials);
+
+            for (int i = 0; i < parallelism; i++) {
+                enqueue(queue, Batch.END, partials);
+            }
+
+            Sums sums = new Sums(firstDay, days);
+
+            for (Future<Sums> partial : partials) {
+                sums.merge(partial.get());
+            }
+
+            return sums;
+
+        } catch (ClassNotFoundException | SQLException | ExecutionException ex) {
+
+            logger.error("Error streaming tickets from {} to {}", from, to, ex);
+            throw new UnsuccessfulOperationException("Unable to build report from " + from + " to " + to, ex);
+
+        } catch (InterruptedException ex) {
+
+            Thread.currentThread().interrupt();
+            throw new UnsuccessfulOperationException("Interrupted building report from " + from + " to " + to, ex);
+
+        } finally {
+
+            aggregators.shutdownNow();
+        }
+    }
+
+    @SuppressFBWarnings("RCN_REDUNDANT_NULLCHECK_WOULD_HAVE_BEEN_A_NPE")
+    private void stream(LocalDate from, LocalDate to, BlockingQueue<Batch> queue, List<Future<Sums>> partials)
+            throws ClassNotFoundException, SQLException, InterruptedException, ExecutionException {
+
+        try (Connection con = dataBaseConfig.getConnection();
+             PreparedStatement ps = con.prepareStatement(DBConstants.GET_CLOSED_TICKETS_BETWEEN)) {
+
+            ps.setFetchSize(fetchSize);
+            Timestamp fromTime = new Timestamp(from.toEpochDay() * SECONDS_PER_DAY * 1000);
+            Timestamp toTime = new Timestamp(to.toEpochDay() * SECONDS_PER_DAY * 1000);
+
+            ps.setTimestamp(1, fromTime);
+            ps.setTimestamp(2, toTime);
+            ps.setTimestamp(3, fromTime);
+            ps.setTimestamp(4, toTime);
+
+            try (ResultSet rs = ps.executeQuery()) {
+
+                Batch batch = new Batch(fetchSize);
+
+                while (rs.next()) {
+
+                    batch.add(ParkingType.valueOf(rs.getString(1)).ordinal(), rs.getTimestamp(2).getTime() / 1000,
+                            rs.getTimestamp(3).getTime() / 1000, rs.getDouble(4));
+
+                    if (batch.size == fetchSize) {
+                        enqueue(queue, batch, partials);
+                        batch = new Batch(fetchSize);
+                    }
+                }
+
+                if (batch.size > 0) {
+                    enqueue(queue, batch, partials);
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for room in the queue, giving up with the failure of an
+     * aggregator, which would otherwise leave the queue full for good.
+     */
+    private static void enqueue(BlockingQueue<Batch> queue, Batch batch, List<Future<Sums>> partials)
+            throws InterruptedException, ExecutionException {
+
+        while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            for (Future<Sums> partial : partials) {
+                if (partial.isDone()) {
+                    partial.get();
+                }
+            }
+        }
+    }
+
+    private static List<RevenueReportRow> rollUp(Sums sums, LocalDate from, ReportPeriod period, int[] spots) {
+
+        List<RevenueReportRow> rows = new ArrayList<>();
+        int types = PARKING_TYPES.length;
+
+        for (int day = 0; day < sums.days; ) {
+
+            LocalDate periodStart = from.plusDays(day);
+            LocalDate start = period.getStart(periodStart);
+            int firstDay = day;
+
+            while (day < sums.days && period.getStart(from.plusDays(day)).equals(start)) {
+                day++;
+            }
+
+            for (int type = 0; type < types; type++) {
+
+                long tickets = 0;
+                double revenue = 0;
+                long dwell = 0;
+                long maxDwell = 0;
+
+                for (int i = firstDay * types + type; i < day * types; i += types) {
+                    tickets += sums.tickets[i];
+                    revenue += sums.revenue[i];
+                    dwell += sums.dwell[i];
+                    maxDwell = Math.max(maxDwell, sums.maxDwell[i]);
+                }
+
+                double openSeconds = (double) spots[type] * (day - firstDay) * SECONDS_PER_DAY;
+
+                rows.add(new RevenueReportRow(periodStart, PARKING_TYPES[type], tickets, revenue, dwell, maxDwell,
+                        openSeconds == 0 ? 0 : dwell / openSeconds));
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     *     Rows read from the cursor, as columns of primitive values.
+     */
+    private static final class Batch {
+
+        private static final Batch END = new Batch(0);
+
+        private final int[] types;
+        private final long[] inTimes;
+        private final long[] outTimes;
+        private final double[] prices;
+        private int size;
+
+        private Batch(int capacity) {
+            this.types = new int[capacity];
+            this.inTimes = new long[capacity];
+            this.outTimes = new long[capacity];
+            this.prices = new double[capacity];
+        }
+
+        private void add(int type, long inTime, long outTime, double price) {
+            types[size] = type;
+            inTimes[size] = inTime;
+            outTimes[size] = outTime;
+            prices[size] = price;
+            size++;
+        }
+    }
+
+    /**
+     *     Sums of the tickets per day of the range and parking type, indexed
+     * by <code>day * types + type</code>.
+     */
+    private static final class Sums {
+
+        private final long firstDay;
+        private final int days;
+        private final long[] tickets;
+        private final double[] revenue;
+        private final long[] dwell;
+        private final long[] maxDwell;
+        private long read;
+        private long skipped;
+
+        private Sums(long firstDay, int days) {
+            this.firstDay = firstDay;
+            this.days = days;
+            this.tickets = new long[days * PARKING_TYPES.length];
+            this.revenue = new double[tickets.length];
+            this.dwell = new long[tickets.length];
+            this.maxDwell = new long[tickets.length];
+        }
+
+        private void add(Batch batch) {
+
+            for (int i = 0; i < batch.size; i++) {
+
+                long stay = batch.outTimes[i] - batch.inTimes[i];
+                long day = Math.floorDiv(batch.outTimes[i], SECONDS_PER_DAY) - firstDay;
+
+                if (stay < 0 || day < 0 || day >= days) {
+                    skipped++;
+                    continue;
+                }
+
+                int index = (int) day * PARKING_TYPES.length + batch.types[i];
+
+                tickets[index]++;
+                revenue[index] += batch.prices[i];
+                dwell[index] += stay;
+                maxDwell[index] = Math.max(maxDwell[index], stay);
+            }
+
+            read += batch.size;
+        }
+
+        private void merge(Sums other) {
+
+            for (int i = 0; i < tickets.length; i++) {
+                tickets[i] += other.tickets[i];
+                revenue[i] += other.revenue[i];
+                dwell[i] += other.dwell[i];
+                maxDwell[i] = Math.max(maxDwell[i], other.maxDwell[i]);
+            }
+
+            read += other.read;
+            skipped += other.skipped;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.parkit.parkingsystem.service;
+
+import com.parkit.parkingsystem.constants.ReportPeriod;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The class <code>RevenueReport</code> is an immutable result of one run of
+ * <code>ReportServiceImpl</code>, one <code>RevenueReportRow</code> per
+ * period and <code>ParkingType</code>, ordered by period and type.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>RevenueReport</code>, rows as their count.
+ */
+public class RevenueReport {
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final ReportPeriod period;
+    private final List<RevenueReportRow> rows;
+    private final long ticketsRead;
+    private final long ticketsSkipped;
+    private final long elapsedNanos;
+
+    /**
+     * Construct new <code>RevenueReport</code> from passed parameters.
+     *
+     * @param from  first day of the report in UTC
+     * @param to  day following the last day of the report in UTC
+     * @param period  period the rows are grouped by
+     * @param rows  unmodifiable rows of the report
+     * @param ticketsRead  tickets streamed from the database
+     * @param ticketsSkipped  tickets left out as closed before they were
+     *                        opened
+     * @param elapsedNanos  duration of the run in nanoseconds
+     */
+    public RevenueReport(LocalDate from, LocalDate to, ReportPeriod period, List<RevenueReportRow> rows,
+                         long ticketsRead, long ticketsSkipped, long elapsedNanos) {
+        this.from = from;
+        this.to = to;
+        this.period = period;
+        this.rows = rows;
+        this.ticketsRead = ticketsRead;
+        this.ticketsSkipped = ticketsSkipped;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public ReportPeriod getPeriod() {
+        return period;
+    }
+
+    public List<RevenueReportRow> getRows() {
+        return rows;
+    }
+
+    public long getTicketsRead() {
+        return ticketsRead;
+    }
+
+    public long getTicketsSkipped() {
+        return ticketsSkipped;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the rate of the run.
+     *
+     * @return tickets read per second, 0 when nothing was read
+     */
+    public double getTicketsPerSecond() {
+        return elapsedNanos == 0 ? 0 : ticketsRead * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>RevenueReport</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "RevenueReport{" +
+                "from=" + from +
+                ", to=" + to +
+                ", period=" + period +
+                ", rows=" + rows.size() +
+                ", ticketsRead=" + ticketsRead +
+                ", ticketsSkipped=" + ticketsSkipped +
+                ", elapsedNanos=" + elapsedNanos +
+                '}';
+    }
+}
@@ -0,0 +1,105 @@
+package com.parkit.parkingsystem.service;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+
+import java.time.LocalDate;
+
+/**
+ * The class <code>RevenueReportRow</code> is an immutable line of a
+ * <code>RevenueReport</code>, the figures of the tickets of one
+ * <code>ParkingType</code> closed during one period.
+ * <p>
+ * <code>toString</code> method is overridden to
+ * includes all fields and their values for this
+ * <code>RevenueReportRow</code>.
+ */
+public class RevenueReportRow {
+
+    private final LocalDate periodStart;
+    private final ParkingType parkingType;
+    private final long tickets;
+    private final double revenue;
+    private final long dwellSeconds;
+    private final long maxDwellSeconds;
+    private final double utilization;
+
+    /**
+     * Construct new <code>RevenueReportRow</code> from passed parameters.
+     *
+     * @param periodStart  first day of the period in UTC
+     * @param parkingType  type of the parking spots
+     * @param tickets  tickets closed during the period
+     * @param revenue  sum of the prices of the tickets
+     * @param dwellSeconds  sum of the stays of the tickets
+     * @param maxDwellSeconds  longest stay of the tickets
+     * @param utilization  stays of the tickets over the time the spots of the
+     *                     type were open during the period
+     */
+    public RevenueReportRow(LocalDate periodStart, ParkingType parkingType, long tickets, double revenue,
+                            long dwellSeconds, long maxDwellSeconds, double utilization) {
+        this.periodStart = periodStart;
+        this.parkingType = parkingType;
+        this.tickets = tickets;
+        this.revenue = revenue;
+        this.dwellSeconds = dwellSeconds;
+        this.maxDwellSeconds = maxDwellSeconds;
+        this.utilization = utilization;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public ParkingType getParkingType() {
+        return parkingType;
+    }
+
+    public long getTickets() {
+        return tickets;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public long getDwellSeconds() {
+        return dwellSeconds;
+    }
+
+    public long getMaxDwellSeconds() {
+        return maxDwellSeconds;
+    }
+
+    public double getUtilization() {
+        return utilization;
+    }
+
+    /**
+     * Returns the mean stay of the tickets of this row.
+     *
+     * @return mean stay in seconds, 0 without tickets
+     */
+    public double getAverageDwellSeconds() {
+        return tickets == 0 ? 0 : (double) dwellSeconds / tickets;
+    }
+
+    /**
+     * Returns a string representation of the object.
+     * Overrides <code>toString</code> method from <code>Object</code> with
+     * concatenated names and values as string of all fields of this
+     * <code>RevenueReportRow</code> .
+     * @return a string representation of the object
+     */
+    @Override
+    public String toString() {
+        return "RevenueReportRow{" +
+                "periodStart=" + periodStart +
+                ", parkingType=" + parkingType +
+                ", tickets=" + tickets +
+                ", revenue=" + revenue +
+                ", dwellSeconds=" + dwellSeconds +
+                ", maxDwellSeconds=" + maxDwellSeconds +
+                ", utilization=" + utilization +
+                '}';
+    }
+}
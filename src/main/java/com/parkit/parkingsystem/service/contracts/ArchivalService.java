@@ -0,0 +1,40 @@
+package com.parkit.parkingsystem.service.contracts;
+
+import com.parkit.parkingsystem.service.ArchivalReport;
+
+/**
+ *     Archival service of the application, moving the tickets closed longer
+ * ago than the retention period from database table ticket to table
+ * ticket_archive, so the table the gates work on stays small.
+ * <p>
+ *     Consists of a method <code>archive</code>, running the archival once
+ * until it has caught up, and of methods <code>start</code> and
+ * <code>stop</code>, running it in the background. The latest closed ticket
+ * of every vehicle is kept, so recurring users keep their discount.
+ *
+ */
+public interface ArchivalService {
+
+    /**
+     *     Moves the tickets closed before the retention period, in chunks of
+     * one short transaction each, until none is left or the service is
+     * stopped.
+     *
+     * @return instance of <code>ArchivalReport</code> with the counts, rate
+     * and lag of this run
+     * @throws com.parkit.parkingsystem.exception.UnsuccessfulOperationException
+     * if a chunk fails, in which case the chunk is rolled back and the
+     * chunks before it stay archived
+     */
+    ArchivalReport archive();
+
+    /**
+     * Starts archiving in the background at a fixed delay between runs.
+     */
+    void start();
+
+    /**
+     * Stops the background runs, letting a running chunk commit.
+     */
+    void stop();
+}
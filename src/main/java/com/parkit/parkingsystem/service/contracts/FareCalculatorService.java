@@ -2,10 +2,10 @@ package com.parkit.parkingsystem.service.contracts;
 
 import com.parkit.parkingsystem.constants.DiscountType;
 import com.parkit.parkingsystem.constants.Fare;
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
 import com.parkit.parkingsystem.model.Ticket;
 
 import java.util.List;
-import java.util.Set;
 
 /**
  *     Calculating price service of the application, where based on list
@@ -15,7 +15,7 @@ import java.util.Set;
  *     Consists of a method calculateFare where ticket price is calculated based
  * on data in discounts and recurringUsers collections, and methods getDiscounts
  * and getRecurringUsers which returns <code>List</code> with discounts and
- * <code>Set</code> with recurring users.
+ * <code>RecurringUsers</code> with recurring users.
  * <p>
  *     Follows Builder pattern, has private constructor with parameter Builder
  * which is nested static class in this class and has public method
@@ -43,7 +43,11 @@ public interface FareCalculatorService {
      * returned as final price. If at any moment price become 0.0 returns
      * without executing further discounts.
      * <p>
-     *     Handles adding new users to the set with recurring users.
+     *     When passed the list returned by <code>getDiscounts</code>, the
+     * chain compiled when the service was built is used instead of applying
+     * the discounts one after another, with the same result.
+     * <p>
+     *     Handles adding new users to the recurring users.
      * <p>
      *     Performing checks over validity of <code>inTime</code> and
      * <code>outTime</code> fields of the passed <code>Ticket</code> object.
@@ -56,10 +60,10 @@ public interface FareCalculatorService {
      *                 objects, holding the active discounts for the
      *                 application, may be null, but in that case price remains
      *                 0.0 for any duration of stay
-     * @param recurringUsers <code>Set</code> with recurring vehicles
+     * @param recurringUsers <code>RecurringUsers</code> with recurring vehicles
      *                       registration numbers, not null
      */
-    void calculateFare(Ticket ticket, List<DiscountType> discounts, Set<String> recurringUsers);
+    void calculateFare(Ticket ticket, List<DiscountType> discounts, RecurringUsers recurringUsers);
 
     /**
      *     Returns <code>List</code> with instances of enum
@@ -72,11 +76,11 @@ public interface FareCalculatorService {
     List<DiscountType> getDiscounts();
 
     /**
-     *     Returns <code>Set</code> with registered in the database vehicle
-     * registration numbers. Never null, could be empty.
+     *     Returns <code>RecurringUsers</code> with registered in the database
+     * vehicle registration numbers. Never null, could be empty.
      *
-     * @return the <code>Set</code> with registered in the database vehicle
-     * registration numbers, never null
+     * @return the <code>RecurringUsers</code> with registered in the database
+     * vehicle registration numbers, never null
      */
-    Set<String> getRecurringUsers();
+    RecurringUsers getRecurringUsers();
 }
\ No newline at end of file
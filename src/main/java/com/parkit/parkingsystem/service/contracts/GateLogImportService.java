@@ -0,0 +1,36 @@
+package com.parkit.parkingsystem.service.contracts;
+
+import com.parkit.parkingsystem.service.GateLogImportReport;
+
+import java.nio.file.Path;
+
+/**
+ *     Import service of the application, loading the gate logs of a former
+ * system as tickets.
+ * <p>
+ *     Consists of a method <code>importGateLog</code>, where a CSV file with
+ * one stay per line, <code>vehicle_reg_number,parking_type,parking_number,
+ * in_time,out_time,price</code>, is streamed into database table ticket.
+ * Times are epoch seconds or ISO local date-times in UTC, out-time and price
+ * may be empty for vehicles still parked, and a first line starting with
+ * <code>vehicle_reg_number</code> is taken as header.
+ *
+ */
+public interface GateLogImportService {
+
+    /**
+     *     Imports the passed gate log, resuming after the last checkpoint
+     * recorded for it. Lines with an invalid registration number, parking
+     * type, spot, time or price are counted and logged as rejected without
+     * stopping the import. Spots of vehicles still parked are marked
+     * unavailable.
+     *
+     * @param gateLog  path of the CSV file
+     * @return instance of <code>GateLogImportReport</code> with the counts
+     * and rate of this run
+     * @throws com.parkit.parkingsystem.exception.UnsuccessfulOperationException
+     * if the file can not be read or a batch fails, in which case the rows
+     * since the last checkpoint are rolled back
+     */
+    GateLogImportReport importGateLog(Path gateLog);
+}
@@ -0,0 +1,41 @@
+package com.parkit.parkingsystem.service.contracts;
+
+/**
+ *     Embedded HTTP server letting gate controllers park vehicles through
+ * the <code>ParkingService</code> without the console shell.
+ * <p>
+ *     Serves <code>POST /entry?type=CAR&amp;plate=AB123</code>,
+ * <code>POST /exit?plate=AB123</code> and <code>GET /quote?plate=AB123</code>,
+ * each answering with the ticket as JSON, and <code>GET /statistics</code>
+ * answering with the occupancy and the entries, exits and revenue of the
+ * day. Requests over the in-flight limit
+ * are answered right away with status 503 and a <code>Retry-After</code>
+ * header instead of being queued.
+ *
+ */
+public interface GateServer {
+
+    /**
+     *     Binds the server to its port and starts serving requests.
+     *
+     * @throws com.parkit.parkingsystem.exception.UnsuccessfulOperationException
+     * if the port can not be bound
+     */
+    void start();
+
+    /**
+     *     Stops accepting requests, waits up to the passed delay for the
+     * requests in flight to finish and releases the threads of the server.
+     *
+     * @param delaySeconds  seconds to wait for requests in flight
+     */
+    void stop(int delaySeconds);
+
+    /**
+     * Returns the port the server is bound to, which is the ephemeral port
+     * chosen by the system when the server was configured with port 0.
+     *
+     * @return port number, -1 when the server is not started
+     */
+    int getPort();
+}
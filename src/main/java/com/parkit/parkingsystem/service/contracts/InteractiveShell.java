@@ -1,17 +1,36 @@
 package com.parkit.parkingsystem.service.contracts;
 
+import com.parkit.parkingsystem.constants.ReportPeriod;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
 /**
  *     The mediator shell between the user and the application.
  * <p>
  *     Consists of a method loadInterface where the main menu is loaded
- * and user can make choice of several actions.
+ * and user can make choice of several actions, and a method serve where the
+ * same actions are offered to gate controllers over HTTP instead, and a
+ * method importGateLog where the history of a former system is loaded, and a
+ * method writeReport where revenue and utilization are reported.
  * <p>
  *     Holds <code>FareCalculatorService</code> variable what is used to create
  * dependency through constructor injection with price calculating function
  * of the app in order to apply various discounts at runtime.
  * <p>
  *     Instantiate with hard dependencies all parts of the application in
- * order to provide the parking functionality.
+ * order to provide the parking functionality. When system property
+ * <code>parkit.journal.dir</code> is set, tickets and parking spots are kept
+ * in an event journal in that directory instead of the database, and menu
+ * and server skip the database schema.
+ * <p>
+ *     When system property <code>parkit.archive.retentionDays</code> is set
+ * and the tickets are kept in the database, menu and server archive the
+ * tickets closed longer ago in the background through an
+ * <code>ArchivalService</code>, in chunks of
+ * <code>parkit.archive.chunkSize</code> tickets separated by
+ * <code>parkit.archive.pauseMillis</code>, every
+ * <code>parkit.archive.intervalMillis</code>.
  *
  */
 public interface InteractiveShell {
@@ -26,4 +45,42 @@ public interface InteractiveShell {
      */
     void loadInterface();
 
+    /**
+     *     Brings the database schema up to date and starts a
+     * <code>GateServer</code> over the parking service of the shell, then
+     * returns while the server keeps the application running. The server is
+     * stopped and the pending writes flushed when the application is shut
+     * down.
+     *
+     * @param port  port the server binds to
+     */
+    void serve(int port);
+
+    /**
+     *     Brings the database schema up to date, imports the passed gate log
+     * through a <code>GateLogImportService</code> and shuts the application
+     * down. Batch size and commit interval are read from system properties
+     * <code>parkit.import.batchSize</code> and
+     * <code>parkit.import.commitInterval</code>.
+     *
+     * @param gateLog  path of the CSV file
+     */
+    void importGateLog(Path gateLog);
+
+    /**
+     *     Brings the database schema up to date, writes the revenue report of
+     * the passed days through a <code>ReportService</code> to the passed file
+     * and shuts the application down. The file is written as JSON when its
+     * name ends with <code>.json</code> and as CSV otherwise. Fetch size and
+     * parallelism are read from system properties
+     * <code>parkit.report.fetchSize</code> and
+     * <code>parkit.report.parallelism</code>.
+     *
+     * @param report  path of the written file
+     * @param from  first day of the report, inclusive
+     * @param to  last day of the report, exclusive
+     * @param period  period the rows are grouped by
+     */
+    void writeReport(Path report, LocalDate from, LocalDate to, ReportPeriod period);
+
 }
@@ -0,0 +1,49 @@
+package com.parkit.parkingsystem.service.contracts;
+
+import com.parkit.parkingsystem.constants.QueryPlanCheck;
+
+import java.util.List;
+
+/**
+ *     Schema service of the application, bringing the database created by
+ * <code>Data.sql</code> up to the latest <code>Migration</code> at startup.
+ * <p>
+ *     Consists of a method <code>migrate</code>, where migrations not yet
+ * recorded in database table schema_version are applied in version order,
+ * and a method <code>verifyQueryPlans</code>, where the statements of
+ * <code>DBConstants</code> listed in <code>QueryPlanCheck</code> are
+ * explained and checked for use of their expected index.
+ */
+public interface MigrationService {
+
+    /**
+     *     Applies pending migrations in ascending version order, recording
+     * each one with the checksum of its statement. Checksums of migrations
+     * applied earlier are validated first, and nothing is applied when one of
+     * them differs.
+     * <p>
+     *     Instances sharing the database migrate one at a time under the lease
+     * of table schema_lock, and a migration whose table or index already
+     * exists is only recorded.
+     *
+     * @return count of migrations applied by this call, 0 if the schema is
+     * already up to date
+     * @throws com.parkit.parkingsystem.exception.UnsuccessfulOperationException
+     * if a checksum differs, the database knows a version newer than the
+     * application, a statement fails, or the lock stays held by another
+     * instance
+     */
+    int migrate();
+
+    /**
+     *     Explains every statement of <code>QueryPlanCheck</code> and returns
+     * the ones whose query plan does not mention the expected index, or that
+     * could not be explained because a table they read is not created yet.
+     *
+     * @return <code>List</code> of failing checks, empty when all statements
+     * use their index
+     * @throws com.parkit.parkingsystem.exception.UnsuccessfulOperationException
+     * if the database could not be reached
+     */
+    List<QueryPlanCheck> verifyQueryPlans();
+}
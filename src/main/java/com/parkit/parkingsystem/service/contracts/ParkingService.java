@@ -1,6 +1,12 @@
 package com.parkit.parkingsystem.service.contracts;
 
+import com.parkit.parkingsystem.constants.ParkingType;
 import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.ParkingStatistics;
+import com.parkit.parkingsystem.model.Ticket;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  *     Service of the application, where all stages to successfully park a
@@ -16,6 +22,19 @@ import com.parkit.parkingsystem.model.ParkingSpot;
  * <code>ParkingSpotDAO</code>, <code>TicketDAO</code> and <code>TimeUtil</code>
  * variables which are used to create dependencies through constructor injection
  * with different parts of the app in order to apply various operations.
+ * The database operations of one entry or exit run as a single unit of work
+ * of the <code>TransactionManager</code>, when one is injected.
+ * <p>
+ *     Methods <code>enter</code> and <code>exit</code>, and their
+ * <code>CompletionStage</code> variants, do the same without console input
+ * or output, taking the vehicle as parameters and returning the ticket, so
+ * gate controllers can call the service directly and concurrently. Method
+ * <code>quote</code> prices a stay without ending it.
+ * <p>
+ *     Method <code>getStatistics</code> reports the occupancy and the
+ * entries, exits and revenue of the day from counters kept up to date by the
+ * entries and exits, and <code>processStatistics</code> prints them. The
+ * occupancy is read once by <code>loadStatistics</code> at startup.
  *
  */
 public interface ParkingService {
@@ -26,6 +45,10 @@ public interface ParkingService {
       * provided details. Ticket is then saved in the database and result is
       * printed on the console.
       * <p>
+      *     The parking spot is claimed atomically together with saving the
+      * ticket, so when a concurrent gate took the spot found earlier, the
+      * next available one of the same type is issued instead.
+      * <p>
       *     All input and database related exceptions are handled internally and
       * caught in global try catch block with appropriate messages printed to
       * the console.
@@ -61,4 +84,118 @@ public interface ParkingService {
       * the console.
       */
      void processExitingVehicle();
+
+     /**
+      *     Parks the passed vehicle, claiming the next available spot of the
+      * passed type and saving its ticket in one unit of work, with no console
+      * input or output.
+      *
+      * @param parkingType  type of the vehicle
+      * @param vehicleRegNumber  registration number of the vehicle
+      * @return the saved <code>Ticket</code> holding the claimed spot, or
+      * flag static instance NOT_FOUND if no spot of the type is available,
+      * never null
+      * @throws IllegalArgumentException if a parameter is missing
+      * @throws com.parkit.parkingsystem.exception.UnsuccessfulOperationException
+      * if a database operation fails
+      */
+     Ticket enter(ParkingType parkingType, String vehicleRegNumber);
+
+     /**
+      *     Lets the passed vehicle out, pricing and updating its ticket and
+      * freeing its spot in one unit of work, with no console input or output.
+      *
+      * @param vehicleRegNumber  registration number of the vehicle
+      * @return the priced <code>Ticket</code>, or flag static instance
+      * NOT_FOUND if the vehicle has no ticket, never null
+      * @throws IllegalArgumentException if the registration number is
+      * missing
+      * @throws com.parkit.parkingsystem.exception.UnsuccessfulOperationException
+      * if a database operation fails
+      */
+     Ticket exit(String vehicleRegNumber);
+
+     /**
+      *     Prices the stay of the passed vehicle as if it exited now, without
+      * updating its ticket, freeing its spot or registering it as recurring
+      * user.
+      *
+      * @param vehicleRegNumber  registration number of the vehicle
+      * @return copy of the <code>Ticket</code> with out-time and price of an
+      * exit now, or flag static instance NOT_FOUND if the vehicle has no
+      * ticket, never null
+      * @throws IllegalArgumentException if the registration number is
+      * missing
+      * @throws com.parkit.parkingsystem.exception.UnsuccessfulOperationException
+      * if a database operation fails
+      */
+     Ticket quote(String vehicleRegNumber);
+
+     /**
+      *     Runs <code>enter</code> on the passed executor. The executor is the
+      * caller's, so it can be sized to the connections available.
+      *
+      * @param parkingType  type of the vehicle
+      * @param vehicleRegNumber  registration number of the vehicle
+      * @param executor  executor running the entry
+      * @return stage completed with the result of <code>enter</code>, or
+      * exceptionally with its exception
+      */
+     CompletionStage<Ticket> enterAsync(ParkingType parkingType, String vehicleRegNumber, Executor executor);
+
+     /**
+      *     Runs <code>exit</code> on the passed executor. The executor is the
+      * caller's, so it can be sized to the connections available.
+      *
+      * @param vehicleRegNumber  registration number of the vehicle
+      * @param executor  executor running the exit
+      * @return stage completed with the result of <code>exit</code>, or
+      * exceptionally with its exception
+      */
+     CompletionStage<Ticket> exitAsync(String vehicleRegNumber, Executor executor);
+
+     /**
+      *     Runs <code>quote</code> on the passed executor, looking up the
+      * ticket and whether the vehicle is a recurring user as two independent
+      * calls, so both database reads are in flight at once.
+      *
+      * @param vehicleRegNumber  registration number of the vehicle
+      * @param executor  executor running the lookups, such as a
+      *                  <code>JdbcExecutor</code>
+      * @return stage completed with the result of <code>quote</code>, or
+      * exceptionally with its exception
+      */
+     CompletionStage<Ticket> quoteAsync(String vehicleRegNumber, Executor executor);
+
+     /**
+      *     Reads the occupancy of every parking type from the parking spots
+      * for <code>getStatistics</code>. Meant to run once at startup, after
+      * every queued write is written and before any entry or exit is served,
+      * as entries and exits made while it runs may be counted twice or not
+      * at all.
+      *
+      * @throws com.parkit.parkingsystem.exception.UnsuccessfulOperationException
+      * if the parking spots can not be read
+      */
+     void loadStatistics();
+
+     /**
+      *     Reports the free and occupied spots per parking type and the
+      * entries, exits and revenue of the current day in UTC from in-memory
+      * counters, in constant time. The occupancy is the one read by
+      * <code>loadStatistics</code>, following the entries and exits of this
+      * service since.
+      *
+      * @return instance of <code>ParkingStatistics</code>, never null
+      * @throws IllegalStateException if <code>loadStatistics</code> has not
+      * run
+      */
+     ParkingStatistics getStatistics();
+
+     /**
+      *     Prints the result of <code>getStatistics</code> on the console. All
+      * database related exceptions are handled internally with appropriate
+      * messages.
+      */
+     void processStatistics();
 }
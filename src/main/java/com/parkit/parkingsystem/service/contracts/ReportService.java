@@ -0,0 +1,36 @@
+package com.parkit.parkingsystem.service.contracts;
+
+import com.parkit.parkingsystem.constants.ReportPeriod;
+import com.parkit.parkingsystem.service.RevenueReport;
+
+import java.time.LocalDate;
+
+/**
+ *     Reporting service of the application, summing up the tickets closed
+ * during a range of days.
+ * <p>
+ *     Consists of a method <code>getRevenueReport</code>, where the tickets
+ * with an out-time in the range, archived or not, are grouped by
+ * <code>ReportPeriod</code> and <code>ParkingType</code> into their count,
+ * revenue, dwell time and the utilization of the spots of their type.
+ * Stays are counted in the period of their exit, days are in UTC.
+ *
+ */
+public interface ReportService {
+
+    /**
+     *     Builds the report of the tickets closed from the first passed day
+     * to the day before the second one. Every period and parking type of the
+     * range has a row, tickets or not.
+     *
+     * @param from  first day of the report, inclusive
+     * @param to  last day of the report, exclusive
+     * @param period  period the rows are grouped by
+     * @return instance of <code>RevenueReport</code>, never null
+     * @throws IllegalArgumentException if a parameter is missing or the range
+     * is empty
+     * @throws com.parkit.parkingsystem.exception.UnsuccessfulOperationException
+     * if the tickets can not be read
+     */
+    RevenueReport getRevenueReport(LocalDate from, LocalDate to, ReportPeriod period);
+}
@@ -0,0 +1,185 @@
+package com.parkit.parkingsystem.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *     Probabilistic set of strings answering whether a string was added with
+ * no false negatives and a bounded rate of false positives, using a fixed
+ * amount of memory whatever the count of strings added.
+ * <p>
+ *     Bit count and hash count are derived from the expected count of
+ * strings and the wanted false positive rate. The <code>k</code> bit
+ * positions of a string are derived from two 64 bit hashes of its UTF-8
+ * bytes, <code>h1 + i * h2</code>. Bits are kept in an
+ * <code>AtomicLongArray</code> and set with compare-and-set, so strings can
+ * be added and checked by many threads without a lock.
+ */
+public class BloomFilter {
+
+    private static final int WORD_BITS = 64;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder insertions = new LongAdder();
+
+    /**
+     *     Creates instance of <code>BloomFilter</code> sized so that after
+     * <code>expectedInsertions</code> strings the false positive rate is
+     * about <code>falsePositiveRate</code>.
+     *
+     * @param expectedInsertions  count of strings expected to be added
+     * @param falsePositiveRate  wanted false positive rate, between 0 and 1
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+
+        if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid bloom filter - insertions " + expectedInsertions
+                    + " false positive rate " + falsePositiveRate);
+        }
+
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + WORD_BITS - 1) / WORD_BITS);
+
+        this.bits = new AtomicLongArray(Math.max(1, words));
+        this.bitCount = (long) bits.length() * WORD_BITS;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Adds the passed string.
+     *
+     * @param value  string to add
+     * @return <code>true</code> if at least one bit changed, meaning the
+     * string was certainly not added before
+     */
+    public boolean put(String value) {
+
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ GOLDEN_RATIO) | 1;
+        boolean changed = false;
+
+        for (int i = 0; i < hashCount; i++) {
+            changed |= set(position(h1, h2, i));
+        }
+
+        if (changed) {
+            insertions.increment();
+        }
+
+        return changed;
+    }
+
+    /**
+     * Checks the passed string.
+     *
+     * @param value  string to check
+     * @return <code>false</code> if the string was certainly never added,
+     * <code>true</code> if it probably was
+     */
+    public boolean mightContain(String value) {
+
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ GOLDEN_RATIO) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+
+            long position = position(h1, h2, i);
+
+            if ((bits.get((int) (position / WORD_BITS)) & (1L << (position % WORD_BITS))) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the memory held by the bits of this filter.
+     *
+     * @return size in bytes
+     */
+    public long getSizeInBytes() {
+        return bitCount / Byte.SIZE;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Returns the count of strings added, as counted by <code>put</code>
+     * calls changing at least one bit.
+     *
+     * @return approximate count of distinct strings added
+     */
+    public long getApproximateInsertions() {
+        return insertions.sum();
+    }
+
+    /**
+     * Estimates the current false positive rate from the count of strings
+     * added, <code>(1 - e^(-k * n / m))^k</code>.
+     *
+     * @return estimated false positive rate between 0 and 1
+     */
+    public double getExpectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.sum() / bitCount), hashCount);
+    }
+
+    private boolean set(long position) {
+
+        int index = (int) (position / WORD_BITS);
+        long mask = 1L << (position % WORD_BITS);
+
+        while (true) {
+
+            long word = bits.get(index);
+
+            if ((word & mask) != 0) {
+                return false;
+            }
+            if (bits.compareAndSet(index, word, word | mask)) {
+                return true;
+            }
+        }
+    }
+
+    private long position(long h1, long h2, int i) {
+
+        return Math.floorMod(h1 + i * h2, bitCount);
+    }
+
+    private static long hash(String value) {
+
+        long hash = FNV_OFFSET_BASIS;
+
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    private static long mix(long hash) {
+
+        long mixed = hash;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xff51afd7ed558ccdL;
+        mixed ^= mixed >>> 33;
+        mixed *= 0xc4ceb9fe1a85ec53L;
+        mixed ^= mixed >>> 33;
+
+        return mixed;
+    }
+}
@@ -0,0 +1,94 @@
+package com.parkit.parkingsystem.configTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.constants.DataBaseType;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.ParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.TicketDAOImpl;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Tag("EmbeddedDataBaseConfigTests")
+@DisplayName("Unit tests for EmbeddedDataBaseConfigImpl class")
+public class EmbeddedDataBaseConfigTests {
+
+    @Test
+    public void get_Connection_Should_BootstrapSchemaFromDataSql_When_FirstConnectionIsRequested()
+            throws SQLException, ClassNotFoundException {
+
+        //arrange
+        EmbeddedDataBaseConfigImpl dataBaseConfig = new EmbeddedDataBaseConfigImpl("bootstrapTest", "test");
+
+        //act
+        try (Connection connection = dataBaseConfig.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select count(*) from parking")) {
+
+            //assert
+            Assertions.assertTrue(rs.next());
+            Assertions.assertEquals(5, rs.getInt(1));
+        }
+    }
+
+    @Test
+    public void get_Connection_Should_ShareDatabase_When_InstancesUseSameName()
+            throws SQLException, ClassNotFoundException {
+
+        //arrange
+        ParkingSpotDAOImpl firstDAO = new ParkingSpotDAOImpl(new EmbeddedDataBaseConfigImpl("sharedTest", "prod"));
+        ParkingSpotDAOImpl secondDAO = new ParkingSpotDAOImpl(new EmbeddedDataBaseConfigImpl("sharedTest", "prod"));
+
+        //act
+        firstDAO.updateParking(new ParkingSpot(1, ParkingType.CAR, false));
+
+        //assert
+        Assertions.assertEquals(2, secondDAO.getNextAvailableSlot(ParkingType.CAR));
+    }
+
+    @Test
+    public void dao_Should_SaveAndGetTicket_When_RunningOnEmbeddedDatabase() {
+
+        //arrange
+        TicketDAOImpl ticketDAO = new TicketDAOImpl(new EmbeddedDataBaseConfigImpl("ticketTest", "prod"));
+        Ticket ticket = new Ticket();
+        ticket.setParkingSpot(new ParkingSpot(4, ParkingType.BIKE, false));
+        ticket.setVehicleRegNumber("ABCDEF");
+        ticket.setInTime(1_600_000_000L);
+
+        //act
+        ticketDAO.saveTicket(ticket);
+        Ticket saved = ticketDAO.getTicket("ABCDEF");
+
+        //assert
+        Assertions.assertEquals(4, saved.getParkingSpot().getId());
+        Assertions.assertEquals(ParkingType.BIKE, saved.getParkingSpot().getParkingType());
+        Assertions.assertEquals(1_600_000_000L, saved.getInTime());
+        Assertions.assertEquals(Ticket.NOT_FOUND, ticketDAO.getTicket("UNKNOWN"));
+    }
+
+    @Test
+    public void selected_Should_ReturnEmbedded_When_PropertyIsSetToEmbedded() {
+
+        //arrange
+        String previous = System.getProperty(DataBaseType.PROPERTY);
+        System.setProperty(DataBaseType.PROPERTY, "embedded");
+
+        try {
+            //act & assert
+            Assertions.assertEquals(DataBaseType.EMBEDDED, DataBaseType.selected());
+            Assertions.assertTrue(DataBaseType.selected().createDataBaseConfig() instanceof EmbeddedDataBaseConfigImpl);
+        } finally {
+            if (previous == null) {
+                System.clearProperty(DataBaseType.PROPERTY);
+            } else {
+                System.setProperty(DataBaseType.PROPERTY, previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.parkit.parkingsystem.configTests;
+
+import com.parkit.parkingsystem.config.JdbcExecutor;
+import com.parkit.parkingsystem.config.JdbcExecutorMetrics;
+import com.parkit.parkingsystem.config.PooledDataBaseConfigImpl;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("JdbcExecutorTests")
+@DisplayName("Unit tests for JdbcExecutor class")
+public class JdbcExecutorTests {
+
+    @Mock
+    private PooledDataBaseConfigImpl pooledDataBaseConfig;
+
+    private JdbcExecutor jdbcExecutor;
+
+    @AfterEach
+    public void tearDownPerTest() {
+
+        if (jdbcExecutor != null) {
+            jdbcExecutor.close();
+        }
+    }
+
+    @Test
+    public void execute_Should_RunCallOnOwnThread_When_CallIsSubmitted() throws Exception {
+
+        //arrange
+        when(pooledDataBaseConfig.getMaxSize()).thenReturn(3);
+        jdbcExecutor = new JdbcExecutor.Builder(pooledDataBaseConfig).build();
+
+        //act
+        String thread = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), jdbcExecutor)
+                .get(5, TimeUnit.SECONDS);
+
+        //assert
+        Assertions.assertTrue(thread.startsWith("jdbc-executor-"));
+        Assertions.assertEquals(3, jdbcExecutor.getMetrics().getThreads());
+    }
+
+    @Test
+    public void execute_Should_FreeRoomOfCall_When_CallFails() throws Exception {
+
+        //arrange
+        jdbcExecutor = new JdbcExecutor.Builder(null)
+                .withThreads(1)
+                .withQueueCapacity(0)
+                .withEnqueueTimeoutMillis(5_000)
+                .build();
+        CompletableFuture<Object> failed = CompletableFuture.supplyAsync(() -> {
+            throw new UnsuccessfulOperationException("Failed");
+        }, jdbcExecutor);
+
+        //act
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                () -> failed.get(5, TimeUnit.SECONDS));
+        Integer result = CompletableFuture.supplyAsync(() -> 2, jdbcExecutor).get(5, TimeUnit.SECONDS);
+
+        //assert
+        Assertions.assertTrue(e.getCause() instanceof UnsuccessfulOperationException);
+        Assertions.assertEquals(2, result);
+        Assertions.assertEquals(0, jdbcExecutor.getMetrics().getRejected());
+    }
+
+    @Test
+    public void execute_Should_RejectCall_When_ThreadsAndQueueAreFull() throws Exception {
+
+        //arrange
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        jdbcExecutor = new JdbcExecutor.Builder(null)
+                .withThreads(1)
+                .withQueueCapacity(1)
+                .withEnqueueTimeoutMillis(0)
+                .build();
+        jdbcExecutor.execute(() -> {
+            running.countDown();
+            awaitQuietly(release);
+        });
+        Assertions.assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> queued = CompletableFuture.supplyAsync(() -> 1, jdbcExecutor);
+
+        //act & assert
+        Assertions.assertThrows(RejectedExecutionException.class,
+                () -> CompletableFuture.supplyAsync(() -> 2, jdbcExecutor));
+        Assertions.assertThrows(RejectedExecutionException.class, () -> jdbcExecutor.execute(() -> { }));
+        release.countDown();
+        Assertions.assertEquals(1, queued.get(5, TimeUnit.SECONDS));
+        JdbcExecutorMetrics metrics = jdbcExecutor.getMetrics();
+        Assertions.assertEquals(2, metrics.getSubmitted());
+        Assertions.assertEquals(2, metrics.getRejected());
+    }
+
+    @Test
+    public void execute_Should_WaitForRoom_When_CallFinishesBeforeTimeout() throws Exception {
+
+        //arrange
+        CountDownLatch running = new CountDownLatch(1);
+        jdbcExecutor = new JdbcExecutor.Builder(null)
+                .withThreads(1)
+                .withQueueCapacity(0)
+                .withEnqueueTimeoutMillis(5_000)
+                .build();
+        jdbcExecutor.execute(() -> {
+            running.countDown();
+            sleepQuietly(100);
+        });
+        Assertions.assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        //act
+        Integer result = CompletableFuture.supplyAsync(() -> 2, jdbcExecutor).get(5, TimeUnit.SECONDS);
+
+        //assert
+        JdbcExecutorMetrics metrics = jdbcExecutor.getMetrics();
+        Assertions.assertEquals(2, result);
+        Assertions.assertEquals(1, metrics.getThrottled());
+        Assertions.assertEquals(0, metrics.getRejected());
+        Assertions.assertTrue(metrics.getMaxEnqueueWaitNanos() > 0);
+    }
+
+    @Test
+    public void build_Should_ThrowIllegalArgumentException_When_PoolIsMissing() {
+
+        //act & assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JdbcExecutor.Builder(null).build());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
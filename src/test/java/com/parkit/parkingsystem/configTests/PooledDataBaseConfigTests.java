@@ -0,0 +1,328 @@
+package com.parkit.parkingsystem.configTests;
+
+import com.parkit.parkingsystem.config.ConnectionPoolMetrics;
+import com.parkit.parkingsystem.config.PooledDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.constants.DBConstants;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("PooledDataBaseConfigTests")
+@DisplayName("Unit tests for PooledDataBaseConfigImpl class")
+public class PooledDataBaseConfigTests {
+
+    @Mock
+    private DataBaseConfig connectionFactory;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Connection secondConnection;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    @Mock
+    private PreparedStatement secondPreparedStatement;
+
+    private PooledDataBaseConfigImpl pool;
+
+    @AfterEach
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Nested
+    @Tag("methodGetConnectionTests")
+    @DisplayName("Tests for method getConnection in PooledDataBaseConfigImpl class")
+    public class GetConnectionTests {
+
+        @Test
+        public void get_Connection_Should_ReusePhysicalConnection_When_PreviousBorrowWasClosed()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory).build();
+            when(connectionFactory.getConnection()).thenReturn(connection);
+            when(connection.getAutoCommit()).thenReturn(true);
+
+            //act
+            pool.getConnection().close();
+            pool.getConnection().close();
+
+            //assert
+            ConnectionPoolMetrics metrics = pool.getMetrics();
+            Assertions.assertEquals(2, metrics.getBorrowCount());
+            Assertions.assertEquals(1, metrics.getCreatedCount());
+            Assertions.assertEquals(1, metrics.getIdleConnections());
+            Assertions.assertEquals(0, metrics.getActiveConnections());
+            verify(connectionFactory, times(1)).getConnection();
+            verify(connection, never()).close();
+        }
+
+        @Test
+        public void get_Connection_Should_ThrowException_When_PoolIsExhausted()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory)
+                    .withMinSize(0)
+                    .withMaxSize(1)
+                    .withBorrowTimeoutMillis(10)
+                    .build();
+            when(connectionFactory.getConnection()).thenReturn(connection);
+            Connection borrowed = pool.getConnection();
+
+            //act & assert
+            Assertions.assertThrows(SQLTimeoutException.class, () -> pool.getConnection());
+            Assertions.assertEquals(1, pool.getMetrics().getBorrowTimeoutCount());
+            Assertions.assertEquals(1, pool.getMetrics().getActiveConnections());
+            Assertions.assertFalse(borrowed.isClosed());
+        }
+
+        @Test
+        public void get_Connection_Should_ReplaceIdleConnection_When_ValidationFails()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory)
+                    .withValidationBypassMillis(0)
+                    .build();
+            when(connectionFactory.getConnection()).thenReturn(connection, secondConnection);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.isValid(anyInt())).thenReturn(false);
+            pool.getConnection().close();
+
+            //act
+            Connection borrowed = pool.getConnection();
+
+            //assert
+            Assertions.assertEquals(1, pool.getMetrics().getValidationFailureCount());
+            Assertions.assertEquals(2, pool.getMetrics().getCreatedCount());
+            verify(connection, times(1)).close();
+            borrowed.createStatement();
+            verify(secondConnection, times(1)).createStatement();
+        }
+
+        @Test
+        public void get_Connection_Should_ThrowException_When_LeaseIsUsedAfterClose()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory).build();
+            when(connectionFactory.getConnection()).thenReturn(connection);
+            when(connection.getAutoCommit()).thenReturn(true);
+            Connection borrowed = pool.getConnection();
+            borrowed.close();
+
+            //act & assert
+            Assertions.assertTrue(borrowed.isClosed());
+            Assertions.assertThrows(SQLException.class, borrowed::createStatement);
+        }
+
+        @Test
+        public void get_Connection_Should_RollbackOpenTransaction_When_ConnectionIsReturned()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory).build();
+            when(connectionFactory.getConnection()).thenReturn(connection);
+            when(connection.getAutoCommit()).thenReturn(false);
+
+            //act
+            pool.getConnection().close();
+
+            //assert
+            verify(connection, times(1)).rollback();
+            verify(connection, times(1)).setAutoCommit(true);
+        }
+    }
+
+    @Nested
+    @Tag("methodMaintainTests")
+    @DisplayName("Tests for method maintain in PooledDataBaseConfigImpl class")
+    public class MaintainTests {
+
+        @Test
+        public void maintain_Should_EvictIdleConnection_When_IdleTimeoutExpired()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory)
+                    .withMinSize(0)
+                    .withIdleTimeoutMillis(0)
+                    .build();
+            when(connectionFactory.getConnection()).thenReturn(connection);
+            when(connection.getAutoCommit()).thenReturn(true);
+            pool.getConnection().close();
+
+            //act
+            pool.maintain();
+
+            //assert
+            Assertions.assertEquals(1, pool.getMetrics().getEvictedCount());
+            Assertions.assertEquals(0, pool.getMetrics().getIdleConnections());
+            verify(connection, times(1)).close();
+        }
+
+        @Test
+        public void maintain_Should_FillPoolToMinimumSize_When_PoolHasFewerConnections()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory)
+                    .withMinSize(2)
+                    .build();
+            when(connectionFactory.getConnection()).thenReturn(connection, secondConnection);
+
+            //act
+            pool.maintain();
+
+            //assert
+            Assertions.assertEquals(2, pool.getMetrics().getIdleConnections());
+            verify(connectionFactory, times(2)).getConnection();
+        }
+
+        @Test
+        public void maintain_Should_ReportLeak_When_ConnectionIsHeldLongerThanThreshold()
+                throws SQLException, ClassNotFoundException, InterruptedException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory)
+                    .withMinSize(0)
+                    .withLeakThresholdMillis(1)
+                    .build();
+            when(connectionFactory.getConnection()).thenReturn(connection);
+            pool.getConnection();
+            Thread.sleep(5);
+
+            //act
+            pool.maintain();
+            pool.maintain();
+
+            //assert
+            Assertions.assertEquals(1, pool.getMetrics().getLeakCount());
+        }
+    }
+
+    @Nested
+    @Tag("statementCacheTests")
+    @DisplayName("Tests for statement caching of connections from PooledDataBaseConfigImpl class")
+    public class StatementCacheTests {
+
+        @Test
+        public void prepare_Statement_Should_ReuseStatement_When_SameSqlIsPreparedAgain()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory).build();
+            when(connectionFactory.getConnection()).thenReturn(connection);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.prepareStatement(DBConstants.GET_TICKET)).thenReturn(preparedStatement);
+
+            //act
+            for (int i = 0; i < 3; i++) {
+                try (Connection con = pool.getConnection();
+                     PreparedStatement ps = con.prepareStatement(DBConstants.GET_TICKET)) {
+                    ps.setString(1, "ABCDEF");
+                }
+            }
+
+            //assert
+            Assertions.assertEquals(2, pool.getMetrics().getStatementCacheHits());
+            Assertions.assertEquals(1, pool.getMetrics().getStatementCacheMisses());
+            verify(connection, times(1)).prepareStatement(DBConstants.GET_TICKET);
+            verify(preparedStatement, times(3)).setString(1, "ABCDEF");
+            verify(preparedStatement, times(3)).clearParameters();
+            verify(preparedStatement, never()).close();
+        }
+
+        @Test
+        public void prepare_Statement_Should_CacheApart_When_StatementReturnsGeneratedKeys()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory).build();
+            when(connectionFactory.getConnection()).thenReturn(connection);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.prepareStatement(DBConstants.SAVE_TICKET, Statement.RETURN_GENERATED_KEYS))
+                    .thenReturn(preparedStatement);
+            when(connection.prepareStatement(DBConstants.SAVE_TICKET)).thenReturn(secondPreparedStatement);
+
+            //act
+            for (int i = 0; i < 2; i++) {
+                try (Connection con = pool.getConnection();
+                     PreparedStatement withKeys = con.prepareStatement(DBConstants.SAVE_TICKET,
+                             Statement.RETURN_GENERATED_KEYS);
+                     PreparedStatement withoutKeys = con.prepareStatement(DBConstants.SAVE_TICKET)) {
+                    withKeys.executeUpdate();
+                    withoutKeys.executeUpdate();
+                }
+            }
+
+            //assert
+            Assertions.assertEquals(2, pool.getMetrics().getStatementCacheHits());
+            Assertions.assertEquals(2, pool.getMetrics().getStatementCacheMisses());
+            verify(preparedStatement, times(2)).executeUpdate();
+            verify(secondPreparedStatement, times(2)).executeUpdate();
+        }
+
+        @Test
+        public void prepare_Statement_Should_ReturnUncachedStatement_When_SameSqlIsAlreadyCheckedOut()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory).build();
+            when(connectionFactory.getConnection()).thenReturn(connection);
+            when(connection.prepareStatement(DBConstants.GET_TICKET))
+                    .thenReturn(preparedStatement, secondPreparedStatement);
+            Connection con = pool.getConnection();
+
+            //act
+            PreparedStatement first = con.prepareStatement(DBConstants.GET_TICKET);
+            PreparedStatement second = con.prepareStatement(DBConstants.GET_TICKET);
+            second.close();
+
+            //assert
+            Assertions.assertFalse(first.isClosed());
+            Assertions.assertEquals(2, pool.getMetrics().getStatementCacheMisses());
+            verify(secondPreparedStatement, times(1)).close();
+        }
+
+        @Test
+        public void prepare_Statement_Should_CloseLeastRecentlyUsedStatement_When_CacheIsFull()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            pool = new PooledDataBaseConfigImpl.Builder(connectionFactory)
+                    .withStatementCacheSize(1)
+                    .build();
+            when(connectionFactory.getConnection()).thenReturn(connection);
+            when(connection.prepareStatement(DBConstants.GET_TICKET)).thenReturn(preparedStatement);
+            when(connection.prepareStatement(DBConstants.UPDATE_TICKET)).thenReturn(secondPreparedStatement);
+            Connection con = pool.getConnection();
+
+            //act
+            con.prepareStatement(DBConstants.GET_TICKET).close();
+            con.prepareStatement(DBConstants.UPDATE_TICKET).close();
+
+            //assert
+            verify(preparedStatement, times(1)).close();
+            verify(secondPreparedStatement, never()).close();
+        }
+    }
+}
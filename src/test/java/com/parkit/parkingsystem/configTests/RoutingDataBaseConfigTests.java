@@ -0,0 +1,201 @@
+package com.parkit.parkingsystem.configTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.RoutingDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.TransactionalDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.constants.DBConstants;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.ParkingSpotDAOImpl;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("RoutingDataBaseConfigTests")
+@DisplayName("Unit tests for RoutingDataBaseConfigImpl class")
+public class RoutingDataBaseConfigTests {
+
+    private static int databaseCount;
+
+    @Mock
+    private DataBaseConfig slowReplica;
+
+    @Mock
+    private Connection slowConnection;
+
+    @Mock
+    private PreparedStatement slowStatement;
+
+    private EmbeddedDataBaseConfigImpl primary;
+    private EmbeddedDataBaseConfigImpl replica;
+    private RoutingDataBaseConfigImpl router;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        databaseCount++;
+        primary = new EmbeddedDataBaseConfigImpl("routingPrimary" + databaseCount, "prod");
+        replica = new EmbeddedDataBaseConfigImpl("routingReplica" + databaseCount, "prod");
+
+        // replica lags behind: spot 1 is already taken there
+        new ParkingSpotDAOImpl(replica).updateParking(new ParkingSpot(1, ParkingType.CAR, false));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (router != null) {
+            router.close();
+        }
+    }
+
+    @Test
+    public void get_Connection_Should_RouteReadToReplica_When_ThreadDidNotWrite() {
+
+        //arrange
+        router = new RoutingDataBaseConfigImpl.Builder(primary).withReplica(replica).build();
+        ParkingSpotDAOImpl parkingSpotDAO = new ParkingSpotDAOImpl(router);
+
+        //act & assert
+        Assertions.assertEquals(2, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        Assertions.assertEquals(1, router.getMetrics().getReplicaReads());
+        Assertions.assertEquals(0, router.getMetrics().getPrimaryReads());
+    }
+
+    @Test
+    public void get_Connection_Should_RouteWriteToPrimary_When_StatementIsUpdate() {
+
+        //arrange
+        router = new RoutingDataBaseConfigImpl.Builder(primary).withReplica(replica).withPinMillis(0).build();
+        ParkingSpotDAOImpl parkingSpotDAO = new ParkingSpotDAOImpl(router);
+
+        //act
+        parkingSpotDAO.updateParking(new ParkingSpot(4, ParkingType.BIKE, false));
+
+        //assert
+        Assertions.assertEquals(5, new ParkingSpotDAOImpl(primary).getNextAvailableSlot(ParkingType.BIKE));
+        Assertions.assertEquals(4, new ParkingSpotDAOImpl(replica).getNextAvailableSlot(ParkingType.BIKE));
+        Assertions.assertEquals(1, router.getMetrics().getWrites());
+    }
+
+    @Test
+    public void get_Connection_Should_PinReadsToPrimary_When_ThreadWroteRecently() {
+
+        //arrange
+        router = new RoutingDataBaseConfigImpl.Builder(primary).withReplica(replica).withPinMillis(60_000).build();
+        ParkingSpotDAOImpl parkingSpotDAO = new ParkingSpotDAOImpl(router);
+        parkingSpotDAO.updateParking(new ParkingSpot(2, ParkingType.CAR, false));
+
+        //act & assert
+        Assertions.assertEquals(1, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        Assertions.assertEquals(1, router.getMetrics().getPinnedReads());
+        Assertions.assertEquals(0, router.getMetrics().getReplicaReads());
+    }
+
+    @Test
+    public void get_Connection_Should_ReadFromPrimary_When_ReadIsInTransaction() throws SQLException,
+            ClassNotFoundException {
+
+        //arrange
+        router = new RoutingDataBaseConfigImpl.Builder(primary).withReplica(replica).withPinMillis(0).build();
+        TransactionalDataBaseConfigImpl transactional = new TransactionalDataBaseConfigImpl(router);
+        ParkingSpotDAOImpl parkingSpotDAO = new ParkingSpotDAOImpl(transactional);
+
+        //act
+        int slot = transactional.inTransaction(() -> parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+
+        //assert
+        Assertions.assertEquals(1, slot);
+        Assertions.assertEquals(0, router.getMetrics().getReplicaReads());
+    }
+
+    @Test
+    public void get_Connection_Should_ReadFromPrimary_When_ReplicaIsDown() throws SQLException, ClassNotFoundException {
+
+        //arrange
+        when(slowReplica.getConnection()).thenThrow(SQLException.class);
+        router = new RoutingDataBaseConfigImpl.Builder(primary).withReplica(slowReplica).build();
+        ParkingSpotDAOImpl parkingSpotDAO = new ParkingSpotDAOImpl(router);
+
+        //act & assert
+        Assertions.assertEquals(1, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        Assertions.assertEquals(1, router.getMetrics().getReplicaFailures());
+    }
+
+    @Test
+    public void get_Connection_Should_HedgeReadToPrimary_When_ReplicaIsSlow() throws SQLException, ClassNotFoundException {
+
+        //arrange
+        when(slowReplica.getConnection()).thenReturn(slowConnection);
+        when(slowConnection.prepareStatement(DBConstants.GET_NEXT_PARKING_SPOT)).thenReturn(slowStatement);
+        when(slowStatement.executeQuery()).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            throw new SQLException("Replica too slow");
+        });
+        router = new RoutingDataBaseConfigImpl.Builder(primary)
+                .withReplica(slowReplica)
+                .withHedgeDelayMillis(20)
+                .build();
+        ParkingSpotDAOImpl parkingSpotDAO = new ParkingSpotDAOImpl(router);
+
+        //act
+        long start = System.nanoTime();
+        int slot = parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        //assert
+        Assertions.assertEquals(1, slot);
+        Assertions.assertTrue(elapsedMillis < 2_000);
+        Assertions.assertEquals(1, router.getMetrics().getHedgedReads());
+        Assertions.assertEquals(1, router.getMetrics().getHedgeWins());
+        verify(slowStatement, times(1)).setString(1, ParkingType.CAR.toString());
+        verify(slowStatement, times(1)).cancel();
+    }
+
+    @Test
+    public void get_Connection_Should_CloseLosingReadAndUseFreshStatement_When_PrimaryWonHedge()
+            throws SQLException, ClassNotFoundException {
+
+        //arrange
+        PreparedStatement freshStatement = mock(PreparedStatement.class);
+        ResultSet lateResult = mock(ResultSet.class);
+        when(slowReplica.getConnection()).thenReturn(slowConnection);
+        when(slowConnection.prepareStatement(DBConstants.GET_NEXT_PARKING_SPOT))
+                .thenReturn(slowStatement, freshStatement);
+        when(slowStatement.executeQuery()).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return lateResult;
+        });
+        router = new RoutingDataBaseConfigImpl.Builder(primary)
+                .withReplica(slowReplica)
+                .withHedgeDelayMillis(20)
+                .build();
+
+        //act
+        try (Connection con = router.getConnection();
+             PreparedStatement ps = con.prepareStatement(DBConstants.GET_NEXT_PARKING_SPOT)) {
+
+            ps.setString(1, ParkingType.CAR.toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                Assertions.assertTrue(rs.next());
+            }
+            ps.setString(1, ParkingType.BIKE.toString());
+        }
+
+        //assert
+        verify(lateResult, timeout(2_000)).close();
+        verify(slowStatement, timeout(2_000)).close();
+        verify(freshStatement, times(1)).setString(1, ParkingType.CAR.toString());
+        verify(freshStatement, times(1)).setString(1, ParkingType.BIKE.toString());
+        verify(freshStatement, times(1)).close();
+    }
+}
@@ -0,0 +1,166 @@
+package com.parkit.parkingsystem.configTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.TransactionalDataBaseConfigImpl;
+import com.parkit.parkingsystem.constants.DiscountType;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.ParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.TicketDAOImpl;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import com.parkit.parkingsystem.service.FareCalculatorServiceImpl;
+import com.parkit.parkingsystem.service.ParkingServiceImpl;
+import com.parkit.parkingsystem.util.contracts.InputReaderUtil;
+import com.parkit.parkingsystem.util.contracts.TimeUtil;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("TransactionalDataBaseConfigTests")
+@DisplayName("Unit tests for TransactionalDataBaseConfigImpl class")
+public class TransactionalDataBaseConfigTests {
+
+    private static int databaseCount;
+
+    @Mock
+    private InputReaderUtil inputReaderUtil;
+
+    @Mock
+    private TimeUtil timeUtil;
+
+    private TransactionalDataBaseConfigImpl dataBaseConfig;
+    private ParkingSpotDAOImpl parkingSpotDAO;
+    private TicketDAOImpl ticketDAO;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        databaseCount++;
+        dataBaseConfig = new TransactionalDataBaseConfigImpl(
+                new EmbeddedDataBaseConfigImpl("transactionalTest" + databaseCount, "prod"));
+        parkingSpotDAO = new ParkingSpotDAOImpl(dataBaseConfig);
+        ticketDAO = new TicketDAOImpl(dataBaseConfig);
+    }
+
+    @Test
+    public void in_Transaction_Should_CommitOnce_When_VehicleEnters() {
+
+        //arrange
+        when(inputReaderUtil.readSelection()).thenReturn(1);
+        when(inputReaderUtil.readVehicleRegistrationNumber()).thenReturn("ABCDEF");
+        when(timeUtil.getTimeInSeconds()).thenReturn(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC));
+        ParkingServiceImpl parkingService = new ParkingServiceImpl(inputReaderUtil, parkingSpotDAO, ticketDAO,
+                timeUtil, new FareCalculatorServiceImpl.Builder(DiscountType.P_NO_DISCOUNT).build(), dataBaseConfig);
+
+        //act
+        parkingService.processIncomingVehicle();
+
+        //assert
+        Assertions.assertEquals(1, dataBaseConfig.getMetrics().getTransactions());
+        Assertions.assertEquals(1, dataBaseConfig.getMetrics().getCommits());
+        Assertions.assertEquals(1, dataBaseConfig.getMetrics().getAutoCommitConnections());
+        Assertions.assertEquals(2, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        Assertions.assertEquals(1, ticketDAO.getTicket("ABCDEF").getParkingSpot().getId());
+    }
+
+    @Test
+    public void in_Transaction_Should_RollBackBothDAOs_When_SecondCallFails() {
+
+        //arrange
+        Ticket ticket = new Ticket();
+        ticket.setParkingSpot(new ParkingSpot(1, ParkingType.CAR, false));
+        ticket.setVehicleRegNumber("TOO-LONG-TO-BE-STORED");
+        ticket.setInTime(LocalDateTime.now().toEpochSecond(ZoneOffset.UTC));
+        ticket.setOutTime(-1L);
+
+        //act
+        Assertions.assertThrows(UnsuccessfulOperationException.class, () -> dataBaseConfig.inTransaction(() -> {
+            parkingSpotDAO.updateParking(ticket.getParkingSpot());
+            return ticketDAO.saveTicket(ticket);
+        }));
+
+        //assert
+        Assertions.assertEquals(0, dataBaseConfig.getMetrics().getCommits());
+        Assertions.assertEquals(1, dataBaseConfig.getMetrics().getRollbacks());
+        Assertions.assertEquals(1, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+    }
+
+    @Test
+    public void in_Transaction_Should_JoinRunningUnitOfWork_When_Nested() {
+
+        //act
+        dataBaseConfig.inTransaction(() -> {
+            parkingSpotDAO.updateParking(new ParkingSpot(1, ParkingType.CAR, false));
+            return dataBaseConfig.inTransaction(() ->
+                    parkingSpotDAO.updateParking(new ParkingSpot(2, ParkingType.CAR, false)));
+        });
+
+        //assert
+        Assertions.assertEquals(1, dataBaseConfig.getMetrics().getTransactions());
+        Assertions.assertEquals(1, dataBaseConfig.getMetrics().getCommits());
+        Assertions.assertEquals(0, dataBaseConfig.getMetrics().getAutoCommitConnections());
+        Assertions.assertEquals(3, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+    }
+
+    @Test
+    public void after_Commit_Should_RunActionOnceCommitted_When_CalledInUnitOfWork() {
+
+        //arrange
+        List<String> events = new ArrayList<>();
+
+        //act
+        dataBaseConfig.inTransaction(() -> {
+            dataBaseConfig.afterCommit(() -> events.add("registered"));
+            events.add("work done");
+            return true;
+        });
+
+        //assert
+        Assertions.assertEquals(Arrays.asList("work done", "registered"), events);
+    }
+
+    @Test
+    public void after_Commit_Should_DropAction_When_UnitOfWorkRollsBack() {
+
+        //arrange
+        List<String> events = new ArrayList<>();
+
+        //act
+        Assertions.assertThrows(IllegalStateException.class, () -> dataBaseConfig.inTransaction(() -> {
+            dataBaseConfig.afterCommit(() -> events.add("registered"));
+            throw new IllegalStateException("Entry failed");
+        }));
+        dataBaseConfig.afterCommit(() -> events.add("outside"));
+
+        //assert
+        Assertions.assertEquals(Collections.singletonList("outside"), events);
+        Assertions.assertEquals(1, dataBaseConfig.getMetrics().getRollbacks());
+    }
+
+    @Test
+    public void get_Connection_Should_ReturnAutoCommitConnection_When_NoUnitOfWorkRuns()
+            throws SQLException, ClassNotFoundException {
+
+        //act
+        try (Connection connection = dataBaseConfig.getConnection()) {
+
+            //assert
+            Assertions.assertTrue(connection.getAutoCommit());
+            Assertions.assertEquals(1, dataBaseConfig.getMetrics().getAutoCommitConnections());
+        }
+    }
+}
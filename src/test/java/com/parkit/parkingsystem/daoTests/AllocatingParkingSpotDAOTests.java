@@ -0,0 +1,204 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.PooledDataBaseConfigImpl;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.AllocatingParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.ParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
+import com.parkit.parkingsystem.exception.PendingWritesException;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("AllocatingParkingSpotDAOTests")
+@DisplayName("Unit tests for AllocatingParkingSpotDAOImpl class")
+public class AllocatingParkingSpotDAOTests {
+
+    @Mock
+    private ParkingSpotDAO parkingSpotDAO;
+
+    private AllocatingParkingSpotDAOImpl allocatingParkingSpotDAO;
+    private List<ParkingSpot> parkingSpots;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        allocatingParkingSpotDAO = new AllocatingParkingSpotDAOImpl(parkingSpotDAO);
+        parkingSpots = Arrays.asList(
+                new ParkingSpot(1, ParkingType.CAR, false),
+                new ParkingSpot(2, ParkingType.CAR, true),
+                new ParkingSpot(3, ParkingType.CAR, true),
+                new ParkingSpot(4, ParkingType.BIKE, true),
+                new ParkingSpot(5, ParkingType.BIKE, true));
+    }
+
+    @Test
+    public void claim_NextAvailableSlot_Should_AllocateInMemoryAndWriteToDatabase_When_SpotIsFree() {
+
+        //arrange
+        when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+        when(parkingSpotDAO.claimParking(any(ParkingSpot.class))).thenReturn(true);
+
+        //act
+        int first = allocatingParkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR);
+        int second = allocatingParkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR);
+
+        //assert
+        Assertions.assertEquals(2, first);
+        Assertions.assertEquals(3, second);
+        verify(parkingSpotDAO, times(1)).claimParking(new ParkingSpot(2, ParkingType.CAR, false));
+        verify(parkingSpotDAO, times(1)).claimParking(new ParkingSpot(3, ParkingType.CAR, false));
+        verify(parkingSpotDAO, times(1)).getParkingSpots();
+        verifyNoMoreInteractions(parkingSpotDAO);
+    }
+
+    @Test
+    public void claim_NextAvailableSlot_Should_GiveSpotBack_When_DatabaseWriteFails() {
+
+        //arrange
+        when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+        when(parkingSpotDAO.claimParking(any(ParkingSpot.class))).thenThrow(UnsuccessfulOperationException.class);
+
+        //act
+        Assertions.assertThrows(UnsuccessfulOperationException.class,
+                () -> allocatingParkingSpotDAO.claimNextAvailableSlot(ParkingType.BIKE));
+
+        //assert
+        Assertions.assertEquals(4, allocatingParkingSpotDAO.getNextAvailableSlot(ParkingType.BIKE));
+    }
+
+    @Test
+    public void claim_NextAvailableSlot_Should_TryNextSpot_When_DatabaseReportsSpotOccupied() {
+
+        //arrange
+        when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+        when(parkingSpotDAO.claimParking(new ParkingSpot(2, ParkingType.CAR, false))).thenReturn(false);
+        when(parkingSpotDAO.claimParking(new ParkingSpot(3, ParkingType.CAR, false))).thenReturn(true);
+
+        //act & assert
+        Assertions.assertEquals(3, allocatingParkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR));
+        verify(parkingSpotDAO, never()).getNextAvailableSlot(ParkingType.CAR);
+    }
+
+    @Test
+    public void claim_NextAvailableSlot_Should_SkipAndGiveBackSpot_When_ItsReleaseIsQueued() {
+
+        //arrange
+        when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+        when(parkingSpotDAO.claimParking(new ParkingSpot(2, ParkingType.CAR, false)))
+                .thenThrow(new PendingWritesException("Parking spot 2 not available"));
+        when(parkingSpotDAO.claimParking(new ParkingSpot(3, ParkingType.CAR, false))).thenReturn(true);
+
+        //act
+        int claimed = allocatingParkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR);
+
+        //assert
+        Assertions.assertEquals(3, claimed);
+        Assertions.assertEquals(2, allocatingParkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+    }
+
+    @Test
+    public void claim_NextAvailableSlot_Should_ThrowPendingWritesException_When_OnlyQueuedReleasesAreFree() {
+
+        //arrange
+        when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+        when(parkingSpotDAO.claimParking(any(ParkingSpot.class)))
+                .thenThrow(new PendingWritesException("Parking spot not available"));
+
+        //act
+        Assertions.assertThrows(PendingWritesException.class,
+                () -> allocatingParkingSpotDAO.claimNextAvailableSlot(ParkingType.BIKE));
+
+        //assert
+        Assertions.assertEquals(4, allocatingParkingSpotDAO.getNextAvailableSlot(ParkingType.BIKE));
+        verify(parkingSpotDAO, never()).getNextAvailableSlot(ParkingType.BIKE);
+    }
+
+    @Test
+    public void claim_NextAvailableSlot_Should_NeverHandOutSameSpotTwice_When_GatesOutnumberSpots()
+            throws Exception {
+
+        for (int run = 0; run < 50; run++) {
+
+            //arrange
+            int gates = 12;
+            PooledDataBaseConfigImpl pool = new PooledDataBaseConfigImpl.Builder(
+                    new EmbeddedDataBaseConfigImpl("allocatingClaims" + run, "prod"))
+                    .withMinSize(gates)
+                    .withMaxSize(gates)
+                    .build();
+            AllocatingParkingSpotDAOImpl concurrentDAO = new AllocatingParkingSpotDAOImpl(new ParkingSpotDAOImpl(pool));
+            ExecutorService executor = Executors.newFixedThreadPool(gates);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> claims = new ArrayList<>();
+
+            //act
+            for (int gate = 0; gate < gates; gate++) {
+                claims.add(executor.submit(() -> {
+                    start.await();
+                    return concurrentDAO.claimNextAvailableSlot(ParkingType.CAR);
+                }));
+            }
+            start.countDown();
+
+            List<Integer> claimed = new ArrayList<>();
+            for (Future<Integer> claim : claims) {
+                int parkingNumber = claim.get(60, TimeUnit.SECONDS);
+                if (parkingNumber > 0) {
+                    claimed.add(parkingNumber);
+                }
+            }
+            executor.shutdown();
+            pool.close();
+
+            //assert
+            Assertions.assertEquals(3, new HashSet<>(claimed).size(), "claimed " + claimed);
+            Assertions.assertEquals(3, claimed.size(), "claimed " + claimed);
+        }
+    }
+
+    @Test
+    public void claim_NextAvailableSlot_Should_ReturnMinusOne_When_NoSpotIsFreeInDatabase() {
+
+        //arrange
+        when(parkingSpotDAO.getParkingSpots()).thenReturn(Arrays.asList(new ParkingSpot(1, ParkingType.CAR, false)));
+        when(parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR)).thenReturn(-1);
+
+        //act & assert
+        Assertions.assertEquals(-1, allocatingParkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR));
+        verify(parkingSpotDAO, never()).claimParking(any(ParkingSpot.class));
+    }
+
+    @Test
+    public void update_Parking_Should_ReleaseSpot_When_VehicleExits() {
+
+        //arrange
+        when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+        ParkingSpot parkingSpot = new ParkingSpot(1, ParkingType.CAR, true);
+        when(parkingSpotDAO.updateParking(parkingSpot)).thenReturn(true);
+
+        //act
+        allocatingParkingSpotDAO.updateParking(parkingSpot);
+
+        //assert
+        Assertions.assertEquals(1, allocatingParkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+    }
+}
@@ -0,0 +1,148 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.config.contracts.TransactionManager;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.ActiveTicketRegistry;
+import com.parkit.parkingsystem.dao.CachingTicketDAOImpl;
+import com.parkit.parkingsystem.dao.contracts.TicketDAO;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("CachingTicketDAOTests")
+@DisplayName("Unit tests for CachingTicketDAOImpl class")
+public class CachingTicketDAOTests {
+
+    @Mock
+    private TicketDAO ticketDAO;
+
+    @Mock
+    private TransactionManager transactionManager;
+
+    private ActiveTicketRegistry activeTicketRegistry;
+    private CachingTicketDAOImpl cachingTicketDAO;
+    private Ticket ticket;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        activeTicketRegistry = new ActiveTicketRegistry();
+        cachingTicketDAO = new CachingTicketDAOImpl(ticketDAO, activeTicketRegistry);
+
+        ticket = new Ticket();
+        ticket.setParkingSpot(new ParkingSpot(4, ParkingType.BIKE, false));
+        ticket.setVehicleRegNumber("ABCDEF");
+        ticket.setInTime(1_600_000_000L);
+    }
+
+    @Test
+    public void get_Ticket_Should_AnswerFromRegistry_When_TicketWasSavedThroughDecorator() {
+
+        //arrange
+        when(ticketDAO.saveTicket(ticket)).thenAnswer(invocation -> {
+            ticket.setId(12);
+            return true;
+        });
+        cachingTicketDAO.saveTicket(ticket);
+
+        //act
+        Ticket result = cachingTicketDAO.getTicket("ABCDEF");
+
+        //assert
+        Assertions.assertEquals(12, result.getId());
+        Assertions.assertEquals(4, result.getParkingSpot().getId());
+        Assertions.assertEquals(ParkingType.BIKE, result.getParkingSpot().getParkingType());
+        Assertions.assertEquals(1_600_000_000L, result.getInTime());
+        Assertions.assertTrue(result.getOutTime() > result.getInTime());
+        Assertions.assertEquals(1, activeTicketRegistry.getMetrics().getHits());
+        Assertions.assertEquals(1.0, activeTicketRegistry.getMetrics().getHitRatio());
+        verify(ticketDAO, times(1)).saveTicket(ticket);
+        verifyNoMoreInteractions(ticketDAO);
+    }
+
+    @Test
+    public void get_Ticket_Should_FallBackToDatabase_When_PlateIsUnknown() {
+
+        //arrange
+        when(ticketDAO.getTicket("ABCDEF")).thenReturn(ticket);
+
+        //act
+        Ticket result = cachingTicketDAO.getTicket("ABCDEF");
+
+        //assert
+        Assertions.assertSame(ticket, result);
+        Assertions.assertEquals(1, activeTicketRegistry.getMetrics().getMisses());
+        Assertions.assertEquals(0.0, activeTicketRegistry.getMetrics().getHitRatio());
+    }
+
+    @Test
+    public void update_Ticket_Should_RemoveTicketFromRegistry_When_VehicleExits() {
+
+        //arrange
+        ticket.setId(12);
+        activeTicketRegistry.register(ticket);
+        when(ticketDAO.updateTicket(ticket)).thenReturn(true);
+        when(ticketDAO.getTicket("ABCDEF")).thenReturn(Ticket.NOT_FOUND);
+
+        //act
+        cachingTicketDAO.updateTicket(ticket);
+
+        //assert
+        Assertions.assertEquals(Ticket.NOT_FOUND, cachingTicketDAO.getTicket("ABCDEF"));
+        Assertions.assertEquals(0, activeTicketRegistry.getMetrics().getActiveTickets());
+    }
+
+    @Test
+    public void update_Ticket_Should_RemoveTicketFromRegistry_When_DatabaseUpdateFails() {
+
+        //arrange
+        ticket.setId(12);
+        activeTicketRegistry.register(ticket);
+        when(ticketDAO.updateTicket(ticket)).thenThrow(UnsuccessfulOperationException.class);
+
+        //act & assert
+        Assertions.assertThrows(UnsuccessfulOperationException.class, () -> cachingTicketDAO.updateTicket(ticket));
+        Assertions.assertEquals(0, activeTicketRegistry.getMetrics().getActiveTickets());
+    }
+
+    @Test
+    public void save_Ticket_Should_NotRegisterTicket_When_DatabaseSaveFails() {
+
+        //arrange
+        when(ticketDAO.saveTicket(ticket)).thenThrow(UnsuccessfulOperationException.class);
+
+        //act & assert
+        Assertions.assertThrows(UnsuccessfulOperationException.class, () -> cachingTicketDAO.saveTicket(ticket));
+        Assertions.assertEquals(0, activeTicketRegistry.getMetrics().getActiveTickets());
+    }
+
+    @Test
+    public void save_Ticket_Should_RegisterTicketAfterCommit_When_SavedInUnitOfWork() {
+
+        //arrange
+        ArgumentCaptor<Runnable> action = ArgumentCaptor.forClass(Runnable.class);
+        cachingTicketDAO = new CachingTicketDAOImpl(ticketDAO, activeTicketRegistry, transactionManager);
+        ticket.setOutTime(-1L);
+        when(ticketDAO.saveTicket(ticket)).thenAnswer(invocation -> {
+            ticket.setId(12);
+            return true;
+        });
+
+        //act
+        cachingTicketDAO.saveTicket(ticket);
+
+        //assert
+        verify(transactionManager, times(1)).afterCommit(action.capture());
+        Assertions.assertEquals(0, activeTicketRegistry.getMetrics().getActiveTickets());
+        action.getValue().run();
+        Assertions.assertEquals(12, activeTicketRegistry.find("ABCDEF").getId());
+    }
+}
@@ -0,0 +1,171 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.dao.EventJournal;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Tag("EventJournalTests")
+@DisplayName("Unit tests for EventJournal class")
+public class EventJournalTests {
+
+    @TempDir
+    Path directory;
+
+    private EventJournal open() {
+
+        return new EventJournal.Builder(directory)
+                .withSegmentSize(1024)
+                .withSyncEveryRecords(0)
+                .withSyncIntervalMillis(0)
+                .build();
+    }
+
+    private static ByteBuffer payload(int value) {
+
+        ByteBuffer payload = ByteBuffer.allocate(32);
+        payload.putInt(value);
+        payload.position(0);
+
+        return payload;
+    }
+
+    private static List<Integer> replay(EventJournal eventJournal, long fromPosition) {
+
+        List<Integer> values = new ArrayList<>();
+        eventJournal.replay(fromPosition, (type, payload) -> values.add(type * 1_000 + payload.getInt()));
+
+        return values;
+    }
+
+    private List<Path> segments() throws IOException {
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".journal")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void replay_Should_ReturnRecordsInOrder_When_TheySpanSeveralSegments() throws IOException {
+
+        //arrange
+        long middle = 0;
+
+        try (EventJournal eventJournal = open()) {
+            for (int i = 0; i < 100; i++) {
+
+                long position = eventJournal.append((byte) 1, payload(i));
+                if (i == 49) {
+                    middle = position;
+                }
+            }
+        }
+
+        //act
+        try (EventJournal eventJournal = open()) {
+
+            List<Integer> all = replay(eventJournal, 0);
+            List<Integer> tail = replay(eventJournal, middle);
+
+            //assert
+            Assertions.assertEquals(100, all.size());
+            Assertions.assertEquals(1_000, all.get(0));
+            Assertions.assertEquals(1_099, all.get(99));
+            Assertions.assertEquals(50, tail.size());
+            Assertions.assertEquals(1_050, tail.get(0));
+            Assertions.assertTrue(segments().size() > 1);
+            Assertions.assertEquals(100 * (8 + 1 + 32), eventJournal.getPosition());
+        }
+    }
+
+    @Test
+    public void build_Should_DropTornRecord_When_LastRecordChecksumDoesNotMatch() throws IOException {
+
+        //arrange
+        try (EventJournal eventJournal = open()) {
+            for (int i = 0; i < 3; i++) {
+                eventJournal.append((byte) 2, payload(i));
+            }
+        }
+        corrupt(segments().get(0), 2 * (8 + 1 + 32) + 12);
+
+        //act
+        try (EventJournal eventJournal = open()) {
+
+            long position = eventJournal.getPosition();
+            eventJournal.append((byte) 3, payload(7));
+
+            //assert
+            Assertions.assertEquals(2 * (8 + 1 + 32), position);
+            Assertions.assertEquals(List.of(2_000, 2_001, 3_007), replay(eventJournal, 0));
+        }
+    }
+
+    @Test
+    public void replay_Should_ThrowUnsuccessfulOperationException_When_EarlierSegmentIsCorrupt() throws IOException {
+
+        //arrange
+        try (EventJournal eventJournal = open()) {
+            for (int i = 0; i < 60; i++) {
+                eventJournal.append((byte) 1, payload(i));
+            }
+        }
+        corrupt(segments().get(0), 20);
+
+        //act & assert
+        try (EventJournal eventJournal = open()) {
+            Assertions.assertThrows(UnsuccessfulOperationException.class, () -> replay(eventJournal, 0));
+        }
+    }
+
+    @Test
+    public void build_Should_ThrowUnsuccessfulOperationException_When_DirectoryIsAlreadyOpen() {
+
+        //arrange
+        try (EventJournal ignored = open()) {
+
+            //act & assert
+            Assertions.assertThrows(UnsuccessfulOperationException.class, this::open);
+        }
+    }
+
+    @Test
+    public void append_Should_ForceSegment_When_SyncBatchIsFull() {
+
+        //arrange
+        try (EventJournal eventJournal = new EventJournal.Builder(directory)
+                .withSegmentSize(1024)
+                .withSyncEveryRecords(2)
+                .withSyncIntervalMillis(0)
+                .build()) {
+
+            //act
+            for (int i = 0; i < 5; i++) {
+                eventJournal.append((byte) 1, payload(i));
+            }
+
+            //assert
+            Assertions.assertEquals(2, eventJournal.getMetrics().getSyncs());
+            Assertions.assertEquals(1, eventJournal.getMetrics().getUnsynced());
+            Assertions.assertEquals(5, eventJournal.getMetrics().getAppended());
+        }
+    }
+
+    private static void corrupt(Path segment, long offset) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0x5A}), offset);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.IndexedParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
+import com.parkit.parkingsystem.exception.PendingWritesException;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("IndexedParkingSpotDAOTests")
+@DisplayName("Unit tests for IndexedParkingSpotDAOImpl class")
+public class IndexedParkingSpotDAOTests {
+
+    @Mock
+    private ParkingSpotDAO parkingSpotDAO;
+
+    private IndexedParkingSpotDAOImpl indexedParkingSpotDAO;
+    private List<ParkingSpot> parkingSpots;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        indexedParkingSpotDAO = new IndexedParkingSpotDAOImpl(parkingSpotDAO);
+        parkingSpots = Arrays.asList(
+                new ParkingSpot(1, ParkingType.CAR, false),
+                new ParkingSpot(2, ParkingType.CAR, true),
+                new ParkingSpot(3, ParkingType.CAR, true),
+                new ParkingSpot(4, ParkingType.BIKE, true),
+                new ParkingSpot(5, ParkingType.BIKE, true));
+    }
+
+    @Nested
+    @Tag("methodGetNextAvailableSlotTests")
+    @DisplayName("Tests for method getNextAvailableSlot in IndexedParkingSpotDAOImpl class")
+    public class GetNextAvailableSlotTests {
+
+        @Test
+        public void get_NextAvailableSlot_Should_AnswerFromIndex_When_IndexIsLoaded() {
+
+            //arrange
+            when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+
+            //act & assert
+            Assertions.assertEquals(2, indexedParkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+            Assertions.assertEquals(4, indexedParkingSpotDAO.getNextAvailableSlot(ParkingType.BIKE));
+            Assertions.assertEquals(2, indexedParkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+            verify(parkingSpotDAO, times(1)).getParkingSpots();
+            verifyNoMoreInteractions(parkingSpotDAO);
+        }
+
+        @Test
+        public void get_NextAvailableSlot_Should_AskDatabaseAndReload_When_IndexHasNoAvailableSlot() {
+
+            //arrange
+            when(parkingSpotDAO.getParkingSpots()).thenReturn(
+                    Arrays.asList(new ParkingSpot(4, ParkingType.BIKE, false)),
+                    Arrays.asList(new ParkingSpot(4, ParkingType.BIKE, true)));
+            when(parkingSpotDAO.getNextAvailableSlot(ParkingType.BIKE)).thenReturn(4);
+
+            //act & assert
+            Assertions.assertEquals(4, indexedParkingSpotDAO.getNextAvailableSlot(ParkingType.BIKE));
+            Assertions.assertEquals(4, indexedParkingSpotDAO.getNextAvailableSlot(ParkingType.BIKE));
+            verify(parkingSpotDAO, times(2)).getParkingSpots();
+            verify(parkingSpotDAO, times(1)).getNextAvailableSlot(ParkingType.BIKE);
+            verifyNoMoreInteractions(parkingSpotDAO);
+        }
+
+        @Test
+        public void get_NextAvailableSlot_Should_ReturnMinusOne_When_NoSlotIsAvailableInDatabase() {
+
+            //arrange
+            when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+            when(parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR)).thenReturn(-1);
+            indexedParkingSpotDAO.reload();
+            indexedParkingSpotDAO.updateParking(new ParkingSpot(2, ParkingType.CAR, false));
+            indexedParkingSpotDAO.updateParking(new ParkingSpot(3, ParkingType.CAR, false));
+
+            //act & assert
+            Assertions.assertEquals(-1, indexedParkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+            verify(parkingSpotDAO, times(1)).getParkingSpots();
+        }
+    }
+
+    @Nested
+    @Tag("methodWriteThroughTests")
+    @DisplayName("Tests for claims of claimNextAvailableSlot and write-through of updateParking in IndexedParkingSpotDAOImpl class")
+    public class WriteThroughTests {
+
+        @Test
+        public void claim_NextAvailableSlot_Should_ClaimIndexCandidate_When_IndexIsLoaded() {
+
+            //arrange
+            when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+            when(parkingSpotDAO.claimParking(new ParkingSpot(2, ParkingType.CAR, false))).thenReturn(true);
+            indexedParkingSpotDAO.reload();
+
+            //act
+            int claimed = indexedParkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR);
+
+            //assert
+            Assertions.assertEquals(2, claimed);
+            Assertions.assertEquals(3, indexedParkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+            verify(parkingSpotDAO, never()).claimNextAvailableSlot(any(ParkingType.class));
+        }
+
+        @Test
+        public void claim_NextAvailableSlot_Should_TryNextCandidate_When_CandidateIsTakenInDatabase() {
+
+            //arrange
+            when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+            when(parkingSpotDAO.claimParking(new ParkingSpot(2, ParkingType.CAR, false))).thenReturn(false);
+            when(parkingSpotDAO.claimParking(new ParkingSpot(3, ParkingType.CAR, false))).thenReturn(true);
+            indexedParkingSpotDAO.reload();
+
+            //act
+            int claimed = indexedParkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR);
+
+            //assert
+            Assertions.assertEquals(3, claimed);
+            verify(parkingSpotDAO, never()).claimNextAvailableSlot(any(ParkingType.class));
+        }
+
+        @Test
+        public void claim_NextAvailableSlot_Should_SkipAndKeepCandidate_When_ItsReleaseIsQueued() {
+
+            //arrange
+            when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+            when(parkingSpotDAO.claimParking(new ParkingSpot(2, ParkingType.CAR, false)))
+                    .thenThrow(new PendingWritesException("Parking spot 2 not available"));
+            when(parkingSpotDAO.claimParking(new ParkingSpot(3, ParkingType.CAR, false))).thenReturn(true);
+            indexedParkingSpotDAO.reload();
+
+            //act
+            int claimed = indexedParkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR);
+
+            //assert
+            Assertions.assertEquals(3, claimed);
+            Assertions.assertEquals(2, indexedParkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        }
+
+        @Test
+        public void claim_NextAvailableSlot_Should_ClaimInDatabaseAndReload_When_IndexHasNoCandidate() {
+
+            //arrange
+            when(parkingSpotDAO.getParkingSpots()).thenReturn(
+                    Arrays.asList(new ParkingSpot(4, ParkingType.BIKE, false)),
+                    Arrays.asList(new ParkingSpot(4, ParkingType.BIKE, false)));
+            when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.BIKE)).thenReturn(4);
+            indexedParkingSpotDAO.reload();
+
+            //act
+            int claimed = indexedParkingSpotDAO.claimNextAvailableSlot(ParkingType.BIKE);
+
+            //assert
+            Assertions.assertEquals(4, claimed);
+            verify(parkingSpotDAO, times(2)).getParkingSpots();
+            verify(parkingSpotDAO, never()).claimParking(any(ParkingSpot.class));
+        }
+
+        @Test
+        public void claim_NextAvailableSlot_Should_KeepCandidateInIndex_When_ClaimFails() {
+
+            //arrange
+            when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+            when(parkingSpotDAO.claimParking(new ParkingSpot(2, ParkingType.CAR, false)))
+                    .thenThrow(UnsuccessfulOperationException.class);
+            indexedParkingSpotDAO.reload();
+
+            //act
+            Assertions.assertThrows(UnsuccessfulOperationException.class,
+                    () -> indexedParkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR));
+
+            //assert
+            Assertions.assertEquals(2, indexedParkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        }
+
+        @Test
+        public void update_Parking_Should_MarkSlotAvailable_When_VehicleExits() {
+
+            //arrange
+            when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+            ParkingSpot parkingSpot = new ParkingSpot(1, ParkingType.CAR, true);
+            when(parkingSpotDAO.updateParking(parkingSpot)).thenReturn(true);
+            indexedParkingSpotDAO.reload();
+
+            //act
+            indexedParkingSpotDAO.updateParking(parkingSpot);
+
+            //assert
+            Assertions.assertEquals(1, indexedParkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        }
+
+        @Test
+        public void update_Parking_Should_LeaveIndexUnchanged_When_DatabaseUpdateFails() {
+
+            //arrange
+            when(parkingSpotDAO.getParkingSpots()).thenReturn(parkingSpots);
+            ParkingSpot parkingSpot = new ParkingSpot(2, ParkingType.CAR, false);
+            when(parkingSpotDAO.updateParking(parkingSpot)).thenThrow(UnsuccessfulOperationException.class);
+            indexedParkingSpotDAO.reload();
+
+            //act
+            Assertions.assertThrows(UnsuccessfulOperationException.class,
+                    () -> indexedParkingSpotDAO.updateParking(parkingSpot));
+
+            //assert
+            Assertions.assertEquals(2, indexedParkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.JournalParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.JournalStore;
+import com.parkit.parkingsystem.dao.JournalTicketDAOImpl;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Tag("JournalStoreTests")
+@DisplayName("Unit tests for JournalStore class and the journal DAOs")
+public class JournalStoreTests {
+
+    private static final List<ParkingSpot> PARKING_SPOTS = Arrays.asList(
+            new ParkingSpot(1, ParkingType.CAR, true),
+            new ParkingSpot(2, ParkingType.CAR, true),
+            new ParkingSpot(3, ParkingType.BIKE, true));
+
+    @TempDir
+    Path directory;
+
+    private JournalStore open(List<ParkingSpot> parkingSpots) {
+
+        return new JournalStore.Builder(directory)
+                .withSegmentSize(1024)
+                .withSyncIntervalMillis(0)
+                .withSnapshotIntervalMillis(0)
+                .withParkingSpots(parkingSpots)
+                .build();
+    }
+
+    private static Ticket enter(JournalStore journalStore, String vehicleRegNumber, ParkingType parkingType) {
+
+        int parkingNumber = new JournalParkingSpotDAOImpl(journalStore).claimNextAvailableSlot(parkingType);
+
+        Ticket ticket = new Ticket();
+        ticket.setParkingSpot(new ParkingSpot(parkingNumber, parkingType, false));
+        ticket.setVehicleRegNumber(vehicleRegNumber);
+        ticket.setInTime(1_600_000_000L);
+        new JournalTicketDAOImpl(journalStore).saveTicket(ticket);
+
+        return ticket;
+    }
+
+    private static void exit(JournalStore journalStore, String vehicleRegNumber) {
+
+        JournalTicketDAOImpl ticketDAO = new JournalTicketDAOImpl(journalStore);
+        Ticket ticket = ticketDAO.getTicket(vehicleRegNumber);
+        ticket.setPrice(1.5);
+        ticketDAO.updateTicket(ticket);
+
+        ParkingSpot parkingSpot = ticket.getParkingSpot();
+        parkingSpot.setAvailable(true);
+        new JournalParkingSpotDAOImpl(journalStore).updateParking(parkingSpot);
+    }
+
+    @Test
+    public void build_Should_RestoreSpotsTicketsAndRecurringUsers_When_JournalIsReplayed() {
+
+        //arrange
+        try (JournalStore journalStore = open(PARKING_SPOTS)) {
+
+            enter(journalStore, "ABCDEF", ParkingType.CAR);
+            exit(journalStore, "ABCDEF");
+            enter(journalStore, "GHIJKL", ParkingType.CAR);
+            enter(journalStore, "MNOPQR", ParkingType.BIKE);
+        }
+
+        //act
+        try (JournalStore journalStore = open(Collections.emptyList())) {
+
+            JournalTicketDAOImpl ticketDAO = new JournalTicketDAOImpl(journalStore);
+            JournalParkingSpotDAOImpl parkingSpotDAO = new JournalParkingSpotDAOImpl(journalStore);
+            Ticket open = ticketDAO.getTicket("GHIJKL");
+            Ticket next = enter(journalStore, "STUVWX", ParkingType.CAR);
+
+            //assert
+            Assertions.assertEquals(2, open.getId());
+            Assertions.assertEquals(1, open.getParkingSpot().getId());
+            Assertions.assertEquals(1_600_000_000L, open.getInTime());
+            Assertions.assertSame(Ticket.NOT_FOUND, ticketDAO.getTicket("ABCDEF"));
+            Assertions.assertTrue(journalStore.getRecurringUsers().contains("ABCDEF"));
+            Assertions.assertFalse(journalStore.getRecurringUsers().contains("GHIJKL"));
+            Assertions.assertEquals(4, next.getId());
+            Assertions.assertEquals(2, next.getParkingSpot().getId());
+            Assertions.assertEquals(Arrays.asList(
+                    new ParkingSpot(1, ParkingType.CAR, false),
+                    new ParkingSpot(2, ParkingType.CAR, false),
+                    new ParkingSpot(3, ParkingType.BIKE, false)), parkingSpotDAO.getParkingSpots());
+        }
+    }
+
+    private void writeHistoryWithSnapshotInTheMiddle() {
+
+        try (JournalStore journalStore = open(PARKING_SPOTS)) {
+
+            for (int i = 0; i < 50; i++) {
+                enter(journalStore, "OLD" + i, ParkingType.CAR);
+                exit(journalStore, "OLD" + i);
+            }
+            journalStore.snapshot();
+
+            enter(journalStore, "GHIJKL", ParkingType.CAR);
+            enter(journalStore, "MNOPQR", ParkingType.BIKE);
+            exit(journalStore, "MNOPQR");
+        }
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(suffix)).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static void assertRestored(JournalStore journalStore) {
+
+        JournalTicketDAOImpl ticketDAO = new JournalTicketDAOImpl(journalStore);
+
+        Assertions.assertEquals(51, ticketDAO.getTicket("GHIJKL").getId());
+        Assertions.assertSame(Ticket.NOT_FOUND, ticketDAO.getTicket("MNOPQR"));
+        Assertions.assertTrue(journalStore.getRecurringUsers().contains("OLD0"));
+        Assertions.assertTrue(journalStore.getRecurringUsers().contains("MNOPQR"));
+        Assertions.assertEquals(53, enter(journalStore, "STUVWX", ParkingType.CAR).getId());
+        Assertions.assertEquals(Arrays.asList(
+                new ParkingSpot(1, ParkingType.CAR, false),
+                new ParkingSpot(2, ParkingType.CAR, false),
+                new ParkingSpot(3, ParkingType.BIKE, true)), journalStore.getParkingSpots());
+    }
+
+    @Test
+    public void build_Should_ReplayOnlyEventsAfterSnapshot_When_SnapshotExists() throws IOException {
+
+        //arrange
+        writeHistoryWithSnapshotInTheMiddle();
+        List<Path> snapshots = files(".snapshot");
+        Files.delete(snapshots.get(1));
+        corrupt(files(".journal").get(0));
+
+        //act
+        try (JournalStore journalStore = open(Collections.emptyList())) {
+
+            //assert
+            Assertions.assertEquals(2, snapshots.size());
+            assertRestored(journalStore);
+        }
+    }
+
+    @Test
+    public void build_Should_FallBackToPreviousSnapshot_When_LatestSnapshotIsCorrupt() throws IOException {
+
+        //arrange
+        writeHistoryWithSnapshotInTheMiddle();
+        corrupt(files(".snapshot").get(1));
+
+        //act
+        try (JournalStore journalStore = open(Collections.emptyList())) {
+
+            //assert
+            assertRestored(journalStore);
+        }
+    }
+
+    @Test
+    public void build_Should_ReplayWholeJournal_When_NoSnapshotExists() throws IOException {
+
+        //arrange
+        writeHistoryWithSnapshotInTheMiddle();
+        for (Path snapshot : files(".snapshot")) {
+            Files.delete(snapshot);
+        }
+
+        //act
+        try (JournalStore journalStore = open(Collections.emptyList())) {
+
+            //assert
+            assertRestored(journalStore);
+        }
+    }
+
+    private static void corrupt(Path file) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0x5A}), 20);
+        }
+    }
+
+    @Test
+    public void claim_Next_Available_Slot_Should_ReturnMinusOne_When_AllSpotsOfTypeAreTaken() {
+
+        //arrange
+        try (JournalStore journalStore = open(PARKING_SPOTS)) {
+
+            JournalParkingSpotDAOImpl parkingSpotDAO = new JournalParkingSpotDAOImpl(journalStore);
+
+            //act & assert
+            Assertions.assertEquals(3, parkingSpotDAO.claimNextAvailableSlot(ParkingType.BIKE));
+            Assertions.assertEquals(-1, parkingSpotDAO.claimNextAvailableSlot(ParkingType.BIKE));
+            Assertions.assertEquals(-1, parkingSpotDAO.getNextAvailableSlot(ParkingType.BIKE));
+            Assertions.assertEquals(1, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        }
+    }
+
+    @Test
+    public void claim_Next_Available_Slot_Should_GiveSpotBack_When_EventCanNotBeJournaled() {
+
+        //arrange
+        JournalStore journalStore = open(PARKING_SPOTS);
+        JournalParkingSpotDAOImpl parkingSpotDAO = new JournalParkingSpotDAOImpl(journalStore);
+        journalStore.close();
+
+        //act
+        Assertions.assertThrows(UnsuccessfulOperationException.class,
+                () -> parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR));
+
+        //assert
+        Assertions.assertEquals(1, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        Assertions.assertTrue(journalStore.getParkingSpots().stream().allMatch(ParkingSpot::isAvailable));
+    }
+
+    @Test
+    public void update_Ticket_Should_ThrowUnsuccessfulOperationException_When_VehicleHasNoOpenTicket() {
+
+        //arrange
+        try (JournalStore journalStore = open(PARKING_SPOTS)) {
+
+            Ticket ticket = new Ticket();
+            ticket.setId(1);
+            ticket.setVehicleRegNumber("ABCDEF");
+
+            //act & assert
+            Assertions.assertThrows(UnsuccessfulOperationException.class,
+                    () -> new JournalTicketDAOImpl(journalStore).updateTicket(ticket));
+        }
+    }
+
+    @Test
+    public void update_Parking_Should_ThrowUnsuccessfulOperationException_When_SpotIsUnknown() {
+
+        //arrange
+        try (JournalStore journalStore = open(PARKING_SPOTS)) {
+
+            //act & assert
+            Assertions.assertThrows(UnsuccessfulOperationException.class, () -> new JournalParkingSpotDAOImpl(
+                    journalStore).updateParking(new ParkingSpot(9, ParkingType.CAR, true)));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.dao.LockFreeSpotAllocator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+@Tag("LockFreeSpotAllocatorTests")
+@DisplayName("Unit tests for LockFreeSpotAllocator class")
+public class LockFreeSpotAllocatorTests {
+
+    private static final Logger logger = LogManager.getLogger("LockFreeSpotAllocatorTests");
+
+    @Test
+    public void allocate_Should_ReturnLowestFreeSpot_When_SpotsFitInOneWord() {
+
+        //arrange
+        LockFreeSpotAllocator allocator = new LockFreeSpotAllocator(6);
+        allocator.release(3);
+        allocator.release(5);
+
+        //act & assert
+        Assertions.assertEquals(3, allocator.peek());
+        Assertions.assertEquals(3, allocator.allocate());
+        Assertions.assertEquals(5, allocator.allocate());
+        Assertions.assertEquals(-1, allocator.allocate());
+        Assertions.assertEquals(-1, allocator.peek());
+    }
+
+    @Test
+    public void is_Free_Should_ReflectSpotState_When_SpotIsReleasedAndReserved() {
+
+        //arrange
+        LockFreeSpotAllocator allocator = new LockFreeSpotAllocator(100);
+        allocator.release(70);
+
+        //act & assert
+        Assertions.assertTrue(allocator.isFree(70));
+        Assertions.assertFalse(allocator.isFree(69));
+        Assertions.assertFalse(allocator.isFree(500));
+        allocator.reserve(70);
+        Assertions.assertFalse(allocator.isFree(70));
+    }
+
+    @Test
+    public void release_Should_ReturnFalse_When_SpotIsAlreadyFree() {
+
+        //arrange
+        LockFreeSpotAllocator allocator = new LockFreeSpotAllocator(200);
+
+        //act & assert
+        Assertions.assertTrue(allocator.release(130));
+        Assertions.assertFalse(allocator.release(130));
+        Assertions.assertEquals(1, allocator.countFree());
+        Assertions.assertTrue(allocator.reserve(130));
+        Assertions.assertFalse(allocator.reserve(130));
+        Assertions.assertEquals(0, allocator.countFree());
+    }
+
+    @Test
+    public void release_Should_ThrowException_When_SpotIsOutOfRange() {
+
+        //arrange
+        LockFreeSpotAllocator allocator = new LockFreeSpotAllocator(64);
+
+        //act & assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> allocator.release(64));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> allocator.release(-1));
+    }
+
+    @Test
+    public void allocate_Should_NeverHandOutSameSpotTwice_When_ManyThreadsAllocateAndRelease() throws Exception {
+
+        //arrange
+        int spots = 4_096;
+        int maxThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        LockFreeSpotAllocator allocator = new LockFreeSpotAllocator(spots);
+        for (int spot = 0; spot < spots; spot++) {
+            allocator.release(spot);
+        }
+        AtomicIntegerArray owners = new AtomicIntegerArray(spots);
+
+        //act & assert
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+
+            long operations = stress(allocator, owners, threads, 200);
+
+            logger.info("{} threads: {} allocations per second", threads, operations * 1_000 / 200);
+        }
+        Assertions.assertEquals(spots, allocator.countFree());
+    }
+
+    private long stress(LockFreeSpotAllocator allocator, AtomicIntegerArray owners, int threads, long millis)
+            throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        LongAdder operations = new LongAdder();
+        List<Future<?>> gates = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+
+        for (int gate = 1; gate <= threads; gate++) {
+
+            int owner = gate;
+
+            gates.add(executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    int spot = allocator.allocate();
+                    Assertions.assertTrue(owners.compareAndSet(spot, 0, owner), "Spot allocated twice");
+                    owners.set(spot, 0);
+                    Assertions.assertTrue(allocator.release(spot));
+                    operations.increment();
+                }
+            }));
+        }
+
+        for (Future<?> gate : gates) {
+            gate.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        return operations.sum();
+    }
+}
@@ -0,0 +1,90 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.PooledDataBaseConfigImpl;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.AllocatingParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.IndexedParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.ParkingDAOFactory;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import org.junit.jupiter.api.*;
+
+@Tag("ParkingDAOFactoryTests")
+@DisplayName("Unit tests for ParkingDAOFactory class")
+public class ParkingDAOFactoryTests {
+
+    private static int databaseCount;
+
+    private PooledDataBaseConfigImpl dataBaseConfig;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        databaseCount++;
+        dataBaseConfig = new PooledDataBaseConfigImpl.Builder(
+                new EmbeddedDataBaseConfigImpl("factory" + databaseCount, "prod"))
+                .build();
+    }
+
+    @AfterEach
+    public void tearDownPerTest() {
+
+        dataBaseConfig.close();
+    }
+
+    @Test
+    public void parking_DAO_Factory_Should_ClaimFromIndex_When_LockFreeSpotsAreNotRequested() {
+
+        //act
+        ParkingDAOFactory daoFactory = new ParkingDAOFactory(dataBaseConfig, false);
+
+        //assert
+        Assertions.assertTrue(daoFactory.getParkingSpotDAO() instanceof IndexedParkingSpotDAOImpl);
+        daoFactory.getWriteBehindQueue().close();
+    }
+
+    @Test
+    public void parking_DAO_Factory_Should_ClaimFromAllocators_When_LockFreeSpotsAreRequested() {
+
+        //act
+        ParkingDAOFactory daoFactory = new ParkingDAOFactory(dataBaseConfig, true);
+
+        //assert
+        Assertions.assertTrue(daoFactory.getParkingSpotDAO() instanceof AllocatingParkingSpotDAOImpl);
+        daoFactory.getWriteBehindQueue().close();
+    }
+
+    @Test
+    public void parking_DAO_Factory_Should_WriteEntryAndExitInUnitsOfWork_When_StackIsBuilt() {
+
+        //arrange
+        ParkingDAOFactory daoFactory = new ParkingDAOFactory(dataBaseConfig, false);
+        Ticket ticket = new Ticket();
+        ticket.setVehicleRegNumber("ABCDEF");
+        ticket.setInTime(System.currentTimeMillis() / 1000 - 3600);
+
+        //act
+        int parkingNumber = daoFactory.getTransactionManager().inTransaction(() -> {
+
+            int claimed = daoFactory.getParkingSpotDAO().claimNextAvailableSlot(ParkingType.CAR);
+            ticket.setParkingSpot(new ParkingSpot(claimed, ParkingType.CAR, false));
+            daoFactory.getTicketDAO().saveTicket(ticket);
+            return claimed;
+        });
+        daoFactory.getTransactionManager().inTransaction(() -> {
+
+            Ticket parked = daoFactory.getTicketDAO().getTicket("ABCDEF");
+            parked.setOutTime(System.currentTimeMillis() / 1000);
+            daoFactory.getTicketDAO().updateTicket(parked);
+            return daoFactory.getParkingSpotDAO().updateParking(new ParkingSpot(parked.getParkingSpot().getId(),
+                    ParkingType.CAR, true));
+        });
+        daoFactory.getWriteBehindQueue().close();
+
+        //assert
+        Assertions.assertEquals(1, parkingNumber);
+        Assertions.assertEquals(1, daoFactory.getParkingSpotDAO().getNextAvailableSlot(ParkingType.CAR));
+        Assertions.assertNotEquals(-1L, daoFactory.getTicketDAO().getTicket("ABCDEF").getOutTime());
+    }
+}
@@ -1,5 +1,7 @@
 package com.parkit.parkingsystem.daoTests;
 
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.PooledDataBaseConfigImpl;
 import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
 import com.parkit.parkingsystem.constants.DBConstants;
 import com.parkit.parkingsystem.constants.ParkingType;
@@ -16,6 +18,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
 
 import static org.mockito.Mockito.*;
 
@@ -284,4 +291,232 @@ public class ParkingSpotDAOTests {
             verifyNoMoreInteractions(dataBaseConfig, connection);
         }
     }
+
+    @Nested
+    @Tag("methodGetParkingSpotsTests")
+    @DisplayName("Tests for method getParkingSpots in ParkingSpotDAO class")
+    public class GetParkingSpotsTests {
+
+        @Test
+        public void get_ParkingSpots_Should_ReturnAllSpots_When_ConnectionIsEstablishedAndPreparedStatementIsReturningResultSet()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            when(dataBaseConfig.getConnection()).thenReturn(connection);
+            when(connection.prepareStatement(DBConstants.GET_PARKING_SPOTS)).thenReturn(preparedStatement);
+            when(preparedStatement.executeQuery()).thenReturn(resultSet);
+            when(resultSet.next()).thenReturn(true, true, false);
+            when(resultSet.getInt(1)).thenReturn(1, 4);
+            when(resultSet.getBoolean(2)).thenReturn(false, true);
+            when(resultSet.getString(3)).thenReturn("CAR", "BIKE");
+
+            //act
+            List<ParkingSpot> result = parkingSpotDAO.getParkingSpots();
+
+            //assert
+            Assertions.assertEquals(2, result.size());
+            Assertions.assertFalse(result.get(0).isAvailable());
+            Assertions.assertEquals(ParkingType.BIKE, result.get(1).getParkingType());
+            Assertions.assertTrue(result.get(1).isAvailable());
+            verify(dataBaseConfig, times(1)).getConnection();
+            verify(dataBaseConfig, times(1)).closeResultSet(resultSet);
+            verify(connection, times(1)).prepareStatement(DBConstants.GET_PARKING_SPOTS);
+            verify(connection, times(1)).close();
+            verify(preparedStatement, times(1)).close();
+            verifyNoMoreInteractions(dataBaseConfig, connection);
+        }
+
+        @Test
+        public void get_ParkingSpots_Should_ThrowException_When_ExecuteQueryThrowsException()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            when(dataBaseConfig.getConnection()).thenReturn(connection);
+            when(connection.prepareStatement(DBConstants.GET_PARKING_SPOTS)).thenReturn(preparedStatement);
+            when(preparedStatement.executeQuery()).thenThrow(SQLException.class);
+
+            //act & assert
+            Assertions.assertThrows(UnsuccessfulOperationException.class, () -> parkingSpotDAO.getParkingSpots());
+            verify(dataBaseConfig, times(1)).closeResultSet(null);
+            verify(connection, times(1)).close();
+        }
+    }
+
+    @Nested
+    @Tag("methodClaimParkingTests")
+    @DisplayName("Tests for method claimParking in ParkingSpotDAO class")
+    public class ClaimParkingTests {
+
+        @Test
+        public void claim_Parking_Should_ClaimSpotOnlyOnce_When_ClaimedTwice() {
+
+            //arrange
+            ParkingSpotDAOImpl embeddedDAO = new ParkingSpotDAOImpl(new EmbeddedDataBaseConfigImpl(
+                    "claimParkingTest", "prod"));
+            ParkingSpot parkingSpot = new ParkingSpot(2, ParkingType.CAR, false);
+
+            //act & assert
+            Assertions.assertTrue(embeddedDAO.claimParking(parkingSpot));
+            Assertions.assertFalse(embeddedDAO.claimParking(parkingSpot));
+            Assertions.assertFalse(embeddedDAO.getParkingSpots().get(1).isAvailable());
+        }
+
+        @Test
+        public void claim_Parking_Should_ThrowException_When_ExecuteUpdateThrowException()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            when(dataBaseConfig.getConnection()).thenReturn(connection);
+            when(connection.prepareStatement(DBConstants.CLAIM_PARKING_SPOT)).thenReturn(preparedStatement);
+            when(preparedStatement.executeUpdate()).thenThrow(SQLException.class);
+
+            //act & assert
+            Assertions.assertThrows(UnsuccessfulOperationException.class,
+                    () -> parkingSpotDAO.claimParking(new ParkingSpot(1, ParkingType.CAR, false)));
+            verify(connection, times(1)).close();
+        }
+    }
+
+    @Nested
+    @Tag("methodClaimNextAvailableSlotTests")
+    @DisplayName("Tests for method claimNextAvailableSlot in ParkingSpotDAO class")
+    public class ClaimNextAvailableSlotTests {
+
+        @Mock
+        private PreparedStatement claimStatement;
+
+        @Test
+        public void claim_NextAvailableSlot_Should_LockAndClaimSlotInOwnTransaction_When_ConnectionIsInAutoCommit()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            when(dataBaseConfig.getConnection()).thenReturn(connection);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.prepareStatement(DBConstants.LOCK_NEXT_PARKING_SPOT)).thenReturn(preparedStatement);
+            when(connection.prepareStatement(DBConstants.CLAIM_PARKING_SPOT)).thenReturn(claimStatement);
+            when(preparedStatement.executeQuery()).thenReturn(resultSet);
+            when(resultSet.next()).thenReturn(true);
+            when(resultSet.getInt(1)).thenReturn(2);
+            when(claimStatement.executeUpdate()).thenReturn(1);
+
+            //act & assert
+            Assertions.assertEquals(2, parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR));
+            verify(connection, times(1)).setAutoCommit(false);
+            verify(preparedStatement, times(1)).setString(1, "CAR");
+            verify(claimStatement, times(1)).setInt(1, 2);
+            verify(connection, times(1)).commit();
+            verify(connection, times(1)).setAutoCommit(true);
+            verify(connection, times(1)).close();
+            verify(connection, never()).rollback();
+        }
+
+        @Test
+        public void claim_NextAvailableSlot_Should_JoinRunningTransaction_When_ConnectionIsNotInAutoCommit()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            when(dataBaseConfig.getConnection()).thenReturn(connection);
+            when(connection.getAutoCommit()).thenReturn(false);
+            when(connection.prepareStatement(DBConstants.LOCK_NEXT_PARKING_SPOT)).thenReturn(preparedStatement);
+            when(connection.prepareStatement(DBConstants.CLAIM_PARKING_SPOT)).thenReturn(claimStatement);
+            when(preparedStatement.executeQuery()).thenReturn(resultSet);
+            when(resultSet.next()).thenReturn(true);
+            when(resultSet.getInt(1)).thenReturn(1);
+            when(claimStatement.executeUpdate()).thenReturn(1);
+
+            //act & assert
+            Assertions.assertEquals(1, parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR));
+            verify(connection, never()).setAutoCommit(anyBoolean());
+            verify(connection, never()).commit();
+        }
+
+        @Test
+        public void claim_NextAvailableSlot_Should_ReturnMinusOne_When_NoSlotIsAvailable()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            when(dataBaseConfig.getConnection()).thenReturn(connection);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.prepareStatement(DBConstants.LOCK_NEXT_PARKING_SPOT)).thenReturn(preparedStatement);
+            when(preparedStatement.executeQuery()).thenReturn(resultSet);
+            when(resultSet.next()).thenReturn(false);
+
+            //act & assert
+            Assertions.assertEquals(-1, parkingSpotDAO.claimNextAvailableSlot(ParkingType.BIKE));
+            verify(connection, never()).prepareStatement(DBConstants.CLAIM_PARKING_SPOT);
+            verify(connection, times(1)).commit();
+        }
+
+        @Test
+        public void claim_NextAvailableSlot_Should_RollBackAndThrowException_When_ClaimUpdatesNoRow()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            when(dataBaseConfig.getConnection()).thenReturn(connection);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.prepareStatement(DBConstants.LOCK_NEXT_PARKING_SPOT)).thenReturn(preparedStatement);
+            when(connection.prepareStatement(DBConstants.CLAIM_PARKING_SPOT)).thenReturn(claimStatement);
+            when(preparedStatement.executeQuery()).thenReturn(resultSet);
+            when(resultSet.next()).thenReturn(true);
+            when(resultSet.getInt(1)).thenReturn(1);
+            when(claimStatement.executeUpdate()).thenReturn(0);
+
+            //act & assert
+            Assertions.assertThrows(UnsuccessfulOperationException.class,
+                    () -> parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR));
+            verify(connection, times(1)).rollback();
+            verify(connection, never()).commit();
+            verify(connection, times(1)).setAutoCommit(true);
+        }
+
+        @Test
+        public void claim_NextAvailableSlot_Should_NeverAllocateSameSlotTwice_When_ManyGatesClaimInParallel()
+                throws Exception {
+
+            //arrange
+            int gates = 16;
+            EmbeddedDataBaseConfigImpl embedded = new EmbeddedDataBaseConfigImpl("claimConcurrencyTest", "prod");
+            try (Connection con = embedded.getConnection(); Statement statement = con.createStatement()) {
+                for (int parkingNumber = 6; parkingNumber <= 200; parkingNumber++) {
+                    statement.executeUpdate("insert into parking values(" + parkingNumber + ", true, 'CAR')");
+                }
+            }
+            PooledDataBaseConfigImpl pool = new PooledDataBaseConfigImpl.Builder(embedded)
+                    .withMinSize(gates)
+                    .withMaxSize(gates)
+                    .build();
+            ParkingSpotDAOImpl concurrentDAO = new ParkingSpotDAOImpl(pool);
+            ExecutorService executor = Executors.newFixedThreadPool(gates);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<Integer>>> claims = new ArrayList<>();
+
+            //act
+            for (int gate = 0; gate < gates; gate++) {
+                claims.add(executor.submit(() -> {
+                    List<Integer> claimed = new ArrayList<>();
+                    start.await();
+                    int parkingNumber;
+                    while ((parkingNumber = concurrentDAO.claimNextAvailableSlot(ParkingType.CAR)) > 0) {
+                        claimed.add(parkingNumber);
+                    }
+                    return claimed;
+                }));
+            }
+            start.countDown();
+
+            List<Integer> allClaimed = new ArrayList<>();
+            for (Future<List<Integer>> claim : claims) {
+                allClaimed.addAll(claim.get(60, TimeUnit.SECONDS));
+            }
+            int claimAfterAllTaken = concurrentDAO.claimNextAvailableSlot(ParkingType.CAR);
+            executor.shutdown();
+            pool.close();
+
+            //assert
+            Set<Integer> distinctClaimed = new HashSet<>(allClaimed);
+            Assertions.assertEquals(allClaimed.size(), distinctClaimed.size());
+            Assertions.assertEquals(198, distinctClaimed.size());
+            Assertions.assertEquals(-1, claimAfterAllTaken);
+        }
+    }
 }
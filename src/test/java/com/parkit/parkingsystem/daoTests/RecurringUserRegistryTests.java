@@ -0,0 +1,102 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.dao.RecurringUserRegistry;
+import com.parkit.parkingsystem.dao.RecurringUserRegistryMetrics;
+import com.parkit.parkingsystem.service.MigrationServiceImpl;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@Tag("RecurringUserRegistryTests")
+@DisplayName("Unit tests for RecurringUserRegistry class")
+public class RecurringUserRegistryTests {
+
+    private static int databaseCount;
+
+    private EmbeddedDataBaseConfigImpl dataBaseConfig;
+    private RecurringUserRegistry recurringUserRegistry;
+
+    @BeforeEach
+    public void setUpPerTest() throws SQLException, ClassNotFoundException {
+
+        databaseCount++;
+        dataBaseConfig = new EmbeddedDataBaseConfigImpl("recurringUsers" + databaseCount, "prod");
+        new MigrationServiceImpl(dataBaseConfig).migrate();
+        recurringUserRegistry = new RecurringUserRegistry(dataBaseConfig, 1_000, 0.01);
+
+        // ABCDEF left once and is back, GHIJKL is on its first visit
+        execute("insert into ticket(PARKING_NUMBER, VEHICLE_REG_NUMBER, PRICE, IN_TIME, OUT_TIME)" +
+                " values(1, 'ABCDEF', 1.5, now(), now())");
+        execute("insert into ticket(PARKING_NUMBER, VEHICLE_REG_NUMBER, PRICE, IN_TIME, OUT_TIME)" +
+                " values(1, 'ABCDEF', 0, now(), null)");
+        execute("insert into ticket(PARKING_NUMBER, VEHICLE_REG_NUMBER, PRICE, IN_TIME, OUT_TIME)" +
+                " values(2, 'GHIJKL', 0, now(), null)");
+        recurringUserRegistry.reload();
+    }
+
+    @Test
+    public void contains_Should_ConfirmFromDataBase_When_VehicleLeftBeforeRestart() {
+
+        //act & assert
+        Assertions.assertTrue(recurringUserRegistry.contains("ABCDEF"));
+        Assertions.assertEquals(1, recurringUserRegistry.getMetrics().getConfirmed());
+        Assertions.assertEquals(1, recurringUserRegistry.getMetrics().getRegisteredUsers());
+    }
+
+    @Test
+    public void contains_Should_AskDataBase_When_FilterIsNotLoaded() {
+
+        //arrange
+        RecurringUserRegistry notLoaded = new RecurringUserRegistry(dataBaseConfig, 1_000, 0.01);
+
+        //act & assert
+        Assertions.assertTrue(notLoaded.contains("ABCDEF"));
+        Assertions.assertFalse(notLoaded.contains("GHIJKL"));
+        Assertions.assertEquals(0, notLoaded.getMetrics().getRegisteredUsers());
+        Assertions.assertEquals(0, notLoaded.getMetrics().getRejectedInMemory());
+    }
+
+    @Test
+    public void contains_Should_RejectInMemory_When_VehicleIsOnFirstVisit() {
+
+        //act & assert
+        Assertions.assertFalse(recurringUserRegistry.contains("GHIJKL"));
+        Assertions.assertEquals(1, recurringUserRegistry.getMetrics().getRejectedInMemory());
+    }
+
+    @Test
+    public void contains_Should_CountFalsePositive_When_DataBaseHasNoEarlierVisit() {
+
+        //arrange
+        recurringUserRegistry.add("GHIJKL");
+
+        //act & assert
+        Assertions.assertFalse(recurringUserRegistry.contains("GHIJKL"));
+        RecurringUserRegistryMetrics metrics = recurringUserRegistry.getMetrics();
+        Assertions.assertEquals(1, metrics.getFalsePositives());
+        Assertions.assertEquals(1.0, metrics.getObservedFalsePositiveRate());
+    }
+
+    @Test
+    public void add_Should_MakeVehicleRecurring_When_VehicleComesBack() throws SQLException, ClassNotFoundException {
+
+        //arrange
+        recurringUserRegistry.add("GHIJKL");
+        execute("insert into ticket(PARKING_NUMBER, VEHICLE_REG_NUMBER, PRICE, IN_TIME, OUT_TIME)" +
+                " values(2, 'GHIJKL', 0, now(), null)");
+
+        //act & assert
+        Assertions.assertTrue(recurringUserRegistry.contains("GHIJKL"));
+    }
+
+    private void execute(String sql) throws SQLException, ClassNotFoundException {
+
+        try (Connection con = dataBaseConfig.getConnection();
+             Statement statement = con.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.parkit.parkingsystem.daoTests;
 
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
 import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
 import com.parkit.parkingsystem.constants.DBConstants;
 import com.parkit.parkingsystem.constants.ParkingType;
@@ -25,6 +26,8 @@ import static org.mockito.Mockito.*;
 @DisplayName("Unit tests for TicketDAO class")
 public class TicketDAOTests {
 
+    private static int databaseCount;
+
     @InjectMocks
     private TicketDAOImpl ticketDAO;
 
@@ -82,13 +85,19 @@ public class TicketDAOTests {
 
             //arrange
             when(dataBaseConfig.getConnection()).thenReturn(connection);
-            when(connection.prepareStatement(DBConstants.SAVE_TICKET)).thenReturn(preparedStatement);
+            when(connection.prepareStatement(DBConstants.SAVE_TICKET, Statement.RETURN_GENERATED_KEYS)).thenReturn(preparedStatement);
             when(preparedStatement.executeUpdate()).thenReturn(1);
+            when(preparedStatement.getGeneratedKeys()).thenReturn(resultSet);
+            when(resultSet.next()).thenReturn(true);
+            when(resultSet.getInt(1)).thenReturn(7);
 
             //act & assert
             Assertions.assertTrue(ticketDAO.saveTicket(ticket));
+            Assertions.assertEquals(7, ticket.getId());
+            verify(preparedStatement, times(1)).setTimestamp(5, new Timestamp(1000L));
+            verify(resultSet, times(1)).close();
             verify(dataBaseConfig, times(1)).getConnection();
-            verify(connection, times(1)).prepareStatement(DBConstants.SAVE_TICKET);
+            verify(connection, times(1)).prepareStatement(DBConstants.SAVE_TICKET, Statement.RETURN_GENERATED_KEYS);
             verify(connection, times(1)).close();
             verifyNoMoreInteractions(dataBaseConfig, connection);
         }
@@ -110,12 +119,12 @@ public class TicketDAOTests {
 
             //arrange
             when(dataBaseConfig.getConnection()).thenReturn(connection);
-            when(connection.prepareStatement(DBConstants.SAVE_TICKET)).thenThrow(SQLException.class);
+            when(connection.prepareStatement(DBConstants.SAVE_TICKET, Statement.RETURN_GENERATED_KEYS)).thenThrow(SQLException.class);
 
             //act & assert
             Assertions.assertThrows(UnsuccessfulOperationException.class, () -> ticketDAO.saveTicket(ticket));
             verify(dataBaseConfig, times(1)).getConnection();
-            verify(connection, times(1)).prepareStatement(DBConstants.SAVE_TICKET);
+            verify(connection, times(1)).prepareStatement(DBConstants.SAVE_TICKET, Statement.RETURN_GENERATED_KEYS);
             verify(connection, times(1)).close();
             verifyNoMoreInteractions(dataBaseConfig, connection);
         }
@@ -125,13 +134,13 @@ public class TicketDAOTests {
 
             //arrange
             when(dataBaseConfig.getConnection()).thenReturn(connection);
-            when(connection.prepareStatement(DBConstants.SAVE_TICKET)).thenReturn(preparedStatement);
+            when(connection.prepareStatement(DBConstants.SAVE_TICKET, Statement.RETURN_GENERATED_KEYS)).thenReturn(preparedStatement);
             when(preparedStatement.executeUpdate()).thenReturn(0);
 
             //act & assert
             Assertions.assertThrows(UnsuccessfulOperationException.class, () -> ticketDAO.saveTicket(ticket));
             verify(dataBaseConfig, times(1)).getConnection();
-            verify(connection, times(1)).prepareStatement(DBConstants.SAVE_TICKET);
+            verify(connection, times(1)).prepareStatement(DBConstants.SAVE_TICKET, Statement.RETURN_GENERATED_KEYS);
             verify(connection, times(1)).close();
             verifyNoMoreInteractions(dataBaseConfig, connection);
         }
@@ -141,13 +150,13 @@ public class TicketDAOTests {
 
             //arrange
             when(dataBaseConfig.getConnection()).thenReturn(connection);
-            when(connection.prepareStatement(DBConstants.SAVE_TICKET)).thenReturn(preparedStatement);
+            when(connection.prepareStatement(DBConstants.SAVE_TICKET, Statement.RETURN_GENERATED_KEYS)).thenReturn(preparedStatement);
             when(preparedStatement.executeUpdate()).thenThrow(SQLException.class);
 
             //act & assert
             Assertions.assertThrows(UnsuccessfulOperationException.class, () -> ticketDAO.saveTicket(ticket));
             verify(dataBaseConfig, times(1)).getConnection();
-            verify(connection, times(1)).prepareStatement(DBConstants.SAVE_TICKET);
+            verify(connection, times(1)).prepareStatement(DBConstants.SAVE_TICKET, Statement.RETURN_GENERATED_KEYS);
             verify(connection, times(1)).close();
             verifyNoMoreInteractions(dataBaseConfig, connection);
         }
@@ -307,6 +316,7 @@ public class TicketDAOTests {
 
             //act & assert
             Assertions.assertTrue(ticketDAO.updateTicket(ticket));
+            verify(preparedStatement, times(1)).setTimestamp(2, new Timestamp(1000L));
             verify(dataBaseConfig, times(1)).getConnection();
             verify(connection, times(1)).prepareStatement(DBConstants.UPDATE_TICKET);
             verify(connection, times(1)).close();
@@ -373,4 +383,52 @@ public class TicketDAOTests {
             verifyNoMoreInteractions(dataBaseConfig, connection);
         }
     }
+
+    @Nested
+    @Tag("outTimeRoundTripTests")
+    @DisplayName("Tests for out-time written and read back by TicketDAO class")
+    public class OutTimeRoundTripTests {
+
+        private TicketDAOImpl embeddedTicketDAO;
+
+        @BeforeEach
+        public void setUpPerTest() {
+
+            databaseCount++;
+            embeddedTicketDAO = new TicketDAOImpl(new EmbeddedDataBaseConfigImpl("ticketOutTime" + databaseCount,
+                    "prod"));
+        }
+
+        @Test
+        public void save_Ticket_Should_ReadBackSameOutTime_When_TicketIsSavedClosed() {
+
+            //arrange
+            ticket.setInTime(1_600_000_000L);
+            ticket.setOutTime(1_600_003_600L);
+
+            //act
+            embeddedTicketDAO.saveTicket(ticket);
+
+            //assert
+            Assertions.assertEquals(1_600_003_600L, embeddedTicketDAO.getTicket("ABCDEF").getOutTime());
+        }
+
+        @Test
+        public void update_Ticket_Should_ReadBackSameOutTime_When_TicketIsClosed() {
+
+            //arrange
+            ticket.setInTime(1_600_000_000L);
+            ticket.setOutTime(-1L);
+            embeddedTicketDAO.saveTicket(ticket);
+            ticket.setOutTime(1_600_007_200L);
+
+            //act
+            embeddedTicketDAO.updateTicket(ticket);
+
+            //assert
+            Ticket readBack = embeddedTicketDAO.getTicket("ABCDEF");
+            Assertions.assertEquals(1_600_000_000L, readBack.getInTime());
+            Assertions.assertEquals(1_600_007_200L, readBack.getOutTime());
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.constants.DBConstants;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.WriteBehindParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.WriteBehindQueue;
+import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
+import com.parkit.parkingsystem.exception.PendingWritesException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("WriteBehindParkingSpotDAOTests")
+@DisplayName("Unit tests for WriteBehindParkingSpotDAOImpl class")
+public class WriteBehindParkingSpotDAOTests {
+
+    @Mock
+    private ParkingSpotDAO parkingSpotDAO;
+
+    @Mock
+    private WriteBehindQueue writeBehindQueue;
+
+    private WriteBehindParkingSpotDAOImpl writeBehindParkingSpotDAO;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        writeBehindParkingSpotDAO = new WriteBehindParkingSpotDAOImpl(parkingSpotDAO, writeBehindQueue);
+    }
+
+    @Test
+    public void update_Parking_Should_QueueUpdate_When_PlaceIsReleased() {
+
+        //act
+        boolean result = writeBehindParkingSpotDAO.updateParking(new ParkingSpot(2, ParkingType.CAR, true));
+
+        //assert
+        Assertions.assertTrue(result);
+        verify(writeBehindQueue, times(1)).enqueue(eq("parking spot 2"), eq(DBConstants.UPDATE_PARKING_SPOT), any());
+        verifyNoInteractions(parkingSpotDAO);
+    }
+
+    @Test
+    public void claim_Next_Available_Slot_Should_FlushAndRetry_When_ReleaseIsStillQueued() {
+
+        //arrange
+        when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR)).thenReturn(-1, 2);
+        when(writeBehindQueue.hasPending()).thenReturn(true);
+
+        //act
+        int result = writeBehindParkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR);
+
+        //assert
+        Assertions.assertEquals(2, result);
+        InOrder inOrder = inOrder(parkingSpotDAO, writeBehindQueue);
+        inOrder.verify(parkingSpotDAO).claimNextAvailableSlot(ParkingType.CAR);
+        inOrder.verify(writeBehindQueue).flush();
+        inOrder.verify(parkingSpotDAO).claimNextAvailableSlot(ParkingType.CAR);
+    }
+
+    @Test
+    public void claim_Next_Available_Slot_Should_ThrowPendingWritesException_When_ReleaseIsQueuedInUnitOfWork() {
+
+        //arrange
+        when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR)).thenReturn(-1);
+        when(writeBehindQueue.hasPending()).thenReturn(true);
+        when(writeBehindQueue.isInGroup()).thenReturn(true);
+
+        //act & assert
+        Assertions.assertThrows(PendingWritesException.class,
+                () -> writeBehindParkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR));
+        verify(writeBehindQueue, never()).flush();
+    }
+
+    @Test
+    public void claim_Next_Available_Slot_Should_NotFlush_When_PlaceIsFound() {
+
+        //arrange
+        when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.BIKE)).thenReturn(4);
+
+        //act & assert
+        Assertions.assertEquals(4, writeBehindParkingSpotDAO.claimNextAvailableSlot(ParkingType.BIKE));
+        verifyNoInteractions(writeBehindQueue);
+    }
+}
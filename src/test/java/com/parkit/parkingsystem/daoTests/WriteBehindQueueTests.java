@@ -0,0 +1,288 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.constants.DBConstants;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.ParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.WriteBehindMetrics;
+import com.parkit.parkingsystem.dao.WriteBehindQueue;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("WriteBehindQueueTests")
+@DisplayName("Unit tests for WriteBehindQueue class")
+public class WriteBehindQueueTests {
+
+    private static int databaseCount;
+
+    @Mock
+    private DataBaseConfig failingDataBaseConfig;
+
+    private EmbeddedDataBaseConfigImpl dataBaseConfig;
+    private ParkingSpotDAOImpl parkingSpotDAO;
+    private WriteBehindQueue writeBehindQueue;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        databaseCount++;
+        dataBaseConfig = new EmbeddedDataBaseConfigImpl("writeBehind" + databaseCount, "prod");
+        parkingSpotDAO = new ParkingSpotDAOImpl(dataBaseConfig);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (writeBehindQueue != null) {
+            writeBehindQueue.close();
+        }
+    }
+
+    @Test
+    public void flush_Should_CommitQueuedMutationsAsOneGroup_When_QueuedWithinDelay() {
+
+        //arrange
+        writeBehindQueue = new WriteBehindQueue.Builder(dataBaseConfig).withMaxDelayMillis(500).build();
+
+        //act
+        for (int parkingNumber = 1; parkingNumber <= 3; parkingNumber++) {
+            occupy(parkingNumber);
+        }
+        writeBehindQueue.flush();
+
+        //assert
+        WriteBehindMetrics metrics = writeBehindQueue.getMetrics();
+        Assertions.assertEquals(0, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        Assertions.assertEquals(3, metrics.getCommitted());
+        Assertions.assertEquals(1, metrics.getBatches());
+        Assertions.assertFalse(writeBehindQueue.hasPending());
+    }
+
+    @Test
+    public void close_Should_WriteQueuedMutations_When_ApplicationShutsDown() {
+
+        //arrange
+        writeBehindQueue = new WriteBehindQueue.Builder(dataBaseConfig).withMaxDelayMillis(500).build();
+        occupy(4);
+
+        //act
+        writeBehindQueue.close();
+
+        //assert
+        Assertions.assertEquals(5, parkingSpotDAO.getNextAvailableSlot(ParkingType.BIKE));
+        Assertions.assertEquals(1, writeBehindQueue.getMetrics().getCommitted());
+        Assertions.assertThrows(UnsuccessfulOperationException.class, () -> occupy(5));
+    }
+
+    @Test
+    public void flush_Should_CountRejectedMutation_When_StatementUpdatesNoRow() {
+
+        //arrange
+        writeBehindQueue = new WriteBehindQueue.Builder(dataBaseConfig).withMaxDelayMillis(0).build();
+
+        //act
+        occupy(999);
+        occupy(1);
+        writeBehindQueue.flush();
+
+        //assert
+        Assertions.assertEquals(1, writeBehindQueue.getMetrics().getUnmatched());
+        Assertions.assertEquals(1, writeBehindQueue.getMetrics().getCommitted());
+        Assertions.assertEquals(2, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+    }
+
+    @Test
+    public void in_Group_Should_CommitMutationsTogether_When_WorkReturns() {
+
+        //arrange
+        writeBehindQueue = new WriteBehindQueue.Builder(dataBaseConfig)
+                .withMaxBatchSize(1)
+                .withMaxDelayMillis(0)
+                .build();
+
+        //act
+        String result = writeBehindQueue.inGroup(() -> {
+            occupy(1);
+            occupy(2);
+            return "exit";
+        });
+        writeBehindQueue.flush();
+
+        //assert
+        WriteBehindMetrics metrics = writeBehindQueue.getMetrics();
+        Assertions.assertEquals("exit", result);
+        Assertions.assertEquals(2, metrics.getQueued());
+        Assertions.assertEquals(2, metrics.getCommitted());
+        Assertions.assertEquals(1, metrics.getBatches());
+        Assertions.assertEquals(3, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+    }
+
+    @Test
+    public void in_Group_Should_DiscardMutations_When_WorkThrows() {
+
+        //arrange
+        writeBehindQueue = new WriteBehindQueue.Builder(dataBaseConfig).withMaxDelayMillis(0).build();
+
+        //act
+        Assertions.assertThrows(IllegalStateException.class, () -> writeBehindQueue.inGroup(() -> {
+            occupy(1);
+            throw new IllegalStateException("Fare calculation failed");
+        }));
+        occupy(2);
+        writeBehindQueue.flush();
+
+        //assert
+        Assertions.assertEquals(1, writeBehindQueue.getMetrics().getQueued());
+        Assertions.assertEquals(1, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+    }
+
+    @Test
+    public void flush_Should_RetryUntilCommitted_When_AttemptsFail() throws SQLException, ClassNotFoundException {
+
+        //arrange
+        when(failingDataBaseConfig.getConnection())
+                .thenThrow(new SQLTransientConnectionException("Database down"))
+                .thenThrow(new SQLTransientConnectionException("Database down"))
+                .thenAnswer(invocation -> dataBaseConfig.getConnection());
+        writeBehindQueue = new WriteBehindQueue.Builder(failingDataBaseConfig)
+                .withRetryBackoffMillis(1)
+                .build();
+
+        //act
+        occupy(1);
+        writeBehindQueue.flush();
+
+        //assert
+        Assertions.assertEquals(1, writeBehindQueue.getMetrics().getCommitted());
+        Assertions.assertEquals(2, writeBehindQueue.getMetrics().getRetries());
+        Assertions.assertEquals(2, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        verify(failingDataBaseConfig, times(3)).getConnection();
+    }
+
+    @Test
+    public void enqueue_Should_ThrowUnsuccessfulOperationException_When_QueueStaysFullWhileDataBaseIsDown()
+            throws SQLException, ClassNotFoundException {
+
+        //arrange
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        when(failingDataBaseConfig.getConnection()).thenAnswer(invocation -> {
+            if (databaseDown.get()) {
+                throw new SQLTransientConnectionException("Database down");
+            }
+            return dataBaseConfig.getConnection();
+        });
+        writeBehindQueue = new WriteBehindQueue.Builder(failingDataBaseConfig)
+                .withCapacity(1)
+                .withMaxDelayMillis(0)
+                .withEnqueueTimeoutMillis(50)
+                .withRetryBackoffMillis(1)
+                .withMaxRetryBackoffMillis(10)
+                .build();
+
+        //act & assert
+        Assertions.assertThrows(UnsuccessfulOperationException.class, () -> {
+            for (int parkingNumber = 1; parkingNumber <= 4; parkingNumber++) {
+                occupy(parkingNumber);
+            }
+        });
+        Assertions.assertEquals(0, writeBehindQueue.getMetrics().getCommitted());
+        Assertions.assertEquals(1, writeBehindQueue.getMetrics().getTimedOut());
+
+        databaseDown.set(false);
+        writeBehindQueue.flush();
+
+        Assertions.assertEquals(writeBehindQueue.getMetrics().getQueued(), writeBehindQueue.getMetrics().getCommitted());
+        Assertions.assertTrue(writeBehindQueue.getMetrics().getQueued() >= 2);
+    }
+
+    @Test
+    public void flush_Should_DeadLetterGroupAndWriteOthers_When_GroupFailsWithNonTransientError() {
+
+        //arrange
+        writeBehindQueue = new WriteBehindQueue.Builder(dataBaseConfig).withMaxDelayMillis(500).build();
+
+        //act
+        occupy(1);
+        writeBehindQueue.enqueue("parking spot 2", DBConstants.UPDATE_PARKING_SPOT, ps -> {
+            ps.setBoolean(1, false);
+            throw new SQLException("Value too long", "22001");
+        });
+        occupy(3);
+        writeBehindQueue.flush();
+
+        //assert
+        WriteBehindMetrics metrics = writeBehindQueue.getMetrics();
+        Assertions.assertEquals(2, metrics.getCommitted());
+        Assertions.assertEquals(1, metrics.getDeadLettered());
+        Assertions.assertEquals(0, metrics.getRetries());
+        Assertions.assertEquals(2, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        Assertions.assertFalse(writeBehindQueue.hasPending());
+    }
+
+    @Test
+    public void has_Pending_Should_Answer_When_AnotherCallerWaitsForRoom() throws Exception {
+
+        //arrange
+        when(failingDataBaseConfig.getConnection()).thenThrow(new SQLTransientConnectionException("Database down"));
+        writeBehindQueue = new WriteBehindQueue.Builder(failingDataBaseConfig)
+                .withCapacity(1)
+                .withMaxDelayMillis(0)
+                .withEnqueueTimeoutMillis(2_000)
+                .withRetryBackoffMillis(10)
+                .withCloseTimeoutMillis(0)
+                .build();
+        occupy(1);
+        occupy(2);
+        Thread waiting = new Thread(() -> Assertions.assertThrows(UnsuccessfulOperationException.class,
+                () -> occupy(3)));
+        waiting.start();
+        while (waiting.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+
+        //act & assert
+        Assertions.assertTrue(Assertions.assertTimeoutPreemptively(Duration.ofMillis(500),
+                () -> writeBehindQueue.hasPending()));
+        Assertions.assertEquals(1, writeBehindQueue.getMetrics().getQueueDepth());
+        waiting.interrupt();
+        waiting.join();
+    }
+
+    @Test
+    public void close_Should_ReturnAfterTimeout_When_DataBaseStaysDown() throws SQLException, ClassNotFoundException {
+
+        //arrange
+        when(failingDataBaseConfig.getConnection()).thenThrow(new SQLTransientConnectionException("Database down"));
+        writeBehindQueue = new WriteBehindQueue.Builder(failingDataBaseConfig)
+                .withMaxDelayMillis(0)
+                .withRetryBackoffMillis(10)
+                .withCloseTimeoutMillis(200)
+                .build();
+        occupy(1);
+
+        //act & assert
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> writeBehindQueue.close());
+        Assertions.assertEquals(0, writeBehindQueue.getMetrics().getCommitted());
+        Assertions.assertTrue(writeBehindQueue.hasPending());
+        writeBehindQueue = null;
+    }
+
+    private void occupy(int parkingNumber) {
+
+        writeBehindQueue.enqueue("parking spot " + parkingNumber, DBConstants.UPDATE_PARKING_SPOT, ps -> {
+            ps.setBoolean(1, false);
+            ps.setInt(2, parkingNumber);
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.constants.DBConstants;
+import com.parkit.parkingsystem.dao.WriteBehindQueue;
+import com.parkit.parkingsystem.dao.WriteBehindTicketDAOImpl;
+import com.parkit.parkingsystem.dao.contracts.TicketDAO;
+import com.parkit.parkingsystem.model.Ticket;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@Tag("WriteBehindTicketDAOTests")
+@DisplayName("Unit tests for WriteBehindTicketDAOImpl class")
+public class WriteBehindTicketDAOTests {
+
+    @Mock
+    private TicketDAO ticketDAO;
+
+    @Mock
+    private WriteBehindQueue writeBehindQueue;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    private WriteBehindTicketDAOImpl writeBehindTicketDAO;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        writeBehindTicketDAO = new WriteBehindTicketDAOImpl(ticketDAO, writeBehindQueue);
+    }
+
+    @Test
+    public void update_Ticket_Should_QueueValuesAtTimeOfCall_When_TicketChangesLater() throws SQLException {
+
+        //arrange
+        Ticket ticket = new Ticket();
+        ticket.setId(7);
+        ticket.setVehicleRegNumber("ABCDEF");
+        ticket.setPrice(1.5);
+        ticket.setOutTime(1_600_000_000L);
+        ArgumentCaptor<WriteBehindQueue.Binder> binder = ArgumentCaptor.forClass(WriteBehindQueue.Binder.class);
+
+        //act
+        boolean result = writeBehindTicketDAO.updateTicket(ticket);
+        ticket.setPrice(99);
+
+        //assert
+        Assertions.assertTrue(result);
+        verify(writeBehindQueue, times(1)).enqueue(eq("ABCDEF"), eq(DBConstants.UPDATE_TICKET), binder.capture());
+        binder.getValue().bind(preparedStatement);
+        verify(preparedStatement, times(1)).setDouble(1, 1.5);
+        verify(preparedStatement, times(1)).setTimestamp(2, new Timestamp(1_600_000_000_000L));
+        verify(preparedStatement, times(1)).setInt(3, 7);
+        verifyNoInteractions(ticketDAO);
+    }
+
+    @Test
+    public void save_Ticket_Should_SaveSynchronously_When_IdIsGeneratedByDataBase() {
+
+        //arrange
+        Ticket ticket = new Ticket();
+        when(ticketDAO.saveTicket(ticket)).thenReturn(true);
+
+        //act & assert
+        Assertions.assertTrue(writeBehindTicketDAO.saveTicket(ticket));
+        verifyNoInteractions(writeBehindQueue);
+    }
+}
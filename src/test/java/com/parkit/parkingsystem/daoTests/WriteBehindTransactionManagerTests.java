@@ -0,0 +1,176 @@
+package com.parkit.parkingsystem.daoTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.PooledDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.TransactionalDataBaseConfigImpl;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.ParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.TicketDAOImpl;
+import com.parkit.parkingsystem.dao.WriteBehindParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.WriteBehindQueue;
+import com.parkit.parkingsystem.dao.WriteBehindTicketDAOImpl;
+import com.parkit.parkingsystem.dao.WriteBehindTransactionManager;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Tag("WriteBehindTransactionManagerTests")
+@DisplayName("Unit tests for WriteBehindTransactionManager class")
+public class WriteBehindTransactionManagerTests {
+
+    private static int databaseCount;
+
+    private ParkingSpotDAOImpl parkingSpotDAO;
+    private TicketDAOImpl ticketDAO;
+    private WriteBehindParkingSpotDAOImpl writeBehindParkingSpotDAO;
+    private WriteBehindTicketDAOImpl writeBehindTicketDAO;
+    private WriteBehindQueue writeBehindQueue;
+    private WriteBehindTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        databaseCount++;
+        EmbeddedDataBaseConfigImpl dataBaseConfig =
+                new EmbeddedDataBaseConfigImpl("writeBehindTransaction" + databaseCount, "prod");
+        TransactionalDataBaseConfigImpl transactionalDataBaseConfig = new TransactionalDataBaseConfigImpl(dataBaseConfig);
+        parkingSpotDAO = new ParkingSpotDAOImpl(dataBaseConfig);
+        ticketDAO = new TicketDAOImpl(dataBaseConfig);
+        writeBehindQueue = new WriteBehindQueue.Builder(dataBaseConfig)
+                .withMaxBatchSize(1)
+                .withMaxDelayMillis(0)
+                .build();
+        writeBehindParkingSpotDAO = new WriteBehindParkingSpotDAOImpl(
+                new ParkingSpotDAOImpl(transactionalDataBaseConfig), writeBehindQueue);
+        writeBehindTicketDAO = new WriteBehindTicketDAOImpl(
+                new TicketDAOImpl(transactionalDataBaseConfig), writeBehindQueue);
+        transactionManager = new WriteBehindTransactionManager(transactionalDataBaseConfig, writeBehindQueue);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        writeBehindQueue.close();
+    }
+
+    @Test
+    public void in_Transaction_Should_WriteTicketAndSpotInOneCommit_When_VehicleExits() {
+
+        //arrange
+        Ticket ticket = park();
+        ticket.setPrice(1.5);
+        ticket.setOutTime(ticket.getInTime() + 3600);
+
+        //act
+        transactionManager.inTransaction(() -> {
+            writeBehindTicketDAO.updateTicket(ticket);
+            return writeBehindParkingSpotDAO.updateParking(new ParkingSpot(1, ParkingType.CAR, true));
+        });
+        writeBehindQueue.flush();
+
+        //assert
+        Assertions.assertEquals(1, writeBehindQueue.getMetrics().getBatches());
+        Assertions.assertEquals(2, writeBehindQueue.getMetrics().getCommitted());
+        Assertions.assertEquals(1, parkingSpotDAO.getNextAvailableSlot(ParkingType.CAR));
+        Assertions.assertEquals(ticket.getOutTime(), ticketDAO.getTicket("ABCDEF").getOutTime());
+    }
+
+    @Test
+    public void in_Transaction_Should_QueueNothing_When_WorkThrows() {
+
+        //arrange
+        Ticket ticket = park();
+        ticket.setPrice(1.5);
+        ticket.setOutTime(ticket.getInTime() + 3600);
+
+        //act
+        Assertions.assertThrows(IllegalStateException.class, () -> transactionManager.inTransaction(() -> {
+            writeBehindTicketDAO.updateTicket(ticket);
+            throw new IllegalStateException("Spot update failed");
+        }));
+        writeBehindQueue.flush();
+
+        //assert
+        Assertions.assertEquals(0, writeBehindQueue.getMetrics().getQueued());
+        Assertions.assertEquals(0, ticketDAO.getTicket("ABCDEF").getPrice());
+    }
+
+    @Test
+    public void in_Transaction_Should_ClaimReleasedSpot_When_GatesHoldEveryConnectionWhileReleaseIsQueued()
+            throws Exception {
+
+        //arrange
+        databaseCount++;
+        EmbeddedDataBaseConfigImpl dataBaseConfig =
+                new EmbeddedDataBaseConfigImpl("writeBehindTransaction" + databaseCount, "prod");
+        ParkingSpotDAOImpl directParkingSpotDAO = new ParkingSpotDAOImpl(dataBaseConfig);
+        for (int parkingNumber = 1; parkingNumber <= 3; parkingNumber++) {
+            directParkingSpotDAO.updateParking(new ParkingSpot(parkingNumber, ParkingType.CAR, false));
+        }
+        ExecutorService gates = Executors.newFixedThreadPool(2);
+
+        try (PooledDataBaseConfigImpl pool = new PooledDataBaseConfigImpl.Builder(dataBaseConfig)
+                .withMinSize(1)
+                .withMaxSize(1)
+                .build();
+             WriteBehindQueue releases = new WriteBehindQueue.Builder(pool)
+                     .withMaxDelayMillis(300)
+                     .withFlushTimeoutMillis(5_000)
+                     .build()) {
+
+            TransactionalDataBaseConfigImpl transactional = new TransactionalDataBaseConfigImpl(pool);
+            WriteBehindParkingSpotDAOImpl spots = new WriteBehindParkingSpotDAOImpl(
+                    new ParkingSpotDAOImpl(transactional), releases);
+            WriteBehindTransactionManager manager = new WriteBehindTransactionManager(transactional, releases);
+            spots.updateParking(new ParkingSpot(2, ParkingType.CAR, true));
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> claims = new ArrayList<>();
+            for (int gate = 0; gate < 2; gate++) {
+                claims.add(gates.submit(() -> {
+                    start.await();
+                    return manager.inTransaction(() -> spots.claimNextAvailableSlot(ParkingType.CAR));
+                }));
+            }
+
+            //act
+            start.countDown();
+            List<Integer> parkingNumbers = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                List<Integer> results = new ArrayList<>();
+                for (Future<Integer> claim : claims) {
+                    results.add(claim.get());
+                }
+                return results;
+            });
+
+            //assert
+            Assertions.assertTrue(parkingNumbers.contains(2));
+            Assertions.assertTrue(Math.min(parkingNumbers.get(0), parkingNumbers.get(1)) <= 0);
+            Assertions.assertEquals(0, releases.getMetrics().getRetries());
+
+        } finally {
+
+            gates.shutdownNow();
+        }
+    }
+
+    private Ticket park() {
+
+        parkingSpotDAO.updateParking(new ParkingSpot(1, ParkingType.CAR, false));
+
+        Ticket ticket = new Ticket();
+        ticket.setParkingSpot(new ParkingSpot(1, ParkingType.CAR, false));
+        ticket.setVehicleRegNumber("ABCDEF");
+        ticket.setInTime(1_600_000_000L);
+        ticket.setOutTime(-1L);
+        ticketDAO.saveTicket(ticket);
+
+        return ticket;
+    }
+}
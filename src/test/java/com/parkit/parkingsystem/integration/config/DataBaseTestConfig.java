@@ -9,13 +9,20 @@ import java.sql.SQLException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
 import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.constants.DataBaseType;
 
 public class DataBaseTestConfig implements DataBaseConfig {
 
 	private static final Logger logger = LogManager.getLogger("DataBaseTestConfig");
+	private static final EmbeddedDataBaseConfigImpl embeddedDataBaseConfig =
+			new EmbeddedDataBaseConfigImpl("parkit", "test");
 
 	public Connection getConnection() throws ClassNotFoundException, SQLException {
+		if (DataBaseType.selected() == DataBaseType.EMBEDDED) {
+			return embeddedDataBaseConfig.getConnection();
+		}
 		logger.info("Create DB connection");
 		Class.forName("com.mysql.cj.jdbc.Driver");
 		return DriverManager.getConnection("jdbc:mysql://localhost:3307/test?serverTimezone=UTC", "root", "password");
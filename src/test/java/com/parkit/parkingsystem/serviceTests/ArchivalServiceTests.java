@@ -0,0 +1,203 @@
+package com.parkit.parkingsystem.serviceTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.constants.ReportPeriod;
+import com.parkit.parkingsystem.dao.RecurringUserRegistry;
+import com.parkit.parkingsystem.dao.TicketDAOImpl;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import com.parkit.parkingsystem.service.ArchivalReport;
+import com.parkit.parkingsystem.service.ArchivalServiceImpl;
+import com.parkit.parkingsystem.service.MigrationServiceImpl;
+import com.parkit.parkingsystem.service.ReportServiceImpl;
+import com.parkit.parkingsystem.service.RevenueReport;
+import com.parkit.parkingsystem.util.contracts.TimeUtil;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.when;
+
+@Tag("ArchivalServiceTests")
+@DisplayName("Unit tests for ArchivalServiceImpl class")
+@ExtendWith(MockitoExtension.class)
+public class ArchivalServiceTests {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final long DAY = 24 * 60 * 60;
+
+    private static int databaseCount;
+
+    @Mock
+    private TimeUtil timeUtil;
+
+    private EmbeddedDataBaseConfigImpl dataBaseConfig;
+    private TicketDAOImpl ticketDAO;
+    private ArchivalServiceImpl archivalService;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        databaseCount++;
+        dataBaseConfig = new EmbeddedDataBaseConfigImpl("archival" + databaseCount, "prod");
+        new MigrationServiceImpl(dataBaseConfig).migrate();
+        ticketDAO = new TicketDAOImpl(dataBaseConfig);
+        archivalService = new ArchivalServiceImpl.Builder(dataBaseConfig)
+                .withTimeUtil(timeUtil)
+                .withRetentionDays(30)
+                .withChunkSize(2)
+                .withPauseMillis(0)
+                .build();
+
+        for (long daysAgo = 100; daysAgo >= 60; daysAgo -= 10) {
+            ticketDAO.saveTicket(ticket(1, ParkingType.CAR, "REPEAT", NOW - daysAgo * DAY, 1.5));
+        }
+        ticketDAO.saveTicket(ticket(2, ParkingType.CAR, "ONCE", NOW - 100 * DAY, 1.5));
+        ticketDAO.saveTicket(ticket(4, ParkingType.BIKE, "RECENT", NOW - 10 * DAY, 0.5));
+        ticketDAO.saveTicket(ticket(4, ParkingType.BIKE, "RECENT", NOW - 5 * DAY, 0.5));
+        ticketDAO.saveTicket(ticket(3, ParkingType.CAR, "PARKED", NOW - 100 * DAY, 1.5));
+        Ticket parked = ticket(3, ParkingType.CAR, "PARKED", NOW - 3600, 0);
+        parked.setOutTime(-1L);
+        ticketDAO.saveTicket(parked);
+    }
+
+    @Test
+    public void archive_Should_MoveEveryTicketClosedBeforeCutoffInChunks_When_Run() throws Exception {
+
+        //arrange
+        when(timeUtil.getTimeInSeconds()).thenReturn(NOW);
+
+        //act
+        ArchivalReport report = archivalService.archive();
+
+        //assert
+        Assertions.assertEquals(7, report.getMoved());
+        Assertions.assertEquals(4, report.getChunks());
+        Assertions.assertEquals(NOW - 30 * DAY, report.getCutoff());
+        Assertions.assertEquals(70 * DAY, report.getStartLagSeconds());
+        Assertions.assertEquals(0, report.getEndLagSeconds());
+        Assertions.assertSame(report, archivalService.getLastReport());
+        Assertions.assertEquals(3, count("ticket"));
+        Assertions.assertEquals(7, count("ticket_archive"));
+        Assertions.assertEquals(NOW - 5 * DAY, ticketDAO.getTicket("RECENT").getOutTime());
+    }
+
+    @Test
+    public void archive_Should_MoveNothing_When_RunAgain() {
+
+        //arrange
+        when(timeUtil.getTimeInSeconds()).thenReturn(NOW);
+        archivalService.archive();
+
+        //act
+        ArchivalReport report = archivalService.archive();
+
+        //assert
+        Assertions.assertEquals(0, report.getMoved());
+        Assertions.assertEquals(0, report.getChunks());
+        Assertions.assertEquals(0, report.getStartLagSeconds());
+    }
+
+    @Test
+    public void archive_Should_KeepRecurringUsers_When_VehicleComesBack() {
+
+        //arrange
+        when(timeUtil.getTimeInSeconds()).thenReturn(NOW);
+        archivalService.archive();
+        Ticket back = ticket(1, ParkingType.CAR, "REPEAT", NOW, 0);
+        back.setOutTime(-1L);
+        ticketDAO.saveTicket(back);
+
+        //act
+        RecurringUserRegistry recurringUserRegistry = new RecurringUserRegistry(dataBaseConfig, 1000, 0.01);
+        recurringUserRegistry.reload();
+
+        //assert
+        Assertions.assertTrue(recurringUserRegistry.contains("REPEAT"));
+    }
+
+    @Test
+    public void archive_Should_KeepRecurringUsers_When_RegistryIsNotLoaded() {
+
+        //arrange
+        when(timeUtil.getTimeInSeconds()).thenReturn(NOW);
+        archivalService.archive();
+        Ticket back = ticket(2, ParkingType.CAR, "ONCE", NOW, 0);
+        back.setOutTime(-1L);
+        ticketDAO.saveTicket(back);
+        Ticket first = ticket(5, ParkingType.BIKE, "FIRST", NOW, 0);
+        first.setOutTime(-1L);
+        ticketDAO.saveTicket(first);
+
+        //act
+        RecurringUserRegistry recurringUserRegistry = new RecurringUserRegistry(dataBaseConfig, 1000, 0.01);
+
+        //assert
+        Assertions.assertTrue(recurringUserRegistry.contains("ONCE"));
+        Assertions.assertFalse(recurringUserRegistry.contains("FIRST"));
+    }
+
+    @Test
+    public void archive_Should_LeaveRevenueReportUnchanged_When_TicketsAreArchived() {
+
+        //arrange
+        when(timeUtil.getTimeInSeconds()).thenReturn(NOW);
+        ReportServiceImpl reportService = new ReportServiceImpl.Builder(dataBaseConfig).build();
+        LocalDate from = LocalDate.ofEpochDay((NOW - 101 * DAY) / DAY);
+        LocalDate to = LocalDate.ofEpochDay(NOW / DAY + 1);
+        RevenueReport before = reportService.getRevenueReport(from, to, ReportPeriod.MONTH);
+
+        //act
+        archivalService.archive();
+        RevenueReport after = reportService.getRevenueReport(from, to, ReportPeriod.MONTH);
+
+        //assert
+        Assertions.assertEquals(9, after.getTicketsRead());
+        Assertions.assertEquals(before.getTicketsRead(), after.getTicketsRead());
+        Assertions.assertEquals(before.getRows().size(), after.getRows().size());
+        for (int i = 0; i < before.getRows().size(); i++) {
+            Assertions.assertEquals(before.getRows().get(i).getRevenue(), after.getRows().get(i).getRevenue());
+        }
+    }
+
+    @Test
+    public void build_Should_ThrowIllegalArgumentException_When_ChunkSizeIsNotPositive() {
+
+        //act & assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ArchivalServiceImpl
+                .Builder(dataBaseConfig)
+                .withChunkSize(0)
+                .build());
+    }
+
+    private static Ticket ticket(int parkingNumber, ParkingType parkingType, String vehicleRegNumber,
+                                 long outTime, double price) {
+
+        Ticket ticket = new Ticket();
+        ticket.setParkingSpot(new ParkingSpot(parkingNumber, parkingType, false));
+        ticket.setVehicleRegNumber(vehicleRegNumber);
+        ticket.setInTime(outTime - 3600);
+        ticket.setOutTime(outTime);
+        ticket.setPrice(price);
+
+        return ticket;
+    }
+
+    private int count(String table) throws Exception {
+
+        try (Connection con = dataBaseConfig.getConnection();
+             PreparedStatement ps = con.prepareStatement("select count(*) from " + table);
+             ResultSet rs = ps.executeQuery()) {
+
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 import com.parkit.parkingsystem.constants.DiscountType;
+import com.parkit.parkingsystem.dao.InMemoryRecurringUsers;
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
 import com.parkit.parkingsystem.service.FareCalculatorServiceImpl;
 import org.junit.jupiter.api.*;
 
@@ -16,9 +18,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 @Tag("FareCalculatorServiceTests")
 @DisplayName("Unit tests for FareCalculatorServiceImpl class")
@@ -40,7 +40,7 @@ public class FareCalculatorServiceTests {
     private ParkingType parkingType;
 
     private List<DiscountType> discounts;
-    private Set<String> recurringUsers;
+    private RecurringUsers recurringUsers;
 
     @Mock
     private DiscountType discountType;
@@ -50,7 +50,7 @@ public class FareCalculatorServiceTests {
 
         discounts = new ArrayList<>();
         discounts.add(discountType);
-        recurringUsers = new HashSet<>();
+        recurringUsers = new InMemoryRecurringUsers();
     }
 
     @Nested
@@ -0,0 +1,116 @@
+package com.parkit.parkingsystem.serviceTests;
+
+import com.parkit.parkingsystem.constants.DiscountType;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.InMemoryRecurringUsers;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import com.parkit.parkingsystem.service.FareCalculatorServiceImpl;
+import com.parkit.parkingsystem.service.FarePipeline;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Tag("FarePipelineTests")
+@DisplayName("Unit tests for FarePipeline class")
+public class FarePipelineTests {
+
+    @Nested
+    @Tag("methodCanCompileTests")
+    @DisplayName("Tests for method canCompile in FarePipeline class")
+    public class CanCompileTests {
+
+        @Test
+        public void can_Compile_Should_ReturnTrue_When_PrimaryIsFollowedBySupplementary() {
+
+            //act & assert
+            Assertions.assertTrue(FarePipeline.canCompile(Arrays.asList(DiscountType.P_FREE_30_MIN,
+                    DiscountType.S_RECURRING_USERS_5PERCENT)));
+        }
+
+        @Test
+        public void can_Compile_Should_ReturnFalse_When_ChainIsNotPrimaryFirst() {
+
+            //act & assert
+            Assertions.assertFalse(FarePipeline.canCompile(Arrays.asList(DiscountType.S_RECURRING_USERS_5PERCENT,
+                    DiscountType.P_NO_DISCOUNT)));
+            Assertions.assertFalse(FarePipeline.canCompile(Arrays.asList(DiscountType.P_NO_DISCOUNT,
+                    DiscountType.P_FREE_30_MIN)));
+            Assertions.assertFalse(FarePipeline.canCompile(Collections.emptyList()));
+        }
+    }
+
+    @Nested
+    @Tag("compiledFareTests")
+    @DisplayName("Tests for fares calculated through FarePipeline by FareCalculatorServiceImpl class")
+    public class CompiledFareTests {
+
+        @Test
+        public void calculate_Fare_Should_MatchDiscountLoop_When_ChainIsCompiled() {
+
+            for (FareCalculatorServiceImpl service : chains()) {
+                for (ParkingType parkingType : ParkingType.values()) {
+                    for (long minutes = 0; minutes <= 24 * 60; minutes += 7) {
+                        for (boolean recurring : new boolean[]{false, true}) {
+
+                            //arrange
+                            Ticket compiled = ticket(parkingType, minutes);
+                            Ticket looped = ticket(parkingType, minutes);
+                            Set<String> compiledUsers = users(recurring);
+                            Set<String> loopedUsers = users(recurring);
+
+                            //act
+                            service.calculateFare(compiled, service.getDiscounts(), new InMemoryRecurringUsers(compiledUsers));
+                            service.calculateFare(looped, new ArrayList<>(service.getDiscounts()),
+                                    new InMemoryRecurringUsers(loopedUsers));
+
+                            //assert
+                            Assertions.assertEquals(Double.doubleToLongBits(looped.getPrice()),
+                                    Double.doubleToLongBits(compiled.getPrice()),
+                                    service.getDiscounts() + " " + parkingType + " " + minutes + " " + recurring);
+                            Assertions.assertEquals(loopedUsers, compiledUsers);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private List<FareCalculatorServiceImpl> chains() {
+
+        return Arrays.asList(
+                new FareCalculatorServiceImpl.Builder(DiscountType.P_NO_DISCOUNT).build(),
+                new FareCalculatorServiceImpl.Builder(DiscountType.P_FREE_30_MIN).build(),
+                new FareCalculatorServiceImpl.Builder(DiscountType.P_NO_DISCOUNT)
+                        .withDiscountType(DiscountType.S_RECURRING_USERS_5PERCENT)
+                        .build(),
+                new FareCalculatorServiceImpl.Builder(DiscountType.P_FREE_30_MIN)
+                        .withDiscountType(DiscountType.S_RECURRING_USERS_5PERCENT)
+                        .withDiscountType(DiscountType.S_RECURRING_USERS_5PERCENT)
+                        .build());
+    }
+
+    private Ticket ticket(ParkingType parkingType, long minutes) {
+
+        Ticket ticket = new Ticket();
+        ticket.setParkingSpot(new ParkingSpot(1, parkingType, false));
+        ticket.setVehicleRegNumber("ABCDEF");
+        ticket.setInTime(1_600_000_000L);
+        ticket.setOutTime(1_600_000_000L + minutes * 60 + 59);
+        return ticket;
+    }
+
+    private Set<String> users(boolean recurring) {
+
+        Set<String> users = new HashSet<>();
+        if (recurring) {
+            users.add("ABCDEF");
+        }
+        return users;
+    }
+}
@@ -0,0 +1,225 @@
+package com.parkit.parkingsystem.serviceTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.config.contracts.DataBaseConfig;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.ParkingSpotDAOImpl;
+import com.parkit.parkingsystem.dao.TicketDAOImpl;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import com.parkit.parkingsystem.service.GateLogImportReport;
+import com.parkit.parkingsystem.service.GateLogImportServiceImpl;
+import com.parkit.parkingsystem.service.MigrationServiceImpl;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Tag("GateLogImportServiceTests")
+@DisplayName("Unit tests for GateLogImportServiceImpl class")
+public class GateLogImportServiceTests {
+
+    private static int databaseCount;
+
+    @TempDir
+    Path directory;
+
+    private EmbeddedDataBaseConfigImpl dataBaseConfig;
+    private GateLogImportServiceImpl gateLogImportService;
+    private Path gateLog;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        databaseCount++;
+        dataBaseConfig = new EmbeddedDataBaseConfigImpl("gateLogImport" + databaseCount, "prod");
+        new MigrationServiceImpl(dataBaseConfig).migrate();
+        gateLogImportService = new GateLogImportServiceImpl.Builder(dataBaseConfig)
+                .withBatchSize(2)
+                .withCommitInterval(2)
+                .withBufferSize(16)
+                .build();
+        gateLog = directory.resolve("gates.csv");
+    }
+
+    @Test
+    public void import_Gate_Log_Should_WriteValidRowsAndRejectOthers_When_FileMixesBoth() throws Exception {
+
+        //arrange
+        write("vehicle_reg_number,parking_type,parking_number,in_time,out_time,price",
+                "ABCDEF,CAR,1,2020-09-13 12:26:40,2020-09-13T13:56:40,2.25",
+                "GHIJKL,bike,4,1600000000,,",
+                "TOOLONGPLATE1,CAR,2,1600000000,1600003600,1.5",
+                "MNOPQR,TRUCK,2,1600000000,1600003600,1.5",
+                "STUVWX,BIKE,1,1600000000,1600003600,1.5",
+                "YZABCD,CAR,2,1600003600,1600000000,1.5",
+                "",
+                "EFGHIJ,CAR,3,1600000000");
+
+        //act
+        GateLogImportReport report = gateLogImportService.importGateLog(gateLog);
+
+        //assert
+        Assertions.assertEquals(9, report.getLinesRead());
+        Assertions.assertEquals(3, report.getImported());
+        Assertions.assertEquals(4, report.getRejected());
+        Assertions.assertEquals(3, count("select count(*) from ticket"));
+
+        Ticket closed = new TicketDAOImpl(dataBaseConfig).getTicket("ABCDEF");
+        Assertions.assertEquals(1_600_000_000L, closed.getInTime());
+        Assertions.assertEquals(1_600_005_400L, closed.getOutTime());
+        Assertions.assertEquals(2.25, closed.getPrice());
+
+        Ticket open = new TicketDAOImpl(dataBaseConfig).getTicket("GHIJKL");
+        Assertions.assertEquals(2, count("select count(*) from ticket where OUT_TIME is null"));
+        Assertions.assertEquals(ParkingType.BIKE, open.getParkingSpot().getParkingType());
+        for (ParkingSpot parkingSpot : new ParkingSpotDAOImpl(dataBaseConfig).getParkingSpots()) {
+            int number = parkingSpot.getId();
+            Assertions.assertEquals(number != 4 && number != 3, parkingSpot.isAvailable(), "spot " + number);
+        }
+    }
+
+    @Test
+    public void import_Gate_Log_Should_ResumeAfterCheckpoint_When_FileIsImportedAgain() throws Exception {
+
+        //arrange
+        write("ABCDEF,CAR,1,1600000000,1600003600,1.5",
+                "GHIJKL,CAR,2,1600000000,1600003600,1.5",
+                "MNOPQR,CAR,3,1600000000,1600003600,1.5");
+        gateLogImportService.importGateLog(gateLog);
+        Files.write(gateLog, "STUVWX,BIKE,4,1600000000,1600003600,1.5\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        //act
+        GateLogImportReport report = gateLogImportService.importGateLog(gateLog);
+
+        //assert
+        Assertions.assertEquals(3, report.getResumedFromLine());
+        Assertions.assertEquals(1, report.getLinesRead());
+        Assertions.assertEquals(1, report.getImported());
+        Assertions.assertEquals(4, count("select count(*) from ticket"));
+        Assertions.assertEquals(4, count("select IMPORTED from import_checkpoint"));
+    }
+
+    @Test
+    public void import_Gate_Log_Should_ImportEveryRowOnce_When_RunIsKilledRightAfterACommit() throws Exception {
+
+        //arrange
+        write("ABCDEF,CAR,1,1600000000,1600003600,1.5",
+                "GHIJKL,CAR,2,1600000000,1600003600,1.5",
+                "MNOPQR,CAR,3,1600000000,1600003600,1.5",
+                "STUVWX,BIKE,4,1600000000,1600003600,1.5",
+                "YZABCD,BIKE,5,1600000000,1600003600,1.5");
+        GateLogImportServiceImpl killedImport = new GateLogImportServiceImpl.Builder(failingOnCommit(2))
+                .withBatchSize(2)
+                .withCommitInterval(2)
+                .build();
+        Assertions.assertThrows(UnsuccessfulOperationException.class, () -> killedImport.importGateLog(gateLog));
+        Assertions.assertEquals(4, count("select count(*) from ticket"));
+
+        //act
+        GateLogImportReport report = gateLogImportService.importGateLog(gateLog);
+
+        //assert
+        Assertions.assertEquals(4, report.getResumedFromLine());
+        Assertions.assertEquals(1, report.getImported());
+        Assertions.assertEquals(5, count("select count(*) from ticket"));
+        Assertions.assertEquals(5, count("select count(distinct VEHICLE_REG_NUMBER) from ticket"));
+    }
+
+    @Test
+    public void import_Gate_Log_Should_ResumeAfterFormerCheckpointFile_When_TableHoldsNoCheckpoint() throws Exception {
+
+        //arrange
+        write("ABCDEF,CAR,1,1600000000,1600003600,1.5",
+                "GHIJKL,CAR,2,1600000000,1600003600,1.5");
+        Path checkpointFile = directory.resolve("gates.csv.checkpoint");
+        Files.write(checkpointFile, ("line=1\noffset=" + ("ABCDEF,CAR,1,1600000000,1600003600,1.5\n").length()
+                + "\nimported=1\nrejected=0\n").getBytes(StandardCharsets.UTF_8));
+
+        //act
+        GateLogImportReport report = gateLogImportService.importGateLog(gateLog);
+
+        //assert
+        Assertions.assertEquals(1, report.getResumedFromLine());
+        Assertions.assertEquals(1, report.getImported());
+        Assertions.assertEquals(1, count("select count(*) from ticket"));
+        Assertions.assertEquals(2, count("select IMPORTED from import_checkpoint"));
+        Assertions.assertFalse(Files.exists(checkpointFile));
+    }
+
+    @Test
+    public void import_Gate_Log_Should_ThrowUnsuccessfulOperationException_When_FileIsMissing() {
+
+        //act & assert
+        Assertions.assertThrows(UnsuccessfulOperationException.class,
+                () -> gateLogImportService.importGateLog(directory.resolve("missing.csv")));
+    }
+
+    /**
+     * Returns a <code>DataBaseConfig</code> whose connections commit the
+     * <code>failingCommit</code>th time and then fail, as a run killed right
+     * after its rows were committed.
+     */
+    private DataBaseConfig failingOnCommit(int failingCommit) {
+
+        AtomicInteger commits = new AtomicInteger();
+
+        return new DataBaseConfig() {
+
+            @Override
+            public Connection getConnection() throws ClassNotFoundException, SQLException {
+
+                Connection con = dataBaseConfig.getConnection();
+
+                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                            Object result;
+                            try {
+                                result = method.invoke(con, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                            if (method.getName().equals("commit") && commits.incrementAndGet() == failingCommit) {
+                                throw new SQLException("Killed after commit");
+                            }
+                            return result;
+                        });
+            }
+
+            @Override
+            public void closeResultSet(ResultSet rs) {
+
+                dataBaseConfig.closeResultSet(rs);
+            }
+        };
+    }
+
+    private void write(String... lines) throws IOException {
+
+        Files.write(gateLog, (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long count(String sql) throws SQLException, ClassNotFoundException {
+
+        try (Connection con = dataBaseConfig.getConnection();
+             Statement statement = con.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
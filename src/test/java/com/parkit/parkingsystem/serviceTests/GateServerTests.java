@@ -0,0 +1,346 @@
+package com.parkit.parkingsystem.serviceTests;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.ParkingStatistics;
+import com.parkit.parkingsystem.model.Ticket;
+import com.parkit.parkingsystem.service.GateServerImpl;
+import com.parkit.parkingsystem.service.GateServerMetrics;
+import com.parkit.parkingsystem.service.contracts.ParkingService;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@Tag("GateServerTests")
+@DisplayName("Unit tests for GateServerImpl class")
+@ExtendWith(MockitoExtension.class)
+public class GateServerTests {
+
+    @Mock
+    private ParkingService parkingService;
+
+    private GateServerImpl gateServer;
+    private Ticket ticket;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        ticket = new Ticket();
+        ticket.setId(7);
+        ticket.setParkingSpot(new ParkingSpot(3, ParkingType.CAR, false));
+        ticket.setVehicleRegNumber("AB\"12");
+        ticket.setInTime(1_600_000_000L);
+    }
+
+    @AfterEach
+    public void tearDownPerTest() {
+
+        if (gateServer != null) {
+            gateServer.stop(0);
+        }
+    }
+
+    @Nested
+    @Tag("EntryTests")
+    @DisplayName("Tests for entry requests in GateServerImpl class")
+    public class EntryTests {
+
+        @Test
+        public void entry_Should_Answer201WithTicket_When_SpotIsClaimed() throws Exception {
+
+            //arrange
+            when(parkingService.enter(ParkingType.CAR, "AB\"12")).thenReturn(ticket);
+            start(new GateServerImpl.Builder(parkingService));
+
+            //act
+            Reply reply = request("POST", "/entry?type=car&plate=AB%2212");
+
+            //assert
+            Assertions.assertEquals(201, reply.status);
+            Assertions.assertEquals("{\"id\":7,\"vehicleRegNumber\":\"AB\\\"12\",\"parkingNumber\":3,"
+                    + "\"parkingType\":\"CAR\",\"inTime\":1600000000,\"outTime\":-1,\"price\":0.0}", reply.body);
+        }
+
+        @Test
+        public void entry_Should_Answer409_When_NoSpotIsAvailable() throws Exception {
+
+            //arrange
+            when(parkingService.enter(ParkingType.BIKE, "ABCDEF")).thenReturn(Ticket.NOT_FOUND);
+            start(new GateServerImpl.Builder(parkingService));
+
+            //act
+            Reply reply = request("POST", "/entry?type=BIKE&plate=ABCDEF");
+
+            //assert
+            Assertions.assertEquals(409, reply.status);
+        }
+
+        @Test
+        public void entry_Should_Answer400_When_ParkingTypeIsUnknown() throws Exception {
+
+            //arrange
+            start(new GateServerImpl.Builder(parkingService));
+
+            //act
+            Reply reply = request("POST", "/entry?type=TRUCK&plate=ABCDEF");
+
+            //assert
+            Assertions.assertEquals(400, reply.status);
+            Assertions.assertTrue(reply.body.contains("TRUCK"));
+            verifyNoInteractions(parkingService);
+        }
+
+        @Test
+        public void entry_Should_Answer405_When_MethodIsGet() throws Exception {
+
+            //arrange
+            start(new GateServerImpl.Builder(parkingService));
+
+            //act
+            Reply reply = request("GET", "/entry?type=CAR&plate=ABCDEF");
+
+            //assert
+            Assertions.assertEquals(405, reply.status);
+            verifyNoInteractions(parkingService);
+        }
+    }
+
+    @Nested
+    @Tag("ExitAndQuoteTests")
+    @DisplayName("Tests for exit and quote requests in GateServerImpl class")
+    public class ExitAndQuoteTests {
+
+        @Test
+        public void exit_Should_Answer404_When_VehicleHasNoTicket() throws Exception {
+
+            //arrange
+            when(parkingService.exit("ABCDEF")).thenReturn(Ticket.NOT_FOUND);
+            start(new GateServerImpl.Builder(parkingService));
+
+            //act
+            Reply reply = request("POST", "/exit?plate=ABCDEF");
+
+            //assert
+            Assertions.assertEquals(404, reply.status);
+        }
+
+        @Test
+        public void exit_Should_Answer500AndCountFailure_When_DatabaseFails() throws Exception {
+
+            //arrange
+            when(parkingService.exit("ABCDEF")).thenThrow(new UnsuccessfulOperationException("Failed"));
+            start(new GateServerImpl.Builder(parkingService));
+
+            //act
+            Reply reply = request("POST", "/exit?plate=ABCDEF");
+
+            //assert
+            Assertions.assertEquals(500, reply.status);
+            Assertions.assertEquals(1, gateServer.getMetrics().getFailures());
+        }
+
+        @Test
+        public void quote_Should_Answer200WithPrice_When_VehicleHasTicket() throws Exception {
+
+            //arrange
+            ticket.setOutTime(1_600_003_600L);
+            ticket.setPrice(1.5);
+            when(parkingService.quote("ABCDEF")).thenReturn(ticket);
+            start(new GateServerImpl.Builder(parkingService));
+
+            //act
+            Reply reply = request("GET", "/quote?plate=ABCDEF");
+
+            //assert
+            Assertions.assertEquals(200, reply.status);
+            Assertions.assertTrue(reply.body.endsWith("\"outTime\":1600003600,\"price\":1.5}"));
+        }
+
+        @Test
+        public void statistics_Should_Answer200WithCounters_When_Requested() throws Exception {
+
+            //arrange
+            when(parkingService.getStatistics()).thenReturn(new ParkingStatistics(LocalDate.of(2020, 9, 13),
+                    new int[]{2, 2}, new int[]{1, 0}, new long[]{4, 1}, new long[]{3, 1}, new double[]{4.5, 1.0}));
+            start(new GateServerImpl.Builder(parkingService));
+
+            //act
+            Reply reply = request("GET", "/statistics");
+
+            //assert
+            Assertions.assertEquals(200, reply.status);
+            Assertions.assertEquals("{\"day\":\"2020-09-13\",\"vehiclesInside\":1,\"entries\":5,\"exits\":4,"
+                    + "\"revenue\":5.5,\"parkingTypes\":{"
+                    + "\"CAR\":{\"freeSpots\":2,\"occupiedSpots\":1,\"entries\":4,\"exits\":3,\"revenue\":4.5},"
+                    + "\"BIKE\":{\"freeSpots\":2,\"occupiedSpots\":0,\"entries\":1,\"exits\":1,\"revenue\":1.0}}}",
+                    reply.body);
+        }
+    }
+
+    @Nested
+    @Tag("ConcurrencyTests")
+    @DisplayName("Tests for concurrent requests in GateServerImpl class")
+    public class ConcurrencyTests {
+
+        @Test
+        public void server_Should_Answer503WithRetryAfter_When_InFlightLimitIsReached() throws Exception {
+
+            //arrange
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            when(parkingService.exit("ABCDEF")).thenAnswer(invocation -> {
+                entered.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                return Ticket.NOT_FOUND;
+            });
+            start(new GateServerImpl.Builder(parkingService).withMaxInFlightRequests(1));
+            ExecutorService client = Executors.newSingleThreadExecutor();
+
+            try {
+                Future<Reply> blocked = client.submit(() -> request("POST", "/exit?plate=ABCDEF"));
+                Assertions.assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+                //act
+                Reply reply = request("GET", "/quote?plate=GHIJKL");
+                release.countDown();
+
+                //assert
+                Assertions.assertEquals(503, reply.status);
+                Assertions.assertEquals("1", reply.retryAfter);
+                Assertions.assertEquals(404, blocked.get(10, TimeUnit.SECONDS).status);
+                Assertions.assertEquals(1, gateServer.getMetrics().getRejected());
+                verify(parkingService, never()).quote(anyString());
+
+            } finally {
+                client.shutdownNow();
+            }
+        }
+
+        @Test
+        public void quote_Should_Answer503_When_QuoteExecutorRejectsLookups() throws Exception {
+
+            //arrange
+            Executor saturated = command -> {
+                throw new RejectedExecutionException("Saturated");
+            };
+            when(parkingService.quoteAsync("ABCDEF", saturated)).thenThrow(new RejectedExecutionException("Saturated"));
+            start(new GateServerImpl.Builder(parkingService).withQuoteExecutor(saturated));
+
+            //act
+            Reply reply = request("GET", "/quote?plate=ABCDEF");
+
+            //assert
+            Assertions.assertEquals(503, reply.status);
+            Assertions.assertEquals("1", reply.retryAfter);
+            verify(parkingService, never()).quote(anyString());
+        }
+
+        @Test
+        public void server_Should_AnswerEveryRequest_When_ManyGatesCallAtOnce() throws Exception {
+
+            //arrange
+            int gates = 50;
+            int requestsPerGate = 20;
+            when(parkingService.quote(anyString())).thenReturn(ticket);
+            start(new GateServerImpl.Builder(parkingService));
+            ExecutorService client = Executors.newFixedThreadPool(gates);
+            List<Future<Integer>> answered = new ArrayList<>();
+
+            try {
+                //act
+                for (int gate = 0; gate < gates; gate++) {
+                    answered.add(client.submit(() -> {
+                        int ok = 0;
+                        for (int i = 0; i < requestsPerGate; i++) {
+                            ok += request("GET", "/quote?plate=ABCDEF").status == 200 ? 1 : 0;
+                        }
+                        return ok;
+                    }));
+                }
+
+                int ok = 0;
+                for (Future<Integer> future : answered) {
+                    ok += future.get(60, TimeUnit.SECONDS);
+                }
+
+                //assert
+                GateServerMetrics metrics = gateServer.getMetrics();
+                Assertions.assertEquals(gates * requestsPerGate, ok);
+                Assertions.assertEquals(gates * requestsPerGate, metrics.getRequests());
+                Assertions.assertEquals(0, metrics.getRejected());
+                Assertions.assertTrue(metrics.getPeakInFlight() <= gates);
+
+            } finally {
+                client.shutdownNow();
+            }
+        }
+    }
+
+    private void start(GateServerImpl.Builder builder) {
+
+        gateServer = builder.withHost("127.0.0.1").withPort(0).build();
+        gateServer.start();
+    }
+
+    private Reply request(String method, String path) throws IOException {
+
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + gateServer.getPort() + path)
+                .openConnection();
+        connection.setRequestMethod(method);
+
+        try {
+            int status = connection.getResponseCode();
+            InputStream stream = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buffer = new byte[256];
+
+            for (int read; stream != null && (read = stream.read(buffer)) != -1; ) {
+                body.write(buffer, 0, read);
+            }
+            if (stream != null) {
+                stream.close();
+            }
+
+            return new Reply(status, body.toString(StandardCharsets.UTF_8.name()),
+                    connection.getHeaderField("Retry-After"));
+
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static final class Reply {
+
+        private final int status;
+        private final String body;
+        private final String retryAfter;
+
+        private Reply(int status, String body, String retryAfter) {
+            this.status = status;
+            this.body = body;
+            this.retryAfter = retryAfter;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.parkit.parkingsystem.serviceTests;
 
 import com.parkit.parkingsystem.constants.DiscountType;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
 import com.parkit.parkingsystem.service.FareCalculatorServiceImpl;
 import com.parkit.parkingsystem.service.InteractiveShellImpl;
+import com.parkit.parkingsystem.service.contracts.MigrationService;
 import com.parkit.parkingsystem.service.contracts.ParkingService;
 import com.parkit.parkingsystem.util.contracts.InputReaderUtil;
 import org.junit.jupiter.api.Assertions;
@@ -27,6 +29,9 @@ public class InteractiveShellTests {
     @Mock
     private ParkingService parkingService;
 
+    @Mock
+    private MigrationService migrationService;
+
     @InjectMocks
     private final InteractiveShellImpl interactiveShell = new InteractiveShellImpl(new FareCalculatorServiceImpl
             .Builder(DiscountType.P_NO_DISCOUNT)
@@ -44,6 +49,7 @@ public class InteractiveShellTests {
 
         //assert
         verify(inputReaderUtil, times(1)).readSelection();
+        verify(parkingService, times(1)).loadStatistics();
         verify(parkingService, times(1)).processIncomingVehicle();
         verifyNoMoreInteractions(inputReaderUtil, parkingService);
     }
@@ -60,6 +66,7 @@ public class InteractiveShellTests {
 
         //assert
         verify(inputReaderUtil, times(1)).readSelection();
+        verify(parkingService, times(1)).loadStatistics();
         verify(parkingService, times(1)).processExitingVehicle();
         verifyNoMoreInteractions(inputReaderUtil, parkingService);
     }
@@ -75,6 +82,21 @@ public class InteractiveShellTests {
 
         //assert
         verify(inputReaderUtil, times(1)).readSelection();
+        verify(parkingService, times(1)).loadStatistics();
         verifyNoMoreInteractions(inputReaderUtil, parkingService);
     }
+
+    @Test
+    public void load_Interface_Should_ServeNothing_When_SchemaCanNotBeMigrated() {
+
+        //arrange
+        when(migrationService.migrate()).thenThrow(new UnsuccessfulOperationException("Migration lock held"));
+
+        //act
+        interactiveShell.loadInterface();
+
+        //assert
+        verify(migrationService, times(1)).migrate();
+        verifyNoMoreInteractions(inputReaderUtil, parkingService, migrationService);
+    }
 }
@@ -0,0 +1,183 @@
+package com.parkit.parkingsystem.serviceTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.constants.Migration;
+import com.parkit.parkingsystem.constants.QueryPlanCheck;
+import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
+import com.parkit.parkingsystem.service.MigrationServiceImpl;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Tag("MigrationServiceTests")
+@DisplayName("Unit tests for MigrationServiceImpl class")
+public class MigrationServiceTests {
+
+    private static int databaseCount;
+
+    private EmbeddedDataBaseConfigImpl dataBaseConfig;
+    private MigrationServiceImpl migrationService;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        databaseCount++;
+        dataBaseConfig = new EmbeddedDataBaseConfigImpl("migration" + databaseCount, "prod");
+        migrationService = new MigrationServiceImpl(dataBaseConfig);
+    }
+
+    @Nested
+    @Tag("methodMigrateTests")
+    @DisplayName("Tests for method migrate in MigrationServiceImpl class")
+    public class MigrateTests {
+
+        @Test
+        public void migrate_Should_ApplyAllMigrations_When_SchemaIsNew() {
+
+            //act
+            int applied = migrationService.migrate();
+
+            //assert
+            Assertions.assertEquals(Migration.values().length, applied);
+        }
+
+        @Test
+        public void migrate_Should_ApplyNothing_When_SchemaIsUpToDate() {
+
+            //arrange
+            migrationService.migrate();
+
+            //act
+            int applied = migrationService.migrate();
+
+            //assert
+            Assertions.assertEquals(0, applied);
+        }
+
+        @Test
+        public void migrate_Should_RecordMigration_When_ItsIndexExistsWithoutVersion()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            migrationService.migrate();
+            execute("delete from schema_version where VERSION >= 5");
+
+            //act
+            int applied = migrationService.migrate();
+
+            //assert
+            Assertions.assertEquals(Migration.values().length - 4, applied);
+            Assertions.assertEquals(0, migrationService.migrate());
+        }
+
+        @Test
+        public void migrate_Should_ThrowException_When_LockIsHeldByAnotherInstance()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            migrationService.migrate();
+            execute("update schema_lock set LOCKED = true, LOCKED_AT = now(), LOCKED_BY = 'other'");
+            MigrationServiceImpl waitingService = new MigrationServiceImpl(dataBaseConfig, 300, 3_600_000);
+
+            //act & assert
+            Assertions.assertThrows(UnsuccessfulOperationException.class, () -> waitingService.migrate());
+        }
+
+        @Test
+        public void migrate_Should_TakeOverLock_When_ItsLeaseExpired()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            migrationService.migrate();
+            execute("update schema_lock set LOCKED = true, LOCKED_AT = dateadd('HOUR', -2, now())," +
+                    " LOCKED_BY = 'crashed'");
+
+            //act
+            int applied = migrationService.migrate();
+
+            //assert
+            Assertions.assertEquals(0, applied);
+        }
+
+        @Test
+        public void migrate_Should_ApplyEachMigrationOnce_When_InstancesMigrateConcurrently()
+                throws InterruptedException, ExecutionException {
+
+            //arrange
+            ExecutorService instances = Executors.newFixedThreadPool(2);
+            MigrationServiceImpl otherService = new MigrationServiceImpl(dataBaseConfig);
+
+            //act
+            Future<Integer> first = instances.submit(() -> migrationService.migrate());
+            Future<Integer> second = instances.submit(() -> otherService.migrate());
+            int applied = first.get() + second.get();
+            instances.shutdown();
+
+            //assert
+            Assertions.assertEquals(Migration.values().length, applied);
+        }
+
+        @Test
+        public void migrate_Should_ThrowException_When_AppliedMigrationWasEdited()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            migrationService.migrate();
+            execute("update schema_version set CHECKSUM = 42 where VERSION = 1");
+
+            //act & assert
+            Assertions.assertThrows(UnsuccessfulOperationException.class, () -> migrationService.migrate());
+        }
+
+        @Test
+        public void migrate_Should_ThrowException_When_DataBaseIsNewerThanApplication()
+                throws SQLException, ClassNotFoundException {
+
+            //arrange
+            migrationService.migrate();
+            execute("insert into schema_version(VERSION, DESCRIPTION, CHECKSUM, INSTALLED_ON)" +
+                    " values(999, 'future', 0, now())");
+
+            //act & assert
+            Assertions.assertThrows(UnsuccessfulOperationException.class, () -> migrationService.migrate());
+        }
+    }
+
+    @Nested
+    @Tag("methodVerifyQueryPlansTests")
+    @DisplayName("Tests for method verifyQueryPlans in MigrationServiceImpl class")
+    public class VerifyQueryPlansTests {
+
+        @Test
+        public void verify_Query_Plans_Should_ReturnNoFailures_When_MigrationsAreApplied() {
+
+            //arrange
+            migrationService.migrate();
+
+            //act & assert
+            Assertions.assertEquals(Collections.emptyList(), migrationService.verifyQueryPlans());
+        }
+
+        @Test
+        public void verify_Query_Plans_Should_ReturnFailingStatements_When_MigrationsAreMissing() {
+
+            //act & assert
+            Assertions.assertTrue(migrationService.verifyQueryPlans().contains(QueryPlanCheck.GET_TICKET));
+        }
+    }
+
+    private void execute(String sql) throws SQLException, ClassNotFoundException {
+
+        try (Connection con = dataBaseConfig.getConnection();
+             Statement statement = con.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.parkit.parkingsystem.serviceTests;
+
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.ParkingStatistics;
+import com.parkit.parkingsystem.service.ParkingCounters;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@Tag("ParkingCountersTests")
+@DisplayName("Unit tests for ParkingCounters class")
+public class ParkingCountersTests {
+
+    private static final long NOW = 1_600_000_000L;
+
+    private ParkingCounters parkingCounters;
+
+    @BeforeEach
+    public void setUpPerTest() {
+
+        parkingCounters = new ParkingCounters();
+    }
+
+    @Test
+    public void get_Statistics_Should_CountEveryRecord_When_GatesRecordConcurrently() throws Exception {
+
+        //arrange
+        List<ParkingSpot> parkingSpots = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            parkingSpots.add(new ParkingSpot(i, ParkingType.CAR, true));
+        }
+        parkingCounters.load(parkingSpots);
+        int gates = 8;
+        int visits = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(gates);
+        CountDownLatch start = new CountDownLatch(1);
+
+        //act
+        try {
+            for (int gate = 0; gate < gates; gate++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = 0; i < visits; i++) {
+                        parkingCounters.recordEntry(ParkingType.CAR, NOW);
+                        parkingCounters.recordExit(ParkingType.CAR, 0.5, NOW);
+                    }
+                    parkingCounters.recordEntry(ParkingType.CAR, NOW);
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            Assertions.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        ParkingStatistics statistics = parkingCounters.getStatistics(NOW);
+
+        //assert
+        Assertions.assertEquals(gates, statistics.getOccupiedSpots(ParkingType.CAR));
+        Assertions.assertEquals(1000 - gates, statistics.getFreeSpots(ParkingType.CAR));
+        Assertions.assertEquals((long) gates * (visits + 1), statistics.getEntries(ParkingType.CAR));
+        Assertions.assertEquals((long) gates * visits, statistics.getExits(ParkingType.CAR));
+        Assertions.assertEquals(gates * visits * 0.5, statistics.getRevenue(ParkingType.CAR));
+    }
+
+    @Test
+    public void load_Should_ResetOccupancyToParkingSpots_When_CalledAgain() {
+
+        //arrange
+        List<ParkingSpot> parkingSpots = Arrays.asList(new ParkingSpot(1, ParkingType.CAR, true),
+                new ParkingSpot(4, ParkingType.BIKE, false));
+        parkingCounters.recordEntry(ParkingType.BIKE, NOW);
+
+        //act
+        parkingCounters.load(parkingSpots);
+        ParkingStatistics statistics = parkingCounters.getStatistics(NOW);
+
+        //assert
+        Assertions.assertTrue(parkingCounters.isLoaded());
+        Assertions.assertEquals(1, statistics.getOccupiedSpots(ParkingType.BIKE));
+        Assertions.assertEquals(0, statistics.getFreeSpots(ParkingType.BIKE));
+        Assertions.assertEquals(1, statistics.getFreeSpots(ParkingType.CAR));
+        Assertions.assertEquals(1, statistics.getEntries(ParkingType.BIKE));
+    }
+}
@@ -4,6 +4,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
+import com.parkit.parkingsystem.config.contracts.TransactionManager;
 import com.parkit.parkingsystem.constants.DiscountType;
 import com.parkit.parkingsystem.exception.UnsuccessfulOperationException;
 import com.parkit.parkingsystem.service.ParkingServiceImpl;
@@ -17,15 +18,24 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.dao.InMemoryRecurringUsers;
 import com.parkit.parkingsystem.dao.contracts.ParkingSpotDAO;
+import com.parkit.parkingsystem.dao.contracts.RecurringUsers;
 import com.parkit.parkingsystem.dao.contracts.TicketDAO;
 import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.ParkingStatistics;
 import com.parkit.parkingsystem.model.Ticket;
 import com.parkit.parkingsystem.util.contracts.InputReaderUtil;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 
 @Tag("ParkingServiceTests")
 @DisplayName("Unit tests for ParkingServiceImpl class")
@@ -52,11 +62,14 @@ public class ParkingServiceTests {
     @Mock
     FareCalculatorService fareCalculatorService;
 
+    @Mock
+    private TransactionManager transactionManager;
+
     @Mock
     private ArrayList<DiscountType> discounts;
 
     @Mock
-    private HashSet<String> recurringUsers;
+    private RecurringUsers recurringUsers;
 
     private ParkingSpot parkingSpot;
     private Ticket ticket;
@@ -76,6 +89,8 @@ public class ParkingServiceTests {
             ticket.setVehicleRegNumber("ABCDEF");
             ticket.setPrice(0);
             ticket.setId(1);
+            lenient().when(transactionManager.inTransaction(any()))
+                    .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -94,7 +109,7 @@ public class ParkingServiceTests {
             //arrange
             doReturn(parkingSpot).when(parkingService).getNextParkingNumberIfAvailable();
             when(inputReaderUtil.readVehicleRegistrationNumber()).thenReturn("ABCDEF");
-            when(parkingSpotDAO.updateParking(parkingSpot)).thenReturn(true);
+            when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR)).thenReturn(1);
             when(ticketDAO.saveTicket(any(Ticket.class))).thenReturn(true);
             when(timeUtil.getTimeInSeconds()).thenReturn(inTime);
 
@@ -104,13 +119,34 @@ public class ParkingServiceTests {
             //assert
             verify(parkingService, times(1)).getNextParkingNumberIfAvailable();
             verify(parkingService, times(1)).processIncomingVehicle();
-            verify(parkingSpotDAO, times(1)).updateParking(parkingSpot);
+            verify(parkingSpotDAO, times(1)).claimNextAvailableSlot(ParkingType.CAR);
             verify(ticketDAO, times(1)).saveTicket(any(Ticket.class));
             verify(inputReaderUtil, times(1)).readVehicleRegistrationNumber();
-            verifyNoMoreInteractions(parkingService, ticketDAO, parkingSpotDAO, inputReaderUtil);
+            verify(transactionManager, times(1)).inTransaction(any());
+            verifyNoMoreInteractions(parkingService, ticketDAO, parkingSpotDAO, inputReaderUtil, transactionManager);
 
         }
 
+        @Test
+        public void process_IncomingVehicle_Should_NotSaveTicket_When_ConcurrentGateClaimedLastSpot() {
+
+            //arrange
+            doReturn(parkingSpot).when(parkingService).getNextParkingNumberIfAvailable();
+            when(inputReaderUtil.readVehicleRegistrationNumber()).thenReturn("ABCDEF");
+            when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR)).thenReturn(-1);
+
+            //act
+            parkingService.processIncomingVehicle();
+
+            //assert
+            verify(parkingService, times(1)).getNextParkingNumberIfAvailable();
+            verify(parkingService, times(1)).processIncomingVehicle();
+            verify(parkingSpotDAO, times(1)).claimNextAvailableSlot(ParkingType.CAR);
+            verify(inputReaderUtil, times(1)).readVehicleRegistrationNumber();
+            verify(transactionManager, times(1)).inTransaction(any());
+            verifyNoMoreInteractions(parkingService, ticketDAO, parkingSpotDAO, inputReaderUtil, transactionManager);
+        }
+
         @Test
         public void process_IncomingVehicle_Should_DoNothingAfter_When_ParkingSpotIsNull() {
 
@@ -131,7 +167,6 @@ public class ParkingServiceTests {
 
             //arrange
             doReturn(parkingSpot).when(parkingService).getNextParkingNumberIfAvailable();
-            when(parkingSpotDAO.updateParking(parkingSpot)).thenReturn(true);
             when(inputReaderUtil.readVehicleRegistrationNumber()).thenThrow(RuntimeException.class);
 
             //act
@@ -141,16 +176,16 @@ public class ParkingServiceTests {
             verify(parkingService, times(1)).getNextParkingNumberIfAvailable();
             verify(parkingService, times(1)).processIncomingVehicle();
             verify(inputReaderUtil, times(1)).readVehicleRegistrationNumber();
-            verify(parkingSpotDAO,times(1)).updateParking(parkingSpot);
-            verifyNoMoreInteractions(parkingService, ticketDAO, parkingSpotDAO, inputReaderUtil);
+            verifyNoMoreInteractions(parkingService, ticketDAO, parkingSpotDAO, inputReaderUtil, transactionManager);
         }
 
         @Test
-        public void process_IncomingVehicle_Should_DoNothingAfter_When_UpdateParkingThrowException() {
+        public void process_IncomingVehicle_Should_DoNothingAfter_When_ClaimParkingSpotThrowsException() {
 
             //arrange
             doReturn(parkingSpot).when(parkingService).getNextParkingNumberIfAvailable();
-            when(parkingSpotDAO.updateParking(parkingSpot)).thenThrow(IllegalArgumentException.class);
+            when(inputReaderUtil.readVehicleRegistrationNumber()).thenReturn("ABCDEF");
+            when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR)).thenThrow(IllegalArgumentException.class);
 
             //act
             parkingService.processIncomingVehicle();
@@ -158,8 +193,10 @@ public class ParkingServiceTests {
             //assert
             verify(parkingService, times(1)).getNextParkingNumberIfAvailable();
             verify(parkingService, times(1)).processIncomingVehicle();
-            verify(parkingSpotDAO, times(1)).updateParking(parkingSpot);
-            verifyNoMoreInteractions(parkingService, ticketDAO, parkingSpotDAO, inputReaderUtil);
+            verify(inputReaderUtil, times(1)).readVehicleRegistrationNumber();
+            verify(parkingSpotDAO, times(1)).claimNextAvailableSlot(ParkingType.CAR);
+            verify(transactionManager, times(1)).inTransaction(any());
+            verifyNoMoreInteractions(parkingService, ticketDAO, parkingSpotDAO, inputReaderUtil, transactionManager);
 
         }
 
@@ -169,7 +206,7 @@ public class ParkingServiceTests {
             //arrange
             doReturn(parkingSpot).when(parkingService).getNextParkingNumberIfAvailable();
             when(inputReaderUtil.readVehicleRegistrationNumber()).thenReturn("ABCDEF");
-            when(parkingSpotDAO.updateParking(parkingSpot)).thenReturn(true);
+            when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR)).thenReturn(1);
             when(timeUtil.getTimeInSeconds()).thenReturn(inTime);
             when(ticketDAO.saveTicket(any(Ticket.class))).thenThrow(IllegalArgumentException.class);
 
@@ -179,7 +216,7 @@ public class ParkingServiceTests {
             //arrange
             verify(parkingService, times(1)).getNextParkingNumberIfAvailable();
             verify(parkingService, times(1)).processIncomingVehicle();
-            verify(parkingSpotDAO, times(1)).updateParking(parkingSpot);
+            verify(parkingSpotDAO, times(1)).claimNextAvailableSlot(ParkingType.CAR);
             verify(ticketDAO, times(1)).saveTicket(any(Ticket.class));
             verify(inputReaderUtil, times(1)).readVehicleRegistrationNumber();
             verifyNoMoreInteractions(parkingService, ticketDAO, parkingSpotDAO, inputReaderUtil);
@@ -260,8 +297,10 @@ public class ParkingServiceTests {
             verify(ticketDAO, times(1)).getTicket(any(String.class));
             verify(ticketDAO, times(1)).updateTicket(any(Ticket.class));
             verify(parkingSpotDAO, times(1)).updateParking(parkingSpot);
-            verify(fareCalculatorService, times(1)).calculateFare(any(Ticket.class), anyList(), anySet());
-            verifyNoMoreInteractions(ticketDAO, parkingSpotDAO, inputReaderUtil, fareCalculatorService);
+            verify(fareCalculatorService, times(1)).calculateFare(any(Ticket.class), anyList(), any(RecurringUsers.class));
+            verify(transactionManager, times(1)).inTransaction(any());
+            verifyNoMoreInteractions(ticketDAO, parkingSpotDAO, inputReaderUtil, fareCalculatorService,
+                    transactionManager);
         }
 
         @Test
@@ -381,4 +420,285 @@ public class ParkingServiceTests {
             verifyNoMoreInteractions(ticketDAO, parkingSpotDAO, inputReaderUtil, fareCalculatorService);
         }
     }
+
+    @Nested
+    @Tag("EnterTests")
+    @DisplayName("Tests for methods enter and enterAsync in ParkingServiceImpl class")
+    public class EnterTests {
+
+        @Test
+        public void enter_Should_ReturnSavedTicket_When_SpotIsAvailable() {
+
+            //arrange
+            when(timeUtil.getTimeInSeconds()).thenReturn(inTime);
+            when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.BIKE)).thenReturn(4);
+            when(ticketDAO.saveTicket(any(Ticket.class))).thenReturn(true);
+
+            //act
+            Ticket result = parkingService.enter(ParkingType.BIKE, "ABCDEF");
+
+            //assert
+            Assertions.assertEquals("ABCDEF", result.getVehicleRegNumber());
+            Assertions.assertEquals(inTime, result.getInTime());
+            Assertions.assertEquals(new ParkingSpot(4, ParkingType.BIKE, false), result.getParkingSpot());
+            verify(ticketDAO, times(1)).saveTicket(result);
+            verify(transactionManager, times(1)).inTransaction(any());
+            verifyNoInteractions(inputReaderUtil);
+        }
+
+        @Test
+        public void enter_Should_ReturnNotFound_When_NoSpotIsAvailable() {
+
+            //arrange
+            when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR)).thenReturn(0);
+
+            //act & assert
+            Assertions.assertSame(Ticket.NOT_FOUND, parkingService.enter(ParkingType.CAR, "ABCDEF"));
+            verify(ticketDAO, never()).saveTicket(any(Ticket.class));
+        }
+
+        @Test
+        public void enter_Should_ThrowIllegalArgumentException_When_VehicleRegNumberIsBlank() {
+
+            //act & assert
+            Assertions.assertThrows(IllegalArgumentException.class, () -> parkingService.enter(ParkingType.CAR, " "));
+            verifyNoInteractions(parkingSpotDAO, ticketDAO, transactionManager);
+        }
+
+        @Test
+        public void enter_Async_Should_CompleteExceptionally_When_SaveTicketThrowsException() {
+
+            //arrange
+            when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR)).thenReturn(1);
+            when(ticketDAO.saveTicket(any(Ticket.class))).thenThrow(UnsuccessfulOperationException.class);
+
+            //act
+            CompletableFuture<Ticket> result = parkingService.enterAsync(ParkingType.CAR, "ABCDEF", Runnable::run)
+                    .toCompletableFuture();
+
+            //assert
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class, result::get);
+            Assertions.assertTrue(e.getCause() instanceof UnsuccessfulOperationException);
+        }
+    }
+
+    @Nested
+    @Tag("ExitTests")
+    @DisplayName("Tests for methods exit and exitAsync in ParkingServiceImpl class")
+    public class ExitTests {
+
+        @Test
+        public void exit_Should_ReturnPricedTicket_When_VehicleHasTicket() {
+
+            //arrange
+            when(ticketDAO.getTicket("ABCDEF")).thenReturn(ticket);
+            when(timeUtil.getTimeInSeconds()).thenReturn(inTime + 60 * 60);
+            when(fareCalculatorService.getDiscounts()).thenReturn(discounts);
+            when(fareCalculatorService.getRecurringUsers()).thenReturn(recurringUsers);
+            doAnswer(invocation -> {
+                invocation.<Ticket>getArgument(0).setPrice(1.5);
+                return null;
+            }).when(fareCalculatorService).calculateFare(ticket, discounts, recurringUsers);
+
+            //act
+            Ticket result = parkingService.exit("ABCDEF");
+
+            //assert
+            Assertions.assertSame(ticket, result);
+            Assertions.assertEquals(1.5, result.getPrice());
+            Assertions.assertEquals(inTime + 60 * 60, result.getOutTime());
+            Assertions.assertTrue(result.getParkingSpot().isAvailable());
+            verify(ticketDAO, times(1)).updateTicket(ticket);
+            verify(parkingSpotDAO, times(1)).updateParking(parkingSpot);
+            verifyNoInteractions(inputReaderUtil);
+        }
+
+        @Test
+        public void exit_Async_Should_CompleteWithNotFound_When_VehicleHasNoTicket() throws Exception {
+
+            //arrange
+            when(ticketDAO.getTicket("ABCDEF")).thenReturn(Ticket.NOT_FOUND);
+
+            //act
+            Ticket result = parkingService.exitAsync("ABCDEF", Runnable::run).toCompletableFuture().get();
+
+            //assert
+            Assertions.assertSame(Ticket.NOT_FOUND, result);
+            verify(ticketDAO, never()).updateTicket(any(Ticket.class));
+            verifyNoInteractions(parkingSpotDAO);
+        }
+    }
+
+    @Nested
+    @Tag("QuoteTests")
+    @DisplayName("Tests for method quote in ParkingServiceImpl class")
+    public class QuoteTests {
+
+        @Test
+        public void quote_Should_PriceCopyWithoutUpdating_When_VehicleHasTicket() {
+
+            //arrange
+            HashSet<String> users = new HashSet<>();
+            when(ticketDAO.getTicket("ABCDEF")).thenReturn(ticket);
+            when(timeUtil.getTimeInSeconds()).thenReturn(inTime + 60 * 60);
+            when(fareCalculatorService.getDiscounts()).thenReturn(discounts);
+            when(fareCalculatorService.getRecurringUsers()).thenReturn(new InMemoryRecurringUsers(users));
+            doAnswer(invocation -> {
+                invocation.<Ticket>getArgument(0).setPrice(1.5);
+                invocation.<RecurringUsers>getArgument(2).add("ABCDEF");
+                return null;
+            }).when(fareCalculatorService).calculateFare(any(Ticket.class), eq(discounts), any());
+
+            //act
+            Ticket result = parkingService.quote("ABCDEF");
+
+            //assert
+            Assertions.assertNotSame(ticket, result);
+            Assertions.assertEquals(1.5, result.getPrice());
+            Assertions.assertEquals(inTime + 60 * 60, result.getOutTime());
+            Assertions.assertEquals(-1L, ticket.getOutTime());
+            Assertions.assertFalse(users.contains("ABCDEF"));
+            verify(ticketDAO, never()).updateTicket(any(Ticket.class));
+            verifyNoInteractions(parkingSpotDAO, transactionManager, inputReaderUtil);
+        }
+
+        @Test
+        public void quote_Should_ReturnNotFound_When_VehicleHasNoTicket() {
+
+            //arrange
+            when(ticketDAO.getTicket("ABCDEF")).thenReturn(Ticket.NOT_FOUND);
+
+            //act
+            Ticket result = parkingService.quote("ABCDEF");
+
+            //assert
+            Assertions.assertSame(Ticket.NOT_FOUND, result);
+            verifyNoInteractions(fareCalculatorService, parkingSpotDAO);
+        }
+
+        @Test
+        public void quote_Async_Should_PriceWithRecurringUserLookedUpApart_When_VehicleIsRecurring() throws Exception {
+
+            //arrange
+            HashSet<String> users = new HashSet<>();
+            users.add("ABCDEF");
+            when(ticketDAO.getTicket("ABCDEF")).thenReturn(ticket);
+            when(timeUtil.getTimeInSeconds()).thenReturn(inTime + 60 * 60);
+            when(fareCalculatorService.getDiscounts()).thenReturn(discounts);
+            when(fareCalculatorService.getRecurringUsers()).thenReturn(new InMemoryRecurringUsers(users));
+            doAnswer(invocation -> {
+                RecurringUsers recurring = invocation.getArgument(2);
+                invocation.<Ticket>getArgument(0).setPrice(recurring.contains("ABCDEF") ? 1.0 : 2.0);
+                recurring.add("GHIJKL");
+                return null;
+            }).when(fareCalculatorService).calculateFare(any(Ticket.class), eq(discounts), any());
+
+            //act
+            Ticket result = parkingService.quoteAsync("ABCDEF", Runnable::run).toCompletableFuture().get();
+
+            //assert
+            Assertions.assertEquals(1.0, result.getPrice());
+            Assertions.assertEquals(inTime + 60 * 60, result.getOutTime());
+            Assertions.assertEquals(1, users.size());
+            verifyNoInteractions(parkingSpotDAO, transactionManager);
+        }
+
+        @Test
+        public void quote_Should_ThrowIllegalArgumentException_When_RegistrationNumberIsBlank() {
+
+            //act & assert
+            Assertions.assertThrows(IllegalArgumentException.class, () -> parkingService.quote(" "));
+            verifyNoInteractions(ticketDAO);
+        }
+    }
+
+    @Nested
+    @Tag("StatisticsTests")
+    @DisplayName("Tests for methods getStatistics and processStatistics in ParkingServiceImpl class")
+    public class StatisticsTests {
+
+        private static final long NOW = 1_600_000_000L;
+
+        @BeforeEach
+        public void setUpPerTest() {
+
+            lenient().when(parkingSpotDAO.getParkingSpots()).thenReturn(Arrays.asList(
+                    new ParkingSpot(1, ParkingType.CAR, false), new ParkingSpot(2, ParkingType.CAR, true),
+                    new ParkingSpot(3, ParkingType.CAR, true), new ParkingSpot(4, ParkingType.BIKE, true),
+                    new ParkingSpot(5, ParkingType.BIKE, true)));
+        }
+
+        @Test
+        public void get_Statistics_Should_CountEntriesAndExits_When_VehiclesEnterAndExit() {
+
+            //arrange
+            when(timeUtil.getTimeInSeconds()).thenReturn(NOW);
+            when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR)).thenReturn(2);
+            when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.BIKE)).thenReturn(4, -1);
+            when(ticketDAO.getTicket("ABCDEF")).thenReturn(ticket);
+            when(fareCalculatorService.getDiscounts()).thenReturn(discounts);
+            when(fareCalculatorService.getRecurringUsers()).thenReturn(recurringUsers);
+            doAnswer(invocation -> {
+                invocation.<Ticket>getArgument(0).setPrice(1.5);
+                return null;
+            }).when(fareCalculatorService).calculateFare(ticket, discounts, recurringUsers);
+            parkingService.loadStatistics();
+
+            //act
+            parkingService.enter(ParkingType.CAR, "GHIJKL");
+            parkingService.enter(ParkingType.BIKE, "MNOPQR");
+            parkingService.enter(ParkingType.BIKE, "STUVWX");
+            parkingService.exit("ABCDEF");
+            ParkingStatistics statistics = parkingService.getStatistics();
+
+            //assert
+            Assertions.assertEquals(LocalDate.of(2020, 9, 13), statistics.getDay());
+            Assertions.assertEquals(1, statistics.getOccupiedSpots(ParkingType.CAR));
+            Assertions.assertEquals(2, statistics.getFreeSpots(ParkingType.CAR));
+            Assertions.assertEquals(1, statistics.getOccupiedSpots(ParkingType.BIKE));
+            Assertions.assertEquals(1, statistics.getFreeSpots(ParkingType.BIKE));
+            Assertions.assertEquals(2, statistics.getVehiclesInside());
+            Assertions.assertEquals(2, statistics.getEntries());
+            Assertions.assertEquals(1, statistics.getExits(ParkingType.CAR));
+            Assertions.assertEquals(1.5, statistics.getRevenue());
+            verify(parkingSpotDAO, times(1)).getParkingSpots();
+        }
+
+        @Test
+        public void get_Statistics_Should_ResetDailyCounters_When_DayChanges() {
+
+            //arrange
+            when(timeUtil.getTimeInSeconds()).thenReturn(NOW, NOW + 24 * 60 * 60);
+            when(parkingSpotDAO.claimNextAvailableSlot(ParkingType.CAR)).thenReturn(2);
+            parkingService.loadStatistics();
+            parkingService.enter(ParkingType.CAR, "GHIJKL");
+
+            //act
+            ParkingStatistics statistics = parkingService.getStatistics();
+
+            //assert
+            Assertions.assertEquals(LocalDate.of(2020, 9, 14), statistics.getDay());
+            Assertions.assertEquals(0, statistics.getEntries());
+            Assertions.assertEquals(2, statistics.getOccupiedSpots(ParkingType.CAR));
+        }
+
+        @Test
+        public void load_Statistics_Should_ThrowUnsuccessfulOperationException_When_ParkingSpotsCanNotBeRead() {
+
+            //arrange
+            when(parkingSpotDAO.getParkingSpots()).thenThrow(UnsuccessfulOperationException.class);
+
+            //act & assert
+            Assertions.assertThrows(UnsuccessfulOperationException.class, () -> parkingService.loadStatistics());
+            Assertions.assertThrows(IllegalStateException.class, () -> parkingService.getStatistics());
+        }
+
+        @Test
+        public void process_Statistics_Should_NotThrowException_When_StatisticsAreNotLoaded() {
+
+            //act & assert
+            Assertions.assertDoesNotThrow(() -> parkingService.processStatistics());
+            verifyNoInteractions(ticketDAO, parkingSpotDAO, transactionManager);
+        }
+    }
 }
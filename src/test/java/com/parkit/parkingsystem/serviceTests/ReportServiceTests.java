@@ -0,0 +1,170 @@
+package com.parkit.parkingsystem.serviceTests;
+
+import com.parkit.parkingsystem.config.EmbeddedDataBaseConfigImpl;
+import com.parkit.parkingsystem.constants.ParkingType;
+import com.parkit.parkingsystem.constants.ReportFormat;
+import com.parkit.parkingsystem.constants.ReportPeriod;
+import com.parkit.parkingsystem.dao.TicketDAOImpl;
+import com.parkit.parkingsystem.model.ParkingSpot;
+import com.parkit.parkingsystem.model.Ticket;
+import com.parkit.parkingsystem.service.MigrationServiceImpl;
+import com.parkit.parkingsystem.service.ReportServiceImpl;
+import com.parkit.parkingsystem.service.RevenueReport;
+import com.parkit.parkingsystem.service.RevenueReportRow;
+import org.junit.jupiter.api.*;
+
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+@Tag("ReportServiceTests")
+@DisplayName("Unit tests for ReportServiceImpl class")
+public class ReportServiceTests {
+
+    private static final long SEPTEMBER_13 = 1_600_000_000L;
+    private static final long SEPTEMBER_14 = SEPTEMBER_13 + 24 * 60 * 60;
+    private static final long OCTOBER_6 = 1_602_000_000L;
+
+    private static int databaseCount;
+
+    private EmbeddedDataBaseConfigImpl dataBaseConfig;
+    private ReportServiceImpl reportService;
+
+    @BeforeEach
+    public void setUpPerTest() throws Exception {
+
+        databaseCount++;
+        dataBaseConfig = new EmbeddedDataBaseConfigImpl("report" + databaseCount, "prod");
+        new MigrationServiceImpl(dataBaseConfig).migrate();
+        reportService = new ReportServiceImpl.Builder(dataBaseConfig)
+                .withFetchSize(1)
+                .withParallelism(3)
+                .build();
+
+        TicketDAOImpl ticketDAO = new TicketDAOImpl(dataBaseConfig);
+        ticketDAO.saveTicket(ticket(1, ParkingType.CAR, SEPTEMBER_13, SEPTEMBER_13 + 3600, 1.5));
+        Ticket exited = ticket(2, ParkingType.CAR, SEPTEMBER_13, -1L, 0);
+        ticketDAO.saveTicket(exited);
+        exited.setOutTime(SEPTEMBER_13 + 7200);
+        exited.setPrice(3.0);
+        ticketDAO.updateTicket(exited);
+        ticketDAO.saveTicket(ticket(4, ParkingType.BIKE, SEPTEMBER_14, SEPTEMBER_14 + 1800, 0.5));
+        ticketDAO.saveTicket(ticket(3, ParkingType.CAR, OCTOBER_6, OCTOBER_6 + 3600, 1.5));
+        ticketDAO.saveTicket(ticket(5, ParkingType.BIKE, OCTOBER_6, -1L, 0));
+        insertLegacyTicket(SEPTEMBER_13 + 10_000, SEPTEMBER_13 + 5_000);
+    }
+
+    @Test
+    public void get_Revenue_Report_Should_SumTicketsPerDayAndType_When_PeriodIsDay() {
+
+        //act
+        RevenueReport report = reportService.getRevenueReport(LocalDate.of(2020, 9, 13), LocalDate.of(2020, 9, 15),
+                ReportPeriod.DAY);
+
+        //assert
+        Assertions.assertEquals(4, report.getRows().size());
+        Assertions.assertEquals(4, report.getTicketsRead());
+        Assertions.assertEquals(1, report.getTicketsSkipped());
+
+        RevenueReportRow cars = report.getRows().get(0);
+        Assertions.assertEquals(LocalDate.of(2020, 9, 13), cars.getPeriodStart());
+        Assertions.assertEquals(ParkingType.CAR, cars.getParkingType());
+        Assertions.assertEquals(2, cars.getTickets());
+        Assertions.assertEquals(4.5, cars.getRevenue());
+        Assertions.assertEquals(10_800, cars.getDwellSeconds());
+        Assertions.assertEquals(7200, cars.getMaxDwellSeconds());
+        Assertions.assertEquals(5400, cars.getAverageDwellSeconds());
+        Assertions.assertEquals(10_800.0 / (3 * 86_400), cars.getUtilization(), 1e-9);
+
+        Assertions.assertEquals(0, report.getRows().get(1).getTickets());
+
+        RevenueReportRow bikes = report.getRows().get(3);
+        Assertions.assertEquals(LocalDate.of(2020, 9, 14), bikes.getPeriodStart());
+        Assertions.assertEquals(ParkingType.BIKE, bikes.getParkingType());
+        Assertions.assertEquals(1, bikes.getTickets());
+        Assertions.assertEquals(1800.0 / (2 * 86_400), bikes.getUtilization(), 1e-9);
+    }
+
+    @Test
+    public void get_Revenue_Report_Should_RollUpDaysFromFirstDay_When_PeriodIsMonth() {
+
+        //act
+        RevenueReport report = reportService.getRevenueReport(LocalDate.of(2020, 9, 13), LocalDate.of(2020, 11, 1),
+                ReportPeriod.MONTH);
+
+        //assert
+        Assertions.assertEquals(4, report.getRows().size());
+        Assertions.assertEquals(LocalDate.of(2020, 9, 13), report.getRows().get(0).getPeriodStart());
+        Assertions.assertEquals(2, report.getRows().get(0).getTickets());
+        Assertions.assertEquals(1, report.getRows().get(1).getTickets());
+
+        RevenueReportRow october = report.getRows().get(2);
+        Assertions.assertEquals(LocalDate.of(2020, 10, 1), october.getPeriodStart());
+        Assertions.assertEquals(1, october.getTickets());
+        Assertions.assertEquals(3600.0 / (3 * 31 * 86_400), october.getUtilization(), 1e-9);
+        Assertions.assertEquals(0, report.getRows().get(3).getTickets());
+    }
+
+    @Test
+    public void write_Should_WriteOneLinePerRow_When_FormatIsCsvOrJson() throws Exception {
+
+        //arrange
+        RevenueReport report = reportService.getRevenueReport(LocalDate.of(2020, 10, 1), LocalDate.of(2020, 11, 1),
+                ReportPeriod.MONTH);
+        StringWriter csv = new StringWriter();
+        StringWriter json = new StringWriter();
+
+        //act
+        ReportFormat.CSV.write(report, csv);
+        ReportFormat.JSON.write(report, json);
+
+        //assert
+        Assertions.assertEquals("period_start,parking_type,tickets,revenue,dwell_seconds,average_dwell_seconds,"
+                + "max_dwell_seconds,utilization\n"
+                + "2020-10-01,CAR,1,1.50,3600,3600.00,3600,0.0004\n"
+                + "2020-10-01,BIKE,0,0.00,0,0.00,0,0.0000\n", csv.toString());
+        Assertions.assertEquals("{\"from\":\"2020-10-01\",\"to\":\"2020-11-01\",\"period\":\"MONTH\","
+                + "\"ticketsRead\":1,\"ticketsSkipped\":0,\"rows\":[\n"
+                + "{\"periodStart\":\"2020-10-01\",\"parkingType\":\"CAR\",\"tickets\":1,\"revenue\":1.50,"
+                + "\"dwellSeconds\":3600,\"averageDwellSeconds\":3600.00,\"maxDwellSeconds\":3600,"
+                + "\"utilization\":0.0004},\n"
+                + "{\"periodStart\":\"2020-10-01\",\"parkingType\":\"BIKE\",\"tickets\":0,\"revenue\":0.00,"
+                + "\"dwellSeconds\":0,\"averageDwellSeconds\":0.00,\"maxDwellSeconds\":0,"
+                + "\"utilization\":0.0000}\n]}\n", json.toString());
+    }
+
+    @Test
+    public void get_Revenue_Report_Should_ThrowIllegalArgumentException_When_RangeIsEmpty() {
+
+        //act & assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> reportService.getRevenueReport(
+                LocalDate.of(2020, 9, 13), LocalDate.of(2020, 9, 13), ReportPeriod.DAY));
+    }
+
+    private static Ticket ticket(int parkingNumber, ParkingType parkingType, long inTime, long outTime,
+                                 double price) {
+
+        Ticket ticket = new Ticket();
+        ticket.setParkingSpot(new ParkingSpot(parkingNumber, parkingType, false));
+        ticket.setVehicleRegNumber("PLATE" + parkingNumber);
+        ticket.setInTime(inTime);
+        ticket.setOutTime(outTime);
+        ticket.setPrice(price);
+
+        return ticket;
+    }
+
+    private void insertLegacyTicket(long inTime, long outTime) throws Exception {
+
+        try (Connection con = dataBaseConfig.getConnection();
+             PreparedStatement ps = con.prepareStatement("insert into ticket(PARKING_NUMBER, VEHICLE_REG_NUMBER,"
+                     + " PRICE, IN_TIME, OUT_TIME) values(1, 'LEGACY', 1.0, ?, ?)")) {
+
+            ps.setTimestamp(1, new Timestamp(inTime * 1000));
+            ps.setTimestamp(2, new Timestamp(outTime * 1000));
+            ps.executeUpdate();
+        }
+    }
+}
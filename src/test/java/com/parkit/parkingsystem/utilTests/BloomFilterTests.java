@@ -0,0 +1,78 @@
+package com.parkit.parkingsystem.utilTests;
+
+import com.parkit.parkingsystem.util.BloomFilter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.*;
+
+@Tag("BloomFilterTests")
+@DisplayName("Unit tests for BloomFilter class")
+public class BloomFilterTests {
+
+    private static final Logger logger = LogManager.getLogger("BloomFilterTests");
+
+    @Test
+    public void might_Contain_Should_ReturnTrue_When_ValueWasAdded() {
+
+        //arrange
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+
+        //act
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("AB" + i);
+        }
+
+        //assert
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertTrue(bloomFilter.mightContain("AB" + i));
+        }
+    }
+
+    @Test
+    public void might_Contain_Should_KeepFalsePositiveRateNearTarget_When_FilledToExpectedInsertions() {
+
+        //arrange
+        BloomFilter bloomFilter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            bloomFilter.put("AB" + i);
+        }
+
+        //act
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloomFilter.mightContain("CD" + i)) {
+                falsePositives++;
+            }
+        }
+
+        //assert
+        double observedRate = falsePositives / 100_000.0;
+        logger.info("Observed false positive rate {}, expected {}, {} bytes", observedRate,
+                bloomFilter.getExpectedFalsePositiveRate(), bloomFilter.getSizeInBytes());
+        Assertions.assertTrue(observedRate < 0.02);
+        Assertions.assertEquals(0.01, bloomFilter.getExpectedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    public void put_Should_ReturnFalse_When_ValueWasAlreadyAdded() {
+
+        //arrange
+        BloomFilter bloomFilter = new BloomFilter(1_000, 0.01);
+
+        //act & assert
+        Assertions.assertTrue(bloomFilter.put("ABCDEF"));
+        Assertions.assertFalse(bloomFilter.put("ABCDEF"));
+        Assertions.assertEquals(1, bloomFilter.getApproximateInsertions());
+    }
+
+    @Test
+    public void get_Size_In_Bytes_Should_StayUnderSixMegabytes_When_SizedForFiveMillionValues() {
+
+        //arrange
+        BloomFilter bloomFilter = new BloomFilter(5_000_000, 0.01);
+
+        //act & assert
+        Assertions.assertTrue(bloomFilter.getSizeInBytes() < 6 * 1024 * 1024);
+        Assertions.assertEquals(7, bloomFilter.getHashCount());
+    }
+}